@@ -24,7 +24,7 @@ package com.steadystate.css.parser;
 import dev.amp.validator.css.CssTokenUtil;
 import dev.amp.validator.css.TokenType;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -42,7 +42,7 @@ public class ListableTokenManager extends SACParserCSS3TokenManager {
      */
     public ListableTokenManager(final CharStream stream) {
         super(stream);
-        parsedTokens  = new LinkedList<>();
+        parsedTokens  = new ArrayList<>();
     }
 
     /**
@@ -63,17 +63,17 @@ public class ListableTokenManager extends SACParserCSS3TokenManager {
      */
     public void compressEnd() {
         StringBuilder image = new StringBuilder();
-        image.insert(0, parsedTokens.get(parsedTokens.size() - 1).image);
-        parsedTokens.pollLast();
+        image.insert(0, parsedTokens.remove(parsedTokens.size() - 1).image);
 
-        while (parsedTokens.getLast() != null) {
-            if (CssTokenUtil.getTokenType(parsedTokens.getLast()) == TokenType.WHITESPACE) {
-                image.insert(0, parsedTokens.getLast().image);
-                parsedTokens.pollLast();
-            } else if (CssTokenUtil.getTokenType(parsedTokens.getLast()) == TokenType.IDENT) {
-                image.insert(0, parsedTokens.getLast().image);
-                parsedTokens.getLast().image = image.toString();
-                parsedTokens.getLast().kind = SACParserCSS3Constants.FUNCTION;
+        while (parsedTokens.get(parsedTokens.size() - 1) != null) {
+            final Token last = parsedTokens.get(parsedTokens.size() - 1);
+            if (CssTokenUtil.getTokenType(last) == TokenType.WHITESPACE) {
+                image.insert(0, last.image);
+                parsedTokens.remove(parsedTokens.size() - 1);
+            } else if (CssTokenUtil.getTokenType(last) == TokenType.IDENT) {
+                image.insert(0, last.image);
+                last.image = image.toString();
+                last.kind = SACParserCSS3Constants.FUNCTION;
                 break;
             }
         }
@@ -95,6 +95,6 @@ public class ListableTokenManager extends SACParserCSS3TokenManager {
         return parsedTokens;
     }
 
-    /** The parsed tokens. */
-    private LinkedList<Token> parsedTokens;
+    /** The parsed tokens, in an array list as TokenStream reads them by index. */
+    private ArrayList<Token> parsedTokens;
 }
@@ -24,6 +24,7 @@ package dev.amp.validator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.amp.validator.css.CssValidationException;
+import dev.amp.validator.exception.ErrorLimitReachedException;
 import dev.amp.validator.exception.ExitOnFirstErrorException;
 import dev.amp.validator.exception.MaxParseNodesException;
 import dev.amp.validator.exception.TagValidationException;
@@ -60,12 +61,31 @@ public class AMPHtmlHandler extends DefaultHandler {
     public AMPHtmlHandler(@Nonnull final AMPValidatorManager validatorManager,
                           @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat, @Nonnull final ExitCondition condition,
                           final int maxNodesAllowed, final int docByteSize) {
+        this(validatorManager, htmlFormat, condition, maxNodesAllowed, 0, docByteSize);
+    }
+
+    /**
+     * Creates an AMPHtmlHandler.
+     *
+     * @param validatorManager the validator manager instance.
+     * @param htmlFormat       HtmlFormat code.
+     * @param condition        exit condition.
+     * @param maxNodesAllowed  max nodes allowed.
+     * @param maxErrors        bound of the exit condition on the errors kept, see ExitCondition.
+     * @param docByteSize length of html document.
+     */
+    public AMPHtmlHandler(@Nonnull final AMPValidatorManager validatorManager,
+                          @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat, @Nonnull final ExitCondition condition,
+                          final int maxNodesAllowed, final int maxErrors, final int docByteSize) {
         this.validatorManager = validatorManager;
         this.exitCondition = condition;
         this.maxNodesAllowed = maxNodesAllowed;
         this.htmlFormat = htmlFormat;
         this.validationResult = ValidatorProtos.ValidationResult.newBuilder();
+        this.resultAccumulator = new ValidationResultAccumulator(this.validationResult);
+        this.resultAccumulator.setErrorLimit(condition, maxErrors);
         context = new Context(new ParsedValidatorRules(htmlFormat, validatorManager), docByteSize);
+        context.setDocumentResult(this.resultAccumulator);
     }
 
     /**
@@ -87,6 +107,7 @@ public class AMPHtmlHandler extends DefaultHandler {
     public void endDocument() throws SAXException {
         try {
             context.getRules().maybeEmitGlobalTagValidationErrors(context, validationResult);
+            resultAccumulator.flush();
             setValidationResultStatus();
         } catch (TagValidationException tve) {
             /** ignore */
@@ -118,7 +139,7 @@ public class AMPHtmlHandler extends DefaultHandler {
 
         this.totalNodes++;
 
-        this.encounteredTag = new ParsedHtmlTag(localName, attributes);
+        this.encounteredTag = this.obtainTag(localName, attributes);
         if (encounteredTag.upperName().equals("HTML")) {
             this.context.getRules().validateHtmlTag(
                     encounteredTag, this.context, this.validationResult);
@@ -158,7 +179,7 @@ public class AMPHtmlHandler extends DefaultHandler {
                     TagSpecUtils.validateTag(context, encounteredTag, resultForReferencePoint.getBestMatchTagSpec());
             if (referencePointMatcher != null
                     && (resultForTag.getValidationResult().getStatus() == ValidatorProtos.ValidationResult.Status.PASS)) {
-                this.validationResult.mergeFrom(resultForReferencePoint.getValidationResult().build());
+                this.resultAccumulator.append(resultForReferencePoint.getValidationResult());
             }
 
             checkForReferencePointCollision(
@@ -166,7 +187,7 @@ public class AMPHtmlHandler extends DefaultHandler {
                     resultForTag.getBestMatchTagSpec(),
                     resultForTag.getValidationResult());
 
-            this.validationResult.mergeFrom(resultForTag.getValidationResult().build());
+            this.resultAccumulator.append(resultForTag.getValidationResult());
 
             this.context.updateFromTagResults(encounteredTag, resultForReferencePoint, resultForTag);
 
@@ -174,11 +195,33 @@ public class AMPHtmlHandler extends DefaultHandler {
                     && exitCondition == ExitCondition.EXIT_ON_FIRST_ERROR) {
                 throw new ExitOnFirstErrorException();
             }
+            if (this.context.isErrorLimitReached()) {
+                throw new ErrorLimitReachedException();
+            }
         } catch (TagValidationException | ValidatorException | IOException | CssValidationException ex) {
             /** ignore */
         }
     }
 
+    /**
+     * Returns a tag for the element being started. The tag of the previous
+     * element is no longer referenced by then and is reset rather than
+     * allocating a new one.
+     *
+     * @param localName  the local name of the element.
+     * @param attributes the attributes attached to the element.
+     * @return the tag.
+     */
+    private ParsedHtmlTag obtainTag(@Nonnull final String localName, @Nonnull final Attributes attributes) {
+        ParsedHtmlTag tag = (this.encounteredTag != null) ? this.encounteredTag : this.recycledTag;
+        if (tag == null) {
+            return new ParsedHtmlTag(localName, attributes);
+        }
+        this.recycledTag = null;
+        tag.reset(localName, attributes);
+        return tag;
+    }
+
     /**
      * Processing the end of an element.
      *
@@ -189,9 +232,10 @@ public class AMPHtmlHandler extends DefaultHandler {
      *        empty string if Namespace processing is not being performed.
      * @param qName The qualified name (with prefix), or the
      *        empty string if qualified names are not available.
+     * @exception SAXException Any SAX exception
      */
     @Override
-    public void endElement(final String uri, final String localName, final String qName) {
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
         if (encounteredTag != null) {
             try {
                 if (charactersBuilder != null) {
@@ -203,6 +247,10 @@ public class AMPHtmlHandler extends DefaultHandler {
                 /** ignore */
             }
             encounteredTag.cleanup();
+            this.recycledTag = encounteredTag;
+            if (this.context.isErrorLimitReached()) {
+                throw new ErrorLimitReachedException();
+            }
         }
         try {
             this.context.getTagStack().exitTag(this.context, this.validationResult);
@@ -225,14 +273,35 @@ public class AMPHtmlHandler extends DefaultHandler {
     }
 
     /**
-     * Returns the validation result.
+     * Returns the validation result, including everything accumulated so far.
      *
      * @return returns the validation result.
      */
     public ValidatorProtos.ValidationResult.Builder validationResult() {
+        resultAccumulator.flush();
         return validationResult;
     }
 
+    /**
+     * Sets whether errors of the document are aggregated, see
+     * ValidationResultAccumulator#setAggregateErrors. Call before parsing.
+     *
+     * @param aggregateErrors true to aggregate errors.
+     */
+    public void setAggregateErrors(final boolean aggregateErrors) {
+        resultAccumulator.setAggregateErrors(aggregateErrors);
+    }
+
+    /**
+     * Returns the records of the distinct errors of the document with their
+     * number of occurrences, empty unless errors are aggregated.
+     *
+     * @return returns the records of the distinct errors.
+     */
+    public List<ValidationErrorRecord> getAggregatedErrors() {
+        return resultAccumulator.getAggregatedErrors();
+    }
+
     /**
      * While parsing the document HEAD, we may accumulate errors which depend
      * on seeing later extension script tags.
@@ -367,6 +436,12 @@ public class AMPHtmlHandler extends DefaultHandler {
     @Nonnull
     private ValidatorProtos.ValidationResult.Builder validationResult;
 
+    /**
+     * Accumulates the repeated fields of validationResult until the document is done.
+     */
+    @Nonnull
+    private final ValidationResultAccumulator resultAccumulator;
+
     /**
      * HtmlFormat used to validate against.
      */
@@ -384,6 +459,11 @@ public class AMPHtmlHandler extends DefaultHandler {
      */
     private ParsedHtmlTag encounteredTag;
 
+    /**
+     * Tag cleaned up at the end of an element, reused for the next one.
+     */
+    private ParsedHtmlTag recycledTag;
+
     /**
      * Characters can be called multiple times per tag.
      */
@@ -21,17 +21,21 @@
 
 package dev.amp.validator;
 
+import dev.amp.validator.css.StylesheetCache;
 import dev.amp.validator.exception.TagValidationException;
 import dev.amp.validator.utils.DispatchKeyUtils;
+import dev.amp.validator.utils.HashUtils;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class manages the rules.
@@ -70,6 +74,11 @@ public class AMPValidatorManager {
         final AMPValidatorLoader ampValidatorLoader = new AMPValidatorLoader();
 
         this.builder = ampValidatorLoader.load(filePath);
+        this.rulesVersion = null;
+        this.referencePointTagSpecIdBySpecName.clear();
+        this.globalTagSpecChecksByHtmlFormat.clear();
+        this.extensionIds = ExtensionIds.fromRules(this.builder);
+        this.compiledValueLists = CompiledValueLists.fromRules(this.builder);
         this.combinedDisallowedCdataRegexMap = new HashMap<>();
 
         final List<ValidatorProtos.TagSpec> tagSpecs = builder.getTagsList();
@@ -92,6 +101,10 @@ public class AMPValidatorManager {
                 tagSpecMap.put(tagSpec.getTagName(), tagSpecList);
             }
 
+            if (tagSpec.getTagName().equals("$REFERENCE_POINT")) {
+                referencePointTagSpecIdBySpecName.putIfAbsent(tagSpec.getSpecName(), tagSpecId);
+            }
+
             String dispatchKey = DispatchKeyUtils.getDispatchKeyForTagSpecOrNone(tagSpec);
             if (dispatchKey != null) {
                 dispatchKeyByTagSpecId.put(tagSpecId, dispatchKey);
@@ -227,14 +240,9 @@ public class AMPValidatorManager {
      * @return returns specId.
      */
     public int getTagSpecIdByReferencePointTagSpecName(@Nonnull final String specName) throws TagValidationException {
-        int index = 0;
-        for (ValidatorProtos.TagSpec tagSpec : builder.getTagsList()) {
-            if (tagSpec.getTagName().equals("$REFERENCE_POINT")) {
-                if (tagSpec.getSpecName().equals(specName)) {
-                    return index;
-                }
-            }
-            index++;
+        final Integer tagSpecId = referencePointTagSpecIdBySpecName.get(specName);
+        if (tagSpecId != null) {
+            return tagSpecId;
         }
 
         throw new TagValidationException("The reference point with spec name " + specName + " does not exist");
@@ -273,6 +281,71 @@ public class AMPValidatorManager {
         return combinedDisallowedCdataRegexMap.get(Integer.toString(tagSpecId));
     }
 
+    /**
+     * Returns a version of the loaded rules: a hash of their serialized form,
+     * computed on first use. Rules with the same version validate documents
+     * the same way.
+     * @return returns the rules version.
+     */
+    public long getRulesVersion() {
+        if (this.rulesVersion == null) {
+            final String serializedRules =
+                    new String(builder.build().toByteArray(), StandardCharsets.ISO_8859_1);
+            this.rulesVersion = HashUtils.murmur3Hash128(serializedRules, 0)[0];
+        }
+        return this.rulesVersion;
+    }
+
+    /**
+     * Returns the global tag spec checks of an html format, compiled on first
+     * use. They must be compiled after ParsedValidatorRules expanded the
+     * extension specs.
+     *
+     * @param htmlFormat the html format.
+     * @return returns the global tag spec checks.
+     */
+    public GlobalTagSpecChecks getGlobalTagSpecChecks(@Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat) {
+        return this.globalTagSpecChecksByHtmlFormat.computeIfAbsent(
+                htmlFormat, format -> new GlobalTagSpecChecks(this.builder, format));
+    }
+
+    /**
+     * Returns the extension ids of the loaded rules.
+     *
+     * @return returns the extension ids.
+     */
+    public ExtensionIds getExtensionIds() {
+        return this.extensionIds;
+    }
+
+    /**
+     * Returns the value and value_casei lists of the loaded rules, compiled
+     * when the rules were loaded.
+     *
+     * @return returns the compiled value lists.
+     */
+    public CompiledValueLists getCompiledValueLists() {
+        return this.compiledValueLists;
+    }
+
+    /**
+     * Returns the cache of parsed stylesheets shared across documents.
+     *
+     * @return returns the stylesheet cache or null if stylesheets are not cached.
+     */
+    public StylesheetCache getStylesheetCache() {
+        return this.stylesheetCache;
+    }
+
+    /**
+     * Sets the cache of parsed stylesheets shared across documents.
+     *
+     * @param stylesheetCache the stylesheet cache, null to not cache stylesheets.
+     */
+    public void setStylesheetCache(final StylesheetCache stylesheetCache) {
+        this.stylesheetCache = stylesheetCache;
+    }
+
     /** Validator builder rules. */
     @Nonnull
     private ValidatorProtos.ValidatorRules.Builder builder = null;
@@ -291,6 +364,32 @@ public class AMPValidatorManager {
     @Nonnull
     private final Map<Integer, String> dispatchKeyByTagSpecId = new HashMap<>();
 
+    /**
+     * The map of reference point tag spec id by spec name, the first one for
+     * a name.
+     */
+    @Nonnull
+    private final Map<String, Integer> referencePointTagSpecIdBySpecName = new HashMap<>();
+
+    /**
+     * The global tag spec checks by html format.
+     */
+    @Nonnull
+    private final Map<ValidatorProtos.HtmlFormat.Code, GlobalTagSpecChecks> globalTagSpecChecksByHtmlFormat =
+            new ConcurrentHashMap<>();
+
+    /** Extension ids of the loaded rules. */
+    private ExtensionIds extensionIds;
+
+    /** Compiled value lists of the loaded rules. */
+    private CompiledValueLists compiledValueLists = new CompiledValueLists();
+
     /** Combined disallowed listed Cdata regex per Cdataspec. */
     private Map<String, String> combinedDisallowedCdataRegexMap;
+
+    /** Version of the loaded rules, computed lazily. */
+    private Long rulesVersion;
+
+    /** Cache of parsed stylesheets, null if stylesheets are not cached. */
+    private StylesheetCache stylesheetCache;
 }
@@ -27,12 +27,12 @@ import dev.amp.validator.css.ParsedDocCssSpec;
 import dev.amp.validator.exception.TagValidationException;
 import com.steadystate.css.parser.Token;
 
-import dev.amp.validator.css.CssParser;
+import dev.amp.validator.css.ParsedStylesheet;
 import dev.amp.validator.css.ErrorToken;
 import dev.amp.validator.css.CssValidationException;
 import dev.amp.validator.css.Stylesheet;
 import dev.amp.validator.css.ParsedCssUrl;
-import dev.amp.validator.css.CssParsingConfig;
+import dev.amp.validator.css.StylesheetCache;
 
 import dev.amp.validator.utils.AttributeSpecUtils;
 import dev.amp.validator.utils.ByteUtils;
@@ -220,13 +220,14 @@ public class CdataMatcher {
         final List<ErrorToken> cssErrors = new ArrayList<>();
         final List<ErrorToken> cssWarnings = new ArrayList<>();
 
-        final CssParser cssParser = new CssParser(cdata,
-                this.getLineCol().getLineNumber(), this.getLineCol().getColumnNumber(), cssErrors);
-        final List<Token> tokenList = cssParser.tokenize();
-        final CssParsingConfig cssParsingConfig = CssParsingConfig.computeCssParsingConfig();
-        final Stylesheet stylesheet = CssSpecUtils.parseAStylesheet(
-                tokenList, cssParsingConfig.getAtRuleSpec(), cssParsingConfig.getDefaultSpec(),
-                cssErrors);
+        // The stylesheet is positioned relative to the style tag, the tag's
+        // position is added to errors as they are emitted below. So a cached
+        // stylesheet may come from another document.
+        final StylesheetCache stylesheetCache = context.getRules().getStylesheetCache();
+        final ParsedStylesheet parsedStylesheet = (stylesheetCache != null)
+                ? stylesheetCache.getOrParse(cdata) : ParsedStylesheet.parse(cdata);
+        parsedStylesheet.addErrorsTo(cssErrors);
+        final Stylesheet stylesheet = parsedStylesheet.getStylesheet();
 
         final ParsedDocCssSpec maybeDocCssSpec = context.matchingDocCssSpec();
 
@@ -242,14 +243,16 @@ public class CdataMatcher {
                 }
                 ValidatorProtos.MediaQuerySpec mediaQuerySpec = atRuleSpec.getMediaQuerySpec();
                 List<ErrorToken> errorBuffer = mediaQuerySpec.getIssuesAsError() ? cssErrors : cssWarnings;
-                this.matchMediaQuery(stylesheet, mediaQuerySpec, errorBuffer);
+                this.matchMediaQuery(stylesheet, mediaQuerySpec, context.getRules().getCompiledValueLists(),
+                        errorBuffer);
                 // There will be at most @media atRuleSpec
                 break;
             }
         }
 
         if (cssSpec.hasSelectorSpec()) {
-            this.matchSelectors(stylesheet, cssSpec.getSelectorSpec(), cssErrors);
+            this.matchSelectors(stylesheet, cssSpec.getSelectorSpec(), context.getRules().getCompiledValueLists(),
+                    cssErrors);
         }
 
         if (cssSpec.getValidateAmp4Ads()) {
@@ -289,6 +292,11 @@ public class CdataMatcher {
                     validationResult);
         }
 
+        // Once no more errors are kept, the rest can't change the result.
+        if (context.isErrorLimitReached()) {
+            return 0;
+        }
+
         // If `!important` is not allowed, record instances as errors.
         if (!cssSpec.getAllowImportant()) {
             final List<Declaration> important = new ArrayList<>();
@@ -347,19 +355,22 @@ public class CdataMatcher {
      *
      * @param stylesheet  the stylesheet to validate
      * @param spec        the spec to validate against
+     * @param compiledValueLists the compiled allow lists of the rules
      * @param errorBuffer the errors collection to populate
      * @throws CssValidationException css validation exception.
      */
     private void matchMediaQuery(@Nonnull final Stylesheet stylesheet,
                                  @Nonnull final ValidatorProtos.MediaQuerySpec spec,
+                                 @Nonnull final CompiledValueLists compiledValueLists,
                                  @Nonnull final List<ErrorToken> errorBuffer) throws CssValidationException {
         List<Token> seenMediaTypes = new ArrayList<>();
         List<Token> seenMediaFeatures = new ArrayList<>();
         MediaQueryVisitor.parseMediaQueries(stylesheet, seenMediaTypes, seenMediaFeatures, errorBuffer);
 
+        final CompiledValueList allowedTypes = compiledValueLists.getMediaTypes(spec);
         for (final Token token : seenMediaTypes) {
-            final String strippedMediaType = CssSpecUtils.stripVendorPrefix((token.toString().toLowerCase()));
-            if (!spec.getTypeList().contains(strippedMediaType)) {
+            final String mediaType = token.toString();
+            if (!allowedTypes.contains(mediaType, CssSpecUtils.vendorPrefixLength(mediaType))) {
                 final List<String> params = new ArrayList<>();
                 params.add("");
                 params.add(token.toString());
@@ -371,10 +382,12 @@ public class CdataMatcher {
             }
         }
 
+        final CompiledValueList allowedFeatures = compiledValueLists.getMediaFeatures(spec);
         for (final Token token : seenMediaFeatures) {
-            final String strippedMediaFeature = CssSpecUtils.stripMinMax(
-                    CssSpecUtils.stripVendorPrefix((token.toString().toLowerCase())));
-            if (!spec.getFeatureList().contains(strippedMediaFeature)) {
+            final String mediaFeature = token.toString();
+            final int vendorPrefixLength = CssSpecUtils.vendorPrefixLength(mediaFeature);
+            final int start = vendorPrefixLength + CssSpecUtils.minMaxPrefixLength(mediaFeature, vendorPrefixLength);
+            if (!allowedFeatures.contains(mediaFeature, start)) {
                 List<String> params = new ArrayList<>();
                 params.add("");
                 params.add(token.toString());
@@ -391,13 +404,15 @@ public class CdataMatcher {
      * Matches the provided stylesheet against a SelectorSpec
      * @param stylesheet the stylesheet to match
      * @param  spec the spec to match against
+     * @param  compiledValueLists the compiled allow lists of the rules
      * @param  errorBuffer the error buffer to populate
      * @throws CssValidationException CssValidationException
      */
     private void matchSelectors(@Nonnull final Stylesheet stylesheet,
                                 @Nonnull final ValidatorProtos.SelectorSpec spec,
+                                @Nonnull final CompiledValueLists compiledValueLists,
                                 @Nonnull final List<ErrorToken> errorBuffer) throws CssValidationException {
-        final SelectorSpecVisitor visitor = new SelectorSpecVisitor(spec, errorBuffer);
+        final SelectorSpecVisitor visitor = new SelectorSpecVisitor(spec, compiledValueLists, errorBuffer);
         stylesheet.accept(visitor);
     }
 
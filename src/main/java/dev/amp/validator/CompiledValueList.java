@@ -0,0 +1,197 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * A value or value_casei list of the rules compiled into an immutable hash
+ * set of the allowed values.
+ *
+ * A case insensitive set folds ASCII upper case letters of the looked up value
+ * while hashing and comparing it, so lookups don't allocate a lower cased copy.
+ * The values of value_casei lists are lower case, an entry with upper case
+ * letters never matches.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class CompiledValueList {
+    /**
+     * Constructor.
+     *
+     * @param values          the values.
+     * @param caseInsensitive true if lookups fold ASCII case.
+     */
+    private CompiledValueList(@Nonnull final List<String> values, final boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+        int capacity = 2;
+        while (capacity < values.size() * 2) {
+            capacity <<= 1;
+        }
+        this.entries = new String[capacity];
+        for (final String value : values) {
+            if (!contains(value)) {
+                int slot = hash(value, 0) & (capacity - 1);
+                while (this.entries[slot] != null) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                this.entries[slot] = value;
+            }
+        }
+    }
+
+    /**
+     * Compiles a value list into a set which matches values exactly.
+     *
+     * @param values the values.
+     * @return the compiled set.
+     */
+    public static CompiledValueList of(@Nonnull final List<String> values) {
+        return new CompiledValueList(values, false);
+    }
+
+    /**
+     * Compiles a value_casei list into a set which matches values ignoring ASCII case.
+     *
+     * @param values the lower case values.
+     * @return the compiled set.
+     */
+    public static CompiledValueList ofCasei(@Nonnull final List<String> values) {
+        return new CompiledValueList(values, true);
+    }
+
+    /**
+     * Returns true if the set contains |value|.
+     *
+     * @param value a value.
+     * @return returns true if the set contains |value|.
+     */
+    public boolean contains(@Nonnull final String value) {
+        return contains(value, 0);
+    }
+
+    /**
+     * Returns true if the set contains value[start, value.length()), e.g. a
+     * name past a vendor prefix, without allocating a stripped copy.
+     *
+     * @param value a value.
+     * @param start the offset of the looked up part of |value|.
+     * @return returns true if the set contains value[start, value.length()).
+     */
+    public boolean contains(@Nonnull final String value, final int start) {
+        final int mask = this.entries.length - 1;
+        int slot = hash(value, start) & mask;
+        String entry = this.entries[slot];
+        while (entry != null) {
+            if (matches(entry, value, start)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+            entry = this.entries[slot];
+        }
+        return false;
+    }
+
+    /**
+     * Hashes value[start, value.length()), folding ASCII case for case
+     * insensitive lists.
+     *
+     * @param value a value.
+     * @param start the offset of the hashed part of |value|.
+     * @return the hash.
+     */
+    private int hash(@Nonnull final String value, final int start) {
+        int h;
+        if (this.caseInsensitive) {
+            h = 0;
+            for (int i = start; i < value.length(); i++) {
+                h = HASH_MULTIPLIER * h + toAsciiLowerCase(value.charAt(i));
+            }
+        } else if (start == 0) {
+            h = value.hashCode();
+        } else {
+            h = 0;
+            for (int i = start; i < value.length(); i++) {
+                h = HASH_MULTIPLIER * h + value.charAt(i);
+            }
+        }
+        // Spread the high bits, the table is indexed by the low ones.
+        return h ^ (h >>> HASH_SHIFT);
+    }
+
+    /**
+     * Returns true if value[start, value.length()) matches the set entry |entry|.
+     *
+     * @param entry a set entry.
+     * @param value a value.
+     * @param start the offset of the matched part of |value|.
+     * @return returns true if value[start, value.length()) matches |entry|.
+     */
+    private boolean matches(@Nonnull final String entry, @Nonnull final String value, final int start) {
+        if (!this.caseInsensitive) {
+            return entry.length() == value.length() - start && value.startsWith(entry, start);
+        }
+        if (entry.length() != value.length() - start) {
+            return false;
+        }
+        for (int i = 0; i < entry.length(); i++) {
+            if (entry.charAt(i) != toAsciiLowerCase(value.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lower cases ASCII upper case letters, other chars are returned as is.
+     *
+     * @param c a char.
+     * @return the lower cased char.
+     */
+    private static char toAsciiLowerCase(final char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Multiplier of the case folding hash, the same as String.hashCode's.
+     */
+    private static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * Shift spreading the high bits of a hash.
+     */
+    private static final int HASH_SHIFT = 16;
+
+    /**
+     * True if lookups fold ASCII case.
+     */
+    private final boolean caseInsensitive;
+
+    /**
+     * Open addressed table of the values, null for empty slots.
+     */
+    @Nonnull
+    private final String[] entries;
+}
@@ -0,0 +1,309 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The value and value_casei lists of the rules compiled into CompiledValueLists,
+ * once when the rules are loaded, along with the allow lists of the selector
+ * and media query specs of the CSS specs. Lists are looked up by the identity
+ * of their spec, the per document objects share them.
+ * Specs which aren't part of the rules (e.g. built by tests) are compiled
+ * on their first lookup and cached as well. Lists may be shared by threads.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class CompiledValueLists {
+    /**
+     * Constructor of lists compiling every spec on its first lookup.
+     */
+    public CompiledValueLists() {
+        this.valueListByAttrSpec = new IdentityHashMap<>();
+        this.valueCaseiByCssDeclaration = new IdentityHashMap<>();
+        this.nameListByNames = new IdentityHashMap<>();
+        this.compiledOnLookup = Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Returns the lists compiled from the value and value_casei lists of the
+     * attr specs and css declarations of the rules.
+     *
+     * @param rules the validator rules.
+     * @return returns the compiled lists.
+     */
+    public static CompiledValueLists fromRules(@Nonnull final ValidatorProtos.ValidatorRulesOrBuilder rules) {
+        final CompiledValueLists compiledValueLists = new CompiledValueLists();
+        for (final ValidatorProtos.TagSpec tagSpec : rules.getTagsList()) {
+            for (final ValidatorProtos.AttrSpec attrSpec : tagSpec.getAttrsList()) {
+                compiledValueLists.addAttrSpec(attrSpec);
+            }
+            if (tagSpec.hasCdata() && tagSpec.getCdata().hasCssSpec()) {
+                compiledValueLists.addCssSpec(tagSpec.getCdata().getCssSpec());
+            }
+        }
+        for (final ValidatorProtos.AttrList attrList : rules.getAttrListsList()) {
+            for (final ValidatorProtos.AttrSpec attrSpec : attrList.getAttrsList()) {
+                compiledValueLists.addAttrSpec(attrSpec);
+            }
+        }
+        for (final ValidatorProtos.DocCssSpec cssSpec : rules.getCssList()) {
+            for (final ValidatorProtos.CssDeclaration declaration : cssSpec.getDeclarationList()) {
+                compiledValueLists.addCssDeclaration(declaration);
+            }
+            for (final ValidatorProtos.CssDeclaration declaration : cssSpec.getDeclarationSvgList()) {
+                compiledValueLists.addCssDeclaration(declaration);
+            }
+        }
+        for (final ValidatorProtos.DeclarationList declList : rules.getDeclarationListList()) {
+            for (final ValidatorProtos.CssDeclaration declaration : declList.getDeclarationList()) {
+                compiledValueLists.addCssDeclaration(declaration);
+            }
+        }
+        return compiledValueLists;
+    }
+
+    /**
+     * Returns the compiled value or value_casei list of an AttrSpec.
+     *
+     * @param attrSpec the AttrSpec.
+     * @return returns the compiled list, null if the AttrSpec has neither.
+     */
+    public CompiledValueList getValueListOrNull(@Nonnull final ValidatorProtos.AttrSpec attrSpec) {
+        if (attrSpec.getValueCount() == 0 && attrSpec.getValueCaseiCount() == 0) {
+            return null;
+        }
+        final CompiledValueList valueList = this.valueListByAttrSpec.get(attrSpec);
+        return (valueList != null)
+                ? valueList : this.compiledOnLookup.computeIfAbsent(attrSpec, spec -> compile(attrSpec));
+    }
+
+    /**
+     * Returns the compiled value_casei list of a CssDeclaration.
+     *
+     * @param declaration the CssDeclaration.
+     * @return returns the compiled list, null if it is empty.
+     */
+    public CompiledValueList getValueCaseiOrNull(@Nonnull final ValidatorProtos.CssDeclaration declaration) {
+        if (declaration.getValueCaseiCount() == 0) {
+            return null;
+        }
+        final CompiledValueList valueList = this.valueCaseiByCssDeclaration.get(declaration);
+        return (valueList != null)
+                ? valueList : this.compiledOnLookup.computeIfAbsent(declaration, spec -> compile(declaration));
+    }
+
+    /**
+     * Returns the compiled allow list of attribute names of a SelectorSpec.
+     *
+     * @param spec the SelectorSpec.
+     * @return returns the compiled list.
+     */
+    public CompiledValueList getAttributeNames(@Nonnull final ValidatorProtos.SelectorSpec spec) {
+        return this.getNameList(spec.getAttributeNameList(), false);
+    }
+
+    /**
+     * Returns the compiled allow list of pseudo classes of a SelectorSpec.
+     *
+     * @param spec the SelectorSpec.
+     * @return returns the compiled list.
+     */
+    public CompiledValueList getPseudoClasses(@Nonnull final ValidatorProtos.SelectorSpec spec) {
+        return this.getNameList(spec.getPseudoClassList(), false);
+    }
+
+    /**
+     * Returns the compiled allow list of pseudo elements of a SelectorSpec.
+     *
+     * @param spec the SelectorSpec.
+     * @return returns the compiled list.
+     */
+    public CompiledValueList getPseudoElements(@Nonnull final ValidatorProtos.SelectorSpec spec) {
+        return this.getNameList(spec.getPseudoElementList(), false);
+    }
+
+    /**
+     * Returns the compiled allow list of media types of a MediaQuerySpec,
+     * matching them ignoring ASCII case.
+     *
+     * @param spec the MediaQuerySpec.
+     * @return returns the compiled list.
+     */
+    public CompiledValueList getMediaTypes(@Nonnull final ValidatorProtos.MediaQuerySpec spec) {
+        return this.getNameList(spec.getTypeList(), true);
+    }
+
+    /**
+     * Returns the compiled allow list of media features of a MediaQuerySpec,
+     * matching them ignoring ASCII case.
+     *
+     * @param spec the MediaQuerySpec.
+     * @return returns the compiled list.
+     */
+    public CompiledValueList getMediaFeatures(@Nonnull final ValidatorProtos.MediaQuerySpec spec) {
+        return this.getNameList(spec.getFeatureList(), true);
+    }
+
+    /**
+     * Returns the compiled allow list of a list of names of a spec.
+     *
+     * @param names           the names, as held by the spec.
+     * @param caseInsensitive true if lookups fold ASCII case.
+     * @return returns the compiled list.
+     */
+    private CompiledValueList getNameList(@Nonnull final List<String> names, final boolean caseInsensitive) {
+        final CompiledValueList nameList = this.nameListByNames.get(names);
+        return (nameList != null)
+                ? nameList : this.compiledOnLookup.computeIfAbsent(names, list -> compile(names, caseInsensitive));
+    }
+
+    /**
+     * Compiles the lists of an AttrSpec and of its css declarations.
+     *
+     * @param attrSpec the AttrSpec.
+     */
+    private void addAttrSpec(@Nonnull final ValidatorProtos.AttrSpec attrSpec) {
+        if (!this.valueListByAttrSpec.containsKey(attrSpec)) {
+            final CompiledValueList valueList = compile(attrSpec);
+            if (valueList != null) {
+                this.valueListByAttrSpec.put(attrSpec, valueList);
+            }
+        }
+        for (final ValidatorProtos.CssDeclaration declaration : attrSpec.getCssDeclarationList()) {
+            this.addCssDeclaration(declaration);
+        }
+    }
+
+    /**
+     * Compiles the allow lists of the selector and media query specs of a CssSpec.
+     *
+     * @param cssSpec the CssSpec.
+     */
+    private void addCssSpec(@Nonnull final ValidatorProtos.CssSpec cssSpec) {
+        for (final ValidatorProtos.AtRuleSpec atRuleSpec : cssSpec.getAtRuleSpecList()) {
+            if (atRuleSpec.hasMediaQuerySpec()) {
+                this.addNameList(atRuleSpec.getMediaQuerySpec().getTypeList(), true);
+                this.addNameList(atRuleSpec.getMediaQuerySpec().getFeatureList(), true);
+            }
+        }
+        if (cssSpec.hasSelectorSpec()) {
+            this.addNameList(cssSpec.getSelectorSpec().getAttributeNameList(), false);
+            this.addNameList(cssSpec.getSelectorSpec().getPseudoClassList(), false);
+            this.addNameList(cssSpec.getSelectorSpec().getPseudoElementList(), false);
+        }
+    }
+
+    /**
+     * Compiles a list of names of a spec.
+     *
+     * @param names           the names, as held by the spec.
+     * @param caseInsensitive true if lookups fold ASCII case.
+     */
+    private void addNameList(@Nonnull final List<String> names, final boolean caseInsensitive) {
+        if (!this.nameListByNames.containsKey(names)) {
+            this.nameListByNames.put(names, compile(names, caseInsensitive));
+        }
+    }
+
+    /**
+     * Compiles the value_casei list of a CssDeclaration.
+     *
+     * @param declaration the CssDeclaration.
+     */
+    private void addCssDeclaration(@Nonnull final ValidatorProtos.CssDeclaration declaration) {
+        if (!this.valueCaseiByCssDeclaration.containsKey(declaration)) {
+            final CompiledValueList valueList = compile(declaration);
+            if (valueList != null) {
+                this.valueCaseiByCssDeclaration.put(declaration, valueList);
+            }
+        }
+    }
+
+    /**
+     * Compiles the value or value_casei list of an AttrSpec.
+     *
+     * @param attrSpec the AttrSpec.
+     * @return returns the compiled list, null if the AttrSpec has neither.
+     */
+    private static CompiledValueList compile(@Nonnull final ValidatorProtos.AttrSpec attrSpec) {
+        if (attrSpec.getValueCount() > 0) {
+            return CompiledValueList.of(attrSpec.getValueList());
+        }
+        if (attrSpec.getValueCaseiCount() > 0) {
+            return CompiledValueList.ofCasei(attrSpec.getValueCaseiList());
+        }
+        return null;
+    }
+
+    /**
+     * Compiles the value_casei list of a CssDeclaration.
+     *
+     * @param declaration the CssDeclaration.
+     * @return returns the compiled list, null if it is empty.
+     */
+    private static CompiledValueList compile(@Nonnull final ValidatorProtos.CssDeclaration declaration) {
+        return (declaration.getValueCaseiCount() > 0) ? CompiledValueList.ofCasei(declaration.getValueCaseiList()) : null;
+    }
+
+    /**
+     * Compiles a list of names.
+     *
+     * @param names           the names.
+     * @param caseInsensitive true if lookups fold ASCII case.
+     * @return returns the compiled list.
+     */
+    private static CompiledValueList compile(@Nonnull final List<String> names, final boolean caseInsensitive) {
+        return caseInsensitive ? CompiledValueList.ofCasei(names) : CompiledValueList.of(names);
+    }
+
+    /**
+     * Compiled value or value_casei lists by AttrSpec.
+     */
+    @Nonnull
+    private final Map<ValidatorProtos.AttrSpec, CompiledValueList> valueListByAttrSpec;
+
+    /**
+     * Compiled value_casei lists by CssDeclaration.
+     */
+    @Nonnull
+    private final Map<ValidatorProtos.CssDeclaration, CompiledValueList> valueCaseiByCssDeclaration;
+
+    /**
+     * Compiled allow lists of the selector and media query specs, by the
+     * list of names held by the spec.
+     */
+    @Nonnull
+    private final Map<List<String>, CompiledValueList> nameListByNames;
+
+    /**
+     * Compiled lists of the specs which aren't part of the rules, by spec or list of names.
+     */
+    @Nonnull
+    private final Map<Object, CompiledValueList> compiledOnLookup;
+}
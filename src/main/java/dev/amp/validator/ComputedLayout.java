@@ -0,0 +1,231 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import dev.amp.validator.utils.TagSpecUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * The layout computed for a tag from its AmpLayout spec and its layout, width,
+ * height, sizes and heights attributes. Only whether sizes and heights are
+ * present matters for the computation.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class ComputedLayout {
+    /**
+     * Constructor, computes the layout.
+     *
+     * @param spec        the AmpLayout spec.
+     * @param layoutAttr  layout attribute.
+     * @param widthAttr   width attribute.
+     * @param heightAttr  height attribute.
+     * @param sizesAttr   sizes attribute.
+     * @param heightsAttr heights attribute.
+     */
+    public ComputedLayout(@Nonnull final ValidatorProtos.AmpLayout spec, final String layoutAttr,
+                          final String widthAttr, final String heightAttr,
+                          final String sizesAttr, final String heightsAttr) {
+        this.spec = spec;
+        this.layoutAttr = layoutAttr;
+        this.widthAttr = widthAttr;
+        this.heightAttr = heightAttr;
+        this.hasSizes = sizesAttr != null;
+        this.hasHeights = heightsAttr != null;
+
+        this.inputLayout = TagSpecUtils.parseLayout(layoutAttr);
+        final boolean allowFluid = this.inputLayout == ValidatorProtos.AmpLayout.Layout.FLUID;
+        this.inputWidth = new CssLength(widthAttr, /* allowAuto */ true, allowFluid);
+        this.inputHeight = new CssLength(heightAttr, /* allowAuto */ true, allowFluid);
+        this.width = TagSpecUtils.calculateWidth(spec, this.inputLayout, this.inputWidth);
+        this.height = TagSpecUtils.calculateHeight(spec, this.inputLayout, this.inputHeight);
+        this.layout = TagSpecUtils.calculateLayout(this.inputLayout, this.width, this.height, sizesAttr, heightsAttr);
+    }
+
+    /**
+     * Returns a hash of the inputs of a layout computation.
+     *
+     * @param spec        the AmpLayout spec.
+     * @param layoutAttr  layout attribute.
+     * @param widthAttr   width attribute.
+     * @param heightAttr  height attribute.
+     * @param sizesAttr   sizes attribute.
+     * @param heightsAttr heights attribute.
+     * @return the hash.
+     */
+    public static int hash(@Nonnull final ValidatorProtos.AmpLayout spec, final String layoutAttr,
+                           final String widthAttr, final String heightAttr,
+                           final String sizesAttr, final String heightsAttr) {
+        int hash = System.identityHashCode(spec);
+        hash = HASH_MULTIPLIER * hash + Objects.hashCode(layoutAttr);
+        hash = HASH_MULTIPLIER * hash + Objects.hashCode(widthAttr);
+        hash = HASH_MULTIPLIER * hash + Objects.hashCode(heightAttr);
+        hash = 2 * hash + ((sizesAttr != null) ? 1 : 0);
+        return 2 * hash + ((heightsAttr != null) ? 1 : 0);
+    }
+
+    /**
+     * Returns true if this layout was computed from the given inputs.
+     *
+     * @param otherSpec   the AmpLayout spec.
+     * @param otherLayout layout attribute.
+     * @param otherWidth  width attribute.
+     * @param otherHeight height attribute.
+     * @param sizesAttr   sizes attribute.
+     * @param heightsAttr heights attribute.
+     * @return returns true if this layout was computed from the given inputs.
+     */
+    public boolean isComputedFrom(@Nonnull final ValidatorProtos.AmpLayout otherSpec, final String otherLayout,
+                                  final String otherWidth, final String otherHeight,
+                                  final String sizesAttr, final String heightsAttr) {
+        return this.spec == otherSpec
+                && Objects.equals(this.layoutAttr, otherLayout)
+                && Objects.equals(this.widthAttr, otherWidth)
+                && Objects.equals(this.heightAttr, otherHeight)
+                && this.hasSizes == (sizesAttr != null)
+                && this.hasHeights == (heightsAttr != null);
+    }
+
+    /**
+     * Returns the layout parsed from the layout attribute.
+     *
+     * @return the input layout.
+     */
+    public ValidatorProtos.AmpLayout.Layout getInputLayout() {
+        return this.inputLayout;
+    }
+
+    /**
+     * Returns the width parsed from the width attribute.
+     *
+     * @return the input width.
+     */
+    public CssLength getInputWidth() {
+        return this.inputWidth;
+    }
+
+    /**
+     * Returns the height parsed from the height attribute.
+     *
+     * @return the input height.
+     */
+    public CssLength getInputHeight() {
+        return this.inputHeight;
+    }
+
+    /**
+     * Returns the effective width.
+     *
+     * @return the width.
+     */
+    public CssLength getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the effective height.
+     *
+     * @return the height.
+     */
+    public CssLength getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the effective layout.
+     *
+     * @return the layout.
+     */
+    public ValidatorProtos.AmpLayout.Layout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Multiplier used to combine hashes.
+     */
+    private static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * The AmpLayout spec.
+     */
+    @Nonnull
+    private final ValidatorProtos.AmpLayout spec;
+
+    /**
+     * Layout attribute.
+     */
+    private final String layoutAttr;
+
+    /**
+     * Width attribute.
+     */
+    private final String widthAttr;
+
+    /**
+     * Height attribute.
+     */
+    private final String heightAttr;
+
+    /**
+     * Whether the sizes attribute is present.
+     */
+    private final boolean hasSizes;
+
+    /**
+     * Whether the heights attribute is present.
+     */
+    private final boolean hasHeights;
+
+    /**
+     * Layout parsed from the layout attribute.
+     */
+    private final ValidatorProtos.AmpLayout.Layout inputLayout;
+
+    /**
+     * Width parsed from the width attribute.
+     */
+    private final CssLength inputWidth;
+
+    /**
+     * Height parsed from the height attribute.
+     */
+    private final CssLength inputHeight;
+
+    /**
+     * Effective width.
+     */
+    private final CssLength width;
+
+    /**
+     * Effective height.
+     */
+    private final CssLength height;
+
+    /**
+     * Effective layout.
+     */
+    private final ValidatorProtos.AmpLayout.Layout layout;
+}
@@ -30,8 +30,10 @@ import org.xml.sax.Locator;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,22 +60,23 @@ public class Context {
      */
     public Context(@Nonnull final ParsedValidatorRules parsedValidatorRules, final int docByteSize) {
         this.rules = parsedValidatorRules;
-        this.mandatoryAlternativesSatisfied = new ArrayList<>();
+        this.mandatoryAlternativesSatisfied = new BitSet();
         this.docLocator = null;
         this.tagStack = new TagStack();
-        this.tagspecsValidated = new HashMap<>();
+        this.tagspecsValidated = new BitSet();
         //TODO - it's a hack, remove this when DOCTYPE is fixed
-        tagspecsValidated.put(0, true);
+        tagspecsValidated.set(0);
 
         this.styleTagByteSize = 0;
         this.inlineStyleByteSize = 0;
         this.typeIdentifiers = new ArrayList<>();
-        this.valueSetsProvided = new HashSet<>();
-        this.valueSetsRequired = new HashMap<>();
-        this.conditionsSatisfied = new HashMap<>();
+        this.valueSetsProvided = new EnumMap<>(ValidatorProtos.AttrSpec.ValueSet.class);
+        this.valueSetsRequired = new EnumMap<>(ValidatorProtos.AttrSpec.ValueSet.class);
+        this.conditionsSatisfied = new BitSet();
         this.firstUrlSeenTag = null;
-        this.extensions = new ExtensionsContext();
+        this.extensions = new ExtensionsContext(parsedValidatorRules.getExtensionIds());
         this.scriptReleaseVersion = ExtensionsUtils.ScriptReleaseVersion.UNKNOWN;
+        this.computedLayouts = new ComputedLayout[COMPUTED_LAYOUTS_SIZE];
 
         this.docByteSize = docByteSize;
     }
@@ -135,20 +138,18 @@ public class Context {
 
         final ValidatorProtos.ValidationResult.Builder validationResult = result.getValidationResult();
         for (final ValidatorProtos.ValueSetProvision provision : validationResult.getValueSetProvisionsList()) {
-            this.valueSetsProvided.add(this.keyFromValueSetProvision(provision));
+            this.valueSetsProvided.computeIfAbsent(provision.getSet(), set -> new HashSet<>())
+                    .add(provision.getValue());
         }
         for (final ValidatorProtos.ValueSetRequirement requirement : validationResult.getValueSetRequirementsList()) {
             if (!requirement.hasProvision()) {
                 continue;
             }
 
-            final String key = this.keyFromValueSetProvision(requirement.getProvision());
-            List<ValidatorProtos.ValidationError> errors = this.valueSetsRequired.get(key);
-            if (errors == null) {
-                errors = new ArrayList<>();
-                this.valueSetsRequired.put(key, errors);
-            }
-            errors.add(requirement.getErrorIfUnsatisfied());
+            final ValidatorProtos.ValueSetProvision provision = requirement.getProvision();
+            this.valueSetsRequired.computeIfAbsent(provision.getSet(), set -> new LinkedHashMap<>())
+                    .computeIfAbsent(provision.getValue(), value -> new ArrayList<>())
+                    .add(requirement.getErrorIfUnsatisfied());
         }
 
         if (isPassing) {
@@ -183,22 +184,24 @@ public class Context {
     }
 
     /**
-     * Returns all the value set provisions so far, as a set of derived keys, as
-     * computed by keyFromValueSetProvision_().
+     * Returns all the value set provisions so far, the provided values by
+     * value set.
      *
      * @return the value sets provided
      */
-    public Set<String> valueSetsProvided() {
+    public Map<ValidatorProtos.AttrSpec.ValueSet, Set<String>> valueSetsProvided() {
         return this.valueSetsProvided;
     }
 
     /**
-     * Returns all the value set requirements so far, keyed by derived keys, as
-     * computed by getValueSetProvisionKey().
+     * Returns all the value set requirements so far, the errors to emit if
+     * unsatisfied by required value by value set. The values of a set are in
+     * the order they were first required.
      *
      * @return the map of value sets required.
      */
-    public Map<String, List<ValidatorProtos.ValidationError>> valueSetsRequired() {
+    public Map<ValidatorProtos.AttrSpec.ValueSet, Map<String, List<ValidatorProtos.ValidationError>>>
+            valueSetsRequired() {
         return this.valueSetsRequired;
     }
 
@@ -211,9 +214,9 @@ public class Context {
     private void recordValidatedFromTagSpec(final boolean isPassing, @Nonnull final ParsedTagSpec parsedTagSpec) {
         final RecordValidated recordValidated = parsedTagSpec.shouldRecordTagspecValidated();
         if (recordValidated == RecordValidated.ALWAYS) {
-            this.tagspecsValidated.put(parsedTagSpec.id(), true);
+            this.tagspecsValidated.set(parsedTagSpec.id());
         } else if (isPassing && (recordValidated == RecordValidated.IF_PASSING)) {
-            this.tagspecsValidated.put(parsedTagSpec.id(), true);
+            this.tagspecsValidated.set(parsedTagSpec.id());
         }
     }
 
@@ -224,7 +227,10 @@ public class Context {
      */
     private void satisfyConditionsFromTagSpec(@Nonnull final ParsedTagSpec parsedTagSpec) {
         for (final String condition : parsedTagSpec.getSpec().getSatisfiesList()) {
-            this.conditionsSatisfied.put(condition, true);
+            final int conditionId = this.rules.getConditionId(condition);
+            if (conditionId >= 0) {
+                this.conditionsSatisfied.set(conditionId);
+            }
         }
     }
 
@@ -237,7 +243,10 @@ public class Context {
     public void satisfyMandatoryAlternativesFromTagSpec(@Nonnull final ParsedTagSpec parsedTagSpec) {
         final ValidatorProtos.TagSpec tagSpec = parsedTagSpec.getSpec();
         if (tagSpec.hasMandatoryAlternatives()) {
-            this.mandatoryAlternativesSatisfied.add(tagSpec.getMandatoryAlternatives());
+            final int alternativeId = this.rules.getMandatoryAlternativeId(tagSpec.getMandatoryAlternatives());
+            if (alternativeId >= 0) {
+                this.mandatoryAlternativesSatisfied.set(alternativeId);
+            }
         }
     }
 
@@ -292,9 +301,33 @@ public class Context {
         if (error.getSeverity() != ValidatorProtos.ValidationError.Severity.WARNING) {
             validationResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
         }
+        if (this.documentResult != null && this.documentResult.accumulatesFor(validationResult)) {
+            this.documentResult.addError(error);
+            return;
+        }
         validationResult.addErrors(error);
     }
 
+    /**
+     * Returns true if the document failed and no more errors of it would be
+     * kept, see ValidationResultAccumulator#isErrorLimitReached.
+     *
+     * @return returns true if the error limit is reached.
+     */
+    public boolean isErrorLimitReached() {
+        return this.documentResult != null && this.documentResult.isErrorLimitReached();
+    }
+
+    /**
+     * Sets the accumulator for the document validation result. Errors added to the
+     * document validation result are appended to the accumulator instead.
+     *
+     * @param documentResult the document result accumulator.
+     */
+    public void setDocumentResult(@Nonnull final ValidationResultAccumulator documentResult) {
+        this.documentResult = documentResult;
+    }
+
     /**
      * Add an error field to validationResult with severity ERROR.
      *
@@ -327,13 +360,28 @@ public class Context {
                          final int column,
                          final List<String> params, final String specUrl,
                          @Nonnull final ValidatorProtos.ValidationResult.Builder validationResult) {
+        if (this.isAttemptResult(validationResult)) {
+            this.currentAttempt.deferError(new ValidationErrorRecord(
+                    ValidatorProtos.ValidationError.Severity.ERROR,
+                    validationErrorCode,
+                    line, column, params, specUrl),
+                    this.rules.specificity(validationErrorCode));
+            validationResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
+            return;
+        }
+        validationResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
+        if (this.documentResult != null && this.documentResult.accumulatesFor(validationResult)) {
+            this.documentResult.addError(
+                    ValidatorProtos.ValidationError.Severity.ERROR, validationErrorCode,
+                    line, column, params, specUrl);
+            return;
+        }
         this.addBuiltError(
                 ValidationErrorUtils.populateError(
                         ValidatorProtos.ValidationError.Severity.ERROR,
                         validationErrorCode,
                         line, column, params, specUrl),
                 validationResult);
-        validationResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
     }
 
     /**
@@ -349,6 +397,19 @@ public class Context {
                            @Nonnull final Locator lineCol,
                            final List<String> params, final String specUrl,
                            @Nonnull final ValidatorProtos.ValidationResult.Builder validationResult) {
+        if (this.isAttemptResult(validationResult)) {
+            this.currentAttempt.deferError(new ValidationErrorRecord(
+                    ValidatorProtos.ValidationError.Severity.WARNING, validationErrorCode,
+                    lineCol.getLineNumber(), lineCol.getColumnNumber(), params, specUrl),
+                    this.rules.specificity(validationErrorCode));
+            return;
+        }
+        if (this.documentResult != null && this.documentResult.accumulatesFor(validationResult)) {
+            this.documentResult.addError(
+                    ValidatorProtos.ValidationError.Severity.WARNING, validationErrorCode,
+                    lineCol.getLineNumber(), lineCol.getColumnNumber(), params, specUrl);
+            return;
+        }
         this.addBuiltError(
                 ValidationErrorUtils.populateError(
                         ValidatorProtos.ValidationError.Severity.WARNING, validationErrorCode,
@@ -356,6 +417,31 @@ public class Context {
                 validationResult);
     }
 
+    /**
+     * Marks the given result as the tag spec attempt currently being validated.
+     * Errors added to its validation result are kept as records on the attempt
+     * and only built into ValidationErrors once the attempt is picked, see
+     * ValidateTagResult#materializeDeferredErrors.
+     *
+     * @param attempt the attempt result, or null once the attempt is done.
+     * @return returns the previously current attempt.
+     */
+    public ValidateTagResult setCurrentAttempt(final ValidateTagResult attempt) {
+        final ValidateTagResult previous = this.currentAttempt;
+        this.currentAttempt = attempt;
+        return previous;
+    }
+
+    /**
+     * Returns true if the validation result belongs to the current attempt.
+     *
+     * @param validationResult a ValidationResult object.
+     * @return returns true if the validation result belongs to the current attempt.
+     */
+    private boolean isAttemptResult(@Nonnull final ValidatorProtos.ValidationResult.Builder validationResult) {
+        return this.currentAttempt != null && this.currentAttempt.getValidationResult() == validationResult;
+    }
+
     /**
      * Returns a line/col pair.
      *
@@ -452,29 +538,23 @@ public class Context {
     }
 
     /**
-     * Returns the tag spec ids that have been validated. The return object
-     * should be treated as a set (the object keys), and the value should be
-     * ignored.
+     * Returns the tag spec ids that have been validated, as set bits. Do not
+     * modify.
      *
      * @return returns validated tag specs.
      */
-    public Map<Integer, Boolean> getTagspecsValidated() {
+    public BitSet getTagspecsValidated() {
         return this.tagspecsValidated;
     }
 
     /**
-     * Returns the boolean value of true if exists.
+     * Returns true if the tag spec has been validated.
      *
      * @param id tag spec id.
-     * @return returns the boolean value of true if exists.
+     * @return returns true if the tag spec has been validated.
      */
     public boolean hasTagspecsValidated(final int id) {
-        Boolean b = tagspecsValidated.get(id);
-        if (b == null) {
-            return false;
-        }
-
-        return b.booleanValue();
+        return this.tagspecsValidated.get(id);
     }
 
     /**
@@ -537,7 +617,16 @@ public class Context {
      * @return returns true if condition exists.
      */
     public boolean satisfiesCondition(@Nonnull final String condition) {
-        return this.conditionsSatisfied.containsKey(condition);
+        final int conditionId = this.rules.getConditionId(condition);
+        return conditionId >= 0 && this.conditionsSatisfied.get(conditionId);
+    }
+
+    /**
+     * @param conditionId the condition id, see ParsedValidatorRules.getConditionId.
+     * @return returns true if the condition has been satisfied.
+     */
+    public boolean satisfiesCondition(final int conditionId) {
+        return this.conditionsSatisfied.get(conditionId);
     }
 
     /**
@@ -551,12 +640,12 @@ public class Context {
     }
 
     /**
-     * The mandatory alternatives that we've satisfied. This may contain
-     * duplicates (we'd have to filter them in record... above if we cared).
+     * The ids of the mandatory alternatives that we've satisfied, see
+     * ParsedValidatorRules.getMandatoryAlternativeId.
      *
      * @return returns the mandatory alternatives that we've satisfied.
      */
-    public List<String> getMandatoryAlternativesSatisfied() {
+    public BitSet getMandatoryAlternativesSatisfied() {
         return this.mandatoryAlternativesSatisfied;
     }
 
@@ -569,16 +658,6 @@ public class Context {
         return this.scriptReleaseVersion;
     }
 
-    /**
-     * @param provision a ValueSetProvision.
-     * @return A key for valueSetsProvided and valueSetsRequired.
-     */
-    private String keyFromValueSetProvision(@Nonnull final ValidatorProtos.ValueSetProvision provision) {
-        return (provision.hasSet() ? provision.getSet() : "")
-                + ">"
-                + (provision.hasValue() ? provision.getValue() : "");
-    }
-
     /**
      * Returns the first (there should be at most one) DocCssSpec which matches
      * both the html format and type identifiers recorded so far in this
@@ -625,9 +704,9 @@ public class Context {
     private ParsedValidatorRules rules;
 
     /**
-     * The mandatory alternatives that we've validated (a small list of ids).
+     * The ids of the mandatory alternatives that we've validated.
      */
-    private List<String> mandatoryAlternativesSatisfied;
+    private BitSet mandatoryAlternativesSatisfied;
 
     /**
      * DocLocator object from the parser which gives us line/col numbers.
@@ -642,7 +721,7 @@ public class Context {
     /**
      * Set of tagSpec ids that have been validated.
      */
-    private Map<Integer, Boolean> tagspecsValidated;
+    private BitSet tagspecsValidated;
 
     /**
      * Size of &lt;style amp-custom&gt;.
@@ -660,19 +739,20 @@ public class Context {
     private List<String> typeIdentifiers;
 
     /**
-     * All the value set provisions so far.
+     * All the value set provisions so far, by value set.
      */
-    private Set<String> valueSetsProvided;
+    private Map<ValidatorProtos.AttrSpec.ValueSet, Set<String>> valueSetsProvided;
 
     /**
-     * All the value set requirements so far.
+     * All the value set requirements so far, by value set.
      */
-    private Map<String, List<ValidatorProtos.ValidationError>> valueSetsRequired;
+    private Map<ValidatorProtos.AttrSpec.ValueSet, Map<String, List<ValidatorProtos.ValidationError>>>
+            valueSetsRequired;
 
     /**
-     * Set of conditions that we've satisfied.
+     * Set of ids of the conditions that we've satisfied.
      */
-    private Map<String, Boolean> conditionsSatisfied;
+    private BitSet conditionsSatisfied;
 
     /**
      * First tag spec seen (matched) which contains an URL.
@@ -693,4 +773,56 @@ public class Context {
      * input html length
      */
     private int docByteSize;
+
+    /**
+     * Returns the layout computed from a tag's AmpLayout spec and layout
+     * attributes. Recent computations are kept in a small direct mapped memo,
+     * since pages tend to repeat the same attributes over and over.
+     *
+     * @param spec        the AmpLayout spec.
+     * @param layoutAttr  layout attribute.
+     * @param widthAttr   width attribute.
+     * @param heightAttr  height attribute.
+     * @param sizesAttr   sizes attribute.
+     * @param heightsAttr heights attribute.
+     * @return the computed layout.
+     */
+    public ComputedLayout computeLayout(@Nonnull final ValidatorProtos.AmpLayout spec, final String layoutAttr,
+                                        final String widthAttr, final String heightAttr,
+                                        final String sizesAttr, final String heightsAttr) {
+        final int hash = ComputedLayout.hash(spec, layoutAttr, widthAttr, heightAttr, sizesAttr, heightsAttr);
+        final int slot = (hash ^ (hash >>> COMPUTED_LAYOUTS_HASH_SHIFT)) & (COMPUTED_LAYOUTS_SIZE - 1);
+        ComputedLayout computedLayout = this.computedLayouts[slot];
+        if (computedLayout == null
+                || !computedLayout.isComputedFrom(spec, layoutAttr, widthAttr, heightAttr, sizesAttr, heightsAttr)) {
+            computedLayout = new ComputedLayout(spec, layoutAttr, widthAttr, heightAttr, sizesAttr, heightsAttr);
+            this.computedLayouts[slot] = computedLayout;
+        }
+        return computedLayout;
+    }
+
+    /**
+     * Direct mapped memo of computed layouts.
+     */
+    private ComputedLayout[] computedLayouts;
+
+    /**
+     * Number of slots of the computed layouts memo, a power of two.
+     */
+    private static final int COMPUTED_LAYOUTS_SIZE = 64;
+
+    /**
+     * Shift spreading the high bits of a hash over the memo slots.
+     */
+    private static final int COMPUTED_LAYOUTS_HASH_SHIFT = 16;
+
+    /**
+     * The tag spec attempt currently being validated, if any.
+     */
+    private ValidateTagResult currentAttempt = null;
+
+    /**
+     * The accumulator for the document validation result, if any.
+     */
+    private ValidationResultAccumulator documentResult = null;
 }
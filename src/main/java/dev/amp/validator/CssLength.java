@@ -22,8 +22,6 @@
 package dev.amp.validator;
 
 import javax.annotation.Nonnull;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Parses a width or height layout attribute, for the determining the layout
@@ -46,7 +44,9 @@ public class CssLength {
         this.isSet = false;
         this.isAuto = false;
         this.isFluid = false;
-        this.numeral = Float.NaN;
+        this.input = input;
+        this.numeralEnd = -1;
+        this.numeral = null;
         this.unit = "px";
 
         if (input == null) {
@@ -63,12 +63,56 @@ public class CssLength {
             this.isValid = allowFluid;
         }
 
-        Matcher matcher = CSS_LENGTH_PATTERN.matcher(input);
-        if (matcher.matches()) {
+        // Digits, optionally followed by a '.' and more digits, followed by an
+        // optional unit.
+        final int length = input.length();
+        int pos = skipDigits(input, 0);
+        if (pos == 0) {
+            return;
+        }
+        if (pos < length && input.charAt(pos) == '.') {
+            final int fractionEnd = skipDigits(input, pos + 1);
+            if (fractionEnd == pos + 1) {
+                return;
+            }
+            pos = fractionEnd;
+        }
+        final String unitOrNull = (pos == length) ? "px" : parseUnit(input, pos);
+        if (unitOrNull != null) {
             this.isValid = true;
-            this.numeral = Float.parseFloat(matcher.group(1));
-            this.unit = matcher.group(2) != null ? matcher.group(2) : "px";
+            this.numeralEnd = pos;
+            this.unit = unitOrNull;
+        }
+    }
+
+    /**
+     * Returns the index of the first char at or after |pos| which is not an ascii digit.
+     * @param input the input.
+     * @param pos the start position.
+     * @return the index of the first non digit.
+     */
+    private static int skipDigits(@Nonnull final String input, final int pos) {
+        int i = pos;
+        while (i < input.length() && input.charAt(i) >= '0' && input.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the unit the input ends with from |pos|, null if there is none.
+     * @param input the input.
+     * @param pos the start of the unit.
+     * @return the unit or null.
+     */
+    private static String parseUnit(@Nonnull final String input, final int pos) {
+        final int length = input.length() - pos;
+        for (final String unit : UNITS) {
+            if (unit.length() == length && input.startsWith(unit, pos)) {
+                return unit;
+            }
         }
+        return null;
     }
 
     /**
@@ -108,7 +152,10 @@ public class CssLength {
      * @return returns a float isNumeral.
      */
     public Float getNumeral() {
-        return numeral;
+        if (this.numeral == null) {
+            this.numeral = (this.numeralEnd < 0) ? Float.NaN : Float.parseFloat(this.input.substring(0, this.numeralEnd));
+        }
+        return this.numeral;
     }
 
     /**
@@ -143,7 +190,17 @@ public class CssLength {
     private boolean isFluid;
 
     /**
-     * The numeric value.
+     * The input attribute value.
+     */
+    private final String input;
+
+    /**
+     * The end of the numeric value in the input, -1 if the input is not a length.
+     */
+    private int numeralEnd;
+
+    /**
+     * The numeric value, parsed when it is first asked for.
      */
     private Float numeral;
 
@@ -152,7 +209,8 @@ public class CssLength {
      */
     private String unit;
 
-    /** CSS length regex pattern. */
-    private static final Pattern CSS_LENGTH_PATTERN =
-            Pattern.compile("^(\\d+(?:\\.\\d+)?)(px|em|rem|vh|vw|vmin|vmax)?$");
+    /**
+     * The units a length may have.
+     */
+    private static final String[] UNITS = {"px", "em", "rem", "vh", "vw", "vmin", "vmax"};
 }
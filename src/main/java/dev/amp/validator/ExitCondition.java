@@ -24,6 +24,13 @@ package dev.amp.validator;
 /**
  * Exit condition enumeration types.
  *
+ * The conditions bounding the number of errors take the bound from the
+ * max errors argument of the parser. EXIT_ON_MAX_ERRORS and STATUS_ONLY
+ * require a positive bound, EXIT_ON_FIRST_ERROR_KEEP_WARNINGS keeps no
+ * warnings past the first error without one. Parsing only stops early once
+ * the document failed, so the status of the result is the one of a full
+ * parsing.
+ *
  * @author nhant01
  * @author GeorgeLuo
  */
@@ -33,5 +40,34 @@ public enum ExitCondition {
     FULL_PARSING,
 
     /** Exit on first error. */
-    EXIT_ON_FIRST_ERROR;
+    EXIT_ON_FIRST_ERROR,
+
+    /** Keep the first max errors errors and warnings, exit once they are kept. */
+    EXIT_ON_MAX_ERRORS,
+
+    /**
+     * Keep the first error of severity ERROR and the first max errors
+     * warnings, exit once they are kept. Without a bound, warnings are kept
+     * until the first error and parsing exits on it.
+     */
+    EXIT_ON_FIRST_ERROR_KEEP_WARNINGS,
+
+    /**
+     * Like EXIT_ON_MAX_ERRORS but errors only have their severity and code,
+     * without params, position or spec url.
+     */
+    STATUS_ONLY;
+
+    /**
+     * Checks the max errors argument given along with this exit condition.
+     *
+     * @param maxErrors bound of the exit condition on the errors kept.
+     * @throws IllegalArgumentException if the exit condition requires a
+     *                                  positive bound and |maxErrors| isn't.
+     */
+    public void checkMaxErrors(final int maxErrors) {
+        if ((this == EXIT_ON_MAX_ERRORS || this == STATUS_ONLY) && maxErrors <= 0) {
+            throw new IllegalArgumentException(this + " requires a positive max errors, got " + maxErrors);
+        }
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Extension names interned to small integer ids, so that an ExtensionsContext
+ * can keep its extension sets as bitsets. The names found in the rules are
+ * numbered when the rules are loaded, in name order; a name which isn't in
+ * the rules is numbered when first seen. Ids may be shared by threads.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class ExtensionIds {
+    /**
+     * Constructor of ids numbering names as they are seen.
+     */
+    public ExtensionIds() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param names the names to number, in name order.
+     */
+    public ExtensionIds(@Nonnull final Collection<String> names) {
+        this.idByName = new ConcurrentHashMap<>();
+        this.names = new ArrayList<>();
+        for (final String name : new TreeSet<>(names)) {
+            this.idByName.put(name, this.names.size());
+            this.names.add(name);
+        }
+    }
+
+    /**
+     * Returns the ids of the extensions named by the rules: the loadable
+     * extensions and the extensions required by tags and attributes.
+     *
+     * @param rules the validator rules.
+     * @return returns the extension ids.
+     */
+    public static ExtensionIds fromRules(@Nonnull final ValidatorProtos.ValidatorRulesOrBuilder rules) {
+        final List<String> names = new ArrayList<>();
+        for (final ValidatorProtos.TagSpec tagSpec : rules.getTagsList()) {
+            if (tagSpec.hasExtensionSpec()) {
+                names.add(tagSpec.getExtensionSpec().getName());
+            }
+            names.addAll(tagSpec.getRequiresExtensionList());
+            for (final ValidatorProtos.AttrSpec attrSpec : tagSpec.getAttrsList()) {
+                names.addAll(attrSpec.getRequiresExtensionList());
+            }
+        }
+        for (final ValidatorProtos.AttrList attrList : rules.getAttrListsList()) {
+            for (final ValidatorProtos.AttrSpec attrSpec : attrList.getAttrsList()) {
+                names.addAll(attrSpec.getRequiresExtensionList());
+            }
+        }
+        return new ExtensionIds(names);
+    }
+
+    /**
+     * Returns the id of an extension, numbering it if it is new.
+     *
+     * @param name the extension name.
+     * @return returns the extension id.
+     */
+    public int idOf(@Nonnull final String name) {
+        final Integer id = this.idByName.get(name);
+        return (id != null) ? id : this.add(name);
+    }
+
+    /**
+     * Returns the name of an extension.
+     *
+     * @param id the extension id.
+     * @return returns the extension name.
+     */
+    public synchronized String nameOf(final int id) {
+        return this.names.get(id);
+    }
+
+    /**
+     * Numbers an extension name unless another thread just did.
+     *
+     * @param name the extension name.
+     * @return returns the extension id.
+     */
+    private synchronized int add(@Nonnull final String name) {
+        final Integer id = this.idByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        this.names.add(name);
+        this.idByName.put(name, this.names.size() - 1);
+        return this.names.size() - 1;
+    }
+
+    /**
+     * Extension ids by name.
+     */
+    @Nonnull
+    private final Map<String, Integer> idByName;
+
+    /**
+     * Extension names by id.
+     */
+    @Nonnull
+    private final List<String> names;
+}
@@ -21,10 +21,13 @@
 
 package dev.amp.validator;
 
+import dev.amp.validator.utils.TagSpecUtils;
+
 import javax.annotation.Nonnull;
 
 /**
- * Extension missing error data.
+ * A missing extension error which may be emitted at the end of the document
+ * head. The ValidationError is only built if the error is emitted.
  *
  * @author nhant01
  * @author GeorgeLuo
@@ -33,13 +36,31 @@ import javax.annotation.Nonnull;
 public class ExtensionMissingError {
     /**
      * Default constructor.
-     * @param missingExtension missing extension.
-     * @param validationError  validation error.
+     * @param missingExtensionId id of the missing extension.
+     * @param missingExtension   missing extension.
+     * @param tagSpec            the tag spec requiring the extension.
+     * @param line               line of the tag.
+     * @param col                column of the tag.
      */
-    public ExtensionMissingError(@Nonnull final String missingExtension,
-                                 @Nonnull final ValidatorProtos.ValidationError validationError) {
-        this.maybeError = validationError;
+    public ExtensionMissingError(final int missingExtensionId,
+                                 @Nonnull final String missingExtension,
+                                 @Nonnull final ValidatorProtos.TagSpec tagSpec,
+                                 final int line,
+                                 final int col) {
+        this.missingExtensionId = missingExtensionId;
         this.missingExtension = missingExtension;
+        this.tagSpec = tagSpec;
+        this.line = line;
+        this.col = col;
+    }
+
+    /**
+     * Returns the id of the missing extension generating the
+     * ExtensionMissingError.
+     * @return returns the missing extension id.
+     */
+    public int getMissingExtensionId() {
+        return missingExtensionId;
     }
 
     /**
@@ -52,16 +73,35 @@ public class ExtensionMissingError {
     }
 
     /**
-     * Returns the ValidationError of ExtensionMissingError.
+     * Builds the ValidationError of ExtensionMissingError.
      *  @return ValidationError basis of ExtensionMissingError.
      */
     public ValidatorProtos.ValidationError getMaybeError() {
-        return maybeError;
+        return ValidatorProtos.ValidationError.newBuilder()
+                .setSeverity(ValidatorProtos.ValidationError.Severity.ERROR)
+                .setCode(ValidatorProtos.ValidationError.Code.MISSING_REQUIRED_EXTENSION)
+                .addParams(TagSpecUtils.getTagSpecName(tagSpec))
+                .addParams(missingExtension)
+                .setLine(line)
+                .setCol(col)
+                .setSpecUrl(TagSpecUtils.getTagSpecUrl(tagSpec))
+                .build();
     }
 
+    /** Missing extension id. */
+    private final int missingExtensionId;
+
     /** Missing extension. */
-    private String missingExtension;
+    @Nonnull
+    private final String missingExtension;
+
+    /** The tag spec requiring the extension. */
+    @Nonnull
+    private final ValidatorProtos.TagSpec tagSpec;
+
+    /** Line of the tag. */
+    private final int line;
 
-    /** Validation error. */
-    private ValidatorProtos.ValidationError maybeError;
+    /** Column of the tag. */
+    private final int col;
 }
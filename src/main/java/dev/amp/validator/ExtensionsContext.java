@@ -21,15 +21,13 @@
 
 package dev.amp.validator;
 
-import dev.amp.validator.utils.TagSpecUtils;
 import org.xml.sax.Locator;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * The extensions context keys track of the extensions that the validator has
@@ -41,21 +39,31 @@ import java.util.Map;
 
 public class ExtensionsContext {
     /**
-     * A constructor.
+     * A constructor numbering extensions as they are seen.
      */
     public ExtensionsContext() {
+        this(new ExtensionIds());
+    }
+
+    /**
+     * A constructor.
+     *
+     * @param extensionIds the extension ids of the rules.
+     */
+    public ExtensionsContext(@Nonnull final ExtensionIds extensionIds) {
         // |extensionsLoaded tracks the valid <script> tags loading
         // amp extensions which were seen in the document's head. Most extensions
         // are also added to |extensionsUnusedRequired| when encountered in the
         // head. When a tag is seen later in the document which makes use of an
         // extension, that extension is recorded in |extensionsUsed|.
 
-        this.extensionsLoaded = new HashMap<>();
-        extensionsLoaded.put("amp-ad", true);
+        this.extensionIds = extensionIds;
+        this.extensionsLoaded = new BitSet();
+        extensionsLoaded.set(extensionIds.idOf("amp-ad"));
 
-        this.extensionsUnusedRequired = new ArrayList<>();
+        this.extensionsUnusedRequired = new BitSet();
         this.extensionMissingErrors = new ArrayList<>();
-        this.extensionsUsed = new HashMap<>();
+        this.extensionsUsed = new BitSet();
     }
 
     /**
@@ -65,9 +73,12 @@ public class ExtensionsContext {
      * @return returns a list of errors found while processing head
      */
     public List<ValidatorProtos.ValidationError> missingExtensionErrors() {
+        if (this.extensionMissingErrors.isEmpty()) {
+            return Collections.emptyList();
+        }
         final List<ValidatorProtos.ValidationError> out = new ArrayList<>();
         for (final ExtensionMissingError err : this.extensionMissingErrors) {
-            if (!this.isExtensionLoaded(err.getMissingExtension())) {
+            if (!this.extensionsLoaded.get(err.getMissingExtensionId())) {
                 out.add(err.getMaybeError());
             }
         }
@@ -86,24 +97,31 @@ public class ExtensionsContext {
      * @return returns true iff extension is loaded.
      */
     public boolean isExtensionLoaded(@Nonnull final String extension) {
-        return this.extensionsLoaded.containsKey(extension);
+        return this.extensionsLoaded.get(this.extensionIds.idOf(extension));
     }
 
     /**
      * Returns a list of unused extensions which produce validation errors
-     * when unused.
+     * when unused, sorted by name.
      *
      * @return returns a list of unused extensions.
      */
     public List<String> unusedExtensionsRequired() {
         // Compute Difference: extensionsUnusedRequired_ - extensionsUsed_
-        final List<String> out = new ArrayList<>();
-        for (final String extension : this.extensionsUnusedRequired) {
-            if (!(this.extensionsUsed.containsKey(extension))) {
-                out.add(extension);
-            }
+        if (this.extensionsUnusedRequired.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final BitSet unused = (BitSet) this.extensionsUnusedRequired.clone();
+        unused.andNot(this.extensionsUsed);
+        final List<String> out = new ArrayList<>(unused.cardinality());
+        for (int id = unused.nextSetBit(0); id >= 0; id = unused.nextSetBit(id + 1)) {
+            out.add(this.extensionIds.nameOf(id));
+        }
+        // Ids of the rules' extensions are in name order, so the names are
+        // usually sorted already.
+        if (out.size() > 1) {
+            Collections.sort(out);
         }
-        Collections.sort(out);
         return out;
     }
 
@@ -125,11 +143,11 @@ public class ExtensionsContext {
         if (tagSpec.hasExtensionSpec()) {
             final ValidatorProtos.ExtensionSpec extensionSpec = tagSpec.getExtensionSpec();
             // This is an always present field if extension spec is set.
-            final String extensionName = extensionSpec.getName();
+            final int extensionId = this.extensionIds.idOf(extensionSpec.getName());
 
             // Record that we have encountered an extension 'load' tag. This will
             // look like <script custom-element=amp-foo ...> or similar.
-            this.extensionsLoaded.put(extensionName, true);
+            this.extensionsLoaded.set(extensionId);
             switch (extensionSpec.getRequiresUsage()) {
                 case EXEMPTED: // Fallthrough intended:
                 case NONE:
@@ -142,7 +160,7 @@ public class ExtensionsContext {
                 default: // Default is error
                     // Record that a loaded extension indicates a new requirement:
                     // namely that some tag must make use of this extension.
-                    this.extensionsUnusedRequired.add(extensionName);
+                    this.extensionsUnusedRequired.set(extensionId);
                     break;
             }
         }
@@ -158,8 +176,8 @@ public class ExtensionsContext {
      * @param extensions the list of extensions.
      */
     public void recordUsedExtensions(@Nonnull final List<String> extensions) {
-        for (final String extension : extensions) {
-            this.extensionsUsed.put(extension, true);
+        for (int i = 0; i < extensions.size(); i++) {
+            this.extensionsUsed.set(this.extensionIds.idOf(extensions.get(i)));
         }
     }
 
@@ -175,37 +193,34 @@ public class ExtensionsContext {
                                             @Nonnull final Locator lineCol) {
         final ValidatorProtos.TagSpec tagSpec = parsedTagSpec.getSpec();
         for (final String requiredExtension : tagSpec.getRequiresExtensionList()) {
-            if (!this.isExtensionLoaded(requiredExtension)) {
-                final ValidatorProtos.ValidationError.Builder error = ValidatorProtos.ValidationError.newBuilder();
-                error.setSeverity(ValidatorProtos.ValidationError.Severity.ERROR);
-                error.setCode(ValidatorProtos.ValidationError.Code.MISSING_REQUIRED_EXTENSION);
-                final List<String> params = new ArrayList<>();
-                params.add(TagSpecUtils.getTagSpecName(tagSpec));
-                params.add(requiredExtension);
-                error.addAllParams(params);
-                error.setLine(lineCol.getLineNumber());
-                error.setCol(lineCol.getColumnNumber());
-                error.setSpecUrl(TagSpecUtils.getTagSpecUrl(tagSpec));
-
-                this.extensionMissingErrors.add(new ExtensionMissingError(requiredExtension, error.build()));
+            final int extensionId = this.extensionIds.idOf(requiredExtension);
+            if (!this.extensionsLoaded.get(extensionId)) {
+                this.extensionMissingErrors.add(new ExtensionMissingError(extensionId, requiredExtension, tagSpec,
+                        lineCol.getLineNumber(), lineCol.getColumnNumber()));
             }
         }
     }
 
     /**
-     * Used as a set, based on key names.
+     * The extension ids of the rules.
+     */
+    @Nonnull
+    private final ExtensionIds extensionIds;
+
+    /**
+     * Ids of the loaded extensions.
      */
-    private Map<String, Boolean> extensionsLoaded;
+    private BitSet extensionsLoaded;
 
     /**
-     * A list of extension unused required.
+     * Ids of the loaded extensions which require usage.
      */
-    private List<String> extensionsUnusedRequired;
+    private BitSet extensionsUnusedRequired;
 
     /**
-     * Used as a set, based on key names.
+     * Ids of the used extensions.
      */
-    private Map<String, Boolean> extensionsUsed;
+    private BitSet extensionsUsed;
 
     /**
      * Missing errors extension.
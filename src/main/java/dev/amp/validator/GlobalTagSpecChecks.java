@@ -0,0 +1,292 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import dev.amp.validator.utils.TagSpecUtils;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The checks done at the end of a document which need a global view
+ * (mandatory alternatives, requires, excludes and also requires tag
+ * warnings), compiled once per html format. Conditions and mandatory
+ * alternatives are numbered so that a Context can track them in bitsets.
+ *
+ * The tag spec names must be final when the checks are compiled, that is
+ * after ParsedValidatorRules expanded the extension specs.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class GlobalTagSpecChecks {
+    /**
+     * Constructor.
+     *
+     * @param rules      the validator rules.
+     * @param htmlFormat the html format.
+     */
+    public GlobalTagSpecChecks(@Nonnull final ValidatorProtos.ValidatorRulesOrBuilder rules,
+                               @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat) {
+        final int numTags = rules.getTagsCount();
+        this.conditionIdByName = new HashMap<>();
+        this.conditionNames = new ArrayList<>();
+        this.mandatoryAlternativeIdByName = new HashMap<>();
+        this.mandatoryAlternativeNames = new ArrayList<>();
+        this.mandatoryAlternativeSpecUrls = new ArrayList<>();
+        this.requiresConditionIds = new int[numTags][];
+        this.excludesConditionIds = new int[numTags][];
+        this.alsoRequiresTagSpecIds = new int[numTags][];
+        Arrays.fill(this.requiresConditionIds, NO_IDS);
+        Arrays.fill(this.excludesConditionIds, NO_IDS);
+        Arrays.fill(this.alsoRequiresTagSpecIds, NO_IDS);
+
+        final Map<String, Integer> tagSpecIdBySpecName = new HashMap<>();
+        for (int tagSpecId = 0; tagSpecId < numTags; ++tagSpecId) {
+            final ValidatorProtos.TagSpec tagSpec = rules.getTags(tagSpecId);
+            if (!tagSpec.getHtmlFormatList().contains(htmlFormat)) {
+                continue;
+            }
+            if (tagSpec.hasSpecName()) {
+                tagSpecIdBySpecName.put(tagSpec.getSpecName(), tagSpecId);
+            }
+            for (final String condition : tagSpec.getSatisfiesList()) {
+                this.conditionId(condition);
+            }
+            this.requiresConditionIds[tagSpecId] = this.conditionIds(tagSpec.getRequiresList());
+            this.excludesConditionIds[tagSpecId] = this.conditionIds(tagSpec.getExcludesList());
+
+            if (tagSpec.hasMandatoryAlternatives()
+                    && !this.mandatoryAlternativeIdByName.containsKey(tagSpec.getMandatoryAlternatives())) {
+                this.mandatoryAlternativeIdByName.put(
+                        tagSpec.getMandatoryAlternatives(), this.mandatoryAlternativeNames.size());
+                this.mandatoryAlternativeNames.add(tagSpec.getMandatoryAlternatives());
+                this.mandatoryAlternativeSpecUrls.add(TagSpecUtils.getTagSpecUrl(tagSpec));
+            }
+        }
+
+        // Also requires tag warnings name tag specs which may come later in the
+        // rules, so they are resolved once all names are known. A name which
+        // isn't a tag spec of this format can't be validated, it is dropped.
+        for (int tagSpecId = 0; tagSpecId < numTags; ++tagSpecId) {
+            final ValidatorProtos.TagSpec tagSpec = rules.getTags(tagSpecId);
+            if (tagSpec.getAlsoRequiresTagWarningCount() == 0 || !tagSpec.getHtmlFormatList().contains(htmlFormat)) {
+                continue;
+            }
+            final int[] ids = new int[tagSpec.getAlsoRequiresTagWarningCount()];
+            int count = 0;
+            for (final String specName : tagSpec.getAlsoRequiresTagWarningList()) {
+                final Integer id = tagSpecIdBySpecName.get(specName);
+                if (id != null) {
+                    ids[count++] = id;
+                }
+            }
+            this.alsoRequiresTagSpecIds[tagSpecId] = (count == ids.length) ? ids : Arrays.copyOf(ids, count);
+        }
+    }
+
+    /**
+     * Returns the id of a condition, -1 if no tag spec of this format
+     * requires, excludes or satisfies it.
+     *
+     * @param condition the condition.
+     * @return the condition id or -1.
+     */
+    public int getConditionId(@Nonnull final String condition) {
+        final Integer id = this.conditionIdByName.get(condition);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Returns the name of a condition.
+     *
+     * @param conditionId the condition id.
+     * @return the condition.
+     */
+    public String getConditionName(final int conditionId) {
+        return this.conditionNames.get(conditionId);
+    }
+
+    /**
+     * Returns the id of a mandatory alternative, -1 if no tag spec of this
+     * format is a member of it.
+     *
+     * @param alternative the mandatory alternative.
+     * @return the mandatory alternative id or -1.
+     */
+    public int getMandatoryAlternativeId(@Nonnull final String alternative) {
+        final Integer id = this.mandatoryAlternativeIdByName.get(alternative);
+        return (id == null) ? -1 : id;
+    }
+
+    /**
+     * Returns the number of mandatory alternatives, ids are below it.
+     *
+     * @return the number of mandatory alternatives.
+     */
+    public int getMandatoryAlternativeCount() {
+        return this.mandatoryAlternativeNames.size();
+    }
+
+    /**
+     * Returns the name of a mandatory alternative.
+     *
+     * @param alternativeId the mandatory alternative id.
+     * @return the mandatory alternative.
+     */
+    public String getMandatoryAlternative(final int alternativeId) {
+        return this.mandatoryAlternativeNames.get(alternativeId);
+    }
+
+    /**
+     * Returns the spec url of a mandatory alternative, the one of its first
+     * tag spec.
+     *
+     * @param alternativeId the mandatory alternative id.
+     * @return the spec url.
+     */
+    public String getMandatoryAlternativeSpecUrl(final int alternativeId) {
+        return this.mandatoryAlternativeSpecUrls.get(alternativeId);
+    }
+
+    /**
+     * Returns the ids of the conditions a tag spec requires. Do not modify.
+     *
+     * @param tagSpecId the tag spec id.
+     * @return the condition ids.
+     */
+    public int[] getRequiresConditionIds(final int tagSpecId) {
+        return this.requiresConditionIds[tagSpecId];
+    }
+
+    /**
+     * Returns the ids of the conditions a tag spec excludes. Do not modify.
+     *
+     * @param tagSpecId the tag spec id.
+     * @return the condition ids.
+     */
+    public int[] getExcludesConditionIds(final int tagSpecId) {
+        return this.excludesConditionIds[tagSpecId];
+    }
+
+    /**
+     * Returns the ids of the tag specs a tag spec warns about when they are
+     * missing. Do not modify.
+     *
+     * @param tagSpecId the tag spec id.
+     * @return the tag spec ids.
+     */
+    public int[] getAlsoRequiresTagSpecIds(final int tagSpecId) {
+        return this.alsoRequiresTagSpecIds[tagSpecId];
+    }
+
+    /**
+     * Returns the ids of conditions, numbering new ones.
+     *
+     * @param conditions the conditions.
+     * @return the condition ids.
+     */
+    private int[] conditionIds(@Nonnull final List<String> conditions) {
+        if (conditions.isEmpty()) {
+            return NO_IDS;
+        }
+        final int[] ids = new int[conditions.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = this.conditionId(conditions.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the id of a condition, numbering it if it is new.
+     *
+     * @param condition the condition.
+     * @return the condition id.
+     */
+    private int conditionId(@Nonnull final String condition) {
+        Integer id = this.conditionIdByName.get(condition);
+        if (id == null) {
+            id = this.conditionNames.size();
+            this.conditionIdByName.put(condition, id);
+            this.conditionNames.add(condition);
+        }
+        return id;
+    }
+
+    /**
+     * Shared empty id list.
+     */
+    private static final int[] NO_IDS = new int[0];
+
+    /**
+     * Condition ids by condition.
+     */
+    @Nonnull
+    private final Map<String, Integer> conditionIdByName;
+
+    /**
+     * Conditions by id.
+     */
+    @Nonnull
+    private final List<String> conditionNames;
+
+    /**
+     * Mandatory alternative ids by mandatory alternative.
+     */
+    @Nonnull
+    private final Map<String, Integer> mandatoryAlternativeIdByName;
+
+    /**
+     * Mandatory alternatives by id, in the order of their first tag spec.
+     */
+    @Nonnull
+    private final List<String> mandatoryAlternativeNames;
+
+    /**
+     * Spec urls of the mandatory alternatives by id.
+     */
+    @Nonnull
+    private final List<String> mandatoryAlternativeSpecUrls;
+
+    /**
+     * Required condition ids indexed by tag spec id.
+     */
+    @Nonnull
+    private final int[][] requiresConditionIds;
+
+    /**
+     * Excluded condition ids indexed by tag spec id.
+     */
+    @Nonnull
+    private final int[][] excludesConditionIds;
+
+    /**
+     * Also required tag spec ids indexed by tag spec id.
+     */
+    @Nonnull
+    private final int[][] alsoRequiresTagSpecIds;
+}
@@ -39,14 +39,17 @@ import java.util.Map;
 public class ParsedAttrSpec {
     /**
      * Constructor.
-     * @param attrSpec the AttrSpec.
-     * @param attrName attr name.
+     * @param attrSpec           the AttrSpec.
+     * @param attrName           attr name.
+     * @param compiledValueLists the compiled value lists of the rules.
      */
-    public ParsedAttrSpec(@Nonnull final ValidatorProtos.AttrSpec attrSpec, final String attrName) {
+    public ParsedAttrSpec(@Nonnull final ValidatorProtos.AttrSpec attrSpec, final String attrName,
+                          @Nonnull final CompiledValueLists compiledValueLists) {
         this.spec = attrSpec;
         this.attrName = attrName;
         this.valueUrlSpec = null;
         this.valueProperties = null;
+        this.compiledValueLists = compiledValueLists;
         this.cssDeclarationByName = new HashMap<>();
 
         for (final ValidatorProtos.CssDeclaration cssDeclaration : attrSpec.getCssDeclarationList()) {
@@ -83,6 +86,14 @@ public class ParsedAttrSpec {
         return this.valueUrlSpec;
     }
 
+    /**
+     * Returns the compiled value or value_casei list, null if the AttrSpec has neither.
+     * @return returns the compiled value or value_casei list.
+     */
+    public CompiledValueList getValueListOrNull() {
+        return this.compiledValueLists.getValueListOrNull(this.spec);
+    }
+
     /**
      * Returns the ParsedValueProperties.
      * @return returns the ParsedValueProperties.
@@ -107,6 +118,15 @@ public class ParsedAttrSpec {
         return this.cssDeclarationByName;
     }
 
+    /**
+     * Returns the compiled value_casei list of a CssDeclaration of this AttrSpec.
+     * @param cssDeclaration a CssDeclaration from the CssDeclaration map.
+     * @return returns the compiled value_casei list, null if it is empty.
+     */
+    public CompiledValueList getCssDeclarationValueCasei(@Nonnull final ValidatorProtos.CssDeclaration cssDeclaration) {
+        return this.compiledValueLists.getValueCaseiOrNull(cssDeclaration);
+    }
+
     /**
      * Returns true if this AttrSpec should be used for the given type identifiers
      * based on the AttrSpec's disabled_by or enabled_by fields.
@@ -127,6 +147,7 @@ public class ParsedAttrSpec {
         this.attrName = null;
         this.valueUrlSpec = null;
         this.valueProperties = null;
+        this.compiledValueLists = null;
         this.cssDeclarationByName = null;
     }
 
@@ -150,6 +171,11 @@ public class ParsedAttrSpec {
      */
     private ParsedValueProperties valueProperties;
 
+    /**
+     * Compiled value lists of the rules.
+     */
+    private CompiledValueLists compiledValueLists;
+
     /**
      * CssDeclaration map.
      */
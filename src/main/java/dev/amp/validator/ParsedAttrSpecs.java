@@ -69,7 +69,7 @@ public class ParsedAttrSpecs {
             return parsedAttrSpecs.get(key);
         }
 
-        final ParsedAttrSpec parsed = new ParsedAttrSpec(attrSpec, attrName);
+        final ParsedAttrSpec parsed = new ParsedAttrSpec(attrSpec, attrName, this.validatorManager.getCompiledValueLists());
         this.parsedAttrSpecs.put(key, parsed);
 
         return parsed;
@@ -2,10 +2,12 @@ package dev.amp.validator;
 
 import dev.amp.validator.utils.ExtensionsUtils;
 import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
 
 import javax.annotation.Nonnull;
 import java.util.HashMap;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static dev.amp.validator.utils.ExtensionsUtils.EXTENSION_SCRIPT_NAMES;
 
@@ -25,10 +27,124 @@ public class ParsedHtmlTag {
      *                   there are no attributes, it shall be an empty Attributes object.
      */
     public ParsedHtmlTag(@Nonnull final String tagName, @Nonnull final Attributes attributes) {
-        this.tagName = tagName.toUpperCase();
+        this.reset(tagName, attributes);
+    }
+
+    /**
+     * Points this instance to another element, so that a tag cleaned up at the
+     * end of an element can be reused for the next one.
+     *
+     * @param tagName    the name of the underlying tag in html document.
+     * @param attributes the attributes attached to the element.  If
+     *                   there are no attributes, it shall be an empty Attributes object.
+     */
+    public void reset(@Nonnull final String tagName, @Nonnull final Attributes attributes) {
+        final String[] names = nameVariants(tagName);
+        this.tagName = names[0];
+        this.lowerTagName = names[1];
         this.attrs = attributes;
-        this.scriptTag = new ScriptTag(this.tagName, this.attrs);
+        this.scriptTag = null;
         this.attrsByKey = null;
+        this.attrIndexTable = null;
+    }
+
+    /**
+     * Returns the analysed script tag. The script src is only analysed, once,
+     * for script tags; other tags share a script tag with the default values.
+     *
+     * @return the script tag.
+     */
+    private ScriptTag scriptTag() {
+        if (this.scriptTag == null) {
+            if ("SCRIPT".equals(this.tagName)) {
+                if (this.reusableScriptTag == null) {
+                    this.reusableScriptTag = new ScriptTag(this.tagName, this.attrs);
+                } else {
+                    this.reusableScriptTag.reset(this.attrs);
+                }
+                this.scriptTag = this.reusableScriptTag;
+            } else {
+                this.scriptTag = NOT_A_SCRIPT_TAG;
+            }
+        }
+        return this.scriptTag;
+    }
+
+    /**
+     * Returns the upper and lower case variants of a tag name. The variants of
+     * the first MAX_INTERNED_NAMES distinct names are interned and shared across
+     * tags and documents, so the case of a name is folded once rather than per
+     * tag. Names seen once the cache is full are folded per tag.
+     *
+     * @param tagName the name of the tag in the html document.
+     * @return the upper case name followed by the lower case name.
+     */
+    private static String[] nameVariants(@Nonnull final String tagName) {
+        String[] names = NAME_VARIANTS.get(tagName);
+        if (names == null) {
+            String upper = toAsciiUpperCase(tagName);
+            String lower;
+            if (upper == null) {
+                upper = tagName.toUpperCase();
+                lower = upper.toLowerCase();
+            } else {
+                lower = toAsciiLowerCase(tagName);
+            }
+            if (NAME_VARIANTS.size() >= MAX_INTERNED_NAMES) {
+                // Not cached, don't put the name in the JVM string table either.
+                return new String[]{upper, lower};
+            }
+            names = new String[]{upper.intern(), lower.intern()};
+            final String[] previous = NAME_VARIANTS.putIfAbsent(tagName, names);
+            if (previous != null) {
+                names = previous;
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Upper cases ASCII letters of |value|.
+     *
+     * @param value a string.
+     * @return the upper cased string, |value| itself if it has no lower case letter,
+     * null if it has a non ASCII char.
+     */
+    private static String toAsciiUpperCase(@Nonnull final String value) {
+        char[] chars = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c > MAX_ASCII) {
+                return null;
+            }
+            if (c >= 'a' && c <= 'z') {
+                if (chars == null) {
+                    chars = value.toCharArray();
+                }
+                chars[i] = (char) (c - ('a' - 'A'));
+            }
+        }
+        return chars == null ? value : new String(chars);
+    }
+
+    /**
+     * Lower cases ASCII letters of the ASCII string |value|.
+     *
+     * @param value an ASCII string.
+     * @return the lower cased string, |value| itself if it has no upper case letter.
+     */
+    private static String toAsciiLowerCase(@Nonnull final String value) {
+        char[] chars = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (chars == null) {
+                    chars = value.toCharArray();
+                }
+                chars[i] = (char) (c + ('a' - 'A'));
+            }
+        }
+        return chars == null ? value : new String(chars);
     }
 
     /**
@@ -37,7 +153,7 @@ public class ParsedHtmlTag {
      * @return returns a lower case tag name.
      */
     public String lowerName() {
-        return this.tagName.toLowerCase();
+        return this.lowerTagName;
     }
 
     /**
@@ -97,13 +213,35 @@ public class ParsedHtmlTag {
      */
     public String getValue(@Nonnull final String attrName, final int index) {
         String val = attrs.getValue(index);
-        if (val != null && val.equals(attrName.toLowerCase())) {
+        if (val != null && equalsLowerCase(val, attrName)) {
             return "";
         }
 
         return val;
     }
 
+    /**
+     * Returns true if |value| equals the lower cased |name|, folding ASCII
+     * names in place rather than allocating the lower cased copy.
+     *
+     * @param value a value.
+     * @param name  a name.
+     * @return returns true if |value| equals the lower cased |name|.
+     */
+    private static boolean equalsLowerCase(@Nonnull final String value, @Nonnull final String name) {
+        boolean equals = value.length() == name.length();
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c > MAX_ASCII) {
+                return value.equals(name.toLowerCase());
+            }
+            if (equals) {
+                equals = value.charAt(i) == ((c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c);
+            }
+        }
+        return equals;
+    }
+
     /**
      * Gets the name attribute for an extension script tag.
      *
@@ -113,7 +251,7 @@ public class ParsedHtmlTag {
     private String extensionScriptNameAttribute() {
         if ("SCRIPT".equals(this.upperName())) {
             for (final String attribute : EXTENSION_SCRIPT_NAMES) {
-                if (this.attrsByKey().containsKey(attribute)) {
+                if (this.getAttrIndex(attribute) != -1) {
                     return attribute;
                 }
             }
@@ -142,14 +280,72 @@ public class ParsedHtmlTag {
 
     /**
      * Returns the value of a given attribute name. If it does not exist then
-     * returns null.
+     * returns null. Same as attrsByKey().get(name), without building the map.
      *
-     * @param name value
+     * @param name the lower case attribute name.
      * @return value of attribute or null.
-     * @private
      */
-    private String getAttrValueOrNull(@Nonnull final String name) {
-        return this.attrsByKey().get(name);
+    public String getAttrValueOrNull(@Nonnull final String name) {
+        final int index = this.getAttrIndex(name);
+        return (index == -1) ? null : this.attrs.getValue(index);
+    }
+
+    /**
+     * Returns the index of the last attribute named |name|, -1 if there is none.
+     * Tags with fewer than MAX_LINEAR_SCAN_ATTRS attributes are scanned, larger
+     * ones are looked up in a lazily built open addressed table of indices.
+     *
+     * @param name the lower case attribute name.
+     * @return the index to the Attributes or -1.
+     */
+    public int getAttrIndex(@Nonnull final String name) {
+        final int length = this.attrs.getLength();
+        if (length < MAX_LINEAR_SCAN_ATTRS) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (name.equals(this.attrs.getLocalName(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (this.attrIndexTable == null) {
+            this.attrIndexTable = buildAttrIndexTable(length);
+        }
+        final int mask = this.attrIndexTable.length - 1;
+        int slot = name.hashCode() & mask;
+        while (this.attrIndexTable[slot] != 0) {
+            final int index = this.attrIndexTable[slot] - 1;
+            if (name.equals(this.attrs.getLocalName(index))) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Builds a linear probing table of attribute indices keyed by name. Slots
+     * hold the index plus one, zero for an empty slot. A later attribute with
+     * the same name replaces the earlier one, as in attrsByKey().
+     *
+     * @param length the number of attributes.
+     * @return the table.
+     */
+    private int[] buildAttrIndexTable(final int length) {
+        int capacity = 2;
+        while (capacity < length * 2) {
+            capacity <<= 1;
+        }
+        final int[] table = new int[capacity];
+        for (int i = 0; i < length; i++) {
+            final String name = this.attrs.getLocalName(i);
+            int slot = name.hashCode() & (capacity - 1);
+            while (table[slot] != 0 && !name.equals(this.attrs.getLocalName(table[slot] - 1))) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = i + 1;
+        }
+        return table;
     }
 
     /**
@@ -158,7 +354,7 @@ public class ParsedHtmlTag {
      * @return {boolean}
      */
     public boolean isAmpDomain() {
-        return this.scriptTag.isAmpDomain();
+        return this.scriptTag().isAmpDomain();
     }
 
     /**
@@ -167,7 +363,7 @@ public class ParsedHtmlTag {
      * @return true iff is AMP runtime script tag
      */
     public boolean isAmpRuntimeScript() {
-        return this.scriptTag.isRuntime();
+        return this.scriptTag().isRuntime();
     }
 
     /**
@@ -177,7 +373,7 @@ public class ParsedHtmlTag {
      * @return true iff this is an async script tag.
      */
     private boolean isAsyncScriptTag(final String src) {
-        return "SCRIPT".equals(this.upperName()) && this.attrsByKey().containsKey("async")
+        return "SCRIPT".equals(this.upperName()) && this.getAttrIndex("async") != -1
                 && src != null;
     }
 
@@ -186,7 +382,10 @@ public class ParsedHtmlTag {
      */
     public void cleanup() {
         this.tagName = null;
+        this.lowerTagName = null;
+        this.scriptTag = null;
         this.attrsByKey = null;
+        this.attrIndexTable = null;
     }
 
     /**
@@ -195,7 +394,7 @@ public class ParsedHtmlTag {
      * @return an upper case tag name.
      */
     public String upperName() {
-        return this.tagName.toUpperCase();
+        return this.tagName;
     }
 
     /**
@@ -213,7 +412,7 @@ public class ParsedHtmlTag {
      * @return the extension name
      */
     public String getExtensionName() {
-        return this.scriptTag.getExtensionName();
+        return this.scriptTag().getExtensionName();
     }
 
     /**
@@ -222,7 +421,7 @@ public class ParsedHtmlTag {
      * @return the extension version
      */
     public String getExtensionVersion() {
-        return this.scriptTag.getExtensionVersion();
+        return this.scriptTag().getExtensionVersion();
     }
 
     /**
@@ -230,7 +429,7 @@ public class ParsedHtmlTag {
      * @return true iff this tag is a script with a valid AMP script path.
      */
     public boolean hasValidAmpScriptPath() {
-        return this.scriptTag.hasValidPath();
+        return this.scriptTag().hasValidPath();
     }
 
     /**
@@ -238,7 +437,7 @@ public class ParsedHtmlTag {
      * @return the script tag path of the 'src' attribute.
      */
     public String getAmpScriptPath() {
-        return this.scriptTag.getPath();
+        return this.scriptTag().getPath();
     }
 
     /**
@@ -246,7 +445,7 @@ public class ParsedHtmlTag {
      * @return the script release version
      */
     public ExtensionsUtils.ScriptReleaseVersion getScriptReleaseVersion() {
-        return this.scriptTag.getReleaseVersion();
+        return this.scriptTag().getReleaseVersion();
     }
 
     /**
@@ -255,42 +454,61 @@ public class ParsedHtmlTag {
     @Nonnull
     private String tagName;
 
+    /**
+     * The lower case tag name.
+     */
+    @Nonnull
+    private String lowerTagName;
+
     /**
      * The attributes.
      */
     @Nonnull
-    private final Attributes attrs;
+    private Attributes attrs;
+
+    /**
+     * The underlying script tag, analysed lazily.
+     */
+    private ScriptTag scriptTag;
+
+    /**
+     * Script tag kept to be reset for the script elements this instance is reused for.
+     */
+    private ScriptTag reusableScriptTag;
 
     /**
-     * The underlying script tag
+     * Script tag of the elements other than script.
      */
     @Nonnull
-    private final ScriptTag scriptTag;
+    private static final ScriptTag NOT_A_SCRIPT_TAG = new ScriptTag("", new AttributesImpl());
 
     /**
      * Lazily allocated map from attribute name to value
      */
     private HashMap<String, String> attrsByKey;
 
-    private static final Pattern MODULE_LTS_SCRIPT_SRC_REGEX =
-            Pattern.compile("^https:\\/\\/cdn\\.ampproject\\.org\\/lts\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.mjs$",
-                    Pattern.CASE_INSENSITIVE);
-
-    private static final Pattern NOMODULE_LTS_SCRIPT_SRC_REGEX = Pattern.compile(
-            "^https:\\/\\/cdn\\.ampproject\\.org\\/lts\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$",
-            Pattern.CASE_INSENSITIVE);
-
-    private static final Pattern MODULE_SCRIPT_SRC_REGEX = Pattern.compile(
-            "^https://cdn\\.ampproject\\.org\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.mjs$",
-            Pattern.CASE_INSENSITIVE);
+    /**
+     * Lazily built table of attribute indices, see getAttrIndex.
+     */
+    private int[] attrIndexTable;
 
-    private static final Pattern NOMODULE_SCRIPT_SRC_REGEX = Pattern.compile(
-            "^https:\\/\\/cdn\\.ampproject\\.org\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$",
-            Pattern.CASE_INSENSITIVE);
+    /**
+     * Tags with fewer attributes are scanned rather than looked up in a table.
+     */
+    private static final int MAX_LINEAR_SCAN_ATTRS = 8;
 
-    private static final Pattern LTS_SCRIPT_SRC_REGEX = Pattern.compile(
-            "/lts\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$",
-            Pattern.CASE_INSENSITIVE);
+    /**
+     * Bound on the number of distinct tag names whose case variants are shared.
+     */
+    private static final int MAX_INTERNED_NAMES = 1024;
 
+    /**
+     * The highest ASCII char.
+     */
+    private static final char MAX_ASCII = 0x7F;
 
-}
\ No newline at end of file
+    /**
+     * Upper and lower case variants by the name of a tag in the html document.
+     */
+    private static final Map<String, String[]> NAME_VARIANTS = new ConcurrentHashMap<>();
+}
@@ -21,6 +21,7 @@
 
 package dev.amp.validator;
 
+import dev.amp.validator.exception.TagValidationException;
 import dev.amp.validator.utils.TagSpecUtils;
 
 import javax.annotation.Nonnull;
@@ -52,6 +53,28 @@ public class ParsedReferencePoints {
         return this.parentTagSpec.getReferencePointsList();
     }
 
+    /**
+     * Returns the tag specs of the reference points, in the order of iterate().
+     * The reference points are resolved to their tag specs once, on first use,
+     * so that matching child tags needs no lookups by name.
+     *
+     * @param rules the ParsedValidatorRules object.
+     * @return returns the tag specs of the reference points.
+     * @throws TagValidationException if a reference point does not exist.
+     */
+    public ParsedTagSpec[] tagSpecs(@Nonnull final ParsedValidatorRules rules) throws TagValidationException {
+        if (this.tagSpecs == null) {
+            final List<ValidatorProtos.ReferencePoint> referencePoints = this.iterate();
+            final ParsedTagSpec[] resolved = new ParsedTagSpec[referencePoints.size()];
+            for (int i = 0; i < resolved.length; i++) {
+                resolved[i] = rules.getByTagSpecId(
+                        rules.getTagSpecIdByReferencePointTagSpecName(referencePoints.get(i).getTagSpecName()));
+            }
+            this.tagSpecs = resolved;
+        }
+        return this.tagSpecs;
+    }
+
     /**
      * Return true if the parent tag spec's reference point size is empty.
      *
@@ -93,6 +116,7 @@ public class ParsedReferencePoints {
      */
     public void cleanup() {
         this.parentTagSpec = null;
+        this.tagSpecs = null;
     }
 
     /**
@@ -100,4 +124,9 @@ public class ParsedReferencePoints {
      */
     @Nonnull
     private ValidatorProtos.TagSpec parentTagSpec;
+
+    /**
+     * The tag specs of the reference points, resolved lazily.
+     */
+    private ParsedTagSpec[] tagSpecs;
 }
@@ -112,12 +112,13 @@ public class ParsedTagSpec {
     }
 
     /**
-     * If tag has a cdata spec, returns a CdataMatcher, else null.
+     * If tag has a cdata spec, returns a CdataMatcher, else null. A CdataMatcher
+     * for the default cdata spec would not check anything, so none is created.
      * @param lineCol the pair of line/col.
      * @return CdataMatcher returns CdataMatcher object.
      */
     public CdataMatcher cdataMatcher(@Nonnull final Locator lineCol) {
-        if (this.spec.getCdata() != null) {
+        if (this.spec.hasCdata()) {
             return new CdataMatcher(this, lineCol);
         }
 
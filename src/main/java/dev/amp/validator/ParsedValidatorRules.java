@@ -22,6 +22,7 @@
 package dev.amp.validator;
 
 import dev.amp.validator.css.ParsedDocCssSpec;
+import dev.amp.validator.css.StylesheetCache;
 import dev.amp.validator.exception.TagValidationException;
 import dev.amp.validator.exception.ValidatorException;
 import dev.amp.validator.utils.AttributeSpecUtils;
@@ -31,6 +32,9 @@ import org.xml.sax.Attributes;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -82,13 +86,15 @@ public class ParsedValidatorRules {
         typeIdentifiers.put("data-css-strict", 0);
 
         expandExtensionSpec();
+        this.globalTagSpecChecks = ampValidatorManager.getGlobalTagSpecChecks(htmlFormat);
 
         this.parsedAttrSpecs = new ParsedAttrSpecs(ampValidatorManager);
 
         this.parsedCss = new ArrayList<>();
         for (final ValidatorProtos.DocCssSpec cssSpec : this.ampValidatorManager.getRules().getCssList()) {
             this.parsedCss.add(
-                    new ParsedDocCssSpec(cssSpec, this.ampValidatorManager.getRules().getDeclarationListList()));
+                    new ParsedDocCssSpec(cssSpec, this.ampValidatorManager.getRules().getDeclarationListList(),
+                            this.ampValidatorManager.getCompiledValueLists()));
         }
 
         this.parsedDoc = new ArrayList<>();
@@ -177,6 +183,18 @@ public class ParsedValidatorRules {
                 }
             }
         }
+
+        // Flatten the specificities into an array indexed by the error code number
+        // so that comparing attempts does not need a map lookup per error.
+        int maxCodeNumber = 0;
+        for (final ValidatorProtos.ValidationError.Code code : ValidatorProtos.ValidationError.Code.values()) {
+            maxCodeNumber = Math.max(maxCodeNumber, code.getNumber());
+        }
+        this.specificityByCode = new int[maxCodeNumber + 1];
+        Arrays.fill(this.specificityByCode, NO_SPECIFICITY);
+        for (final Map.Entry<ValidatorProtos.ValidationError.Code, ErrorCodeMetadata> entry : this.errorCodes.entrySet()) {
+            this.specificityByCode[entry.getKey().getNumber()] = entry.getValue().getSpecificity();
+        }
     }
 
     /**
@@ -276,6 +294,28 @@ public class ParsedValidatorRules {
         return tagSpecNameToSpecId.get(specName);
     }
 
+    /**
+     * Returns the id of a condition, -1 if no tag spec requires, excludes or
+     * satisfies it.
+     *
+     * @param condition the condition.
+     * @return returns the condition id or -1.
+     */
+    public int getConditionId(@Nonnull final String condition) {
+        return this.globalTagSpecChecks.getConditionId(condition);
+    }
+
+    /**
+     * Returns the id of a mandatory alternative, -1 if no tag spec is a
+     * member of it.
+     *
+     * @param alternative the mandatory alternative.
+     * @return returns the mandatory alternative id or -1.
+     */
+    public int getMandatoryAlternativeId(@Nonnull final String alternative) {
+        return this.globalTagSpecChecks.getMandatoryAlternativeId(alternative);
+    }
+
     /**
      * Returns the ParsedTagSpec given the tag spec id.
      *
@@ -364,6 +404,58 @@ public class ParsedValidatorRules {
         return false;
     }
 
+    /**
+     * Returns true iff attemptA is a better result than attemptB. Unlike the
+     * ValidationResult overload this compares the error code sets and running
+     * max specificity the attempts collected through ValidateTagResult#deferError,
+     * so the errors need not be built or walked for the comparison.
+     *
+     * @param attemptA a tag validation result.
+     * @param attemptB a tag validation result.
+     * @return returns true iff attemptA is a better result than attemptB.
+     * @throws ValidatorException the ValidatorException.
+     */
+    public boolean betterValidationResultThan(@Nonnull final ValidateTagResult attemptA,
+                                              @Nonnull final ValidateTagResult attemptB)
+            throws ValidatorException {
+        final ValidatorProtos.ValidationResult.Status statusA = attemptA.getValidationResult().getStatus();
+        final ValidatorProtos.ValidationResult.Status statusB = attemptB.getValidationResult().getStatus();
+        if (statusA != statusB) {
+            return this.betterValidationStatusThan(statusA, statusB);
+        }
+
+        // See betterValidationResultThan for the ValidationResult overload.
+        if (isStrictSubset(attemptA.getErrorCodes(), attemptB.getErrorCodes())) {
+            return true;
+        }
+        if (isStrictSubset(attemptB.getErrorCodes(), attemptA.getErrorCodes())) {
+            return false;
+        }
+
+        if (attemptA.getMaxSpecificity() != attemptB.getMaxSpecificity()) {
+            return attemptA.getMaxSpecificity() > attemptB.getMaxSpecificity();
+        }
+
+        return attemptA.getErrorCount() < attemptB.getErrorCount();
+    }
+
+    /**
+     * Returns true iff the codes in codesA are a strict subset of the codes in codesB.
+     *
+     * @param codesA a set of error code numbers.
+     * @param codesB a set of error code numbers.
+     * @return returns true iff the codes in codesA are a strict subset of the codes in codesB.
+     */
+    private static boolean isStrictSubset(@Nonnull final BitSet codesA, @Nonnull final BitSet codesB) {
+        for (int code = codesA.nextSetBit(0); code >= 0; code = codesA.nextSetBit(code + 1)) {
+            if (!codesB.get(code)) {
+                return false;
+            }
+        }
+        // Every code in A is also in B. If they are the same, not a subset.
+        return codesA.cardinality() < codesB.cardinality();
+    }
+
     /**
      * Checks if maybeTypeIdentifier is contained in rules' typeIdentifiers.
      *
@@ -518,6 +610,10 @@ public class ParsedValidatorRules {
      * @return returns the error code specificity.
      */
     public int specificity(@Nonnull final ValidatorProtos.ValidationError.Code errorCode) {
+        final int number = errorCode.getNumber();
+        if (number < this.specificityByCode.length && this.specificityByCode[number] != NO_SPECIFICITY) {
+            return this.specificityByCode[number];
+        }
         return this.errorCodes.get(errorCode).getSpecificity();
     }
 
@@ -551,21 +647,21 @@ public class ParsedValidatorRules {
      */
     public boolean isErrorSubset(@Nonnull final List<ValidatorProtos.ValidationError> errorsA,
                                  @Nonnull final List<ValidatorProtos.ValidationError> errorsB) {
-        Map<ValidatorProtos.ValidationError.Code, Integer> codesA = new HashMap<>();
+        final BitSet codesA = new BitSet();
         for (final ValidatorProtos.ValidationError error : errorsA) {
-            codesA.put(error.getCode(), 1);
+            codesA.set(error.getCode().getNumber());
         }
 
-        Map<ValidatorProtos.ValidationError.Code, Integer> codesB = new HashMap<>();
+        final BitSet codesB = new BitSet();
         for (final ValidatorProtos.ValidationError error : errorsB) {
-            codesB.put(error.getCode(), 1);
-            if (!codesA.containsKey(error.getCode())) {
+            codesB.set(error.getCode().getNumber());
+            if (!codesA.get(error.getCode().getNumber())) {
                 return false;
             }
         }
 
         // Every code in B is also in A. If they are the same, not a subset.
-        return codesA.size() > codesB.size();
+        return codesA.cardinality() > codesB.cardinality();
     }
 
     /**
@@ -700,12 +796,16 @@ public class ParsedValidatorRules {
     public void maybeEmitValueSetMismatchErrors(@Nonnull final Context context,
                                                 @Nonnull final ValidatorProtos.ValidationResult.Builder validationResult)
             throws TagValidationException {
-        final Set<String> providedKeys = context.valueSetsProvided();
-        for (final String requiredKey : context.valueSetsRequired().keySet()) {
-            if (!providedKeys.contains(requiredKey)) {
-                context.valueSetsRequired().get(requiredKey);
-                for (final ValidatorProtos.ValidationError error : context.valueSetsRequired().get(requiredKey)) {
-                    context.addBuiltError(error, validationResult);
+        final Map<ValidatorProtos.AttrSpec.ValueSet, Set<String>> provided = context.valueSetsProvided();
+        for (final Map.Entry<ValidatorProtos.AttrSpec.ValueSet, Map<String, List<ValidatorProtos.ValidationError>>>
+                requiredSet : context.valueSetsRequired().entrySet()) {
+            final Set<String> providedValues = provided.getOrDefault(requiredSet.getKey(), Collections.emptySet());
+            for (final Map.Entry<String, List<ValidatorProtos.ValidationError>> required
+                    : requiredSet.getValue().entrySet()) {
+                if (!providedValues.contains(required.getKey())) {
+                    for (final ValidatorProtos.ValidationError error : required.getValue()) {
+                        context.addBuiltError(error, validationResult);
+                    }
                 }
             }
         }
@@ -767,31 +867,17 @@ public class ParsedValidatorRules {
     public void maybeEmitMandatoryAlternativesSatisfiedErrors(@Nonnull final Context context,
                                                               @Nonnull final ValidatorProtos.ValidationResult.Builder validationResult)
             throws TagValidationException {
-        final List<String> satisfied = context.getMandatoryAlternativesSatisfied();
-        /** @type {!Array<string>} */
-        final List<String> missing = new ArrayList<>();
-        Map<String, String> specUrlsByMissing = new HashMap<>();
-        for (final ValidatorProtos.TagSpec tagSpec : this.ampValidatorManager.getRules().getTagsList()) {
-            if (!tagSpec.hasMandatoryAlternatives() || !this.isTagSpecCorrectHtmlFormat(tagSpec)) {
-                continue;
-            }
-            final String alternative = tagSpec.getMandatoryAlternatives();
-            if (satisfied.indexOf(alternative) == -1) {
-                if (!missing.contains(alternative)) {
-                    missing.add(alternative);
-                    specUrlsByMissing.put(alternative, TagSpecUtils.getTagSpecUrl(tagSpec));
-                }
-            }
-        }
-        //sortAndUniquify(missing);
-        for (final String tagMissing : missing) {
+        final BitSet satisfied = context.getMandatoryAlternativesSatisfied();
+        final int numAlternatives = this.globalTagSpecChecks.getMandatoryAlternativeCount();
+        for (int alternativeId = satisfied.nextClearBit(0); alternativeId < numAlternatives;
+             alternativeId = satisfied.nextClearBit(alternativeId + 1)) {
             final List<String> params = new ArrayList<>();
-            params.add(tagMissing);
+            params.add(this.globalTagSpecChecks.getMandatoryAlternative(alternativeId));
             context.addError(
                     ValidatorProtos.ValidationError.Code.MANDATORY_TAG_MISSING,
                     context.getLineCol(),
                     params,
-                    /* specUrl */ specUrlsByMissing.get(tagMissing),
+                    /* specUrl */ this.globalTagSpecChecks.getMandatoryAlternativeSpecUrl(alternativeId),
                     validationResult);
         }
     }
@@ -814,7 +900,7 @@ public class ParsedValidatorRules {
                 continue;
             }
 
-            if (!context.getTagspecsValidated().containsKey(tagSpecId)) {
+            if (!context.hasTagspecsValidated(tagSpecId)) {
                 final ValidatorProtos.TagSpec spec = parsedTagSpec.getSpec();
                 final List<String> params = new ArrayList<>();
                 params.add(TagSpecUtils.getTagSpecName(spec));
@@ -840,17 +926,19 @@ public class ParsedValidatorRules {
     public void maybeEmitRequiresOrExcludesValidationErrors(@Nonnull final Context context,
                                                             @Nonnull final ValidatorProtos.ValidationResult.Builder validationResult)
             throws TagValidationException {
-        for (final int tagSpecId : context.getTagspecsValidated().keySet()) {
+        final BitSet tagspecsValidated = context.getTagspecsValidated();
+        for (int tagSpecId = tagspecsValidated.nextSetBit(0); tagSpecId >= 0;
+             tagSpecId = tagspecsValidated.nextSetBit(tagSpecId + 1)) {
             final ParsedTagSpec parsedTagSpec = this.getByTagSpecId(tagSpecId);
             // Skip TagSpecs that aren't used for these type identifiers.
             if (!parsedTagSpec.isUsedForTypeIdentifiers(
                     context.getTypeIdentifiers())) {
                 continue;
             }
-            for (final String condition : parsedTagSpec.requires()) {
-                if (!context.satisfiesCondition(condition)) {
+            for (final int conditionId : this.globalTagSpecChecks.getRequiresConditionIds(tagSpecId)) {
+                if (!context.satisfiesCondition(conditionId)) {
                     final List<String> params = new ArrayList<>();
-                    params.add(condition);
+                    params.add(this.globalTagSpecChecks.getConditionName(conditionId));
                     params.add(TagSpecUtils.getTagSpecName(parsedTagSpec.getSpec()));
                     context.addError(
                             ValidatorProtos.ValidationError.Code.TAG_REQUIRED_BY_MISSING,
@@ -860,11 +948,11 @@ public class ParsedValidatorRules {
                             validationResult);
                 }
             }
-            for (final String condition : parsedTagSpec.excludes()) {
-                if (context.satisfiesCondition(condition)) {
+            for (final int conditionId : this.globalTagSpecChecks.getExcludesConditionIds(tagSpecId)) {
+                if (context.satisfiesCondition(conditionId)) {
                     final List<String> params = new ArrayList<>();
                     params.add(TagSpecUtils.getTagSpecName(parsedTagSpec.getSpec()));
-                    params.add(condition);
+                    params.add(this.globalTagSpecChecks.getConditionName(conditionId));
                     context.addError(
                             ValidatorProtos.ValidationError.Code.TAG_EXCLUDED_BY_TAG,
                             context.getLineCol(),
@@ -873,10 +961,9 @@ public class ParsedValidatorRules {
                             validationResult);
                 }
             }
-            for (final String requiresTagWarning : parsedTagSpec.getAlsoRequiresTagWarning()) {
-                final Integer tagSpecIdObj = getTagSpecIdBySpecName(requiresTagWarning);
-                if (tagSpecIdObj == null || !context.getTagspecsValidated().containsKey(tagSpecIdObj)) {
-                    final ParsedTagSpec alsoRequiresTagspec = this.getByTagSpecId(tagSpecIdObj);
+            for (final int alsoRequiresTagSpecId : this.globalTagSpecChecks.getAlsoRequiresTagSpecIds(tagSpecId)) {
+                if (!context.hasTagspecsValidated(alsoRequiresTagSpecId)) {
+                    final ParsedTagSpec alsoRequiresTagspec = this.getByTagSpecId(alsoRequiresTagSpecId);
                     // If there is an alternative tagspec for extension script tagspecs
                     // that has been validated, then move on to the next
                     // alsoRequiresTagWarning.
@@ -1037,14 +1124,41 @@ public class ParsedValidatorRules {
         if (extName == null) {
             return false;
         }
-        for (final Integer alternativeTagSpecId : this.extTagSpecIdsByExtName.get(extName)) {
-            if (context.getTagspecsValidated().containsKey(alternativeTagSpecId)) {
+        for (final int alternativeTagSpecId : this.extTagSpecIdsByExtName.get(extName)) {
+            if (context.hasTagspecsValidated(alternativeTagSpecId)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Returns the extension ids of the rules.
+     *
+     * @return the extension ids.
+     */
+    public ExtensionIds getExtensionIds() {
+        return this.ampValidatorManager.getExtensionIds();
+    }
+
+    /**
+     * Returns the value lists and CSS allow lists compiled with the rules.
+     *
+     * @return the compiled lists.
+     */
+    public CompiledValueLists getCompiledValueLists() {
+        return this.ampValidatorManager.getCompiledValueLists();
+    }
+
+    /**
+     * Returns the cache of parsed stylesheets shared across documents.
+     *
+     * @return the stylesheet cache or null if stylesheets are not cached.
+     */
+    public StylesheetCache getStylesheetCache() {
+        return this.ampValidatorManager.getStylesheetCache();
+    }
+
     /**
      * Getter for parsed doc
      *
@@ -1117,11 +1231,26 @@ public class ParsedValidatorRules {
      */
     private Map<Object, Boolean> tagSpecIdsToTrack;
 
+    /**
+     * The checks of the end of the document, shared by the rules of this format.
+     */
+    private GlobalTagSpecChecks globalTagSpecChecks;
+
     /**
      * ErrorCodeMetadata keyed by error code.
      */
     private Map<ValidatorProtos.ValidationError.Code, ErrorCodeMetadata> errorCodes;
 
+    /**
+     * Error code specificity indexed by error code number, NO_SPECIFICITY for codes without metadata.
+     */
+    private int[] specificityByCode;
+
+    /**
+     * Marker for error codes without metadata in specificityByCode.
+     */
+    private static final int NO_SPECIFICITY = Integer.MIN_VALUE;
+
     /**
      * Tag spec name to spec id .
      */
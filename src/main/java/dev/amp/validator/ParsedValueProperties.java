@@ -23,13 +23,17 @@ package dev.amp.validator;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * This class creates a map of property specs key by name.
+ * This class creates a map of property specs key by name, along with a table
+ * of the properties sorted by name which is used to look up the names found in
+ * attribute values without copying them.
  *
  * @author nhant01
  * @author GeorgeLuo
@@ -51,6 +55,141 @@ public class ParsedValueProperties {
             }
         }
         Collections.sort(this.mandatoryValuePropertyNames);
+
+        this.propertyNames = this.valuePropertyByName.keySet().toArray(new String[0]);
+        Arrays.sort(this.propertyNames);
+        this.propertySpecs = new ValidatorProtos.PropertySpec[this.propertyNames.length];
+        this.mandatoryProperties = new BitSet(this.propertyNames.length);
+        for (int i = 0; i < this.propertyNames.length; i++) {
+            this.propertySpecs[i] = this.valuePropertyByName.get(this.propertyNames[i]);
+            if (this.mandatoryValuePropertyNames.contains(this.propertyNames[i])) {
+                this.mandatoryProperties.set(i);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of properties in the property table.
+     * @return returns the number of properties.
+     */
+    public int getPropertyCount() {
+        return this.propertyNames.length;
+    }
+
+    /**
+     * Returns the index of the property named by the lower cased |value| between
+     * |start| and |end|.
+     * @param value a string.
+     * @param start start of the name, inclusive.
+     * @param end end of the name, exclusive.
+     * @return returns the index of the property, -1 if there is none by that name.
+     */
+    public int getPropertyIndex(@Nonnull final String value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) > MAX_ASCII) {
+                final int index = Arrays.binarySearch(this.propertyNames, value.substring(start, end).toLowerCase());
+                return (index < 0) ? -1 : index;
+            }
+        }
+        int low = 0;
+        int high = this.propertyNames.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = compareAsciiLowerCase(value, start, end, this.propertyNames[mid]);
+            if (cmp < 0) {
+                high = mid - 1;
+            } else if (cmp > 0) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the ASCII lower cased |value| between |start| and |end| with
+     * |name|, in the order of String.compareTo.
+     * @param value an ASCII string.
+     * @param start start of the region, inclusive.
+     * @param end end of the region, exclusive.
+     * @param name a property name.
+     * @return returns a negative number, zero or a positive number if the
+     * region is less than, equal to or greater than |name|.
+     */
+    private static int compareAsciiLowerCase(@Nonnull final String value, final int start, final int end,
+                                             @Nonnull final String name) {
+        final int length = Math.min(end - start, name.length());
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != name.charAt(i)) {
+                return c - name.charAt(i);
+            }
+        }
+        return (end - start) - name.length();
+    }
+
+    /**
+     * Returns the name of a property in the property table.
+     * @param index the property index.
+     * @return returns the property name.
+     */
+    public String getPropertyName(final int index) {
+        return this.propertyNames[index];
+    }
+
+    /**
+     * Returns the PropertySpec of a property in the property table.
+     * @param index the property index.
+     * @return returns the PropertySpec.
+     */
+    public ValidatorProtos.PropertySpec getPropertySpec(final int index) {
+        return this.propertySpecs[index];
+    }
+
+    /**
+     * Returns the indexes of the mandatory properties in the property table.
+     * @return returns the indexes of the mandatory properties.
+     */
+    public BitSet getMandatoryProperties() {
+        return this.mandatoryProperties;
+    }
+
+    /**
+     * Returns true if |value| between |start| and |end|, lower cased, equals |lowerCase|.
+     * @param value a string.
+     * @param start start of the region, inclusive.
+     * @param end end of the region, exclusive.
+     * @param lowerCase a lower case string.
+     * @return returns true if the lower cased region equals |lowerCase|.
+     */
+    public static boolean equalsLowerCase(@Nonnull final String value, final int start, final int end,
+                                          @Nonnull final String lowerCase) {
+        if (end - start != lowerCase.length()) {
+            // Lower casing only changes the length of strings with non ascii chars.
+            for (int i = start; i < end; i++) {
+                if (value.charAt(i) > MAX_ASCII) {
+                    return value.substring(start, end).toLowerCase().equals(lowerCase);
+                }
+            }
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c > MAX_ASCII) {
+                return value.substring(start, end).toLowerCase().equals(lowerCase);
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != lowerCase.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -76,6 +215,9 @@ public class ParsedValueProperties {
     public void cleanup() {
         this.valuePropertyByName = null;
         this.mandatoryValuePropertyNames = null;
+        this.propertyNames = null;
+        this.propertySpecs = null;
+        this.mandatoryProperties = null;
     }
 
     /**
@@ -89,4 +231,24 @@ public class ParsedValueProperties {
      */
     @Nonnull
     private List<String> mandatoryValuePropertyNames;
+
+    /**
+     * Property names sorted by name.
+     */
+    private String[] propertyNames;
+
+    /**
+     * PropertySpecs in the order of propertyNames.
+     */
+    private ValidatorProtos.PropertySpec[] propertySpecs;
+
+    /**
+     * Indexes of the mandatory properties in propertyNames.
+     */
+    private BitSet mandatoryProperties;
+
+    /**
+     * The largest ascii char.
+     */
+    private static final char MAX_ASCII = 0x7F;
 }
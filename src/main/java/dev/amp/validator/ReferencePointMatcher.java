@@ -30,9 +30,7 @@ import org.xml.sax.Locator;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A tag may initialize this ReferencePointMatcher with its reference points.
@@ -83,8 +81,9 @@ public class ReferencePointMatcher {
         // Look for a matching reference point, if we find one, record and exit.
         ValidatorProtos.ValidationResult.Builder resultForBestAttempt = ValidatorProtos.ValidationResult.newBuilder();
         resultForBestAttempt.setStatus(ValidatorProtos.ValidationResult.Status.UNKNOWN);
-        for (ValidatorProtos.ReferencePoint p : this.parsedReferencePoints.iterate()) {
-            final ParsedTagSpec parsedTagSpec = context.getRules().getByTagSpecId(p.getTagSpecName());
+        ValidateTagResult bestAttempt = new ValidateTagResult(resultForBestAttempt, null);
+        final ParsedTagSpec[] tagSpecs = this.parsedReferencePoints.tagSpecs(this.parsedValidatorRules);
+        for (final ParsedTagSpec parsedTagSpec : tagSpecs) {
             // Skip TagSpecs that aren't used for these type identifiers.
             if (!parsedTagSpec.isUsedForTypeIdentifiers(context.getTypeIdentifiers())) {
                 continue;
@@ -94,11 +93,12 @@ public class ReferencePointMatcher {
             final ValidateTagResult resultForAttemptWrapper =
                     TagSpecUtils.validateTagAgainstSpec(
                     parsedTagSpec, /*bestMatchReferencePoint=*/null, context, tag);
-            final ValidatorProtos.ValidationResult.Builder resultForAttempt = resultForAttemptWrapper.getValidationResult();
-            if (context.getRules().betterValidationResultThan(resultForAttempt, resultForBestAttempt)) {
-                resultForBestAttempt = resultForAttempt;
+            if (context.getRules().betterValidationResultThan(resultForAttemptWrapper, bestAttempt)) {
+                bestAttempt = resultForAttemptWrapper;
+                resultForBestAttempt = resultForAttemptWrapper.getValidationResult();
             }
             if (resultForBestAttempt.getStatus() == ValidatorProtos.ValidationResult.Status.PASS) {
+                bestAttempt.materializeDeferredErrors();
                 ValidateTagResult validateTagResult = new ValidateTagResult(resultForBestAttempt, parsedTagSpec);
                 return  validateTagResult;
             }
@@ -111,12 +111,12 @@ public class ReferencePointMatcher {
 
         // Special case: only one reference point defined - emit a singular
         // error message *and* merge in the errors from the best attempt above.
-        if (this.parsedReferencePoints.size() == 1) {
+        if (tagSpecs.length == 1) {
+            bestAttempt.materializeDeferredErrors();
             List<String> params = new ArrayList<>();
             params.add(tag.lowerName());
             params.add(this.parsedReferencePoints.parentTagSpecName());
-            params.add(this.parsedValidatorRules.getReferencePointName(
-                    this.parsedReferencePoints.iterate().get(0)));
+            params.add(TagSpecUtils.getTagSpecName(tagSpecs[0].getSpec()));
             context.addError(
                     ValidatorProtos.ValidationError.Code
                             .CHILD_TAG_DOES_NOT_SATISFY_REFERENCE_POINT_SINGULAR,
@@ -129,8 +129,8 @@ public class ReferencePointMatcher {
         // General case: more than one reference point defined. Emit a plural
         // message with the acceptable reference points listed.
         final List<String> acceptable = new ArrayList<>();
-        for (final ValidatorProtos.ReferencePoint p : this.parsedReferencePoints.iterate()) {
-            acceptable.add(this.parsedValidatorRules.getReferencePointName(p));
+        for (final ParsedTagSpec parsedTagSpec : tagSpecs) {
+            acceptable.add(TagSpecUtils.getTagSpecName(parsedTagSpec.getSpec()));
         }
         final ValidatorProtos.ValidationResult.Builder resultForMultipleAttempts = ValidatorProtos.ValidationResult.newBuilder();
         final List<String> params = new ArrayList<>();
@@ -159,22 +159,20 @@ public class ReferencePointMatcher {
      */
     public void exitParentTag(@Nonnull final Context context, @Nonnull final ValidatorProtos.ValidationResult.Builder result)
             throws TagValidationException {
-        final Map<Integer, Integer> referencePointByCount = new HashMap<>();
-        for (final int r : this.referencePointsMatched) {
-            int count = 1;
-            if (referencePointByCount.containsKey(r)) {
-                count = referencePointByCount.get(r);
-                count++;
+        final List<ValidatorProtos.ReferencePoint> referencePoints = this.parsedReferencePoints.iterate();
+        final ParsedTagSpec[] tagSpecs = this.parsedReferencePoints.tagSpecs(this.parsedValidatorRules);
+        for (int i = 0; i < tagSpecs.length; i++) {
+            final ValidatorProtos.ReferencePoint p = referencePoints.get(i);
+            final int refPointTagSpecId = tagSpecs[i].id();
+            int matchCount = 0;
+            for (final int r : this.referencePointsMatched) {
+                if (r == refPointTagSpecId) {
+                    matchCount++;
+                }
             }
-            referencePointByCount.put(r, count);
-        }
-
-        for (final ValidatorProtos.ReferencePoint p : this.parsedReferencePoints.iterate()) {
-            int refPointTagSpecId = this.parsedValidatorRules.getTagSpecIdByReferencePointTagSpecName(p.getTagSpecName());
-            if (p.hasMandatory()
-                    && !referencePointByCount.containsKey(refPointTagSpecId)) {
+            if (p.hasMandatory() && matchCount == 0) {
                 final List<String> params = new ArrayList<>();
-                params.add(this.parsedValidatorRules.getReferencePointName(p));
+                params.add(TagSpecUtils.getTagSpecName(tagSpecs[i].getSpec()));
                 params.add(this.parsedReferencePoints.parentTagSpecName());
                 context.addError(
                         ValidatorProtos.ValidationError.Code.MANDATORY_REFERENCE_POINT_MISSING,
@@ -184,11 +182,9 @@ public class ReferencePointMatcher {
                         result);
             }
 
-            if (p.hasUnique()
-                    && referencePointByCount.containsKey(refPointTagSpecId)
-                    && referencePointByCount.get(refPointTagSpecId) != 1) {
+            if (p.hasUnique() && matchCount > 1) {
                 final List<String> params = new ArrayList<>();
-                params.add(this.parsedValidatorRules.getReferencePointName(p));
+                params.add(TagSpecUtils.getTagSpecName(tagSpecs[i].getSpec()));
                 params.add(this.parsedReferencePoints.parentTagSpecName());
                 context.addError(
                         ValidatorProtos.ValidationError.Code.DUPLICATE_REFERENCE_POINT,
@@ -0,0 +1,411 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The classification of the path of an AMP script src, i.e. the part after
+ * https://cdn.ampproject.org/ of [lts/]v0[/amp-NAME-VERSION].[m]js[?f=sxg].
+ *
+ * The path is scanned by hand rather than matched against a regex per kind of
+ * script, and the classification is cached by src across documents, since
+ * pages load the same few runtime and extension scripts. Letters are matched
+ * ignoring ASCII case only, as the case insensitive regexes did.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class ScriptPath {
+    /**
+     * Constructor.
+     *
+     * @param path the path of the script src.
+     */
+    private ScriptPath(@Nonnull final String path) {
+        this.path = path;
+        final int length = path.length();
+        final int start = startsWith(path, 0, LTS_PREFIX) ? LTS_PREFIX.length() : 0;
+
+        // [lts/]v0[/amp-NAME-VERSION].[m]js[?f=sxg]
+        int end = endsWith(path, length, SXG_SUFFIX) ? length - SXG_SUFFIX.length() : length;
+        end = endsWith(path, end, MJS_SUFFIX) ? end - MJS_SUFFIX.length()
+                : endsWith(path, end, JS_SUFFIX) ? end - JS_SUFFIX.length() : -1;
+        final boolean runtimePath = end - start == RUNTIME_PATH.length() && startsWith(path, start, RUNTIME_PATH);
+        final int separator = (end == -1) ? -1 : extensionSeparator(path, start, end);
+        this.runtime = runtimePath;
+        this.extensionName = (separator == -1) ? null : path.substring(start + RUNTIME_PATH.length() + 1, separator);
+        this.extensionVersion = (separator == -1) ? null : path.substring(separator + 1, end);
+
+        // lts/v0.mjs, v0/amp-ad-0.1.mjs, ...
+        final int mjsEnd = endsWith(path, length, MJS_SUFFIX) ? length - MJS_SUFFIX.length() : -1;
+        this.moduleLts = mjsEnd != -1 && startsWith(path, 0, LTS_PREFIX)
+                && isVersionedPath(path, LTS_PREFIX.length(), mjsEnd);
+        this.module = mjsEnd != -1 && isVersionedPath(path, 0, mjsEnd);
+
+        // lts/v0.js, v0/amp-ad-0.1.js, ... The nomodule forms may be preceded by anything.
+        final int jsEnd = endsWith(path, length, JS_SUFFIX) ? length - JS_SUFFIX.length() : -1;
+        this.lts = jsEnd != -1 && startsWith(path, 0, LTS_PREFIX)
+                && isVersionedPath(path, LTS_PREFIX.length(), jsEnd);
+        this.nomoduleLts = jsEnd != -1 && endsWithVersionedPath(path, jsEnd, true);
+        this.nomodule = jsEnd != -1 && endsWithVersionedPath(path, jsEnd, false);
+    }
+
+    /**
+     * Returns the classification of the path of an AMP script src.
+     *
+     * @param src the script src, starting with https://cdn.ampproject.org/.
+     * @return the classification.
+     */
+    public static ScriptPath of(@Nonnull final String src) {
+        ScriptPath scriptPath = BY_SRC.get(src);
+        if (scriptPath == null) {
+            scriptPath = new ScriptPath(src.substring(AMP_PROJECT_DOMAIN.length()));
+            if (BY_SRC.size() < MAX_CACHED_SRCS) {
+                BY_SRC.putIfAbsent(src, scriptPath);
+            }
+        }
+        return scriptPath;
+    }
+
+    /**
+     * Returns the index of the dash between the name and the version if
+     * path[start, end) is v0/amp-NAME-VERSION, -1 otherwise.
+     *
+     * @param path  the path.
+     * @param start the start index.
+     * @param end   the end index.
+     * @return the index of the dash or -1.
+     */
+    private static int extensionSeparator(@Nonnull final String path, final int start, final int end) {
+        final int nameStart = start + EXTENSION_PREFIX.length();
+        if (nameStart > end || !startsWith(path, start, EXTENSION_PREFIX)) {
+            return -1;
+        }
+        // The version has no dash, so the name ends at the last one.
+        final int separator = path.lastIndexOf('-', end - 1);
+        if (separator < nameStart) {
+            return -1;
+        }
+        for (int i = nameStart; i < separator; i++) {
+            if (!isNameChar(path.charAt(i))) {
+                return -1;
+            }
+        }
+        for (int i = separator + 1; i < end; i++) {
+            if (!isVersionChar(path.charAt(i))) {
+                return -1;
+            }
+        }
+        return separator;
+    }
+
+    /**
+     * Returns true if path[start, end) is v0 or v0/amp-NAME-VERSION.
+     *
+     * @param path  the path.
+     * @param start the start index.
+     * @param end   the end index.
+     * @return returns true if path[start, end) is v0 or v0/amp-NAME-VERSION.
+     */
+    private static boolean isVersionedPath(@Nonnull final String path, final int start, final int end) {
+        if (end - start == RUNTIME_PATH.length()) {
+            return startsWith(path, start, RUNTIME_PATH);
+        }
+        return extensionSeparator(path, start, end) != -1;
+    }
+
+    /**
+     * Returns true if path[0, end) ends with v0 or v0/amp-NAME-VERSION,
+     * optionally preceded by lts/.
+     *
+     * @param path     the path.
+     * @param end      the end index.
+     * @param afterLts true if lts/ must precede.
+     * @return returns true if path[0, end) ends with such a path.
+     */
+    private static boolean endsWithVersionedPath(@Nonnull final String path, final int end, final boolean afterLts) {
+        final int runtimeStart = end - RUNTIME_PATH.length();
+        if (runtimeStart >= 0 && startsWith(path, runtimeStart, RUNTIME_PATH)
+                && (!afterLts || endsWith(path, runtimeStart, LTS_PREFIX))) {
+            return true;
+        }
+        // The name chars run back to the slash of v0/, which gives the only
+        // possible start of v0/amp-NAME-VERSION.
+        final int separator = path.lastIndexOf('-', end - 1);
+        if (separator == -1) {
+            return false;
+        }
+        int nameRunStart = separator;
+        while (nameRunStart > 0 && isNameChar(path.charAt(nameRunStart - 1))) {
+            nameRunStart--;
+        }
+        final int start = nameRunStart - (RUNTIME_PATH.length() + 1);
+        return start >= 0 && extensionSeparator(path, start, end) != -1
+                && (!afterLts || endsWith(path, start, LTS_PREFIX));
+    }
+
+    /**
+     * Returns true if |value| has |prefix|, ignoring ASCII case, at |offset|.
+     *
+     * @param value  a string.
+     * @param offset the offset.
+     * @param prefix a lower case string.
+     * @return returns true if |value| has |prefix| at |offset|.
+     */
+    private static boolean startsWith(@Nonnull final String value, final int offset, @Nonnull final String prefix) {
+        if (offset < 0 || offset + prefix.length() > value.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            final char c = value.charAt(offset + i);
+            if (((c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if value[0, end) ends with |suffix|, ignoring ASCII case.
+     *
+     * @param value  a string.
+     * @param end    the end index.
+     * @param suffix a lower case string.
+     * @return returns true if value[0, end) ends with |suffix|.
+     */
+    private static boolean endsWith(@Nonnull final String value, final int end, @Nonnull final String suffix) {
+        return startsWith(value, end - suffix.length(), suffix);
+    }
+
+    /**
+     * Returns true if |c| is matched by [a-z0-9-], ignoring case.
+     *
+     * @param c a char.
+     * @return returns true if |c| is a name char.
+     */
+    private static boolean isNameChar(final char c) {
+        return c == '-' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * Returns true if |c| is matched by [a-z0-9.], ignoring case.
+     *
+     * @param c a char.
+     * @return returns true if |c| is a version char.
+     */
+    private static boolean isVersionChar(final char c) {
+        return c == '.' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * Getter for the path.
+     *
+     * @return the path of the script src.
+     */
+    public String getPath() {
+        return this.path;
+    }
+
+    /**
+     * Returns true if the path is the AMP runtime's: [lts/]v0.[m]js[?f=sxg].
+     *
+     * @return returns true if the path is the AMP runtime's.
+     */
+    public boolean isRuntime() {
+        return this.runtime;
+    }
+
+    /**
+     * Returns true if the path is an extension's: [lts/]v0/amp-NAME-VERSION.[m]js[?f=sxg].
+     *
+     * @return returns true if the path is an extension's.
+     */
+    public boolean isExtension() {
+        return this.extensionName != null;
+    }
+
+    /**
+     * Getter for the extension name, e.g. amp-ad.
+     *
+     * @return the extension name, null if the path isn't an extension's.
+     */
+    public String getExtensionName() {
+        return this.extensionName;
+    }
+
+    /**
+     * Getter for the extension version, e.g. 0.1.
+     *
+     * @return the extension version, null if the path isn't an extension's.
+     */
+    public String getExtensionVersion() {
+        return this.extensionVersion;
+    }
+
+    /**
+     * Returns true if the path is a module LTS script's, e.g. lts/v0/amp-ad-0.1.mjs.
+     *
+     * @return returns true if the path is a module LTS script's.
+     */
+    public boolean isModuleLts() {
+        return this.moduleLts;
+    }
+
+    /**
+     * Returns true if the path ends like a nomodule LTS script's, e.g. lts/v0/amp-ad-0.1.js.
+     *
+     * @return returns true if the path ends like a nomodule LTS script's.
+     */
+    public boolean isNomoduleLts() {
+        return this.nomoduleLts;
+    }
+
+    /**
+     * Returns true if the path is a module script's, e.g. v0/amp-ad-0.1.mjs.
+     *
+     * @return returns true if the path is a module script's.
+     */
+    public boolean isModule() {
+        return this.module;
+    }
+
+    /**
+     * Returns true if the path ends like a nomodule script's, e.g. v0/amp-ad-0.1.js.
+     *
+     * @return returns true if the path ends like a nomodule script's.
+     */
+    public boolean isNomodule() {
+        return this.nomodule;
+    }
+
+    /**
+     * Returns true if the path is an LTS script's, e.g. lts/v0/amp-ad-0.1.js.
+     *
+     * @return returns true if the path is an LTS script's.
+     */
+    public boolean isLts() {
+        return this.lts;
+    }
+
+    /**
+     * The AMP project domain script srcs start with.
+     */
+    @Nonnull
+    public static final String AMP_PROJECT_DOMAIN = "https://cdn.ampproject.org/";
+
+    /**
+     * Prefix of LTS paths.
+     */
+    @Nonnull
+    private static final String LTS_PREFIX = "lts/";
+
+    /**
+     * Path of the runtime, without the file extension.
+     */
+    @Nonnull
+    private static final String RUNTIME_PATH = "v0";
+
+    /**
+     * Prefix of extension paths, after the optional lts/.
+     */
+    @Nonnull
+    private static final String EXTENSION_PREFIX = "v0/amp-";
+
+    /**
+     * Suffix of module scripts.
+     */
+    @Nonnull
+    private static final String MJS_SUFFIX = ".mjs";
+
+    /**
+     * Suffix of nomodule scripts.
+     */
+    @Nonnull
+    private static final String JS_SUFFIX = ".js";
+
+    /**
+     * Suffix of signed exchange scripts.
+     */
+    @Nonnull
+    private static final String SXG_SUFFIX = "?f=sxg";
+
+    /**
+     * Bound on the number of distinct srcs whose classification is cached.
+     */
+    private static final int MAX_CACHED_SRCS = 1024;
+
+    /**
+     * Classifications by script src.
+     */
+    @Nonnull
+    private static final Map<String, ScriptPath> BY_SRC = new ConcurrentHashMap<>();
+
+    /**
+     * The path of the script src.
+     */
+    @Nonnull
+    private final String path;
+
+    /**
+     * True if the path is the runtime's.
+     */
+    private final boolean runtime;
+
+    /**
+     * The extension name, null if the path isn't an extension's.
+     */
+    private final String extensionName;
+
+    /**
+     * The extension version, null if the path isn't an extension's.
+     */
+    private final String extensionVersion;
+
+    /**
+     * True if the path is a module LTS script's.
+     */
+    private final boolean moduleLts;
+
+    /**
+     * True if the path ends like a nomodule LTS script's.
+     */
+    private final boolean nomoduleLts;
+
+    /**
+     * True if the path is a module script's.
+     */
+    private final boolean module;
+
+    /**
+     * True if the path ends like a nomodule script's.
+     */
+    private final boolean nomodule;
+
+    /**
+     * True if the path is an LTS script's.
+     */
+    private final boolean lts;
+}
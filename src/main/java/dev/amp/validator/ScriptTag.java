@@ -22,11 +22,9 @@ package dev.amp.validator;
 
 import dev.amp.validator.utils.ExtensionsUtils;
 import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
 
 import javax.annotation.Nonnull;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Class to define script tags.
@@ -45,7 +43,16 @@ public class ScriptTag {
      * @param attrs   attributes
      */
     public ScriptTag(@Nonnull final String tagName, @Nonnull final Attributes attrs) {
+        this.reset(tagName.equals("SCRIPT") ? attrs : NO_ATTRIBUTES);
+    }
 
+    /**
+     * Analyses the attributes of a script tag, replacing the result of the
+     * previous analysis so that an instance can be reused from tag to tag.
+     *
+     * @param attrs the attributes of the script tag.
+     */
+    void reset(@Nonnull final Attributes attrs) {
         this.extensionName = "";
         this.extensionVersion = "";
         this.path = "";
@@ -60,10 +67,6 @@ public class ScriptTag {
         boolean isNomodule = false;
         String src = "";
 
-        if (!tagName.equals("SCRIPT")) {
-            return;
-        }
-
         for (int i = 0; i < attrs.getLength(); i++) {
             if (attrs.getLocalName(i).equals("async")) {
                 isAsync = true;
@@ -83,36 +86,30 @@ public class ScriptTag {
 
         // Determine if this has a valid AMP domain and separate the path from the
         // attribute 'src'.
-        if (src.startsWith(AMP_PROJECT_DOMAIN)) {
+        if (src.startsWith(ScriptPath.AMP_PROJECT_DOMAIN)) {
             this.isAmpDomain = true;
-            path = src.substring(AMP_PROJECT_DOMAIN.length());
+            final ScriptPath scriptPath = ScriptPath.of(src);
+            this.path = scriptPath.getPath();
 
             // Only look at script tags that have attribute 'async'.
             if (isAsync) {
                 // Determine if this is the AMP Runtime.
-                if (!this.isExtension && RUNTIME_SCRIPT_PATH_REGEX.matcher(path).find()) {
+                if (!this.isExtension && scriptPath.isRuntime()) {
                     this.isRuntime = true;
                 }
                 // For AMP Extensions, validate path and extract name and version.
-                final Matcher matcher = EXTENSION_SCRIPT_PATH_REGEX.matcher(this.path);
-                if (this.isExtension && matcher.find()) {
+                if (this.isExtension && scriptPath.isExtension()) {
                     this.hasValidPath = true;
-                    final MatchResult reResult = matcher.toMatchResult();
-                    if (reResult.groupCount() == 2) {
-                        this.extensionName = reResult.group(1);
-                        this.extensionVersion = reResult.group(2);
-                    }
+                    this.extensionName = scriptPath.getExtensionName();
+                    this.extensionVersion = scriptPath.getExtensionVersion();
                 }
 
                 // Determine the release version (LTS, module, standard, etc).
-                if ((isModule && MODULE_LTS_SCRIPT_PATH_REGEX.matcher(path).find())
-                        || (isNomodule && NOMODULE_LTS_SCRIPT_PATH_REGEX.matcher(path).find())) {
+                if ((isModule && scriptPath.isModuleLts()) || (isNomodule && scriptPath.isNomoduleLts())) {
                     this.releaseVersion = ExtensionsUtils.ScriptReleaseVersion.MODULE_NOMODULE_LTS;
-                } else if (
-                        (isModule && MODULE_SCRIPT_PATH_REGEX.matcher(path).find())
-                                || (isNomodule && NO_MODULE_SCRIPT_PATH_REGEX.matcher(path).find())) {
+                } else if ((isModule && scriptPath.isModule()) || (isNomodule && scriptPath.isNomodule())) {
                     this.releaseVersion = ExtensionsUtils.ScriptReleaseVersion.MODULE_NOMODULE;
-                } else if (LTS_SCRIPT_PATH_REGEX.matcher(path).find()) {
+                } else if (scriptPath.isLts()) {
                     this.releaseVersion = ExtensionsUtils.ScriptReleaseVersion.LTS;
                 } else {
                     this.releaseVersion = ExtensionsUtils.ScriptReleaseVersion.STANDARD;
@@ -227,73 +224,8 @@ public class ScriptTag {
     private ExtensionsUtils.ScriptReleaseVersion releaseVersion;
 
     /**
-     * ampProjectDomain
-     */
-    @Nonnull
-    private static final String AMP_PROJECT_DOMAIN = "https://cdn.ampproject.org/";
-
-    /**
-     * Runtime JavaScript:
-     * v0.js
-     * v0.mjs
-     * v0.mjs?f=sxg
-     * lts/v0.js
-     * lts/v0.js?f=sxg
-     * lts/v0.mjs
-     */
-    @Nonnull
-    private static final Pattern RUNTIME_SCRIPT_PATH_REGEX =
-            Pattern.compile("^(lts\\/)?v0\\.m?js(\\?f=sxg)?$", Pattern.CASE_INSENSITIVE);
-
-    /**
-     * lts/v0.mjs
-     * lts/v0/amp-ad-0.1.mjs
-     */
-    @Nonnull
-    private static final Pattern MODULE_LTS_SCRIPT_PATH_REGEX =
-            Pattern.compile("^lts\\/(v0|v0\\/amp-[a-z0-9-]*-[a-z0-9.]*)\\.mjs$", Pattern.CASE_INSENSITIVE);
-
-    /**
-     * lts/v0.js
-     * lts/v0/amp-ad-0.1.js
-     */
-
-    @Nonnull
-    private static final Pattern NOMODULE_LTS_SCRIPT_PATH_REGEX =
-            Pattern.compile("lts\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$", Pattern.CASE_INSENSITIVE);
-
-    /**
-     * v0.mjs
-     * amp-ad-0.1.mjs
-     */
-    @Nonnull
-    private static final Pattern MODULE_SCRIPT_PATH_REGEX =
-            Pattern.compile("^(v0|v0\\/amp-[a-z0-9-]*-[a-z0-9.]*)\\.mjs$", Pattern.CASE_INSENSITIVE);
-
-    /**
-     * v0.js
-     * v0/amp-ad-0.1.js
-     */
-    @Nonnull
-    private static final Pattern NO_MODULE_SCRIPT_PATH_REGEX =
-            Pattern.compile("(v0|v0\\/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$", Pattern.CASE_INSENSITIVE);
-    /**
-     * lts/v0.js
-     * lts/v0/amp-ad-0.1.js
-     */
-    @Nonnull
-    private static final Pattern LTS_SCRIPT_PATH_REGEX =
-            Pattern.compile("^lts\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$", Pattern.CASE_INSENSITIVE);
-    /**
-     * lts/v0/amp-ad-0.1.js
-     * lts/v0/amp-ad-0.1.js?f=sxg
-     * ts/v0/amp-ad-0.1.mjs
-     * v0/amp-ad-0.1.js
-     * v0/amp-ad-0.1.js?f=sxg
-     * v0/am-ad-0.1.mjs
+     * Attributes of tags other than script, which are not analysed.
      */
     @Nonnull
-    private static final Pattern EXTENSION_SCRIPT_PATH_REGEX =
-            Pattern.compile("^(?:lts\\/)?v0\\/(amp-[a-z0-9-]*)-([a-z0-9.]*)\\.(?:m)?js(?:\\?f=sxg)?$",
-                    Pattern.CASE_INSENSITIVE);
+    private static final Attributes NO_ATTRIBUTES = new AttributesImpl();
 }
@@ -39,6 +39,41 @@ public class SrcsetSourceDef {
     public SrcsetSourceDef(@Nonnull final String url, @Nonnull final String widthOrPixelDensity) {
         this.url = url;
         this.widthOrPixelDensity = widthOrPixelDensity;
+        this.urlSource = url;
+        this.widthOrPixelDensitySource = widthOrPixelDensity;
+        this.urlStart = 0;
+        this.urlEnd = url.length();
+        this.widthOrPixelDensityStart = 0;
+        this.widthOrPixelDensityEnd = widthOrPixelDensity.length();
+    }
+
+    /**
+     * Constructor for a source given by its spans in the srcset. The strings
+     * for the url and the width or pixel density are only created when asked for.
+     * @param srcset the srcset.
+     * @param urlStart the start of the url.
+     * @param urlEnd the end of the url.
+     * @param widthOrPixelDensityStart the start of the width or pixel density, or -1
+     *                                 if the source has none, which means "1x".
+     * @param widthOrPixelDensityEnd the end of the width or pixel density.
+     */
+    public SrcsetSourceDef(@Nonnull final String srcset, final int urlStart, final int urlEnd,
+                           final int widthOrPixelDensityStart, final int widthOrPixelDensityEnd) {
+        this.url = null;
+        this.urlSource = srcset;
+        this.urlStart = urlStart;
+        this.urlEnd = urlEnd;
+        if (widthOrPixelDensityStart < 0) {
+            this.widthOrPixelDensity = DEFAULT_WIDTH_OR_PIXEL_DENSITY;
+            this.widthOrPixelDensitySource = DEFAULT_WIDTH_OR_PIXEL_DENSITY;
+            this.widthOrPixelDensityStart = 0;
+            this.widthOrPixelDensityEnd = DEFAULT_WIDTH_OR_PIXEL_DENSITY.length();
+        } else {
+            this.widthOrPixelDensity = null;
+            this.widthOrPixelDensitySource = srcset;
+            this.widthOrPixelDensityStart = widthOrPixelDensityStart;
+            this.widthOrPixelDensityEnd = widthOrPixelDensityEnd;
+        }
     }
 
     /**
@@ -46,6 +81,9 @@ public class SrcsetSourceDef {
      * @return returns the url.
      */
     public String getUrl() {
+        if (url == null) {
+            url = urlSource.substring(urlStart, urlEnd);
+        }
         return url;
     }
 
@@ -54,14 +92,49 @@ public class SrcsetSourceDef {
      * @return returns the width or pixel density.
      */
     public String getWidthOrPixelDensity() {
+        if (widthOrPixelDensity == null) {
+            widthOrPixelDensity = widthOrPixelDensitySource.substring(widthOrPixelDensityStart, widthOrPixelDensityEnd);
+        }
         return widthOrPixelDensity;
     }
 
-    /** The url. */
+    /**
+     * Returns true if the other source has the same width or pixel density,
+     * written the same way.
+     * @param other another source.
+     * @return returns true if the width or pixel density is the same.
+     */
+    public boolean hasSameWidthOrPixelDensity(@Nonnull final SrcsetSourceDef other) {
+        final int length = widthOrPixelDensityEnd - widthOrPixelDensityStart;
+        return length == other.widthOrPixelDensityEnd - other.widthOrPixelDensityStart
+                && widthOrPixelDensitySource.regionMatches(widthOrPixelDensityStart,
+                other.widthOrPixelDensitySource, other.widthOrPixelDensityStart, length);
+    }
+
+    /** The width or pixel density of a source without one. */
+    private static final String DEFAULT_WIDTH_OR_PIXEL_DENSITY = "1x";
+
+    /** The url, created on demand. */
     private String url;
 
-    /** Width or pixel density. */
+    /** The string containing the url. */
+    private final String urlSource;
+
+    /** Start of the url. */
+    private final int urlStart;
+
+    /** End of the url. */
+    private final int urlEnd;
+
+    /** Width or pixel density, created on demand. */
     private String widthOrPixelDensity;
-}
 
+    /** The string containing the width or pixel density. */
+    private final String widthOrPixelDensitySource;
+
+    /** Start of the width or pixel density. */
+    private final int widthOrPixelDensityStart;
 
+    /** End of the width or pixel density. */
+    private final int widthOrPixelDensityEnd;
+}
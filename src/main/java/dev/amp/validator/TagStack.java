@@ -27,8 +27,10 @@ import org.xml.sax.Locator;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class keeps track of the tag names and ChildTagMatchers
@@ -48,10 +50,34 @@ public class TagStack {
      * Constructor.
      */
     public TagStack() {
-        this.stack = new LinkedList<>();
+        this.stack = new TagStackEntry[INITIAL_CAPACITY];
+        this.size = 0;
         //TODO - REMOVE DOCTYPE when tagchowder supports doctype element.
-        this.stack.add(new TagStackEntry("$ROOT"));
-        this.stack.add(new TagStackEntry("!DOCTYPE"));
+        this.push("$ROOT");
+        this.countAncestor(this.push("!DOCTYPE"), 1);
+    }
+
+    /**
+     * Pushes an entry for the given tag name on the stack. Entries of tags
+     * which have been exited are kept in the array and reset for reuse, so
+     * entering a tag does not allocate once the stack has been this deep.
+     *
+     * @param tagName the tag name.
+     * @return returns the entry on top of the stack.
+     */
+    private TagStackEntry push(@Nonnull final String tagName) {
+        if (this.size == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.size * 2);
+        }
+        TagStackEntry entry = this.stack[this.size];
+        if (entry == null) {
+            entry = new TagStackEntry(tagName);
+            this.stack[this.size] = entry;
+        } else {
+            entry.reset(tagName);
+        }
+        this.size++;
+        return entry;
     }
 
     /**
@@ -73,7 +99,7 @@ public class TagStack {
      * @throws TagValidationException the TagValidationException.
      */
     public TagStackEntry parentStackEntry() throws TagValidationException {
-        if (this.stack.size() < 1) {
+        if (this.size < 1) {
             throw new TagValidationException("Parent of empty $ROOT tag requested.");
         }
         return this.back();
@@ -86,10 +112,10 @@ public class TagStack {
      * @throws TagValidationException the TagValidationException.
      */
     public TagStackEntry back() throws TagValidationException {
-        if (this.stack.size() <= 0) {
+        if (this.size <= 0) {
             throw new TagValidationException("Exiting an empty tag stack.");
         }
-        return this.stack.getLast();
+        return this.stack[this.size - 1];
     }
 
     /**
@@ -221,17 +247,7 @@ public class TagStack {
      * @return returns true if the current tag has ancestor with the given tag name or specName.
      */
     public boolean hasAncestor(@Nonnull final String ancestor) {
-        // Skip the first element, which is "$ROOT".
-        for (int i = 1; i < this.stack.size(); ++i) {
-            if (this.stack.get(i).getTagName().equals(ancestor)) {
-                return true;
-            }
-            if ((this.stack.get(i).getTagSpec() != null)
-                    && (this.stack.get(i).getTagSpec().getSpec().getSpecName().equals(ancestor))) {
-                return true;
-            }
-        }
-        return false;
+        return this.ancestorCounts.containsKey(ancestor);
     }
 
     /**
@@ -245,22 +261,49 @@ public class TagStack {
         if (query == ValidatorProtos.AncestorMarker.Marker.UNKNOWN) {
             throw new TagValidationException("Ancestor marker is unknown");
         }
-        // Skip the first element, which is "$ROOT".
-        for (int i = 1; i < this.stack.size(); ++i) {
-            if (this.stack.get(i).getTagSpec() == null) {
-                continue;
-            }
-            final ValidatorProtos.TagSpec spec = this.stack.get(i).getTagSpec().getSpec();
-            if (!spec.hasMarkDescendants()) {
-                continue;
-            }
-            for (final ValidatorProtos.AncestorMarker.Marker marker : spec.getMarkDescendants().getMarkerList()) {
-                if (marker == query) {
-                    return true;
-                }
+        return (this.ancestorMarkers & (1L << query.getNumber())) != 0;
+    }
+
+    /**
+     * Updates the ancestor counters and markers for an entry entering (delta 1)
+     * or leaving (delta -1) the stack. hasAncestor and hasAncestorMarker only
+     * consult these, so they do not need to walk the stack.
+     *
+     * @param entry the stack entry.
+     * @param delta 1 when entering, -1 when exiting.
+     */
+    private void countAncestor(@Nonnull final TagStackEntry entry, final int delta) {
+        this.countAncestorName(entry.getTagName(), delta);
+        if (entry.getTagSpec() == null) {
+            return;
+        }
+        final ValidatorProtos.TagSpec spec = entry.getTagSpec().getSpec();
+        this.countAncestorName(spec.getSpecName(), delta);
+        if (!spec.hasMarkDescendants()) {
+            return;
+        }
+        for (final ValidatorProtos.AncestorMarker.Marker marker : spec.getMarkDescendants().getMarkerList()) {
+            final int number = marker.getNumber();
+            this.ancestorMarkerCounts[number] += delta;
+            if (this.ancestorMarkerCounts[number] > 0) {
+                this.ancestorMarkers |= 1L << number;
+            } else {
+                this.ancestorMarkers &= ~(1L << number);
             }
         }
-        return false;
+    }
+
+    /**
+     * Updates the number of stack entries with the given tag name or spec name.
+     *
+     * @param name  the tag name or spec name.
+     * @param delta 1 when entering, -1 when exiting.
+     */
+    private void countAncestorName(@Nonnull final String name, final int delta) {
+        final Integer count = this.ancestorCounts.merge(name, delta, Integer::sum);
+        if (count == 0) {
+            this.ancestorCounts.remove(name);
+        }
     }
 
     /**
@@ -272,10 +315,10 @@ public class TagStack {
      */
     private void enterTag(@Nonnull final String tagName, @Nonnull final ValidateTagResult referencePointResult,
                           @Nonnull final ValidateTagResult tagResult) {
-        final TagStackEntry stackEntry = new TagStackEntry(tagName);
+        final TagStackEntry stackEntry = this.push(tagName);
         stackEntry.setReferencePoint(referencePointResult.getBestMatchTagSpec());
         stackEntry.setTagSpec(tagResult.getBestMatchTagSpec());
-        this.stack.add(stackEntry);
+        this.countAncestor(stackEntry, 1);
     }
 
     /**
@@ -289,7 +332,7 @@ public class TagStack {
      */
     public void exitTag(@Nonnull final Context context, @Nonnull final ValidatorProtos.ValidationResult.Builder result)
             throws TagValidationException {
-        if (this.stack.size() <= 0) {
+        if (this.size <= 0) {
             throw new TagValidationException("Exiting an empty tag stack.");
         }
 
@@ -303,7 +346,13 @@ public class TagStack {
             topStackEntry.getReferencePointMatcher().exitParentTag(context, result);
         }
 
-        this.stack.removeLast();
+        // The entry stays in the array to be reset and reused by the next tag
+        // entered at this depth.
+        this.size--;
+        // The "$ROOT" entry is never counted as an ancestor.
+        if (this.size > 0) {
+            this.countAncestor(topStackEntry, -1);
+        }
     }
 
     /**
@@ -568,15 +617,43 @@ public class TagStack {
     }
 
     /**
-     * The current tag name and its parents.
+     * Initial capacity of the stack, enough for the nesting depth of most documents.
+     */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /**
+     * The current tag name and its parents, followed by reusable entries of
+     * exited tags.
      */
     @Nonnull
-    private LinkedList<TagStackEntry> stack;
+    private TagStackEntry[] stack;
+
+    /**
+     * Number of entries on the stack.
+     */
+    private int size;
 
     /**
      * Allowed descendant list.
      */
     @Nonnull
     private List<DescendantConstraints> allowedDescendantsList = new ArrayList<>();
+
+    /**
+     * Number of stack entries, except "$ROOT", by tag name and by spec name.
+     */
+    @Nonnull
+    private final Map<String, Integer> ancestorCounts = new HashMap<>();
+
+    /**
+     * Number of stack entries setting each ancestor marker, by marker number.
+     */
+    @Nonnull
+    private final int[] ancestorMarkerCounts = new int[Long.SIZE];
+
+    /**
+     * Bitmask of the ancestor markers set by the stack entries, by marker number.
+     */
+    private long ancestorMarkers = 0L;
 }
 
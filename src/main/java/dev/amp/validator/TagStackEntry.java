@@ -44,6 +44,16 @@ public class TagStackEntry {
      * @param tagName the tag name.
      */
     public TagStackEntry(@Nonnull final String tagName) {
+        this.reset(tagName);
+    }
+
+    /**
+     * Reinitializes this entry for a new tag, so the TagStack can reuse
+     * entries of tags which have been exited.
+     *
+     * @param tagName the tag name.
+     */
+    public void reset(@Nonnull final String tagName) {
         this.tagName = tagName;
         this.tagSpec = null;
         this.referencePoint = null;
@@ -22,6 +22,10 @@
 package dev.amp.validator;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * This class contains the validation result and the best match tag spec.
@@ -92,6 +96,72 @@ public class ValidateTagResult {
       return inlineStyleCssBytes;
     }
 
+    /**
+     * Records an error for this result without building its ValidationError yet.
+     * Callers are expected to have updated the status of the validation result.
+     *
+     * @param error       the error record.
+     * @param specificity the specificity of the error code.
+     */
+    public void deferError(@Nonnull final ValidationErrorRecord error, final int specificity) {
+        if (deferredErrors == null) {
+            deferredErrors = new ArrayList<>();
+        }
+        deferredErrors.add(error);
+        errorCodes.set(error.getCode().getNumber());
+        maxSpecificity = Math.max(maxSpecificity, specificity);
+        errorCount++;
+    }
+
+    /**
+     * Returns the numbers of the error codes recorded through deferError.
+     *
+     * @return returns the error code numbers.
+     */
+    public BitSet getErrorCodes() {
+        return errorCodes;
+    }
+
+    /**
+     * Returns the maximum specificity of the errors recorded through deferError.
+     *
+     * @return returns the maximum specificity.
+     */
+    public int getMaxSpecificity() {
+        return maxSpecificity;
+    }
+
+    /**
+     * Returns the number of errors recorded through deferError.
+     *
+     * @return returns the number of errors.
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns the errors recorded but not yet added to the validation result.
+     *
+     * @return returns the deferred errors.
+     */
+    public List<ValidationErrorRecord> getDeferredErrors() {
+        return (deferredErrors == null) ? Collections.emptyList() : deferredErrors;
+    }
+
+    /**
+     * Builds the deferred errors and appends them, in order, to the validation result.
+     */
+    public void materializeDeferredErrors() {
+        if (deferredErrors == null) {
+            return;
+        }
+        for (final ValidationErrorRecord error : deferredErrors) {
+            validationResult.addErrors(error.toValidationError());
+        }
+        deferredErrors = null;
+    }
+
     /**
      * Validation result.
      */
@@ -106,4 +176,24 @@ public class ValidateTagResult {
      * inline style allowed byte length
      */
     private int inlineStyleCssBytes;
+
+    /**
+     * Errors recorded while this result was an attempt, not yet added to the validation result.
+     */
+    private List<ValidationErrorRecord> deferredErrors;
+
+    /**
+     * Numbers of the error codes recorded through deferError.
+     */
+    private final BitSet errorCodes = new BitSet();
+
+    /**
+     * Maximum specificity of the errors recorded through deferError.
+     */
+    private int maxSpecificity = 0;
+
+    /**
+     * Number of errors recorded through deferError.
+     */
+    private int errorCount = 0;
 }
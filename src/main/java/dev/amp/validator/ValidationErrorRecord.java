@@ -0,0 +1,282 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import dev.amp.validator.utils.ValidationErrorUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compact record of a validation error. The record only keeps references to
+ * the pieces of the error; the protobuf ValidationError is built on demand.
+ *
+ * Records of the same error (same severity, code, params and spec url, at any
+ * position) may be aggregated into the first one, which then counts the
+ * occurrences, see ValidationResultAccumulator#setAggregateErrors.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class ValidationErrorRecord {
+    /**
+     * Constructor.
+     *
+     * @param severity the severity.
+     * @param code     the error code.
+     * @param line     a line number.
+     * @param col      a column number.
+     * @param params   the list of params.
+     * @param specUrl  a link (URL) to the amphtml spec.
+     */
+    public ValidationErrorRecord(@Nonnull final ValidatorProtos.ValidationError.Severity severity,
+                                 @Nonnull final ValidatorProtos.ValidationError.Code code,
+                                 final int line,
+                                 final int col,
+                                 final List<String> params,
+                                 final String specUrl) {
+        this.severity = severity;
+        this.code = code;
+        this.line = line;
+        this.col = col;
+        this.params = params;
+        this.specUrl = specUrl;
+        this.built = null;
+        this.codeOnly = false;
+        this.occurrences = 1;
+    }
+
+    /**
+     * Constructor of a record of an already built error.
+     *
+     * @param error the validation error.
+     */
+    public ValidationErrorRecord(@Nonnull final ValidatorProtos.ValidationError error) {
+        this.severity = error.getSeverity();
+        this.code = error.getCode();
+        this.line = error.getLine();
+        this.col = error.getCol();
+        this.params = error.getParamsList();
+        this.specUrl = error.getSpecUrl();
+        this.built = error;
+        this.codeOnly = false;
+        this.occurrences = 1;
+    }
+
+    /**
+     * Constructor of a record with only a severity and a code.
+     *
+     * @param severity the severity.
+     * @param code     the error code.
+     */
+    private ValidationErrorRecord(@Nonnull final ValidatorProtos.ValidationError.Severity severity,
+                                  @Nonnull final ValidatorProtos.ValidationError.Code code) {
+        this.severity = severity;
+        this.code = code;
+        this.line = 0;
+        this.col = 0;
+        this.params = null;
+        this.specUrl = null;
+        this.built = null;
+        this.codeOnly = true;
+        this.occurrences = 1;
+    }
+
+    /**
+     * Returns a record of an error with only its severity and code, the
+     * error is built without params, position or spec url.
+     *
+     * @param severity the severity.
+     * @param code     the error code.
+     * @return returns the record.
+     */
+    public static ValidationErrorRecord codeOnly(@Nonnull final ValidatorProtos.ValidationError.Severity severity,
+                                                 @Nonnull final ValidatorProtos.ValidationError.Code code) {
+        return new ValidationErrorRecord(severity, code);
+    }
+
+    /**
+     * Returns the severity.
+     *
+     * @return returns the severity.
+     */
+    public ValidatorProtos.ValidationError.Severity getSeverity() {
+        return severity;
+    }
+
+    /**
+     * Returns the error code.
+     *
+     * @return returns the error code.
+     */
+    public ValidatorProtos.ValidationError.Code getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the line number.
+     *
+     * @return returns the line number.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the column number.
+     *
+     * @return returns the column number.
+     */
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * Returns a record of the same error with only its severity and code.
+     *
+     * @return returns the record.
+     */
+    public ValidationErrorRecord withCodeOnly() {
+        return codeOnly ? this : codeOnly(severity, code);
+    }
+
+    /**
+     * Returns the params.
+     *
+     * @return returns the params.
+     */
+    public List<String> getParams() {
+        return (params == null) ? Collections.emptyList() : params;
+    }
+
+    /**
+     * Returns the spec url.
+     *
+     * @return returns the spec url, empty if there is none.
+     */
+    public String getSpecUrl() {
+        return (specUrl == null) ? "" : specUrl;
+    }
+
+    /**
+     * Returns the number of occurrences of the error aggregated into this record.
+     *
+     * @return returns the number of occurrences.
+     */
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * Counts one more occurrence of the error of this record.
+     */
+    public void addOccurrence() {
+        occurrences++;
+    }
+
+    /**
+     * Returns true if |other| records the same error, maybe at another position.
+     *
+     * @param other another record.
+     * @return returns true if both record the same error.
+     */
+    public boolean isSameErrorAs(@Nonnull final ValidationErrorRecord other) {
+        return severity == other.severity
+                && code == other.code
+                && getSpecUrl().equals(other.getSpecUrl())
+                && getParams().equals(other.getParams());
+    }
+
+    /**
+     * Returns a hash of the error, consistent with isSameErrorAs.
+     *
+     * @return returns the hash of the error.
+     */
+    public int errorHashCode() {
+        return Objects.hash(severity, code, getSpecUrl(), getParams());
+    }
+
+    /**
+     * Builds the ValidationError described by this record.
+     *
+     * @return returns the ValidationError instance.
+     */
+    public ValidatorProtos.ValidationError toValidationError() {
+        if (built != null) {
+            return built;
+        }
+        if (codeOnly) {
+            return ValidationErrorUtils.populateCodeOnlyError(severity, code);
+        }
+        return ValidationErrorUtils.populateError(severity, code, line, col, getParams(), specUrl);
+    }
+
+    /**
+     * The severity.
+     */
+    @Nonnull
+    private final ValidatorProtos.ValidationError.Severity severity;
+
+    /**
+     * The error code.
+     */
+    @Nonnull
+    private final ValidatorProtos.ValidationError.Code code;
+
+    /**
+     * The line number.
+     */
+    private final int line;
+
+    /**
+     * The column number.
+     */
+    private final int col;
+
+    /**
+     * The params, kept by reference.
+     */
+    private final List<String> params;
+
+    /**
+     * A link (URL) to the amphtml spec.
+     */
+    private final String specUrl;
+
+    /**
+     * The error if it was already built, null otherwise.
+     */
+    private final ValidatorProtos.ValidationError built;
+
+    /**
+     * True if the error is built with only its severity and code.
+     */
+    private final boolean codeOnly;
+
+    /**
+     * Number of occurrences of the error aggregated into this record.
+     */
+    private int occurrences;
+}
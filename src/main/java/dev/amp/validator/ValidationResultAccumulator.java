@@ -0,0 +1,347 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An append-only accumulator for the repeated fields of a document's validation
+ * result. Per tag results are appended as they come in instead of being built
+ * and merged into the document result, which only receives the accumulated
+ * fields once the document is done, see flush.
+ *
+ * The status of the document result is not accumulated, it is kept up to date
+ * on the document result itself.
+ *
+ * Errors are kept as ValidationErrorRecords and only built on flush. When
+ * errors are aggregated, an error which was already seen at another position
+ * is counted on the record of its first occurrence instead of being added again.
+ *
+ * The errors kept may be bounded according to an exit condition, see
+ * setErrorLimit. Errors beyond the bound are dropped, they still count for
+ * the status which is set by whoever adds them.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class ValidationResultAccumulator {
+    /**
+     * Constructor.
+     *
+     * @param documentResult the document validation result the fields are accumulated for.
+     */
+    public ValidationResultAccumulator(@Nonnull final ValidatorProtos.ValidationResult.Builder documentResult) {
+        this.documentResult = documentResult;
+    }
+
+    /**
+     * Returns true if this accumulator collects the fields of the given validation result.
+     *
+     * @param validationResult a validation result.
+     * @return returns true if this accumulator collects the fields of the given validation result.
+     */
+    public boolean accumulatesFor(@Nonnull final ValidatorProtos.ValidationResult.Builder validationResult) {
+        return this.documentResult == validationResult;
+    }
+
+    /**
+     * Bounds the errors kept according to an exit condition.
+     *
+     * @param condition the exit condition.
+     * @param maxErrors the bound of the exit condition, see ExitCondition.
+     * @throws IllegalArgumentException if the exit condition requires a
+     *                                  positive bound and |maxErrors| isn't.
+     */
+    public void setErrorLimit(@Nonnull final ExitCondition condition, final int maxErrors) {
+        condition.checkMaxErrors(maxErrors);
+        this.exitCondition = condition;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Returns true if an error of the given severity added now would be kept.
+     *
+     * @param severity the severity.
+     * @return returns true if the error would be kept.
+     */
+    public boolean acceptsError(@Nonnull final ValidatorProtos.ValidationError.Severity severity) {
+        switch (this.exitCondition) {
+            case EXIT_ON_MAX_ERRORS:
+            case STATUS_ONLY:
+                return this.keptErrors + this.keptWarnings < this.maxErrors;
+            case EXIT_ON_FIRST_ERROR_KEEP_WARNINGS:
+                if (severity == ValidatorProtos.ValidationError.Severity.WARNING) {
+                    return (this.maxErrors <= 0) ? this.keptErrors == 0 : this.keptWarnings < this.maxErrors;
+                }
+                return this.keptErrors == 0;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns true if the document failed and no more errors would be kept,
+     * validating the rest of the document then can't change the result.
+     *
+     * @return returns true if the error limit is reached.
+     */
+    public boolean isErrorLimitReached() {
+        return this.documentResult.getStatus() == ValidatorProtos.ValidationResult.Status.FAIL
+                && !this.acceptsError(ValidatorProtos.ValidationError.Severity.ERROR)
+                && !this.acceptsError(ValidatorProtos.ValidationError.Severity.WARNING);
+    }
+
+    /**
+     * Sets whether errors are aggregated. Only errors added afterwards are.
+     *
+     * @param aggregateErrors true to aggregate errors.
+     */
+    public void setAggregateErrors(final boolean aggregateErrors) {
+        this.distinctErrors = aggregateErrors ? new HashMap<>() : null;
+    }
+
+    /**
+     * Returns the records of the distinct errors seen so far with their number
+     * of occurrences, in the order of their first occurrence. Empty unless
+     * errors are aggregated.
+     *
+     * @return returns the records of the distinct errors.
+     */
+    public List<ValidationErrorRecord> getAggregatedErrors() {
+        return (this.distinctErrors == null)
+                ? Collections.emptyList() : Collections.unmodifiableList(this.aggregatedErrors);
+    }
+
+    /**
+     * Appends an error.
+     *
+     * @param error a validation error.
+     */
+    public void addError(@Nonnull final ValidatorProtos.ValidationError error) {
+        this.addErrorRecord(new ValidationErrorRecord(error));
+    }
+
+    /**
+     * Appends an error, the error is built on flush. The params are shared
+     * with the errors of the document added before, many of them repeat the
+     * same tag and attribute names. Nothing is kept of an error beyond the
+     * error limit, and only the severity and code of an error are kept when
+     * the exit condition is STATUS_ONLY.
+     *
+     * @param severity the severity.
+     * @param code     the error code.
+     * @param line     a line number.
+     * @param col      a column number.
+     * @param params   the list of params.
+     * @param specUrl  a link (URL) to the amphtml spec.
+     */
+    public void addError(@Nonnull final ValidatorProtos.ValidationError.Severity severity,
+                         @Nonnull final ValidatorProtos.ValidationError.Code code,
+                         final int line,
+                         final int col,
+                         final List<String> params,
+                         final String specUrl) {
+        if (!this.acceptsError(severity)) {
+            return;
+        }
+        if (this.exitCondition == ExitCondition.STATUS_ONLY) {
+            this.addErrorRecord(ValidationErrorRecord.codeOnly(severity, code));
+            return;
+        }
+        List<String> sharedParams = Collections.emptyList();
+        if (params != null && !params.isEmpty()) {
+            final String[] values = new String[params.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = this.share(params.get(i));
+            }
+            sharedParams = Arrays.asList(values);
+        }
+        this.addErrorRecord(new ValidationErrorRecord(severity, code, line, col, sharedParams, specUrl));
+    }
+
+    /**
+     * Appends the record of an error, the error is built on flush.
+     *
+     * @param error the record of a validation error.
+     */
+    public void addErrorRecord(@Nonnull final ValidationErrorRecord error) {
+        if (!this.acceptsError(error.getSeverity())) {
+            return;
+        }
+        if (this.distinctErrors != null) {
+            final int hash = error.errorHashCode();
+            List<ValidationErrorRecord> sameHash = this.distinctErrors.get(hash);
+            if (sameHash == null) {
+                sameHash = new ArrayList<>(1);
+                this.distinctErrors.put(hash, sameHash);
+            }
+            for (final ValidationErrorRecord seen : sameHash) {
+                if (seen.isSameErrorAs(error)) {
+                    seen.addOccurrence();
+                    return;
+                }
+            }
+            sameHash.add(error);
+            this.aggregatedErrors.add(error);
+        }
+        if (error.getSeverity() == ValidatorProtos.ValidationError.Severity.WARNING) {
+            this.keptWarnings++;
+        } else {
+            this.keptErrors++;
+        }
+        this.errors.add((this.exitCondition == ExitCondition.STATUS_ONLY) ? error.withCodeOnly() : error);
+    }
+
+    /**
+     * Returns the instance of a param shared by the errors of the document.
+     *
+     * @param value a param.
+     * @return returns the shared instance.
+     */
+    private String share(@Nonnull final String value) {
+        final String shared = this.sharedParams.putIfAbsent(value, value);
+        return (shared != null) ? shared : value;
+    }
+
+    /**
+     * Appends the repeated fields of a tag result and takes over its status,
+     * the same way merging the built tag result into the document result would.
+     *
+     * @param tagResult a tag validation result.
+     */
+    public void append(@Nonnull final ValidatorProtos.ValidationResult.Builder tagResult) {
+        if (tagResult.hasStatus()) {
+            this.documentResult.setStatus(tagResult.getStatus());
+        }
+        for (int i = 0; i < tagResult.getErrorsCount(); i++) {
+            this.addError(tagResult.getErrors(i));
+        }
+        if (tagResult.getTypeIdentifierCount() > 0) {
+            this.typeIdentifiers.addAll(tagResult.getTypeIdentifierList());
+        }
+        if (tagResult.getValueSetProvisionsCount() > 0) {
+            this.valueSetProvisions.addAll(tagResult.getValueSetProvisionsList());
+        }
+        if (tagResult.getValueSetRequirementsCount() > 0) {
+            this.valueSetRequirements.addAll(tagResult.getValueSetRequirementsList());
+        }
+    }
+
+    /**
+     * Adds the accumulated fields to the document result and clears the accumulator.
+     */
+    public void flush() {
+        if (!this.errors.isEmpty()) {
+            for (final ValidationErrorRecord error : this.errors) {
+                this.documentResult.addErrors(error.toValidationError());
+            }
+            this.errors.clear();
+        }
+        if (!this.typeIdentifiers.isEmpty()) {
+            this.documentResult.addAllTypeIdentifier(this.typeIdentifiers);
+            this.typeIdentifiers.clear();
+        }
+        if (!this.valueSetProvisions.isEmpty()) {
+            this.documentResult.addAllValueSetProvisions(this.valueSetProvisions);
+            this.valueSetProvisions.clear();
+        }
+        if (!this.valueSetRequirements.isEmpty()) {
+            this.documentResult.addAllValueSetRequirements(this.valueSetRequirements);
+            this.valueSetRequirements.clear();
+        }
+    }
+
+    /**
+     * The document validation result.
+     */
+    @Nonnull
+    private final ValidatorProtos.ValidationResult.Builder documentResult;
+
+    /**
+     * Accumulated errors, not built yet.
+     */
+    @Nonnull
+    private final List<ValidationErrorRecord> errors = new ArrayList<>();
+
+    /**
+     * Params of the errors of the document, by value.
+     */
+    @Nonnull
+    private final Map<String, String> sharedParams = new HashMap<>();
+
+    /**
+     * The exit condition bounding the errors kept.
+     */
+    @Nonnull
+    private ExitCondition exitCondition = ExitCondition.FULL_PARSING;
+
+    /**
+     * The bound of the exit condition, see ExitCondition.
+     */
+    private int maxErrors = 0;
+
+    /**
+     * Number of errors kept which are not warnings.
+     */
+    private int keptErrors = 0;
+
+    /**
+     * Number of warnings kept.
+     */
+    private int keptWarnings = 0;
+
+    /**
+     * Records of the distinct errors by error hash, null unless errors are aggregated.
+     */
+    private Map<Integer, List<ValidationErrorRecord>> distinctErrors = null;
+
+    /**
+     * Records of the distinct errors in the order of their first occurrence.
+     */
+    @Nonnull
+    private final List<ValidationErrorRecord> aggregatedErrors = new ArrayList<>();
+
+    /**
+     * Accumulated type identifiers.
+     */
+    @Nonnull
+    private final List<String> typeIdentifiers = new ArrayList<>();
+
+    /**
+     * Accumulated value set provisions.
+     */
+    @Nonnull
+    private final List<ValidatorProtos.ValueSetProvision> valueSetProvisions = new ArrayList<>();
+
+    /**
+     * Accumulated value set requirements.
+     */
+    @Nonnull
+    private final List<ValidatorProtos.ValueSetRequirement> valueSetRequirements = new ArrayList<>();
+}
@@ -109,7 +109,7 @@ public class Canonicalizer {
         }
 
         final Token startToken = tokenStream.current();
-        final AtRule rule = new AtRule(startToken.toString());
+        final AtRule rule = new AtRule(CssTokenUtil.internIdentifier(startToken.toString()));
         CssTokenUtil.copyPosTo(startToken, rule);
 
         while (true) {
@@ -228,7 +228,7 @@ public class Canonicalizer {
 
         Token startToken = tokenStream.current();
         final Declaration decl = (Declaration) CssTokenUtil.copyPosTo(startToken,
-                new Declaration(startToken.toString()));
+                new Declaration(CssTokenUtil.internIdentifier(startToken.toString())));
 
         while (CssTokenUtil.getTokenType(tokenStream.next()) == TokenType.WHITESPACE) {
             tokenStream.consume();
@@ -27,6 +27,7 @@ import com.steadystate.css.parser.Token;
 import javax.annotation.Nonnull;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * General utility methods to map token types to token kinds from cssparser library.
@@ -44,64 +45,64 @@ public final class CssTokenUtil {
 
     }
 
-    // mapping for tokens that are defined under SACParserCSS3Constants
-    private static final Map<Integer, TokenType> KIND_TO_TOKENTYPE;
+    // mapping for tokens that are defined under SACParserCSS3Constants, indexed by kind
+    private static final TokenType[] KIND_TO_TOKENTYPE;
 
     // mirror map for grouping tokens
     private static final Map<String, String> REFLECT_TOKEN;
 
     static {
-        KIND_TO_TOKENTYPE = new HashMap<>();
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.NUMBER, TokenType.NUMBER);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.S, TokenType.WHITESPACE);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.EOF, TokenType.EOF_TOKEN);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.ATKEYWORD, TokenType.AT_KEYWORD);
+        KIND_TO_TOKENTYPE = new TokenType[SACParserCSS3Constants.tokenImage.length];
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.NUMBER] = TokenType.NUMBER;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.S] = TokenType.WHITESPACE;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.EOF] = TokenType.EOF_TOKEN;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.ATKEYWORD] = TokenType.AT_KEYWORD;
 
         // these are both @ keywords and will be treated the same as other @ keywords
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.MEDIA_SYM, TokenType.AT_KEYWORD);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.FONT_FACE_SYM, TokenType.AT_KEYWORD);
-
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.CDC, TokenType.CDC);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.CDO, TokenType.CDO);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.SEMICOLON, TokenType.SEMICOLON);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.LBRACE, TokenType.OPEN_CURLY);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.RBRACE, TokenType.CLOSE_CURLY);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.LSQUARE, TokenType.OPEN_SQUARE);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.RSQUARE, TokenType.CLOSE_SQUARE);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.LROUND, TokenType.OPEN_PAREN);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.RROUND, TokenType.CLOSE_PAREN);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.COLON, TokenType.COLON);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.COMMA, TokenType.COMMA);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.MEDIA_SYM] = TokenType.AT_KEYWORD;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.FONT_FACE_SYM] = TokenType.AT_KEYWORD;
+
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.CDC] = TokenType.CDC;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.CDO] = TokenType.CDO;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.SEMICOLON] = TokenType.SEMICOLON;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.LBRACE] = TokenType.OPEN_CURLY;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.RBRACE] = TokenType.CLOSE_CURLY;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.LSQUARE] = TokenType.OPEN_SQUARE;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.RSQUARE] = TokenType.CLOSE_SQUARE;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.LROUND] = TokenType.OPEN_PAREN;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.RROUND] = TokenType.CLOSE_PAREN;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.COLON] = TokenType.COLON;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.COMMA] = TokenType.COMMA;
         // TODO: verify delim mappings
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.UNKNOWN, TokenType.DELIM);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.ASTERISK, TokenType.DELIM);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.PLUS, TokenType.DELIM);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.MINUS, TokenType.DELIM);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.DOT, TokenType.DELIM);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.TILDE, TokenType.DELIM);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.GREATER, TokenType.DELIM);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.UNKNOWN] = TokenType.DELIM;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.ASTERISK] = TokenType.DELIM;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.PLUS] = TokenType.DELIM;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.MINUS] = TokenType.DELIM;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.DOT] = TokenType.DELIM;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.TILDE] = TokenType.DELIM;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.GREATER] = TokenType.DELIM;
 
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.HASH, TokenType.HASH);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.HASH] = TokenType.HASH;
 
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.ONLY, TokenType.IDENT);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.NOT, TokenType.IDENT);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.AND, TokenType.IDENT);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.ONLY] = TokenType.IDENT;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.NOT] = TokenType.IDENT;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.AND] = TokenType.IDENT;
 
         // TODO : check this
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.FUNCTION, TokenType.FUNCTION_TOKEN);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.IDENT, TokenType.IDENT);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.FUNCTION] = TokenType.FUNCTION_TOKEN;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.IDENT] = TokenType.IDENT;
 
         // TODO : verify uri and url are interchangeable for validation
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.URL, TokenType.URL);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.URI, TokenType.URL);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.URL] = TokenType.URL;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.URI] = TokenType.URL;
 
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.STRING, TokenType.STRING);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.STRING] = TokenType.STRING;
 
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.INCLUDES, TokenType.INCLUDE_MATCH);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.DASHMATCH, TokenType.DASH_MATCH);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.PREFIXMATCH, TokenType.PREFIX_MATCH);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.SUFFIXMATCH, TokenType.SUFFIX_MATCH);
-        KIND_TO_TOKENTYPE.put(SACParserCSS3Constants.SUBSTRINGMATCH, TokenType.SUBSTRING_MATCH);
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.INCLUDES] = TokenType.INCLUDE_MATCH;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.DASHMATCH] = TokenType.DASH_MATCH;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.PREFIXMATCH] = TokenType.PREFIX_MATCH;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.SUFFIXMATCH] = TokenType.SUFFIX_MATCH;
+        KIND_TO_TOKENTYPE[SACParserCSS3Constants.SUBSTRINGMATCH] = TokenType.SUBSTRING_MATCH;
 
         REFLECT_TOKEN = new HashMap<>();
         REFLECT_TOKEN.put("[", "]");
@@ -121,7 +122,7 @@ public final class CssTokenUtil {
      * @return a TokenType enum value useful to Canonicalizer
      */
     public static TokenType getTokenType(@Nonnull final Token token) {
-        return KIND_TO_TOKENTYPE.get(token.kind);
+        return (token.kind >= 0 && token.kind < KIND_TO_TOKENTYPE.length) ? KIND_TO_TOKENTYPE[token.kind] : null;
     }
 
     /**
@@ -149,4 +150,83 @@ public final class CssTokenUtil {
         return REFLECT_TOKEN.get(token.toString().trim());
     }
 
+    /**
+     * Returns true if |a| and |b| are equal when ASCII letters are compared
+     * case insensitively, which is how CSS compares identifiers. Nothing is
+     * allocated.
+     *
+     * @param a a string
+     * @param b another string
+     * @return true iff the strings match
+     */
+    public static boolean equalsIgnoreAsciiCase(@Nonnull final String a, @Nonnull final String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < a.length(); i++) {
+            final char c = a.charAt(i);
+            if (c != b.charAt(i) && toAsciiLowerCase(c) != toAsciiLowerCase(b.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lower cases the ASCII letters of |str|. Returns |str| itself when it has
+     * no upper case ASCII letter, the usual case for identifiers.
+     *
+     * @param str a string
+     * @return the lower cased string
+     */
+    public static String toAsciiLowerCase(@Nonnull final String str) {
+        for (int i = 0; i < str.length(); i++) {
+            final char c = str.charAt(i);
+            if (c != toAsciiLowerCase(c)) {
+                final char[] chars = str.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    chars[j] = toAsciiLowerCase(chars[j]);
+                }
+                return new String(chars);
+            }
+        }
+        return str;
+    }
+
+    /**
+     * Lower cases an ASCII letter, returns other chars unchanged.
+     *
+     * @param c the char
+     * @return the lower cased char
+     */
+    public static char toAsciiLowerCase(final char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Returns the shared instance of an identifier, e.g. the name of an at
+     * rule or a declaration, so that the many rules of a stylesheet, and of
+     * the stylesheets validated after it, share a few name strings.
+     *
+     * @param identifier the identifier
+     * @return the shared identifier
+     */
+    public static String internIdentifier(@Nonnull final String identifier) {
+        final String interned = IDENTIFIERS.get(identifier);
+        if (interned != null) {
+            return interned;
+        }
+        if (IDENTIFIERS.size() < MAX_INTERNED_IDENTIFIERS) {
+            final String previous = IDENTIFIERS.putIfAbsent(identifier, identifier);
+            return (previous != null) ? previous : identifier;
+        }
+        return identifier;
+    }
+
+    // bound on the number of interned identifiers, stylesheets may make up names
+    private static final int MAX_INTERNED_IDENTIFIERS = 4096;
+
+    // interned identifiers
+    private static final Map<String, String> IDENTIFIERS = new ConcurrentHashMap<>();
+
 }
@@ -23,6 +23,8 @@ package dev.amp.validator.css;
 
 import dev.amp.validator.ParsedUrlSpec;
 import dev.amp.validator.ValidatorProtos;
+import dev.amp.validator.CompiledValueList;
+import dev.amp.validator.CompiledValueLists;
 import dev.amp.validator.utils.CssSpecUtils;
 
 import javax.annotation.Nonnull;
@@ -41,12 +43,15 @@ public class ParsedDocCssSpec {
     /**
      * constructor
      *
-     * @param spec      the spec to validate against
-     * @param declLists the list of declarations to populate
+     * @param spec               the spec to validate against
+     * @param declLists          the list of declarations to populate
+     * @param compiledValueLists the compiled value lists of the rules
      */
     public ParsedDocCssSpec(final ValidatorProtos.DocCssSpec spec,
-                            final List<ValidatorProtos.DeclarationList> declLists) {
+                            final List<ValidatorProtos.DeclarationList> declLists,
+                            @Nonnull final CompiledValueLists compiledValueLists) {
         this.spec = spec;
+        this.compiledValueLists = compiledValueLists;
         this.cssDeclarationByName = new HashMap<>();
         this.cssDeclarationSvgByName = new HashMap<>();
 
@@ -94,13 +99,23 @@ public class ParsedDocCssSpec {
         this.parsedFontUrlSpec = new ParsedUrlSpec(spec.getFontUrlSpec());
     }
 
+    /**
+     * Returns the compiled value_casei list of a declaration returned by this spec.
+     *
+     * @param declaration the declaration.
+     * @return the compiled value_casei list, null if it is empty.
+     */
+    public CompiledValueList getCssDeclarationValueCasei(@Nonnull final ValidatorProtos.CssDeclaration declaration) {
+        return this.compiledValueLists.getValueCaseiOrNull(declaration);
+    }
+
     /**
      * @param candidate Returns the CssDeclaration rules for a matching css declaration name, if is
      *                  found, else null.
      * @return the CssDeclaration rules for a matching css declaration name, else null
      */
     public ValidatorProtos.CssDeclaration getCssDeclarationSvgByName(@Nonnull final String candidate) {
-        String key = candidate.toLowerCase();
+        String key = CssTokenUtil.toAsciiLowerCase(candidate);
         if (this.getSpec().getExpandVendorPrefixes()) {
             key = CssSpecUtils.stripVendorPrefix(key);
         }
@@ -119,7 +134,7 @@ public class ParsedDocCssSpec {
      * @return the CssDeclaration from mapping
      */
     public ValidatorProtos.CssDeclaration getCssDeclarationByName(@Nonnull final String candidate) {
-        String key = candidate.toLowerCase();
+        String key = CssTokenUtil.toAsciiLowerCase(candidate);
         if (this.getSpec().getExpandVendorPrefixes()) {
             key = CssSpecUtils.stripVendorPrefix(key);
         }
@@ -188,6 +203,12 @@ public class ParsedDocCssSpec {
      */
     private final HashMap<String, ValidatorProtos.CssDeclaration> cssDeclarationSvgByName;
 
+    /**
+     * Compiled value lists of the rules.
+     */
+    @Nonnull
+    private final CompiledValueLists compiledValueLists;
+
     /**
      * The ParsedUrlSpec for image url.
      */
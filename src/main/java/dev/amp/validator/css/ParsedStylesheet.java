@@ -0,0 +1,119 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.css;
+
+import com.steadystate.css.parser.Token;
+import dev.amp.validator.utils.CssSpecUtils;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A stylesheet parsed on its own along with its parse errors. Positions are
+ * relative to the start of the stylesheet, line 1, so callers add the base
+ * position of the style tag when they emit errors. As the stylesheet is not
+ * modified once parsed, it may be cached and shared by the documents and
+ * threads validating the same css text.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class ParsedStylesheet {
+    /**
+     * Constructor.
+     *
+     * @param stylesheet the stylesheet.
+     * @param errors     the parse errors.
+     */
+    private ParsedStylesheet(@Nonnull final Stylesheet stylesheet, @Nonnull final List<ErrorToken> errors) {
+        this.stylesheet = stylesheet;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Parses css text.
+     *
+     * @param cssText the css text.
+     * @return the parsed stylesheet.
+     * @throws IOException            IO exception.
+     * @throws CssValidationException css validation exception.
+     */
+    public static ParsedStylesheet parse(@Nonnull final String cssText) throws IOException, CssValidationException {
+        final List<ErrorToken> errors = new ArrayList<>();
+        final CssParser cssParser = new CssParser(cssText, 1, 0, errors);
+        final List<Token> tokenList = cssParser.tokenize();
+        final CssParsingConfig cssParsingConfig = CssParsingConfig.computeCssParsingConfig();
+        final Stylesheet stylesheet = CssSpecUtils.parseAStylesheet(
+                tokenList, cssParsingConfig.getAtRuleSpec(), cssParsingConfig.getDefaultSpec(), errors);
+        return new ParsedStylesheet(stylesheet, errors);
+    }
+
+    /**
+     * Returns the stylesheet. Do not modify.
+     *
+     * @return the stylesheet.
+     */
+    public Stylesheet getStylesheet() {
+        return this.stylesheet;
+    }
+
+    /**
+     * Returns the number of parse errors.
+     *
+     * @return the number of parse errors.
+     */
+    public int getErrorCount() {
+        return this.errors.size();
+    }
+
+    /**
+     * Adds copies of the parse errors to |errors|. Callers may modify the
+     * copies, e.g. set the first param to the name of the style tag.
+     *
+     * @param errors the error list to add to.
+     * @throws CssValidationException css validation exception.
+     */
+    public void addErrorsTo(@Nonnull final List<ErrorToken> errors) throws CssValidationException {
+        for (final ErrorToken error : this.errors) {
+            final ErrorToken copy = new ErrorToken(error.getCode(), new ArrayList<>(error.getParams()));
+            copy.setLine(error.getLine());
+            copy.setCol(error.getCol());
+            errors.add(copy);
+        }
+    }
+
+    /**
+     * The stylesheet.
+     */
+    @Nonnull
+    private final Stylesheet stylesheet;
+
+    /**
+     * The parse errors, positioned relative to the stylesheet.
+     */
+    @Nonnull
+    private final List<ErrorToken> errors;
+}
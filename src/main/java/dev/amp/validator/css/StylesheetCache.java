@@ -0,0 +1,169 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.css;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache of parsed stylesheets by css text, for documents sharing their
+ * stylesheets, e.g. emails from the same template. Stylesheets are weighted
+ * by the length of their text and the least recently used ones are evicted
+ * once the total weight exceeds the bound.
+ *
+ * A cache may be shared by parsers and threads. Parsing doesn't depend on
+ * the validator rules, only validating the parsed stylesheet does.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class StylesheetCache {
+    /**
+     * Constructor.
+     *
+     * @param maxWeightChars bound on the total length, in chars, of the css texts of the cached stylesheets.
+     */
+    public StylesheetCache(final long maxWeightChars) {
+        this.maxWeightChars = maxWeightChars;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    }
+
+    /**
+     * Returns the parsed stylesheet of |cssText|, parsing and caching it if
+     * it isn't cached. A css text longer than the bound is not cached.
+     *
+     * @param cssText the css text.
+     * @return the parsed stylesheet.
+     * @throws IOException            IO exception.
+     * @throws CssValidationException css validation exception.
+     */
+    public ParsedStylesheet getOrParse(@Nonnull final String cssText) throws IOException, CssValidationException {
+        synchronized (this) {
+            final ParsedStylesheet cached = this.entries.get(cssText);
+            if (cached != null) {
+                this.hitCount++;
+                return cached;
+            }
+            this.missCount++;
+        }
+
+        // Parse outside of the lock, another thread may parse the same text.
+        final ParsedStylesheet parsed = ParsedStylesheet.parse(cssText);
+        if (cssText.length() <= this.maxWeightChars) {
+            this.put(cssText, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Removes all cached stylesheets. The metrics are kept.
+     */
+    public synchronized void invalidateAll() {
+        this.entries.clear();
+        this.weightChars = 0;
+    }
+
+    /**
+     * Returns the number of cached stylesheets.
+     *
+     * @return the number of cached stylesheets.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of lookups which found a stylesheet.
+     *
+     * @return the number of hits.
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Returns the number of lookups which parsed the stylesheet.
+     *
+     * @return the number of misses.
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Caches |parsed| under |cssText|, evicting the least recently used
+     * stylesheets while the total weight exceeds the bound.
+     *
+     * @param cssText the css text.
+     * @param parsed  the parsed stylesheet.
+     */
+    private synchronized void put(@Nonnull final String cssText, @Nonnull final ParsedStylesheet parsed) {
+        if (this.entries.put(cssText, parsed) == null) {
+            this.weightChars += cssText.length();
+        }
+
+        final Iterator<String> eldest = this.entries.keySet().iterator();
+        while (this.weightChars > this.maxWeightChars) {
+            this.weightChars -= eldest.next().length();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Initial capacity of the entries map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Load factor of the entries map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Bound on the total length of the cached css texts.
+     */
+    private final long maxWeightChars;
+
+    /**
+     * The cached stylesheets by css text, least recently used first.
+     */
+    @Nonnull
+    private final LinkedHashMap<String, ParsedStylesheet> entries;
+
+    /**
+     * Total length of the cached css texts.
+     */
+    private long weightChars;
+
+    /**
+     * Number of lookups which found a stylesheet.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups which parsed the stylesheet.
+     */
+    private long missCount;
+}
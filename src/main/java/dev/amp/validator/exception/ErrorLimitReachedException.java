@@ -0,0 +1,39 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.exception;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Exception thrown when the errors bounded by the exit condition are all kept.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class ErrorLimitReachedException extends SAXException {
+    /**
+     * Constructor.
+     */
+    public ErrorLimitReachedException() {
+    }
+}
\ No newline at end of file
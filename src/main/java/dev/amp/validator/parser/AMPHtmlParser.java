@@ -25,6 +25,7 @@ import dev.amp.validator.ValidatorProtos;
 import dev.amp.validator.AMPValidatorManager;
 import dev.amp.validator.AMPHtmlHandler;
 import dev.amp.validator.ExitCondition;
+import dev.amp.validator.css.StylesheetCache;
 import com.yahoo.tagchowder.Parser;
 import com.yahoo.tagchowder.templates.HTMLSchema;
 import dev.amp.validator.utils.ByteUtils;
@@ -51,7 +52,34 @@ public class AMPHtmlParser {
      * @throws ParserException exception occurs while loading rules
      */
     public AMPHtmlParser() throws ParserException {
+        this(null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param resultCache cache of validation results looked up before parsing,
+     *                    null to always parse.
+     * @throws ParserException exception occurs while loading rules
+     */
+    public AMPHtmlParser(final ValidationResultCache resultCache) throws ParserException {
+        this(resultCache, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param resultCache     cache of validation results looked up before parsing,
+     *                        null to always parse.
+     * @param stylesheetCache cache of parsed stylesheets reused across documents,
+     *                        null to always parse stylesheets.
+     * @throws ParserException exception occurs while loading rules
+     */
+    public AMPHtmlParser(final ValidationResultCache resultCache,
+                         final StylesheetCache stylesheetCache) throws ParserException {
+        this.resultCache = resultCache;
         validatorManager = new AMPValidatorManager();
+        validatorManager.setStylesheetCache(stylesheetCache);
         try {
             validatorManager.loadRule();
         } catch (IOException | URISyntaxException ex) {
@@ -64,8 +92,11 @@ public class AMPHtmlParser {
      *
      * @param inputHtml input html document.
      * @param htmlFormat html format.
-     * @param condition exit condition.
+     * @param condition exit condition, EXIT_ON_MAX_ERRORS and STATUS_ONLY
+     *                  require the max errors overload.
      * @return returns a validation object.
+     * @throws IllegalArgumentException if the exit condition requires a positive
+     *                                  max errors, see ExitCondition.
      */
     public ValidatorProtos.ValidationResult parse(@Nonnull final String inputHtml,
                                             @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat,
@@ -78,16 +109,99 @@ public class AMPHtmlParser {
      *
      * @param inputHtml input html document.
      * @param htmlFormat html format.
-     * @param condition exit condition.
+     * @param condition exit condition, EXIT_ON_MAX_ERRORS and STATUS_ONLY
+     *                  require the max errors overload.
      * @param maxNodes max nodes.
      * @return returns a validation object.
+     * @throws IllegalArgumentException if the exit condition requires a positive
+     *                                  max errors, see ExitCondition.
      */
     public ValidatorProtos.ValidationResult parse(@Nonnull final String inputHtml,
                                             @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat,
                                             @Nonnull final ExitCondition condition,
                                             final int maxNodes) {
+        return parse(inputHtml, htmlFormat, condition, maxNodes, 0);
+    }
+
+    /**
+     * Parse the input html document and returns validation result.
+     *
+     * @param inputHtml input html document.
+     * @param htmlFormat html format.
+     * @param condition exit condition.
+     * @param maxNodes max nodes.
+     * @param maxErrors bound of the exit condition on the errors kept, see ExitCondition.
+     * @return returns a validation object.
+     * @throws IllegalArgumentException if the exit condition requires a positive
+     *                                  max errors, see ExitCondition.
+     */
+    public ValidatorProtos.ValidationResult parse(@Nonnull final String inputHtml,
+                                            @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat,
+                                            @Nonnull final ExitCondition condition,
+                                            final int maxNodes,
+                                            final int maxErrors) {
+        condition.checkMaxErrors(maxErrors);
+        if (this.resultCache == null) {
+            return validate(inputHtml, htmlFormat, condition, maxNodes, maxErrors, false)
+                    .validationResult().build();
+        }
+
+        final ValidationResultKey key = new ValidationResultKey(inputHtml, htmlFormat, condition,
+                maxNodes, maxErrors, validatorManager.getRulesVersion());
+        ValidatorProtos.ValidationResult result = this.resultCache.get(key);
+        if (result == null) {
+            result = validate(inputHtml, htmlFormat, condition, maxNodes, maxErrors, false)
+                    .validationResult().build();
+            this.resultCache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Parse the input html document and returns validation result with its
+     * errors aggregated: an error which was already reported at another
+     * position of the document is not reported again, it is counted on the
+     * record of its first occurrence instead. Aggregated results are not cached.
+     *
+     * @param inputHtml input html document.
+     * @param htmlFormat html format.
+     * @param condition exit condition.
+     * @param maxNodes max nodes.
+     * @param maxErrors bound of the exit condition on the errors kept, see ExitCondition.
+     * @return returns the validation result along with the records of the distinct errors.
+     * @throws IllegalArgumentException if the exit condition requires a positive
+     *                                  max errors, see ExitCondition.
+     */
+    public AggregatedValidationResult parseAggregated(@Nonnull final String inputHtml,
+                                                      @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat,
+                                                      @Nonnull final ExitCondition condition,
+                                                      final int maxNodes,
+                                                      final int maxErrors) {
+        final AMPHtmlHandler handler = validate(inputHtml, htmlFormat, condition, maxNodes, maxErrors, true);
+        return new AggregatedValidationResult(handler.validationResult().build(), handler.getAggregatedErrors());
+    }
+
+    /**
+     * Parse and validate the input html document.
+     *
+     * @param inputHtml input html document.
+     * @param htmlFormat html format.
+     * @param condition exit condition.
+     * @param maxNodes max nodes.
+     * @param maxErrors bound of the exit condition on the errors kept.
+     * @param aggregateErrors true to aggregate errors.
+     * @return returns the handler holding the validation result.
+     */
+    private AMPHtmlHandler validate(@Nonnull final String inputHtml,
+                                    @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat,
+                                    @Nonnull final ExitCondition condition,
+                                    final int maxNodes,
+                                    final int maxErrors,
+                                    final boolean aggregateErrors) {
         final Parser parser = new Parser();
-        final AMPHtmlHandler handler = new AMPHtmlHandler(validatorManager, htmlFormat, condition, maxNodes, ByteUtils.byteLength(inputHtml));
+        final AMPHtmlHandler handler = new AMPHtmlHandler(validatorManager, htmlFormat, condition, maxNodes,
+                maxErrors, ByteUtils.byteLength(inputHtml));
+        handler.setAggregateErrors(aggregateErrors);
         try {
             parser.setContentHandler(handler);
             parser.setProperty(Parser.SCHEMA_PROPERTY, new HTMLSchema(true));
@@ -108,12 +222,15 @@ public class AMPHtmlParser {
             }
         }
 
-        return handler.validationResult().build();
+        return handler;
     }
 
     /** Validation manager object. */
     @Nonnull
     private final AMPValidatorManager validatorManager;
+
+    /** Cache of validation results, null if results are not cached. */
+    private final ValidationResultCache resultCache;
 }
 
 
@@ -0,0 +1,84 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.parser;
+
+import dev.amp.validator.ValidationErrorRecord;
+import dev.amp.validator.ValidatorProtos;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * The validation result of a document whose errors were aggregated. The result
+ * only holds the first occurrence of each error, the records of the distinct
+ * errors tell how many times each of them occurred.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class AggregatedValidationResult {
+    /**
+     * Constructor.
+     *
+     * @param result           the validation result.
+     * @param aggregatedErrors the records of the distinct errors.
+     */
+    public AggregatedValidationResult(@Nonnull final ValidatorProtos.ValidationResult result,
+                                      @Nonnull final List<ValidationErrorRecord> aggregatedErrors) {
+        this.result = result;
+        this.aggregatedErrors = aggregatedErrors;
+    }
+
+    /**
+     * Returns the validation result, holding the first occurrence of each error.
+     *
+     * @return returns the validation result.
+     */
+    @Nonnull
+    public ValidatorProtos.ValidationResult getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the records of the distinct errors with their number of
+     * occurrences, in the order of their first occurrence.
+     *
+     * @return returns the records of the distinct errors.
+     */
+    @Nonnull
+    public List<ValidationErrorRecord> getAggregatedErrors() {
+        return aggregatedErrors;
+    }
+
+    /**
+     * The validation result.
+     */
+    @Nonnull
+    private final ValidatorProtos.ValidationResult result;
+
+    /**
+     * The records of the distinct errors.
+     */
+    @Nonnull
+    private final List<ValidationErrorRecord> aggregatedErrors;
+}
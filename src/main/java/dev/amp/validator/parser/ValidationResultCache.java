@@ -0,0 +1,287 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.parser;
+
+import dev.amp.validator.ValidatorProtos;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * A cache of validation results across documents, for callers validating the
+ * same documents repeatedly. Results are weighted by their serialized size and
+ * the least recently used ones are evicted once the total weight exceeds the
+ * bound. Results may also expire a fixed time after they were cached.
+ *
+ * A cache may be shared by parsers and threads; the rules version in the key
+ * keeps results of different rules apart.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class ValidationResultCache {
+    /**
+     * Constructor.
+     *
+     * @param maxWeightBytes bound on the total weight, in bytes, of the cached results.
+     * @param ttlMillis      time after which a cached result expires, 0 or less to never expire.
+     */
+    public ValidationResultCache(final long maxWeightBytes, final long ttlMillis) {
+        this(maxWeightBytes, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxWeightBytes bound on the total weight, in bytes, of the cached results.
+     * @param ttlMillis      time after which a cached result expires, 0 or less to never expire.
+     * @param clock          source of the current time in milliseconds.
+     */
+    ValidationResultCache(final long maxWeightBytes, final long ttlMillis, @Nonnull final LongSupplier clock) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    }
+
+    /**
+     * Returns the cached result for |key|, null if there is none or it expired.
+     *
+     * @param key the key.
+     * @return the result or null.
+     */
+    public synchronized ValidatorProtos.ValidationResult get(@Nonnull final ValidationResultKey key) {
+        final CachedResult cached = this.entries.get(key);
+        if (cached != null && cached.expiresAtMillis < this.clock.getAsLong()) {
+            this.entries.remove(key);
+            this.weightBytes -= cached.weightBytes;
+            this.expirationCount++;
+        } else if (cached != null) {
+            this.hitCount++;
+            return cached.result;
+        }
+        this.missCount++;
+        return null;
+    }
+
+    /**
+     * Caches |result| under |key|, evicting the least recently used results
+     * while the total weight exceeds the bound. A result weighing more than the
+     * bound on its own is not cached.
+     *
+     * @param key    the key.
+     * @param result the result.
+     */
+    public synchronized void put(@Nonnull final ValidationResultKey key,
+                                 @Nonnull final ValidatorProtos.ValidationResult result) {
+        final long weight = result.getSerializedSize() + ENTRY_OVERHEAD_BYTES;
+        if (weight > this.maxWeightBytes) {
+            return;
+        }
+        final long expiresAtMillis = (this.ttlMillis > 0) ? this.clock.getAsLong() + this.ttlMillis : Long.MAX_VALUE;
+        final CachedResult previous = this.entries.put(key, new CachedResult(result, weight, expiresAtMillis));
+        if (previous != null) {
+            this.weightBytes -= previous.weightBytes;
+        }
+        this.weightBytes += weight;
+
+        final Iterator<Map.Entry<ValidationResultKey, CachedResult>> eldest = this.entries.entrySet().iterator();
+        while (this.weightBytes > this.maxWeightBytes) {
+            this.weightBytes -= eldest.next().getValue().weightBytes;
+            eldest.remove();
+            this.evictionCount++;
+        }
+    }
+
+    /**
+     * Removes all cached results. The metrics are kept.
+     */
+    public synchronized void invalidateAll() {
+        this.entries.clear();
+        this.weightBytes = 0;
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the number of cached results.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the total weight of the cached results.
+     *
+     * @return the total weight in bytes.
+     */
+    public synchronized long getWeightBytes() {
+        return this.weightBytes;
+    }
+
+    /**
+     * Returns the number of lookups which found a result.
+     *
+     * @return the number of hits.
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Returns the number of lookups which found no result, expired ones included.
+     *
+     * @return the number of misses.
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Returns the number of results evicted to stay within the weight bound.
+     *
+     * @return the number of evictions.
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Returns the number of results dropped because they expired.
+     *
+     * @return the number of expirations.
+     */
+    public synchronized long getExpirationCount() {
+        return this.expirationCount;
+    }
+
+    /**
+     * Returns the ratio of lookups which found a result, 0 if there was no lookup.
+     *
+     * @return the hit ratio.
+     */
+    public synchronized double getHitRatio() {
+        final long lookups = this.hitCount + this.missCount;
+        return (lookups == 0) ? 0 : (double) this.hitCount / lookups;
+    }
+
+    /**
+     * A cached result with its weight and expiration time.
+     */
+    private static final class CachedResult {
+        /**
+         * Constructor.
+         *
+         * @param result          the result.
+         * @param weightBytes     the weight in bytes.
+         * @param expiresAtMillis the expiration time.
+         */
+        CachedResult(@Nonnull final ValidatorProtos.ValidationResult result, final long weightBytes,
+                     final long expiresAtMillis) {
+            this.result = result;
+            this.weightBytes = weightBytes;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        /**
+         * The result.
+         */
+        @Nonnull
+        private final ValidatorProtos.ValidationResult result;
+
+        /**
+         * The weight in bytes.
+         */
+        private final long weightBytes;
+
+        /**
+         * The expiration time in milliseconds.
+         */
+        private final long expiresAtMillis;
+    }
+
+    /**
+     * Approximate bytes taken by an entry besides the serialized result.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    /**
+     * Initial capacity of the entries map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Load factor of the entries map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Bound on the total weight of the cached results.
+     */
+    private final long maxWeightBytes;
+
+    /**
+     * Time after which a cached result expires, 0 or less to never expire.
+     */
+    private final long ttlMillis;
+
+    /**
+     * Source of the current time in milliseconds.
+     */
+    @Nonnull
+    private final LongSupplier clock;
+
+    /**
+     * The cached results, least recently used first.
+     */
+    @Nonnull
+    private final LinkedHashMap<ValidationResultKey, CachedResult> entries;
+
+    /**
+     * Total weight of the cached results.
+     */
+    private long weightBytes;
+
+    /**
+     * Number of lookups which found a result.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups which found no result.
+     */
+    private long missCount;
+
+    /**
+     * Number of results evicted to stay within the weight bound.
+     */
+    private long evictionCount;
+
+    /**
+     * Number of results dropped because they expired.
+     */
+    private long expirationCount;
+}
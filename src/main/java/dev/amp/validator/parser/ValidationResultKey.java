@@ -0,0 +1,159 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.parser;
+
+import dev.amp.validator.ExitCondition;
+import dev.amp.validator.ValidatorProtos;
+import dev.amp.validator.utils.HashUtils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Key of a validation result in a ValidationResultCache: a 128 bit hash of
+ * the document along with everything else the result depends on.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class ValidationResultKey {
+    /**
+     * Constructor.
+     *
+     * @param inputHtml    input html document.
+     * @param htmlFormat   html format.
+     * @param condition    exit condition.
+     * @param maxNodes     max nodes.
+     * @param rulesVersion version of the validator rules.
+     */
+    public ValidationResultKey(@Nonnull final String inputHtml,
+                               @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat,
+                               @Nonnull final ExitCondition condition,
+                               final int maxNodes,
+                               final long rulesVersion) {
+        this(inputHtml, htmlFormat, condition, maxNodes, 0, rulesVersion);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param inputHtml    input html document.
+     * @param htmlFormat   html format.
+     * @param condition    exit condition.
+     * @param maxNodes     max nodes.
+     * @param maxErrors    bound of the exit condition on the errors kept.
+     * @param rulesVersion version of the validator rules.
+     */
+    public ValidationResultKey(@Nonnull final String inputHtml,
+                               @Nonnull final ValidatorProtos.HtmlFormat.Code htmlFormat,
+                               @Nonnull final ExitCondition condition,
+                               final int maxNodes,
+                               final int maxErrors,
+                               final long rulesVersion) {
+        final long[] hash = HashUtils.murmur3Hash128(inputHtml, rulesVersion);
+        this.documentHash1 = hash[0];
+        this.documentHash2 = hash[1];
+        this.documentLength = inputHtml.length();
+        this.htmlFormat = htmlFormat;
+        this.condition = condition;
+        this.maxNodes = maxNodes;
+        this.maxErrors = maxErrors;
+        this.rulesVersion = rulesVersion;
+    }
+
+    /**
+     * Returns true if |o| is a key of the same document validated the same way.
+     *
+     * @param o an object.
+     * @return returns true if |o| is an equal key.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ValidationResultKey)) {
+            return false;
+        }
+        final ValidationResultKey other = (ValidationResultKey) o;
+        return this.documentHash1 == other.documentHash1
+                && this.documentHash2 == other.documentHash2
+                && this.documentLength == other.documentLength
+                && this.htmlFormat == other.htmlFormat
+                && this.condition == other.condition
+                && this.maxNodes == other.maxNodes
+                && this.maxErrors == other.maxErrors
+                && this.rulesVersion == other.rulesVersion;
+    }
+
+    /**
+     * Returns the hash code, the low bits of the document hash.
+     *
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return (int) this.documentHash1;
+    }
+
+    /**
+     * First half of the document hash.
+     */
+    private final long documentHash1;
+
+    /**
+     * Second half of the document hash.
+     */
+    private final long documentHash2;
+
+    /**
+     * Length of the document in chars.
+     */
+    private final int documentLength;
+
+    /**
+     * Html format.
+     */
+    @Nonnull
+    private final ValidatorProtos.HtmlFormat.Code htmlFormat;
+
+    /**
+     * Exit condition.
+     */
+    @Nonnull
+    private final ExitCondition condition;
+
+    /**
+     * Max nodes.
+     */
+    private final int maxNodes;
+
+    /**
+     * Bound of the exit condition on the errors kept.
+     */
+    private final int maxErrors;
+
+    /**
+     * Version of the validator rules.
+     */
+    private final long rulesVersion;
+}
@@ -22,6 +22,7 @@
 package dev.amp.validator.utils;
 
 import com.steadystate.css.parser.Token;
+import dev.amp.validator.ComputedLayout;
 import dev.amp.validator.Context;
 import dev.amp.validator.CssLength;
 import dev.amp.validator.ExtensionsContext;
@@ -45,17 +46,14 @@ import org.apache.commons.text.StringEscapeUtils;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static dev.amp.validator.utils.CssSpecUtils.parseInlineStyle;
@@ -276,7 +274,8 @@ public final class AttributeSpecUtils {
                         parsedAttrSpec, context, TagSpecUtils.getTagSpecName(spec), name, value,
                         result.getValidationResult());
             }
-            if (!hasTemplateAncestor || !attrValueHasTemplateSyntax(value)) {
+            if (!hasTemplateAncestor
+                    || (TemplateSyntaxUtils.scan(value) & TemplateSyntaxUtils.MUSTACHE_TAG) == 0) {
                 validateNonTemplateAttrValueAgainstSpec(
                         parsedAttrSpec, context, name, value, spec, result.getValidationResult());
                 if (result.getValidationResult().getStatus() == ValidatorProtos.ValidationResult.Status.FAIL) {
@@ -566,15 +565,8 @@ public final class AttributeSpecUtils {
             } else {
                 final ValidatorProtos.CssDeclaration cssDeclaration = cssDeclarationByName.get(declarationName);
                 if (cssDeclaration.getValueCaseiList().size() > 0) {
-                    boolean hasValidValue = false;
                     final String firstIdent = declaration.firstIdent();
-                    for (final String value : cssDeclaration.getValueCaseiList()) {
-                        if (firstIdent.toLowerCase().equals(value)) {
-                            hasValidValue = true;
-                            break;
-                        }
-                    }
-                    if (!hasValidValue) {
+                    if (!parsedAttrSpec.getCssDeclarationValueCasei(cssDeclaration).contains(firstIdent)) {
                         // Declaration value not allowed.
                         final List<String> params = new ArrayList<>();
                         params.add(tagSpecName);
@@ -608,7 +600,7 @@ public final class AttributeSpecUtils {
             return false;
         }
 
-        return MUSTACHE_TAG_PATTERN.matcher(value).matches();
+        return (TemplateSyntaxUtils.scan(value) & TemplateSyntaxUtils.MUSTACHE_TAG) != 0;
     }
 
     /**
@@ -659,27 +651,9 @@ public final class AttributeSpecUtils {
                             TagSpecUtils.getTagSpecUrl(tagSpec)));
             result.addValueSetRequirements(requirement);
         }
-        if (spec.getValueCount() > 0) {
-            for (final String value : spec.getValueList()) {
-                if (attrValue.equals(value)) {
-                    return;
-                }
-            }
-            final List<String> params = new ArrayList<>();
-            params.add(attrName);
-            params.add(TagSpecUtils.getTagSpecName(tagSpec));
-            params.add(attrValue);
-            context.addError(
-                    ValidatorProtos.ValidationError.Code.INVALID_ATTR_VALUE,
-                    context.getLineCol(),
-                    params,
-                    TagSpecUtils.getTagSpecUrl(tagSpec),
-                    result);
-        } else if (spec.getValueCaseiCount() > 0) {
-            for (final String value : spec.getValueCaseiList()) {
-                if (attrValue.toLowerCase().equals(value)) {
-                    return;
-                }
+        if (spec.getValueCount() > 0 || spec.getValueCaseiCount() > 0) {
+            if (parsedAttrSpec.getValueListOrNull().contains(attrValue)) {
+                return;
             }
 
             final List<String> params = new ArrayList<>();
@@ -738,24 +712,93 @@ public final class AttributeSpecUtils {
                                                    @Nonnull final String attrValue,
                                                    @Nonnull final ValidatorProtos.TagSpec tagSpec,
                                                    @Nonnull final ValidatorProtos.ValidationResult.Builder result) {
-        final String[] segments = attrValue.split("[,;]");
-        final Map<String, String> properties = new HashMap<>();
-        for (final String segment : segments) {
-            final String[] keyValue = segment.split("=");
-            if (keyValue.length < 2) {
-                continue;
+        // The value is a list of name=value pairs separated by ',' or ';', e.g.
+        // "width=device-width,minimum-scale=1". Just like splitting each pair on
+        // '=', the value ends at a second '=' and a pair with nothing but '='
+        // after the name is ignored. Names are trimmed and lower cased, a name
+        // which is repeated keeps the value of its last pair.
+        final int length = attrValue.length();
+        final int[] pairByProperty = new int[parsedValueProperties.getPropertyCount()];
+        Arrays.fill(pairByProperty, -1);
+        int pairCount = 0;
+        int[] pairProperties = new int[VALUE_PROPERTY_PAIRS_CAPACITY];
+        int[] valueStarts = new int[VALUE_PROPERTY_PAIRS_CAPACITY];
+        int[] valueEnds = new int[VALUE_PROPERTY_PAIRS_CAPACITY];
+        String[] unknownNames = null;
+        int pos = 0;
+        while (pos < length) {
+            int equals = -1;
+            int valueEnd = -1;
+            boolean hasValue = false;
+            int segmentEnd = pos;
+            for (; segmentEnd < length; segmentEnd++) {
+                final char c = attrValue.charAt(segmentEnd);
+                if (c == ',' || c == ';') {
+                    break;
+                }
+                if (c == '=') {
+                    if (equals < 0) {
+                        equals = segmentEnd;
+                    } else if (valueEnd < 0) {
+                        valueEnd = segmentEnd;
+                    }
+                } else if (equals >= 0) {
+                    hasValue = true;
+                }
+            }
+            if (hasValue) {
+                int nameStart = pos;
+                int nameEnd = equals;
+                while (nameStart < nameEnd && attrValue.charAt(nameStart) <= ' ') {
+                    nameStart++;
+                }
+                while (nameEnd > nameStart && attrValue.charAt(nameEnd - 1) <= ' ') {
+                    nameEnd--;
+                }
+                final int property = parsedValueProperties.getPropertyIndex(attrValue, nameStart, nameEnd);
+                int pair = -1;
+                String unknownName = null;
+                if (property >= 0) {
+                    pair = pairByProperty[property];
+                } else {
+                    unknownName = attrValue.substring(nameStart, nameEnd).toLowerCase();
+                    for (int i = 0; i < pairCount && pair < 0; i++) {
+                        if (pairProperties[i] < 0 && unknownName.equals(unknownNames[i])) {
+                            pair = i;
+                        }
+                    }
+                }
+                if (pair < 0) {
+                    if (pairCount == pairProperties.length) {
+                        pairProperties = Arrays.copyOf(pairProperties, pairCount * 2);
+                        valueStarts = Arrays.copyOf(valueStarts, pairCount * 2);
+                        valueEnds = Arrays.copyOf(valueEnds, pairCount * 2);
+                    }
+                    if (unknownName != null) {
+                        if (unknownNames == null) {
+                            unknownNames = new String[pairProperties.length];
+                        } else if (unknownNames.length < pairProperties.length) {
+                            unknownNames = Arrays.copyOf(unknownNames, pairProperties.length);
+                        }
+                        unknownNames[pairCount] = unknownName;
+                    } else {
+                        pairByProperty[property] = pairCount;
+                    }
+                    pair = pairCount++;
+                    pairProperties[pair] = property;
+                }
+                valueStarts[pair] = equals + 1;
+                valueEnds[pair] = (valueEnd < 0) ? segmentEnd : valueEnd;
             }
-            properties.put(keyValue[0].trim().toLowerCase(), keyValue[1]);
+            pos = segmentEnd + 1;
         }
-        // TODO(johannes): End hack.
-        final Set<String> names = properties.keySet();
-        for (final String name : names) {
-            final String value = properties.get(name);
-            final Map<String, ValidatorProtos.PropertySpec> valuePropertyByName =
-                    parsedValueProperties.getValuePropertyByName();
-            if (!(valuePropertyByName.containsKey(name))) {
+
+        // Report the pairs in the order their names first appear in the value.
+        for (int pair = 0; pair < pairCount; pair++) {
+            final int property = pairProperties[pair];
+            if (property < 0) {
                 final List<String> params = new ArrayList<>();
-                params.add(name);
+                params.add(unknownNames[pair]);
                 params.add(attrName);
                 params.add(TagSpecUtils.getTagSpecName(tagSpec));
                 context.addError(
@@ -766,15 +809,17 @@ public final class AttributeSpecUtils {
                         result);
                 continue;
             }
-            final ValidatorProtos.PropertySpec propertySpec = valuePropertyByName.get(name);
+            final String name = parsedValueProperties.getPropertyName(property);
+            final ValidatorProtos.PropertySpec propertySpec = parsedValueProperties.getPropertySpec(property);
             final List<String> params;
             if (propertySpec.hasValue()) {
-                if (!propertySpec.getValue().equals(value.toLowerCase())) {
+                if (!ParsedValueProperties.equalsLowerCase(
+                        attrValue, valueStarts[pair], valueEnds[pair], propertySpec.getValue())) {
                     params = new ArrayList<>();
                     params.add(name);
                     params.add(attrName);
                     params.add(TagSpecUtils.getTagSpecName(tagSpec));
-                    params.add(value);
+                    params.add(attrValue.substring(valueStarts[pair], valueEnds[pair]));
                     context.addError(
                             ValidatorProtos.ValidationError.Code.INVALID_PROPERTY_VALUE_IN_ATTR_VALUE,
                             context.getLineCol(),
@@ -783,6 +828,7 @@ public final class AttributeSpecUtils {
                             result);
                 }
             } else if (propertySpec.hasValueDouble()) {
+                final String value = attrValue.substring(valueStarts[pair], valueEnds[pair]);
                 Double doubleValue = null;
                 try {
                     doubleValue = Double.valueOf(value);
@@ -805,14 +851,14 @@ public final class AttributeSpecUtils {
             }
         }
 
-        /** Make a copy here because we don't want to remove from the original parsed value properties. */
-        List<String> notSeen =
-                new ArrayList<>(parsedValueProperties.getMandatoryValuePropertyNames());
-        List<String> seen = new ArrayList<>(names);
-        notSeen.removeAll(seen);
-        for (final String name : notSeen) {
+        final BitSet mandatoryProperties = parsedValueProperties.getMandatoryProperties();
+        for (int property = mandatoryProperties.nextSetBit(0); property >= 0;
+             property = mandatoryProperties.nextSetBit(property + 1)) {
+            if (pairByProperty[property] >= 0) {
+                continue;
+            }
             final List<String> params = new ArrayList<>();
-            params.add(name);
+            params.add(parsedValueProperties.getPropertyName(property));
             params.add(attrName);
             params.add(TagSpecUtils.getTagSpecName(tagSpec));
             context.addError(
@@ -840,54 +886,15 @@ public final class AttributeSpecUtils {
                                             @Nonnull final String attrValue,
                                             @Nonnull final ValidatorProtos.TagSpec tagSpec,
                                             @Nonnull final ValidatorProtos.ValidationResult.Builder result) {
-        final Set<String> maybeUris = new TreeSet<>();
-
+        final UrlErrorInAttrAdapter adapter = new UrlErrorInAttrAdapter(attrName);
         if (!attrName.equals("srcset")) {
-            maybeUris.add(attrValue);
-        } else {
-            if (attrValue.equals("")) {
-                final List<String> params = new ArrayList<>();
-                params.add(attrName);
-                params.add(TagSpecUtils.getTagSpecName(tagSpec));
-                context.addError(
-                        ValidatorProtos.ValidationError.Code.MISSING_URL,
-                        context.getLineCol(),
-                        params,
-                        TagSpecUtils.getTagSpecUrl(tagSpec),
-                        result);
-                return;
-            }
-
-            final SrcsetParsingResult parseResult = ParseSrcSetUtils.parseSrcset(attrValue);
-            if (!parseResult.isSuccess()) {
-                // DUPLICATE_DIMENSION only needs two parameters, it does not report
-                // on the attribute value.
-                final List<String> params = new ArrayList<>();
-                params.add(attrName);
-                params.add(TagSpecUtils.getTagSpecName(tagSpec));
-                if (parseResult.getErrorCode() == ValidatorProtos.ValidationError.Code.DUPLICATE_DIMENSION) {
-                    context.addError(
-                            parseResult.getErrorCode(),
-                            context.getLineCol(),
-                            params,
-                            TagSpecUtils.getTagSpecUrl(tagSpec),
-                            result);
-                } else {
-                    params.add(attrValue);
-                    context.addError(
-                            parseResult.getErrorCode(),
-                            context.getLineCol(),
-                            params,
-                            TagSpecUtils.getTagSpecUrl(tagSpec),
-                            result);
-                }
-                return;
-            }
-            for (final SrcsetSourceDef image : parseResult.getSrcsetImages()) {
-                maybeUris.add(image.getUrl());
-            }
+            validateUrlAndProtocol(
+                    parsedAttrSpec.getValueUrlSpec(), adapter, context, unescapeHtml(attrValue),
+                    tagSpec, result);
+            return;
         }
-        if (maybeUris.size() == 0) {
+
+        if (attrValue.equals("")) {
             final List<String> params = new ArrayList<>();
             params.add(attrName);
             params.add(TagSpecUtils.getTagSpecName(tagSpec));
@@ -899,11 +906,47 @@ public final class AttributeSpecUtils {
                     result);
             return;
         }
-        final UrlErrorInAttrAdapter adapter = new UrlErrorInAttrAdapter(attrName);
+
+        final SrcsetParsingResult parseResult = ParseSrcSetUtils.parseSrcset(attrValue);
+        if (!parseResult.isSuccess()) {
+            // DUPLICATE_DIMENSION only needs two parameters, it does not report
+            // on the attribute value.
+            final List<String> params = new ArrayList<>();
+            params.add(attrName);
+            params.add(TagSpecUtils.getTagSpecName(tagSpec));
+            if (parseResult.getErrorCode() == ValidatorProtos.ValidationError.Code.DUPLICATE_DIMENSION) {
+                context.addError(
+                        parseResult.getErrorCode(),
+                        context.getLineCol(),
+                        params,
+                        TagSpecUtils.getTagSpecUrl(tagSpec),
+                        result);
+            } else {
+                params.add(attrValue);
+                context.addError(
+                        parseResult.getErrorCode(),
+                        context.getLineCol(),
+                        params,
+                        TagSpecUtils.getTagSpecUrl(tagSpec),
+                        result);
+            }
+            return;
+        }
+
+        // Validate the distinct urls in sorted order, stopping at the first failure.
+        final List<String> maybeUris = new ArrayList<>(parseResult.getSrcsetImagesSize());
+        for (final SrcsetSourceDef image : parseResult.getSrcsetImages()) {
+            maybeUris.add(image.getUrl());
+        }
+        Collections.sort(maybeUris);
+        String previousUri = null;
         for (final String maybeUri : maybeUris) {
-            final String unescapedMaybeUri = StringEscapeUtils.unescapeHtml4(maybeUri);
+            if (maybeUri.equals(previousUri)) {
+                continue;
+            }
+            previousUri = maybeUri;
             validateUrlAndProtocol(
-                    parsedAttrSpec.getValueUrlSpec(), adapter, context, unescapedMaybeUri,
+                    parsedAttrSpec.getValueUrlSpec(), adapter, context, unescapeHtml(maybeUri),
                     tagSpec, result);
             if (result.getStatus() == ValidatorProtos.ValidationResult.Status.FAIL) {
                 return;
@@ -911,6 +954,17 @@ public final class AttributeSpecUtils {
         }
     }
 
+    /**
+     * Unescapes the html character references in a url. Urls without an
+     * ampersand have none and are returned as they are.
+     *
+     * @param url the url.
+     * @return returns the unescaped url.
+     */
+    private static String unescapeHtml(@Nonnull final String url) {
+        return (url.indexOf('&') < 0) ? url : StringEscapeUtils.unescapeHtml4(url);
+    }
+
     /**
      * @param parsedUrlSpec parsed url spec.
      * @param adapter       UrlErrorAdaptor interface.
@@ -926,23 +980,15 @@ public final class AttributeSpecUtils {
                                               @Nonnull final ValidatorProtos.TagSpec tagSpec,
                                               @Nonnull final ValidatorProtos.ValidationResult.Builder result) {
         final ValidatorProtos.UrlSpec spec = parsedUrlSpec.getSpec();
-        if (ONLY_WHITESPACE_PATTERN.matcher(urlStr).matches() && (!spec.hasAllowEmpty())) {
+        if (isOnlyWhitespace(urlStr) && (!spec.hasAllowEmpty())) {
             adapter.missingUrl(context, tagSpec, result);
             return;
         }
 
-        URL url;
-        String protocol = "";
-        try {
-            url = new URL(urlStr);
-        } catch (MalformedURLException e) {
-            /** Fallback where we can't instantiate URL, need to obtain the protocol. */
-            String urlStrTrimmed = urlStr.toLowerCase().trim();
-            Matcher matcher = URL_PROTOCOL_PATTERN.matcher(urlStrTrimmed);
-            if (matcher.matches()) {
-                protocol = matcher.group(1);
-            }
-
+        final String urlProtocol = UrlUtils.absoluteUrlProtocol(urlStr);
+        if (urlProtocol == null) {
+            /** Fallback where the url is relative or can't be parsed, need to obtain the protocol. */
+            final String protocol = UrlUtils.protocol(urlStr);
             if (!spec.getAllowRelative() && (protocol.length() == 0)) {
                 adapter.disallowedRelativeUrl(context, urlStr, tagSpec, result);
                 return;
@@ -954,15 +1000,26 @@ public final class AttributeSpecUtils {
             return;
         }
 
-        protocol = url.getProtocol();
-        if (protocol.length() > 0 && !parsedUrlSpec.isAllowedProtocol(protocol)) {
-            adapter.invalidUrlProtocol(context, protocol, tagSpec, result);
-            return;
+        if (!parsedUrlSpec.isAllowedProtocol(urlProtocol)) {
+            adapter.invalidUrlProtocol(context, urlProtocol, tagSpec, result);
         }
-        if (!spec.getAllowRelative() && (protocol.length() == 0)) {
-            adapter.disallowedRelativeUrl(context, urlStr, tagSpec, result);
-            return;
+    }
+
+    /**
+     * Returns true if the string is empty or only contains whitespace,
+     * non-breaking spaces included.
+     *
+     * @param value the string.
+     * @return returns true if the string only contains whitespace.
+     */
+    private static boolean isOnlyWhitespace(@Nonnull final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\u000B' && c != '\f' && c != '\r' && c != '\u00A0') {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
@@ -986,12 +1043,11 @@ public final class AttributeSpecUtils {
             throw new TagValidationException("Expecting AMP Layout null");
         }
 
-        final HashMap<String, String> attrsByKey = encounteredTag.attrsByKey();
-        final String layoutAttr = attrsByKey.get("layout");
-        final String widthAttr = attrsByKey.get("width");
-        final String heightAttr = attrsByKey.get("height");
-        final String sizesAttr = attrsByKey.get("sizes");
-        final String heightsAttr = attrsByKey.get("heights");
+        final String layoutAttr = encounteredTag.getAttrValueOrNull("layout");
+        final String widthAttr = encounteredTag.getAttrValueOrNull("width");
+        final String heightAttr = encounteredTag.getAttrValueOrNull("height");
+        final String sizesAttr = encounteredTag.getAttrValueOrNull("sizes");
+        final String heightsAttr = encounteredTag.getAttrValueOrNull("heights");
 
         // We disable validating layout for tags where one of the layout attributes
         // contains mustache syntax.
@@ -1005,8 +1061,11 @@ public final class AttributeSpecUtils {
             return;
         }
 
-        // Parse the input layout attributes which we found for this tag.
-        final ValidatorProtos.AmpLayout.Layout inputLayout = TagSpecUtils.parseLayout(layoutAttr);
+        // Parse the input layout attributes which we found for this tag and
+        // calculate the effective layout attributes.
+        final ComputedLayout computedLayout = context.computeLayout(
+                spec.getAmpLayout(), layoutAttr, widthAttr, heightAttr, sizesAttr, heightsAttr);
+        final ValidatorProtos.AmpLayout.Layout inputLayout = computedLayout.getInputLayout();
         if (layoutAttr != null
                 && inputLayout == ValidatorProtos.AmpLayout.Layout.UNKNOWN) {
             List<String> params = new ArrayList<>();
@@ -1021,9 +1080,7 @@ public final class AttributeSpecUtils {
                     result);
             return;
         }
-        final CssLength inputWidth = new CssLength(
-                widthAttr, /* allowAuto */ true,
-                /* allowFluid */ inputLayout.equals(ValidatorProtos.AmpLayout.Layout.FLUID));
+        final CssLength inputWidth = computedLayout.getInputWidth();
         if (!inputWidth.isValid()) {
             List<String> params = new ArrayList<>();
             params.add("width");
@@ -1037,9 +1094,7 @@ public final class AttributeSpecUtils {
                     result);
             return;
         }
-        final CssLength inputHeight = new CssLength(
-                heightAttr, /* allowAuto */ true,
-                /* allowFluid */ inputLayout == ValidatorProtos.AmpLayout.Layout.FLUID);
+        final CssLength inputHeight = computedLayout.getInputHeight();
         if (!inputHeight.isValid()) {
             List<String> params = new ArrayList<>();
             params.add("height");
@@ -1054,11 +1109,9 @@ public final class AttributeSpecUtils {
             return;
         }
 
-        // Now calculate the effective layout attributes.
-        final CssLength width = TagSpecUtils.calculateWidth(spec.getAmpLayout(), inputLayout, inputWidth);
-        final CssLength height = TagSpecUtils.calculateHeight(spec.getAmpLayout(), inputLayout, inputHeight);
-        final ValidatorProtos.AmpLayout.Layout layout =
-                TagSpecUtils.calculateLayout(inputLayout, width, height, sizesAttr, heightsAttr);
+        final CssLength width = computedLayout.getWidth();
+        final CssLength height = computedLayout.getHeight();
+        final ValidatorProtos.AmpLayout.Layout layout = computedLayout.getLayout();
 
         // Validate for transformed AMP the server-side rendering layout.
         TagSpecUtils.validateSsrLayout(
@@ -1334,7 +1387,8 @@ public final class AttributeSpecUtils {
                                                          @Nonnull final Context context,
                                                          @Nonnull final String attrName, @Nonnull final String attrValue,
                                                          @Nonnull final ValidatorProtos.ValidationResult.Builder result) {
-        if (attrValueHasUnescapedTemplateSyntax(attrValue)) {
+        final int templateSyntax = TemplateSyntaxUtils.scan(attrValue);
+        if ((templateSyntax & TemplateSyntaxUtils.UNESCAPED_TAG) != 0) {
             final ValidatorProtos.TagSpec spec = parsedTagSpec.getSpec();
             List<String> params = new ArrayList<>();
             params.add(attrName);
@@ -1346,7 +1400,7 @@ public final class AttributeSpecUtils {
                     params,
                     context.getRules().getTemplateSpecUrl(),
                     result);
-        } else if (attrValueHasPartialsTemplateSyntax(attrValue)) {
+        } else if ((templateSyntax & TemplateSyntaxUtils.PARTIALS_TAG) != 0) {
             final ValidatorProtos.TagSpec spec = parsedTagSpec.getSpec();
             List<String> params = new ArrayList<>();
             params.add(attrName);
@@ -1373,7 +1427,7 @@ public final class AttributeSpecUtils {
         // system, supports 'partials' which include other Mustache templates
         // in the format of {{>partial}} and there can be whitespace after the {{.
         // We disallow partials in attribute values.
-        return PARTIALS_PATTERN.matcher(value).find();
+        return (TemplateSyntaxUtils.scan(value) & TemplateSyntaxUtils.PARTIALS_TAG) != 0;
     }
 
     /**
@@ -1386,39 +1440,19 @@ public final class AttributeSpecUtils {
         // Mustache (https://mustache.github.io/mustache.5.html), our template
         // system, supports {{{unescaped}}} or {{{&unescaped}}} and there can
         // be whitespace after the 2nd '{'. We disallow these in attribute Values.
-        return UNESCAPED_OPEN_TAG.matcher(value).find();
+        return (TemplateSyntaxUtils.scan(value) & TemplateSyntaxUtils.UNESCAPED_TAG) != 0;
     }
 
     /**
-     * URL protocol pattern.
-     */
-    private static final Pattern URL_PROTOCOL_PATTERN = Pattern.compile("^([^:\\/?#.]+):.*$");
-
-    /**
-     * Only whitespace pattern.
+     * Initial capacity of the name=value pairs collected from a value_properties attribute value.
      */
-    private static final Pattern ONLY_WHITESPACE_PATTERN = Pattern.compile("^[\\s\\xa0]*$");
-
-    /**
-     * Partials pattern.
-     */
-    private static final Pattern PARTIALS_PATTERN = Pattern.compile("\\{\\{\\s*>");
-
-    /**
-     * Unescaped open tag pattern.
-     */
-    private static final Pattern UNESCAPED_OPEN_TAG = Pattern.compile("\\{\\{\\s*[&{]");
+    private static final int VALUE_PROPERTY_PAIRS_CAPACITY = 8;
 
     /**
      * Data pattern.
      */
     private static final Pattern DATA_PATTERN = Pattern.compile("^data-[A-Za-z0-9-_:.]*$");
 
-    /**
-     * Mustache tag pattern.
-     */
-    private static final Pattern MUSTACHE_TAG_PATTERN = Pattern.compile("\\{\\{.*\\}\\}");
-
     /**
      * Src url Regex.
      */
@@ -196,13 +196,49 @@ public final class CssSpecUtils {
         return prefixedString;
     }
 
+    /**
+     * Returns the length of the vendor prefix of an identifier, 0 if it has
+     * none. E.g., 5 for "-moz-keyframes". Unlike stripVendorPrefix, ASCII
+     * case is ignored and nothing is allocated.
+     *
+     * @param name the identifier
+     * @return the length of the vendor prefix
+     */
+    public static int vendorPrefixLength(@Nonnull final String name) {
+        // Checking for '-' is an optimization.
+        if (!name.isEmpty() && name.charAt(0) == '-') {
+            for (final String prefix : VENDOR_PREFIXES) {
+                if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    return prefix.length();
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the length of a 'min-' or 'max-' prefix of a media feature
+     * identifier starting at |start|, 0 if it has none. ASCII case is ignored.
+     *
+     * @param name  the media feature identifier
+     * @param start the offset of the identifier, past any vendor prefix
+     * @return the length of the min/max prefix
+     */
+    public static int minMaxPrefixLength(@Nonnull final String name, final int start) {
+        if (name.regionMatches(true, start, "min-", 0, "min-".length())
+                || name.regionMatches(true, start, "max-", 0, "max-".length())) {
+            return "min-".length();
+        }
+        return 0;
+    }
+
     /**
      * @param token value to match
      * @param str   to match against
      * @return true iff ascii value of token and string match
      */
     public static boolean asciiMatch(@Nonnull final Token token, @Nonnull final String str) {
-        return token.toString().toLowerCase().equals(str.toLowerCase());
+        return CssTokenUtil.equalsIgnoreAsciiCase(token.toString(), str);
     }
 
     /**
@@ -486,14 +522,7 @@ public final class CssSpecUtils {
                         // Don't emit additional errors for this declaration.
                         continue;
                     } else if (cssDeclaration.getValueCaseiList().size() > 0) {
-                        boolean hasValidValue = false;
-                        for (final String value : cssDeclaration.getValueCaseiList()) {
-                            if (firstIdent.toLowerCase().equals(value)) {
-                                hasValidValue = true;
-                                break;
-                            }
-                        }
-                        if (!hasValidValue) {
+                        if (!maybeDocCssSpec.getCssDeclarationValueCasei(cssDeclaration).contains(firstIdent)) {
                             // Declaration value not allowed.
                             final List<String> params = new ArrayList<>();
                             params.add(getTagDescriptiveName(tagSpec));
@@ -596,6 +625,11 @@ public final class CssSpecUtils {
      */
     private static final int MAX_NUM_ALLOWED_DECLARATIONS = 5;
 
+    /**
+     * Vendor prefixes of identifiers.
+     */
+    private static final String[] VENDOR_PREFIXES = {"-o-", "-moz-", "-ms-", "-webkit-"};
+
     /**
      * Enum describing how to parse the rules inside a CSS AT Rule.
      */
@@ -0,0 +1,211 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.utils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Hash utility methods.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class HashUtils {
+    /**
+     * Private constructor.
+     */
+    private HashUtils() {
+    }
+
+    /**
+     * Computes the 128 bit MurmurHash3 (x64 variant) of a string. The chars are
+     * hashed as their UTF-16LE bytes, so no encoded copy of the string is made.
+     * https://github.com/aappleby/smhasher/wiki/MurmurHash3
+     *
+     * @param value the string.
+     * @param seed  the seed.
+     * @return returns the two 64 bit halves of the hash.
+     */
+    public static long[] murmur3Hash128(@Nonnull final CharSequence value, final long seed) {
+        final int length = value.length();
+        long h1 = seed;
+        long h2 = seed;
+
+        int i = 0;
+        for (; i + CHARS_PER_BLOCK <= length; i += CHARS_PER_BLOCK) {
+            final long k1 = pack(value, i, CHARS_PER_LONG);
+            final long k2 = pack(value, i + CHARS_PER_LONG, CHARS_PER_LONG);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, H1_ROTATION);
+            h1 += h2;
+            h1 = h1 * H_MULTIPLIER + H1_ADDEND;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, H2_ROTATION);
+            h2 += h1;
+            h2 = h2 * H_MULTIPLIER + H2_ADDEND;
+        }
+
+        final int remaining = length - i;
+        if (remaining > CHARS_PER_LONG) {
+            h2 ^= mixK2(pack(value, i + CHARS_PER_LONG, remaining - CHARS_PER_LONG));
+        }
+        if (remaining > 0) {
+            h1 ^= mixK1(pack(value, i, Math.min(remaining, CHARS_PER_LONG)));
+        }
+
+        final long byteLength = (long) length * Character.BYTES;
+        h1 ^= byteLength;
+        h2 ^= byteLength;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    /**
+     * Packs |count| chars, at most CHARS_PER_LONG, little endian into a long.
+     *
+     * @param value  the string.
+     * @param offset the offset of the first char.
+     * @param count  the number of chars.
+     * @return the packed chars.
+     */
+    private static long pack(@Nonnull final CharSequence value, final int offset, final int count) {
+        long packed = 0;
+        for (int i = 0; i < count; i++) {
+            packed |= ((long) value.charAt(offset + i)) << (i * Character.SIZE);
+        }
+        return packed;
+    }
+
+    /**
+     * Mixes the first half of a block.
+     *
+     * @param k1 the first half of a block.
+     * @return the mixed value.
+     */
+    private static long mixK1(final long k1) {
+        return Long.rotateLeft(k1 * C1, K1_ROTATION) * C2;
+    }
+
+    /**
+     * Mixes the second half of a block.
+     *
+     * @param k2 the second half of a block.
+     * @return the mixed value.
+     */
+    private static long mixK2(final long k2) {
+        return Long.rotateLeft(k2 * C2, K2_ROTATION) * C1;
+    }
+
+    /**
+     * Finalization mix, forces all bits of a hash block to avalanche.
+     *
+     * @param k a hash half.
+     * @return the mixed value.
+     */
+    private static long fmix(final long k) {
+        long h = k;
+        h ^= h >>> FMIX_SHIFT;
+        h *= FMIX_C1;
+        h ^= h >>> FMIX_SHIFT;
+        h *= FMIX_C2;
+        h ^= h >>> FMIX_SHIFT;
+        return h;
+    }
+
+    /**
+     * Chars per 64 bit half block.
+     */
+    private static final int CHARS_PER_LONG = Long.SIZE / Character.SIZE;
+
+    /**
+     * Chars per 128 bit block.
+     */
+    private static final int CHARS_PER_BLOCK = 2 * CHARS_PER_LONG;
+
+    /**
+     * First block mixing constant.
+     */
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    /**
+     * Second block mixing constant.
+     */
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * Rotation of the first half of a block.
+     */
+    private static final int K1_ROTATION = 31;
+
+    /**
+     * Rotation of the second half of a block.
+     */
+    private static final int K2_ROTATION = 33;
+
+    /**
+     * Rotation of the first hash half.
+     */
+    private static final int H1_ROTATION = 27;
+
+    /**
+     * Rotation of the second hash half.
+     */
+    private static final int H2_ROTATION = 31;
+
+    /**
+     * Multiplier of the hash halves.
+     */
+    private static final long H_MULTIPLIER = 5;
+
+    /**
+     * Addend of the first hash half.
+     */
+    private static final long H1_ADDEND = 0x52dce729L;
+
+    /**
+     * Addend of the second hash half.
+     */
+    private static final long H2_ADDEND = 0x38495ab5L;
+
+    /**
+     * Shift of the finalization mix.
+     */
+    private static final int FMIX_SHIFT = 33;
+
+    /**
+     * First multiplier of the finalization mix.
+     */
+    private static final long FMIX_C1 = 0xff51afd7ed558ccdL;
+
+    /**
+     * Second multiplier of the finalization mix.
+     */
+    private static final long FMIX_C2 = 0xc4ceb9fe1a85ec53L;
+}
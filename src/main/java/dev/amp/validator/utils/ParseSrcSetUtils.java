@@ -26,10 +26,6 @@ import dev.amp.validator.SrcsetParsingResult;
 import dev.amp.validator.SrcsetSourceDef;
 
 import javax.annotation.Nonnull;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Utility class to parse the text representation of srcset.
@@ -59,56 +55,65 @@ public final class ParseSrcSetUtils {
      * @return returns SrcsetParsingResult.
      */
     public static SrcsetParsingResult parseSrcset(@Nonnull final String srcset) {
-        // Regex for leading spaces, followed by an optional comma and whitespace,
-        // followed by an URL*, followed by an optional space, followed by an
-        // optional width or pixel density**, followed by spaces, followed by an
-        // optional comma and whitespace.
+        // Each image candidate is made of leading spaces, followed by an optional
+        // comma and whitespace, followed by an URL*, followed by an optional space,
+        // followed by an optional width or pixel density**, followed by spaces,
+        // followed by an optional comma and whitespace. Text which can't start an
+        // image candidate is skipped.
         //
-        // URL*: matches non-space, non-empty string which neither ends nor begins
-        // with a comma. The set of space characters in the srcset attribute is
-        // defined to include only ascii characters, so using \s, which is an
-        // ascii only character set, is fine. See
+        // URL*: non-space, non-empty string which neither ends nor begins with a
+        // comma. The set of space characters in the srcset attribute is defined
+        // to include only ascii characters. See
         // https://html.spec.whatwg.org/multipage/infrastructure.html#space-character.
         //
-        // Optional width or pixel density**: Matches the empty string or (one or
-        // more spaces + a non empty string containing no space or commas).
-        // Doesn't capture the initial space.
+        // Optional width or pixel density**: digits, optionally followed by any
+        // character and more digits, followed by 'w', 'x' or '|'. E.g. "5w" or
+        // "5x" or "10.2x".
         //
-        // \s*                       Match, but don't capture leading spaces
-        // (?:,\s*)?                 Optionally match comma and trailing space,
-        //                           but don't capture comma.
-        // ([^,\s]\S*[^,\s])         Match something like "google.com/favicon.ico"
-        //                           but not ",google.com/favicon.ico,"
-        // \s*                       Match, but dont capture spaces.
-        // ([\d]+.?[\d]*[w|x])?      e.g. "5w" or "5x" or "10.2x"
-        // \s*                       Match, but don't capture space
-        // (?:(,)\s*)?               Optionally match comma and trailing space,
-        //                           capturing comma.
-
-        String remainingSrcset = srcset;
-        final Set<String> seenWidthOrPixelDensity = new HashSet<>();
+        // The candidates are scanned in a single pass over the srcset, the
+        // sources only keep the spans of the url and the width or pixel density.
         final SrcsetParsingResult result = new SrcsetParsingResult();
-        final Matcher matcher = IMAGE_CANDIDATE_REGEX.matcher(srcset);
-        while (matcher.find()) {
-            final String url = matcher.group(1);
-            String widthOrPixelDensity = matcher.group(2);
-            final String comma = matcher.group(3);
-            if (widthOrPixelDensity == null) {
-                widthOrPixelDensity = "1x";
+        final int length = srcset.length();
+        int pos = 0;
+        while (pos < length) {
+            int urlStart = -1;
+            int urlEnd = -1;
+            while (pos < length && urlEnd < 0) {
+                final int commaOrUrl = skipSpaces(srcset, pos);
+                urlStart = commaOrUrl;
+                if (urlStart < length && srcset.charAt(urlStart) == ',') {
+                    urlStart = skipSpaces(srcset, urlStart + 1);
+                }
+                urlEnd = urlEnd(srcset, urlStart);
+                if (urlEnd < 0) {
+                    pos = Math.max(pos, commaOrUrl) + 1;
+                }
             }
+            if (urlEnd < 0) {
+                break;
+            }
+
+            final int widthOrPixelDensityStart = skipSpaces(srcset, urlEnd);
+            final int widthOrPixelDensityEnd = widthOrPixelDensityEnd(srcset, widthOrPixelDensityStart);
+            final SrcsetSourceDef source = (widthOrPixelDensityEnd < 0)
+                    ? new SrcsetSourceDef(srcset, urlStart, urlEnd, -1, -1)
+                    : new SrcsetSourceDef(srcset, urlStart, urlEnd, widthOrPixelDensityStart, widthOrPixelDensityEnd);
             // Duplicate width or pixel density in srcset.
-            if (seenWidthOrPixelDensity.contains(widthOrPixelDensity)) {
-                result.setErrorCode(ValidatorProtos.ValidationError.Code.DUPLICATE_DIMENSION);
-                return result;
+            for (final SrcsetSourceDef seen : result.getSrcsetImages()) {
+                if (seen.hasSameWidthOrPixelDensity(source)) {
+                    result.setErrorCode(ValidatorProtos.ValidationError.Code.DUPLICATE_DIMENSION);
+                    return result;
+                }
             }
-            seenWidthOrPixelDensity.add(widthOrPixelDensity);
-            result.add(new SrcsetSourceDef(url, widthOrPixelDensity));
+            result.add(source);
 
+            pos = skipSpaces(srcset, (widthOrPixelDensityEnd < 0) ? widthOrPixelDensityStart : widthOrPixelDensityEnd);
             // More srcset, comma expected as separator for image candidates.
-            if (comma == null) {
+            if (pos == length || srcset.charAt(pos) != ',') {
                 result.setErrorCode(ValidatorProtos.ValidationError.Code.INVALID_ATTR_VALUE);
                 return result;
             }
+            pos = skipSpaces(srcset, pos + 1);
         }
 
         // Must have at least one image candidate.
@@ -120,11 +125,112 @@ public final class ParseSrcSetUtils {
         return result;
     }
 
-    private static final Pattern IMAGE_CANDIDATE_REGEX = Pattern.compile("\\s*"
-                    + "(?:,\\s*)?"
-                    + "([^,\\s]\\S*[^,\\s])"
-                    + "\\s*"
-                    + "([\\d]+.?[\\d]*[w|x])?"
-                    + "\\s*"
-                    + "(?:(,)\\s*)?");
+    /**
+     * Returns the end of the url starting at the given index, or -1 if no url
+     * starts there. The url extends to the next space, less trailing commas,
+     * and is at least two characters long.
+     *
+     * @param srcset the srcset.
+     * @param start  the start of the url.
+     * @return returns the end of the url, or -1.
+     */
+    private static int urlEnd(@Nonnull final String srcset, final int start) {
+        if (start >= srcset.length() || srcset.charAt(start) == ',' || isSpace(srcset.charAt(start))) {
+            return -1;
+        }
+        int end = -1;
+        for (int i = start + 1; i < srcset.length() && !isSpace(srcset.charAt(i)); i++) {
+            if (srcset.charAt(i) != ',') {
+                end = i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Returns the end of the width or pixel density starting at the given index,
+     * or -1 if none starts there.
+     *
+     * @param srcset the srcset.
+     * @param start  the start of the width or pixel density.
+     * @return returns the end of the width or pixel density, or -1.
+     */
+    private static int widthOrPixelDensityEnd(@Nonnull final String srcset, final int start) {
+        final int integerEnd = skipDigits(srcset, start);
+        if (integerEnd == start || integerEnd == srcset.length()) {
+            return -1;
+        }
+        // Digits, any character other than a line terminator, digits and a unit.
+        if (!isLineTerminator(srcset.charAt(integerEnd))) {
+            final int fractionEnd = skipDigits(srcset, integerEnd + 1);
+            if (fractionEnd < srcset.length() && isUnit(srcset.charAt(fractionEnd))) {
+                return fractionEnd + 1;
+            }
+        }
+        // Digits and a unit.
+        if (isUnit(srcset.charAt(integerEnd))) {
+            return integerEnd + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first non space character at or after the given index.
+     *
+     * @param srcset the srcset.
+     * @param start  the start index.
+     * @return returns the index of the first non space character, or the length of the srcset.
+     */
+    private static int skipSpaces(@Nonnull final String srcset, final int start) {
+        int i = start;
+        while (i < srcset.length() && isSpace(srcset.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the index of the first non digit character at or after the given index.
+     *
+     * @param srcset the srcset.
+     * @param start  the start index.
+     * @return returns the index of the first non digit character, or the length of the srcset.
+     */
+    private static int skipDigits(@Nonnull final String srcset, final int start) {
+        int i = start;
+        while (i < srcset.length() && srcset.charAt(i) >= '0' && srcset.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns true for the ascii space characters.
+     *
+     * @param c a character.
+     * @return returns true for a space character.
+     */
+    private static boolean isSpace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Returns true for the characters which end a line.
+     *
+     * @param c a character.
+     * @return returns true for a line terminator.
+     */
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Returns true for the characters accepted as unit of a width or pixel density.
+     *
+     * @param c a character.
+     * @return returns true for a unit.
+     */
+    private static boolean isUnit(final char c) {
+        return c == 'w' || c == 'x' || c == '|';
+    }
 }
@@ -109,14 +109,17 @@ public final class SelectorUtils {
 
     /**
      * tokenStream.current must be the first token of the sequence.
-     * This function will return an error if no selector is found.
+     * This function will add an error to |errors| and return null if no
+     * selector is found.
      *
      * @param tokenStream token stream
-     * @return the SimpleSelectorSequence instance
+     * @param errors      array of error tokens
+     * @return the SimpleSelectorSequence instance or null
      * @throws CssValidationException the CssValidationException
-     * @throws SelectorException the SelectorException
+     * @throws SelectorException the SelectorException if a precondition is violated
      */
-    public static SimpleSelectorSequence parseASimpleSelectorSequence(@Nonnull final TokenStream tokenStream)
+    public static SimpleSelectorSequence parseASimpleSelectorSequence(@Nonnull final TokenStream tokenStream,
+                                                                      @Nonnull final List<ErrorToken> errors)
             throws SelectorException, CssValidationException {
         final Token start = tokenStream.current();
         TypeSelector typeSelector = null;
@@ -133,16 +136,16 @@ public final class SelectorUtils {
                     && getTokenType(tokenStream.next()) == TokenType.IDENT) {
                 otherSelectors.add(parseAClassSelector(tokenStream));
             } else if (getTokenType(tokenStream.current()) == TokenType.OPEN_SQUARE) {
-                AttrSelector maybeAttrSelector = parseAnAttrSelector(tokenStream);
+                final AttrSelector maybeAttrSelector = parseAnAttrSelector(tokenStream, errors);
+                if (maybeAttrSelector == null) {
+                    return null;
+                }
                 otherSelectors.add(maybeAttrSelector);
             } else if (getTokenType(tokenStream.current()) == TokenType.COLON) {
-                PseudoSelector maybePseudo;
-                try {
-                    maybePseudo = parseAPseudoSelector(tokenStream);
-                } catch (SelectorException selectorException) {
-                    throw selectorException;
+                final PseudoSelector maybePseudo = parseAPseudoSelector(tokenStream, errors);
+                if (maybePseudo == null) {
+                    return null;
                 }
-
                 otherSelectors.add(maybePseudo);
                 // NOTE: If adding more 'else if' clauses here, be sure to udpate
                 // isSimpleSelectorSequenceStart accordingly.
@@ -154,7 +157,8 @@ public final class SelectorUtils {
                         final ErrorToken errorToken = new ErrorToken(
                                 ValidatorProtos.ValidationError.Code.CSS_SYNTAX_MISSING_SELECTOR,
                                 params);
-                        throw new SelectorException((ErrorToken) copyPosTo(tokenStream.current(), errorToken));
+                        errors.add((ErrorToken) copyPosTo(tokenStream.current(), errorToken));
+                        return null;
                     }
                     // If no type selector is given then the universal selector is
                     // implied.
@@ -167,15 +171,17 @@ public final class SelectorUtils {
     }
 
     /**
-     * tokenStream.current() must be the ColonToken. Returns an error if
-     * the pseudo token can't be parsed (e.g., a lone ':').
+     * tokenStream.current() must be the ColonToken. Adds an error to |errors|
+     * and returns null if the pseudo token can't be parsed (e.g., a lone ':').
      *
      * @param tokenStream token stream
-     * @return the pseudo selector
+     * @param errors      array of error tokens
+     * @return the pseudo selector or null
      * @throws CssValidationException the CssValidationException
-     * @throws SelectorException the SelectorException
+     * @throws SelectorException the SelectorException if a precondition is violated
      */
-    private static PseudoSelector parseAPseudoSelector(@Nonnull final TokenStream tokenStream)
+    private static PseudoSelector parseAPseudoSelector(@Nonnull final TokenStream tokenStream,
+                                                       @Nonnull final List<ErrorToken> errors)
             throws SelectorException, CssValidationException {
         if (getTokenType(tokenStream.current()) != TokenType.COLON) {
             throw new SelectorException("Precondition violated: must be a \":\"");
@@ -195,10 +201,10 @@ public final class SelectorUtils {
             return (PseudoSelector) copyPosTo(firstColon, new PseudoSelector(isClass, name, new ArrayList<>()));
         } else if (getTokenType(tokenStream.current()) == TokenType.FUNCTION_TOKEN) {
             Token funcToken = tokenStream.current();
-            List<ErrorToken> errors = new ArrayList<>();
+            final int numErrors = errors.size();
             final List<Token> func = extractAFunction(tokenStream, errors);
-            if (errors.size() > 0) {
-                throw new SelectorException(errors.get(0));
+            if (errors.size() > numErrors) {
+                return null;
             }
             tokenStream.consume();
             return (PseudoSelector) copyPosTo(firstColon, new PseudoSelector(isClass, funcToken.image, func));
@@ -208,21 +214,24 @@ public final class SelectorUtils {
             final ErrorToken errorToken = new ErrorToken(
                     ValidatorProtos.ValidationError.Code.CSS_SYNTAX_ERROR_IN_PSEUDO_SELECTOR,
                     params);
-            throw new SelectorException((ErrorToken) copyPosTo(tokenStream.current(), errorToken));
+            errors.add((ErrorToken) copyPosTo(tokenStream.current(), errorToken));
+            return null;
         }
     }
 
     /**
      * The selector production from
      * http://www.w3.org/TR/css3-selectors/#grammar
-     * Returns an ErrorToken if no selector is found.
+     * Adds an ErrorToken to |errors| and returns null if no selector is found.
      *
      * @param tokenStream token stream
-     * @return the selector
+     * @param errors      array of error tokens
+     * @return the selector or null
      * @throws CssValidationException the CssValidationException
-     * @throws SelectorException the SelectorException
+     * @throws SelectorException the SelectorException if a precondition is violated
      */
-    public static Selector parseASelector(@Nonnull final TokenStream tokenStream)
+    public static Selector parseASelector(@Nonnull final TokenStream tokenStream,
+                                          @Nonnull final List<ErrorToken> errors)
             throws CssValidationException, SelectorException {
         if (!isSimpleSelectorSequenceStart(tokenStream.current())) {
             final List<String> params = new ArrayList<>();
@@ -230,17 +239,13 @@ public final class SelectorUtils {
             final ErrorToken errorToken = new ErrorToken(
                     ValidatorProtos.ValidationError.Code.CSS_SYNTAX_NOT_A_SELECTOR_START,
                     params);
-            throw new SelectorException((ErrorToken) copyPosTo(tokenStream.current(), errorToken));
+            errors.add((ErrorToken) copyPosTo(tokenStream.current(), errorToken));
+            return null;
         }
 
-        SimpleSelectorSequence parsed;
-
-        try {
-            parsed = parseASimpleSelectorSequence(tokenStream);
-        } catch (final SelectorException selectorException) {
-            throw selectorException;
-        } catch (final CssValidationException cssValidationException) {
-            throw cssValidationException;
+        final SimpleSelectorSequence parsed = parseASimpleSelectorSequence(tokenStream, errors);
+        if (parsed == null) {
+            return null;
         }
 
         Selector left = parsed;
@@ -264,7 +269,10 @@ public final class SelectorUtils {
                 tokenStream.consume();
             }
 
-            final SimpleSelectorSequence right = parseASimpleSelectorSequence(tokenStream);
+            final SimpleSelectorSequence right = parseASimpleSelectorSequence(tokenStream, errors);
+            if (right == null) {
+                return null;
+            }
 
             left = (Selector) copyPosTo(combinatorToken, new Combinator(
                     combinatorTypeForToken(combinatorToken), left, right));
@@ -366,14 +374,17 @@ public final class SelectorUtils {
     }
 
     /**
-     * tokenStream.current() must be the open square token.
+     * tokenStream.current() must be the open square token. Adds an error to
+     * |errors| and returns null if the attribute selector is invalid.
      *
      * @param tokenStream token stream
-     * @return attribute selector
+     * @param errors      array of error tokens
+     * @return attribute selector or null
      * @throws CssValidationException the CssValidationException
-     * @throws SelectorException the SelectorException
+     * @throws SelectorException the SelectorException if a precondition is violated
      */
-    public static AttrSelector parseAnAttrSelector(@Nonnull final TokenStream tokenStream) throws
+    public static AttrSelector parseAnAttrSelector(@Nonnull final TokenStream tokenStream,
+                                                   @Nonnull final List<ErrorToken> errors) throws
             SelectorException, CssValidationException {
         if (getTokenType(tokenStream.current()) != TokenType.OPEN_SQUARE) {
             throw new SelectorException("Precondition violated: must be an OpenSquareToken");
@@ -410,7 +421,8 @@ public final class SelectorUtils {
                     ValidatorProtos.ValidationError.Code.CSS_SYNTAX_INVALID_ATTR_SELECTOR,
                     params);
             CssTokenUtil.copyPosTo(tokenStream.current(), errorToken);
-            throw new SelectorException(errorToken);
+            errors.add(errorToken);
+            return null;
         }
         Token ident = tokenStream.current();
         String attrName = ident.image;
@@ -476,7 +488,8 @@ public final class SelectorUtils {
                     ValidatorProtos.ValidationError.Code.CSS_SYNTAX_INVALID_ATTR_SELECTOR,
                     params);
             CssTokenUtil.copyPosTo(tokenStream.current(), errorToken);
-            throw new SelectorException(errorToken);
+            errors.add(errorToken);
+            return null;
         }
         tokenStream.consume();
         final AttrSelector selector =
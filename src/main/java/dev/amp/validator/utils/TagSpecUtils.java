@@ -40,11 +40,14 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Tag spec utility methods.
@@ -75,20 +78,31 @@ public final class TagSpecUtils {
             return tagSpec.getSpecUrl();
         }
 
-        final String extensionSpecUrlPrefix = "https://amp.dev/documentation/components/";
         if (tagSpec.hasExtensionSpec() && tagSpec.getExtensionSpec().getName() != null) {
-            return extensionSpecUrlPrefix + tagSpec.getExtensionSpec().getName();
+            return getExtensionSpecUrl(tagSpec.getExtensionSpec().getName());
         }
 
         if (tagSpec.getRequiresExtensionCount() > 0) {
             // Return the first |requires_extension|, which should be the most
             // representitive.
-            return extensionSpecUrlPrefix + tagSpec.getRequiresExtension(0);
+            return getExtensionSpecUrl(tagSpec.getRequiresExtension(0));
         }
 
         return "";
     }
 
+    /**
+     * Returns the spec URL of an extension. Extension names come from the rules,
+     * so the URLs are cached and shared by all the errors referring to them.
+     *
+     * @param extensionName the name of an extension.
+     * @return returns the extension spec URL.
+     */
+    private static String getExtensionSpecUrl(@Nonnull final String extensionName) {
+        return EXTENSION_SPEC_URLS.computeIfAbsent(extensionName,
+                name -> "https://amp.dev/documentation/components/" + name);
+    }
+
     /**
      * For creating error messages, we either find the specName in the tag spec or
      * fall back to the tagName.
@@ -234,21 +248,19 @@ public final class TagSpecUtils {
                     }
                     final ValidateTagResult resultForAttempt = TagSpecUtils.validateTagAgainstSpec(
                             parsedTagSpec, bestMatchReferencePoint, context, encounteredTag);
-                    if (context.getRules().betterValidationResultThan(
-                            resultForAttempt.getValidationResult(), ret.getValidationResult())) {
-                        ret.setBestMatchTagSpec(parsedTagSpec);
-                        ret.setValidationResult(resultForAttempt.getValidationResult());
-                        // TODO (GeorgeLuo) : this copy operation is unnecessary, should refactor to instantiate ret with
-                        //  return for resultForAttempt in the first place (5/3/2020)
-                        ret.setInlineStyleCssBytes(resultForAttempt.getInlineStyleCssBytes());
+                    if (context.getRules().betterValidationResultThan(resultForAttempt, ret)) {
+                        resultForAttempt.setBestMatchTagSpec(parsedTagSpec);
+                        ret = resultForAttempt;
                         // Exit early on success
                         if (ret.getValidationResult().getStatus() == ValidatorProtos.ValidationResult.Status.PASS) {
+                            ret.materializeDeferredErrors();
                             return ret;
                         }
                     }
                 }
 
                 if (ret.getValidationResult().getStatus() != ValidatorProtos.ValidationResult.Status.UNKNOWN) {
+                    ret.materializeDeferredErrors();
                     return ret;
                 }
             }
@@ -286,28 +298,34 @@ public final class TagSpecUtils {
         // tried them all.
         ValidatorProtos.ValidationResult.Builder resultForBestAttempt = ValidatorProtos.ValidationResult.newBuilder();
         resultForBestAttempt.setStatus(ValidatorProtos.ValidationResult.Status.UNKNOWN);
+        ValidateTagResult bestAttempt = new ValidateTagResult(resultForBestAttempt, null);
         ParsedTagSpec bestMatchTagSpec = null;
         for (final ParsedTagSpec parsedTagSpec : filteredTagSpecs) {
           // TODO (GeorgeLuo) : refactor here to handle InlineStyleCssBytes
           //  changes (5/3/2020)
           final ValidateTagResult resultForAttempt = TagSpecUtils.validateTagAgainstSpec(
                     parsedTagSpec, bestMatchReferencePoint, context, encounteredTag);
-            if (context.getRules().betterValidationResultThan(resultForAttempt.getValidationResult(), resultForBestAttempt)) {
+            if (context.getRules().betterValidationResultThan(resultForAttempt, bestAttempt)) {
+                bestAttempt = resultForAttempt;
                 resultForBestAttempt = resultForAttempt.getValidationResult();
                 bestMatchTagSpec = parsedTagSpec;
                 // Exit early
                 if (resultForBestAttempt.getStatus() == ValidatorProtos.ValidationResult.Status.PASS) {
+                    bestAttempt.materializeDeferredErrors();
                     return new ValidateTagResult(resultForBestAttempt, bestMatchTagSpec);
                 }
             }
         }
+        // Only the errors of the best attempt are ever built.
+        bestAttempt.materializeDeferredErrors();
         return new ValidateTagResult(resultForBestAttempt, bestMatchTagSpec);
     }
 
 
     /**
      * Validates the provided |tagName| with respect to a single tag
-     * specification.
+     * specification. Errors of the attempt are kept as deferred records on the
+     * returned result until ValidateTagResult#materializeDeferredErrors is called.
      * @param parsedTagSpec parsed tag spec.
      * @param bestMatchReferencePoint best match reference point.
      * @param context the context object.
@@ -327,6 +345,36 @@ public final class TagSpecUtils {
         ValidateTagResult wrapperResult =
             new ValidateTagResult(resultForAttempt, null);
 
+        // Errors for this attempt are recorded on wrapperResult and only built
+        // if the attempt turns out to be the best one.
+        final ValidateTagResult previousAttempt = context.setCurrentAttempt(wrapperResult);
+        try {
+            validateTagAgainstSpec(parsedTagSpec, bestMatchReferencePoint, context, encounteredTag, wrapperResult);
+        } finally {
+            context.setCurrentAttempt(previousAttempt);
+        }
+        return wrapperResult;
+    }
+
+    /**
+     * Runs the checks of validateTagAgainstSpec for a single attempt.
+     * @param parsedTagSpec parsed tag spec.
+     * @param bestMatchReferencePoint best match reference point.
+     * @param context the context object.
+     * @param encounteredTag the encountered tag.
+     * @param wrapperResult the result for the attempt.
+     * @throws TagValidationException the TagValidationException.
+     * @throws IOException IO Exception
+     * @throws CssValidationException Css validation exception.
+     */
+    private static void validateTagAgainstSpec(
+            @Nonnull final ParsedTagSpec parsedTagSpec,
+            final ParsedTagSpec bestMatchReferencePoint,
+            @Nonnull final Context context,
+            @Nonnull final ParsedHtmlTag encounteredTag,
+            @Nonnull final ValidateTagResult wrapperResult)
+            throws TagValidationException, IOException, CssValidationException {
+        final ValidatorProtos.ValidationResult.Builder resultForAttempt = wrapperResult.getValidationResult();
         resultForAttempt.setStatus(ValidatorProtos.ValidationResult.Status.PASS);
         validateParentTag(parsedTagSpec, context, resultForAttempt);
         validateAncestorTags(parsedTagSpec, context, resultForAttempt);
@@ -369,8 +417,8 @@ public final class TagSpecUtils {
         // Append some warnings, only if no errors.
         if (resultForAttempt.getStatus() == ValidatorProtos.ValidationResult.Status.PASS) {
             final ValidatorProtos.TagSpec tagSpec = parsedTagSpec.getSpec();
-            List<String> params = new ArrayList<>();
             if (tagSpec.hasDeprecation()) {
+                final List<String> params = new ArrayList<>();
                 params.add(TagSpecUtils.getTagSpecName(tagSpec));
                 params.add(tagSpec.getDeprecation());
                 context.addWarning(
@@ -382,7 +430,7 @@ public final class TagSpecUtils {
             }
             if (tagSpec.hasUniqueWarning()
                    && context.hasTagspecsValidated(parsedTagSpec.getId())) {
-                params.clear();
+                final List<String> params = new ArrayList<>();
                 params.add(TagSpecUtils.getTagSpecName(tagSpec));
                 context.addWarning(
                         ValidatorProtos.ValidationError.Code.DUPLICATE_UNIQUE_TAG_WARNING,
@@ -392,7 +440,6 @@ public final class TagSpecUtils {
                         resultForAttempt);
             }
         }
-        return wrapperResult;
     }
 
     /**
@@ -488,6 +535,12 @@ public final class TagSpecUtils {
             return ValidatorProtos.AmpLayout.Layout.UNKNOWN;
         }
 
+        // Layouts are almost always written in their canonical form, e.g. fixed-height.
+        final ValidatorProtos.AmpLayout.Layout canonicalLayout = LAYOUT_BY_CANONICAL_NAME.get(layout);
+        if (canonicalLayout != null) {
+            return canonicalLayout;
+        }
+
         final String normLayout = layout.toUpperCase().replace('-', '_');
         if (ValidatorProtos.AmpLayout.Layout.getDescriptor().findValueByName(normLayout) == null) {
             return ValidatorProtos.AmpLayout.Layout.UNKNOWN;
@@ -586,10 +639,8 @@ public final class TagSpecUtils {
         final ValidatorProtos.AmpLayout.Layout layout =
                 calculateLayout(inputLayout, width, height, sizesAttr, heightsAttr);
 
-        final HashMap<String, String> attrsByKey = encounteredTag.attrsByKey();
-
         // class attribute
-        final String classAttr = attrsByKey.get("class");
+        final String classAttr = encounteredTag.getAttrValueOrNull("class");
         if (classAttr != null) {
             // i-amphtml-layout-{layout_name}
             final Set<String> validInternalClasses = new HashSet<>();
@@ -621,7 +672,7 @@ public final class TagSpecUtils {
         }
 
         // i-amphtml-layout attribute
-        final String ssrAttr = attrsByKey.get("i-amphtml-layout");
+        final String ssrAttr = encounteredTag.getAttrValueOrNull("i-amphtml-layout");
         if (ssrAttr != null) {
             final String layoutName = layout.name(); //getLayoutName(layout);
             if (!layoutName.equals(ssrAttr.toLowerCase())) {
@@ -898,7 +949,7 @@ public final class TagSpecUtils {
                                           @Nonnull final ValidatorProtos.ValidationResult.Builder validationResult) {
         final ValidatorProtos.TagSpec tagSpec = parsedTagSpec.getSpec();
         if (tagSpec.hasUnique()
-                && context.getTagspecsValidated().containsKey(parsedTagSpec.id())) {
+                && context.hasTagspecsValidated(parsedTagSpec.id())) {
             final List<String> params = new ArrayList<>();
             params.add(getTagSpecName(tagSpec));
             context.addError(
@@ -910,6 +961,26 @@ public final class TagSpecUtils {
         }
     }
 
+    /**
+     * Returns the layouts by their canonical attribute value, e.g. fixed-height.
+     *
+     * @return the layouts by canonical name.
+     */
+    private static Map<String, ValidatorProtos.AmpLayout.Layout> layoutsByCanonicalName() {
+        final Map<String, ValidatorProtos.AmpLayout.Layout> layouts = new HashMap<>();
+        for (final ValidatorProtos.AmpLayout.Layout layout : ValidatorProtos.AmpLayout.Layout.values()) {
+            layouts.put(layout.name().toLowerCase(Locale.ROOT).replace('_', '-'), layout);
+        }
+        return Collections.unmodifiableMap(layouts);
+    }
+
+    /** Extension spec URLs by extension name. */
+    private static final Map<String, String> EXTENSION_SPEC_URLS = new ConcurrentHashMap<>();
+
+    /** Layouts by their canonical attribute value. */
+    private static final Map<String, ValidatorProtos.AmpLayout.Layout> LAYOUT_BY_CANONICAL_NAME =
+            layoutsByCanonicalName();
+
     /** List identifiers for AMP format. */
     public static final List AMP_IDENTIFIERS = Arrays.asList("\u26a1", "\u26a1\ufe0f", "amp", "transformed", "data-ampdevmode");
 
@@ -0,0 +1,132 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.utils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Utility class to detect mustache (https://mustache.github.io/mustache.5.html)
+ * template syntax in attribute values. A value is scanned once and the kinds of
+ * syntax found are returned as a set of flags.
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public final class TemplateSyntaxUtils {
+    /**
+     * Private constructor.
+     */
+    private TemplateSyntaxUtils() {
+    }
+
+    /**
+     * Scans |value| for mustache template syntax.
+     *
+     * @param value the attribute value.
+     * @return a combination of MUSTACHE_TAG, UNESCAPED_TAG and PARTIALS_TAG, 0 if none is found.
+     */
+    public static int scan(@Nonnull final String value) {
+        final int length = value.length();
+        int flags = 0;
+        // The whole value is a replacement tag if it starts with {{, ends with }}
+        // and there is no line terminator in between.
+        boolean mustacheTag = length >= MIN_MUSTACHE_TAG_LENGTH
+                && value.startsWith(OPEN_TAG) && value.endsWith(CLOSE_TAG);
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '{') {
+                if (i + 1 < length && value.charAt(i + 1) == '{') {
+                    // {{ followed by optional whitespace and &, { or >.
+                    int j = i + 2;
+                    while (j < length && isSpace(value.charAt(j))) {
+                        j++;
+                    }
+                    if (j < length) {
+                        final char next = value.charAt(j);
+                        if (next == '&' || next == '{') {
+                            flags |= UNESCAPED_TAG;
+                        } else if (next == '>') {
+                            flags |= PARTIALS_TAG;
+                        }
+                    }
+                }
+            } else if (mustacheTag && isLineTerminator(c) && i >= 2 && i < length - 2) {
+                mustacheTag = false;
+            }
+        }
+        if (mustacheTag) {
+            flags |= MUSTACHE_TAG;
+        }
+        return flags;
+    }
+
+    /**
+     * Returns true if |c| is matched by \s.
+     *
+     * @param c a char.
+     * @return returns true if |c| is matched by \s.
+     */
+    private static boolean isSpace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Returns true if |c| is not matched by '.'.
+     *
+     * @param c a char.
+     * @return returns true if |c| is not matched by '.'.
+     */
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * The whole value is a replacement tag, e.g. {{foo}}.
+     */
+    public static final int MUSTACHE_TAG = 1;
+
+    /**
+     * The value contains an unescaped tag, e.g. {{{foo}}} or {{&foo}}.
+     */
+    public static final int UNESCAPED_TAG = 1 << 1;
+
+    /**
+     * The value contains a partial, e.g. {{>foo}}.
+     */
+    public static final int PARTIALS_TAG = 1 << 2;
+
+    /**
+     * Opening delimiter.
+     */
+    private static final String OPEN_TAG = "{{";
+
+    /**
+     * Closing delimiter.
+     */
+    private static final String CLOSE_TAG = "}}";
+
+    /**
+     * Length of the shortest replacement tag, {{}}.
+     */
+    private static final int MIN_MUSTACHE_TAG_LENGTH = OPEN_TAG.length() + CLOSE_TAG.length();
+}
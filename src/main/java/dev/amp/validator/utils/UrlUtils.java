@@ -22,6 +22,7 @@
 package dev.amp.validator.utils;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -56,9 +57,597 @@ public final class UrlUtils {
     return false;
   }
 
+  /**
+   * Returns the lower cased protocol of a url, or the empty string if the url
+   * has none. The url does not need to be valid, anything up to the first ':'
+   * which does not contain '/', '?', '#' or '.' is taken as the protocol.
+   *
+   * @param urlStr the url.
+   * @return the lower cased protocol, or the empty string.
+   */
+  @Nonnull
+  public static String protocol(@Nonnull final String urlStr) {
+    int limit = urlStr.length();
+    while (limit > 0 && urlStr.charAt(limit - 1) <= ' ') {
+      limit--;
+    }
+    int start = 0;
+    while (start < limit && urlStr.charAt(start) <= ' ') {
+      start++;
+    }
+
+    int colon = start;
+    while (colon < limit && ":/?#.".indexOf(urlStr.charAt(colon)) < 0) {
+      colon++;
+    }
+    if (colon == start || colon == limit || urlStr.charAt(colon) != ':') {
+      return "";
+    }
+    // Whatever follows the protocol may not span several lines.
+    for (int i = colon + 1; i < limit; i++) {
+      if (isLineTerminator(urlStr.charAt(i))) {
+        return "";
+      }
+    }
+    return urlStr.substring(start, colon).toLowerCase();
+  }
+
+  /**
+   * Returns the protocol of an absolute url, or null if the url is relative or
+   * can not be parsed. This accepts exactly the urls which java.net.URL accepts
+   * with its built-in protocol handlers, without constructing a URL or throwing
+   * a MalformedURLException for the urls it does not accept.
+   *
+   * @param urlStr the url.
+   * @return the lower cased protocol, or null.
+   */
+  public static String absoluteUrlProtocol(@Nonnull final String urlStr) {
+    return absoluteUrlProtocol(urlStr, 0, urlStr.length());
+  }
+
+  /**
+   * Returns the protocol of the absolute url in the given range of spec, or
+   * null. See absoluteUrlProtocol(String).
+   *
+   * @param spec the string containing the url.
+   * @param from the start of the url.
+   * @param to   the end of the url.
+   * @return the lower cased protocol, or null.
+   */
+  private static String absoluteUrlProtocol(@Nonnull final String spec, final int from, final int to) {
+    int limit = to;
+    while (limit > from && spec.charAt(limit - 1) <= ' ') {
+      limit--;
+    }
+    int start = from;
+    while (start < limit && spec.charAt(start) <= ' ') {
+      start++;
+    }
+    if (startsWithIgnoreCase(spec, start, limit, URL_PREFIX)) {
+      start += URL_PREFIX.length();
+    }
+    // A url starting with '#' is a reference relative to the document.
+    if (start < to && spec.charAt(start) == '#') {
+      return null;
+    }
+
+    int colon = start;
+    while (colon < limit && spec.charAt(colon) != ':' && spec.charAt(colon) != '/') {
+      colon++;
+    }
+    if (colon == limit || spec.charAt(colon) != ':') {
+      return null;
+    }
+    final String protocol = builtInProtocol(spec, start, colon);
+    if (protocol == null) {
+      return null;
+    }
+    start = colon + 1;
+
+    final int ref = indexOf(spec, '#', start, limit);
+    if (ref >= 0) {
+      limit = ref;
+    }
+
+    final boolean valid;
+    switch (protocol) {
+      case "mailto":
+        valid = isValidMailto(spec, start, limit);
+        break;
+      case "jar":
+        valid = isValidJar(spec, from, start, limit, ref == start);
+        break;
+      default:
+        valid = isValidHierarchical(spec, start, limit);
+        break;
+    }
+    return valid ? protocol : null;
+  }
+
+  /**
+   * Returns the built-in protocol spelled by the given range, ignoring ASCII
+   * case, or null if there is none.
+   *
+   * @param spec  the string containing the protocol.
+   * @param start the start of the protocol.
+   * @param end   the end of the protocol.
+   * @return the lower cased built-in protocol, or null.
+   */
+  private static String builtInProtocol(@Nonnull final String spec, final int start, final int end) {
+    for (final String protocol : BUILT_IN_PROTOCOLS) {
+      if (protocol.length() != end - start) {
+        continue;
+      }
+      int i = 0;
+      while (i < protocol.length() && (spec.charAt(start + i) | ASCII_CASE_BIT) == protocol.charAt(i)) {
+        i++;
+      }
+      if (i == protocol.length()) {
+        return protocol;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns true if the part after "mailto:" contains an email address, that
+   * is anything but whitespace.
+   *
+   * @param spec  the string containing the url.
+   * @param start the start of the address.
+   * @param limit the end of the address.
+   * @return true if there is an address.
+   */
+  private static boolean isValidMailto(@Nonnull final String spec, final int start, final int limit) {
+    for (int i = start; i < limit; i++) {
+      if (!Character.isWhitespace(spec.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true if the part after "jar:" names an absolute url followed by
+   * "!/", as in jar:https://example.com/a.jar!/entry.
+   *
+   * @param spec    the string containing the url.
+   * @param from    the start of the url.
+   * @param start   the start of the part after the protocol.
+   * @param limit   the end of the part after the protocol.
+   * @param refOnly true if the part after the protocol is only a reference.
+   * @return true if the jar url is valid.
+   */
+  private static boolean isValidJar(@Nonnull final String spec, final int from, final int start,
+                                    final int limit, final boolean refOnly) {
+    // Nested jar urls are not supported.
+    if (startsWithIgnoreCase(spec, start, limit, JAR_PREFIX)) {
+      return false;
+    }
+    // Without leading whitespace or "url:" the url would be taken as relative
+    // to a jar url, which we don't have.
+    if (!startsWithIgnoreCase(spec, from, limit, JAR_PREFIX)) {
+      return refOnly;
+    }
+    for (int bang = limit - 2; bang >= start; bang--) {
+      if (spec.charAt(bang) == '!' && spec.charAt(bang + 1) == '/') {
+        return absoluteUrlProtocol(spec, start, bang) != null;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true if the part after the protocol is a valid hierarchical url
+   * part. Only the authority, if any, can make it invalid.
+   *
+   * @param spec  the string containing the url.
+   * @param start the start of the part after the protocol.
+   * @param limit the end of the part after the protocol.
+   * @return true if the authority is valid or there is none.
+   */
+  private static boolean isValidHierarchical(@Nonnull final String spec, final int start, final int limit) {
+    int end = limit;
+    final int query = indexOf(spec, '?', start, end);
+    if (query >= 0) {
+      end = query;
+    }
+    // Four slashes name a UNC path, there is no authority to check.
+    if (!startsWith(spec, start, end, AUTHORITY_PREFIX) || startsWith(spec, start, end, UNC_PREFIX)) {
+      return true;
+    }
+    final int authorityStart = start + AUTHORITY_PREFIX.length();
+    int authorityEnd = indexOf(spec, '/', authorityStart, end);
+    if (authorityEnd < 0) {
+      authorityEnd = end;
+    }
+    return isValidAuthority(spec, authorityStart, authorityEnd);
+  }
+
+  /**
+   * Returns true if the authority has a valid host and port.
+   *
+   * @param spec  the string containing the url.
+   * @param start the start of the authority.
+   * @param end   the end of the authority.
+   * @return true if the authority is valid.
+   */
+  private static boolean isValidAuthority(@Nonnull final String spec, final int start, final int end) {
+    int hostStart = start;
+    final int at = indexOf(spec, '@', start, end);
+    if (at >= 0) {
+      // More than one '@' means the authority is not server based.
+      if (indexOf(spec, '@', at + 1, end) >= 0) {
+        return true;
+      }
+      hostStart = at + 1;
+    }
+
+    if (hostStart < end && spec.charAt(hostStart) == '[') {
+      final int close = indexOf(spec, ']', hostStart, end);
+      if (close - hostStart <= 2 || !isIPv6LiteralAddress(spec, hostStart + 1, close)) {
+        return false;
+      }
+      final int hostEnd = close + 1;
+      if (hostEnd < end) {
+        if (spec.charAt(hostEnd) != ':') {
+          return false;
+        }
+        if (hostEnd + 1 < end && !isValidPort(spec, hostEnd + 1, end)) {
+          return false;
+        }
+      }
+      return isValidHost(spec, hostStart, hostEnd);
+    }
+
+    int hostEnd = end;
+    final int colon = indexOf(spec, ':', hostStart, end);
+    if (colon >= 0) {
+      if (colon + 1 < end && !isValidPort(spec, colon + 1, end)) {
+        return false;
+      }
+      hostEnd = colon;
+    }
+    return isValidHost(spec, hostStart, hostEnd);
+  }
+
+  /**
+   * Returns true if the host contains no control characters, slashes or
+   * characters which look like delimiters.
+   *
+   * @param spec  the string containing the host.
+   * @param start the start of the host.
+   * @param end   the end of the host.
+   * @return true if the host is valid.
+   */
+  private static boolean isValidHost(@Nonnull final String spec, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      final char c = spec.charAt(i);
+      if (c < ' ' || c == '/' || c == DELETE
+              || (c >= ILLEGAL_HOST_CHARS[0] && Arrays.binarySearch(ILLEGAL_HOST_CHARS, c) >= 0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if the given non empty range is a valid port number, -1 included.
+   *
+   * @param spec  the string containing the port.
+   * @param start the start of the port.
+   * @param end   the end of the port.
+   * @return true if the port is valid.
+   */
+  private static boolean isValidPort(@Nonnull final String spec, final int start, final int end) {
+    int i = start;
+    boolean negative = false;
+    final char first = spec.charAt(i);
+    if (first < '0') {
+      if (first == '-') {
+        negative = true;
+      } else if (first != '+') {
+        return false;
+      }
+      i++;
+      if (i == end) {
+        return false;
+      }
+    }
+    final long max = negative ? 1 : Integer.MAX_VALUE;
+    long value = 0;
+    for (; i < end; i++) {
+      final int digit = Character.digit(spec.charAt(i), DECIMAL);
+      if (digit < 0) {
+        return false;
+      }
+      value = value * DECIMAL + digit;
+      if (value > max) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if the given range is an IPv6 literal address, optionally
+   * followed by a '%' and a scope id.
+   *
+   * @param spec  the string containing the address.
+   * @param start the start of the address.
+   * @param end   the end of the address.
+   * @return true if the address is valid.
+   */
+  private static boolean isIPv6LiteralAddress(@Nonnull final String spec, final int start, final int end) {
+    // Shortest valid address is "::".
+    if (end - start < 2) {
+      return false;
+    }
+    int addressEnd = end;
+    final int scope = indexOf(spec, '%', start, end);
+    if (scope == end - 1) {
+      return false;
+    }
+    if (scope >= 0) {
+      addressEnd = scope;
+    }
+
+    int i = start;
+    // Leading "::" requires some special handling.
+    if (spec.charAt(i) == ':' && spec.charAt(++i) != ':') {
+      return false;
+    }
+    int groupStart = i;
+    int bytes = 0;
+    boolean compressed = false;
+    boolean sawDigit = false;
+    int value = 0;
+    while (i < addressEnd) {
+      final char c = spec.charAt(i++);
+      final int digit = hexDigit(c);
+      if (digit >= 0) {
+        value = value * HEX + digit;
+        if (value > MAX_IPV6_GROUP) {
+          return false;
+        }
+        sawDigit = true;
+        continue;
+      }
+      if (c == ':') {
+        groupStart = i;
+        if (!sawDigit) {
+          if (compressed) {
+            return false;
+          }
+          compressed = true;
+          continue;
+        } else if (i == addressEnd) {
+          return false;
+        }
+        if (bytes + IPV6_GROUP_BYTES > IPV6_BYTES) {
+          return false;
+        }
+        bytes += IPV6_GROUP_BYTES;
+        sawDigit = false;
+        value = 0;
+        continue;
+      }
+      if (c == '.' && bytes + IPV4_BYTES <= IPV6_BYTES) {
+        if (!isIPv4LiteralAddress(spec, groupStart, addressEnd)) {
+          return false;
+        }
+        bytes += IPV4_BYTES;
+        sawDigit = false;
+        break;
+      }
+      return false;
+    }
+    if (sawDigit) {
+      if (bytes + IPV6_GROUP_BYTES > IPV6_BYTES) {
+        return false;
+      }
+      bytes += IPV6_GROUP_BYTES;
+    }
+    if (compressed) {
+      return bytes != IPV6_BYTES;
+    }
+    return bytes == IPV6_BYTES;
+  }
+
+  /**
+   * Returns true if the given range is a dotted quad IPv4 address, as embedded
+   * in an IPv6 address.
+   *
+   * @param spec  the string containing the address.
+   * @param start the start of the address.
+   * @param end   the end of the address.
+   * @return true if the address is valid.
+   */
+  private static boolean isIPv4LiteralAddress(@Nonnull final String spec, final int start, final int end) {
+    if (end - start == 0 || end - start > MAX_IPV4_LENGTH) {
+      return false;
+    }
+    int dots = 0;
+    boolean newOctet = true;
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      final char c = spec.charAt(i);
+      if (c == '.') {
+        if (newOctet || value > MAX_IPV4_OCTET || dots == IPV4_DOTS) {
+          return false;
+        }
+        dots++;
+        value = 0;
+        newOctet = true;
+      } else if (c >= '0' && c <= '9') {
+        value = value * DECIMAL + (c - '0');
+        if (value > MAX_IPV4_OCTET) {
+          return false;
+        }
+        newOctet = false;
+      } else {
+        return false;
+      }
+    }
+    return dots == IPV4_DOTS && !newOctet;
+  }
+
+  /**
+   * Returns the value of an ASCII hex digit, or -1.
+   *
+   * @param c a character.
+   * @return the value of the digit, or -1.
+   */
+  private static int hexDigit(final char c) {
+    return c < DELETE ? Character.digit(c, HEX) : -1;
+  }
+
+  /**
+   * Returns true if the character ends a line, as far as regular expressions
+   * are concerned.
+   *
+   * @param c a character.
+   * @return true if the character ends a line.
+   */
+  private static boolean isLineTerminator(final char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  /**
+   * Returns true if the given range starts with the prefix.
+   *
+   * @param s      a string.
+   * @param start  the start of the range.
+   * @param end    the end of the range.
+   * @param prefix the prefix.
+   * @return true if the range starts with the prefix.
+   */
+  private static boolean startsWith(@Nonnull final String s, final int start, final int end,
+                                    @Nonnull final String prefix) {
+    return end - start >= prefix.length() && s.startsWith(prefix, start);
+  }
+
+  /**
+   * Returns true if the given range starts with the prefix, ignoring case.
+   *
+   * @param s      a string.
+   * @param start  the start of the range.
+   * @param end    the end of the range.
+   * @param prefix the prefix.
+   * @return true if the range starts with the prefix.
+   */
+  private static boolean startsWithIgnoreCase(@Nonnull final String s, final int start, final int end,
+                                              @Nonnull final String prefix) {
+    return end - start >= prefix.length() && s.regionMatches(true, start, prefix, 0, prefix.length());
+  }
+
+  /**
+   * Returns the index of the first occurrence of the character in the given
+   * range, or -1.
+   *
+   * @param s     a string.
+   * @param c     the character.
+   * @param start the start of the range.
+   * @param end   the end of the range.
+   * @return the index of the character, or -1.
+   */
+  private static int indexOf(@Nonnull final String s, final char c, final int start, final int end) {
+    final int index = s.indexOf(c, start);
+    return index < end ? index : -1;
+  }
+
   /**
    * A pattern to extract protocol from url.
    */
   private static final Pattern PROTOCOL = Pattern.compile("^([^:\\/?#.]+):.*$");
 
+  /**
+   * The protocols which java.net.URL has a built-in handler for.
+   */
+  private static final String[] BUILT_IN_PROTOCOLS = {"http", "https", "ftp", "file", "jar", "mailto", "jrt", "jmod"};
+
+  /**
+   * Prefix which java.net.URL ignores in front of a url.
+   */
+  private static final String URL_PREFIX = "url:";
+
+  /**
+   * Prefix of a jar url.
+   */
+  private static final String JAR_PREFIX = "jar:";
+
+  /**
+   * Prefix of an authority.
+   */
+  private static final String AUTHORITY_PREFIX = "//";
+
+  /**
+   * Prefix of a UNC path.
+   */
+  private static final String UNC_PREFIX = "////";
+
+  /**
+   * The bit which distinguishes lower case from upper case ASCII letters.
+   */
+  private static final int ASCII_CASE_BIT = 0x20;
+
+  /**
+   * The DEL control character, also the end of the ASCII characters.
+   */
+  private static final char DELETE = 0x7f;
+
+  /**
+   * Radix of decimal numbers.
+   */
+  private static final int DECIMAL = 10;
+
+  /**
+   * Radix of hexadecimal numbers.
+   */
+  private static final int HEX = 16;
+
+  /**
+   * Number of bytes of an IPv6 address.
+   */
+  private static final int IPV6_BYTES = 16;
+
+  /**
+   * Number of bytes of a group of an IPv6 address.
+   */
+  private static final int IPV6_GROUP_BYTES = 2;
+
+  /**
+   * Largest value of a group of an IPv6 address.
+   */
+  private static final int MAX_IPV6_GROUP = 0xffff;
+
+  /**
+   * Number of bytes of an IPv4 address.
+   */
+  private static final int IPV4_BYTES = 4;
+
+  /**
+   * Number of dots of an IPv4 address.
+   */
+  private static final int IPV4_DOTS = 3;
+
+  /**
+   * Largest value of an octet of an IPv4 address.
+   */
+  private static final int MAX_IPV4_OCTET = 0xff;
+
+  /**
+   * Length of the longest IPv4 address.
+   */
+  private static final int MAX_IPV4_LENGTH = 15;
+
+  /**
+   * Characters which are not allowed in a host because they look like
+   * delimiters, sorted.
+   */
+  private static final char[] ILLEGAL_HOST_CHARS = {
+    8263, 8264, 8265, 8448, 8449, 8453, 8454, 10868,
+    65109, 65110, 65119, 65131, 65283, 65295, 65306, 65311, 65312
+  };
+
 }
@@ -84,4 +84,20 @@ public final class ValidationErrorUtils {
         error.setSpecUrl(specUrl == null ? "" : specUrl);
         return error.build();
     }
+
+    /**
+     * Construct a ValidationError object with only a severity and a code.
+     *
+     * @param severity the severity.
+     * @param validationErrorCode Error code.
+     * @return returns the ValidationError instance.
+     */
+    public static ValidatorProtos.ValidationError populateCodeOnlyError(
+            @Nonnull final ValidatorProtos.ValidationError.Severity severity,
+            @Nonnull final  ValidatorProtos.ValidationError.Code validationErrorCode) {
+        return ValidatorProtos.ValidationError.newBuilder()
+                .setSeverity(severity)
+                .setCode(validationErrorCode)
+                .build();
+    }
 }
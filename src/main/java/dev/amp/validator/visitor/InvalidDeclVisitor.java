@@ -2,6 +2,7 @@ package dev.amp.validator.visitor;
 
 import dev.amp.validator.Context;
 import dev.amp.validator.ValidatorProtos;
+import dev.amp.validator.css.CssTokenUtil;
 import dev.amp.validator.css.Declaration;
 import dev.amp.validator.css.ParsedDocCssSpec;
 import org.apache.commons.lang3.StringUtils;
@@ -37,7 +38,7 @@ public class InvalidDeclVisitor implements RuleVisitor {
      */
     public void visitDeclaration(@Nonnull final Declaration declaration) {
         final ValidatorProtos.CssDeclaration cssDeclaration =
-                this.spec.getCssDeclarationByName().get(declaration.getName().toLowerCase());
+                this.spec.getCssDeclarationByName().get(CssTokenUtil.toAsciiLowerCase(declaration.getName()));
         final String firstIdent = declaration.firstIdent();
         if (cssDeclaration == null) {
             List<String> params = new ArrayList<>();
@@ -53,14 +54,7 @@ public class InvalidDeclVisitor implements RuleVisitor {
             return;
         }
         if (cssDeclaration.getValueCaseiList().size() > 0) {
-            boolean hasValidValue = false;
-            for (final String value : cssDeclaration.getValueCaseiList()) {
-                if (firstIdent.toLowerCase().equals(value)) {
-                    hasValidValue = true;
-                    break;
-                }
-            }
-            if (!hasValidValue) {
+            if (!this.spec.getCssDeclarationValueCasei(cssDeclaration).contains(firstIdent)) {
                 // Declaration value not allowed.
                 List<String> params = new ArrayList<>();
                 params.add(this.tagDescriptiveName);
@@ -25,6 +25,7 @@ package dev.amp.validator.visitor;
 import dev.amp.validator.ValidatorProtos;
 import com.steadystate.css.parser.Token;
 import dev.amp.validator.css.AtRule;
+import dev.amp.validator.css.CssTokenUtil;
 import dev.amp.validator.css.ErrorToken;
 import dev.amp.validator.css.CssValidationException;
 import dev.amp.validator.css.TokenStream;
@@ -67,7 +68,7 @@ public class MediaQueryVisitor implements RuleVisitor {
      */
     @Override
     public void visitAtRule(@Nonnull final AtRule atRule) throws CssValidationException {
-        if (!atRule.getName().toLowerCase().equals("media")) {
+        if (!CssTokenUtil.equalsIgnoreAsciiCase(atRule.getName(), "media")) {
             return;
         }
 
@@ -1,5 +1,7 @@
 package dev.amp.validator.visitor;
 
+import dev.amp.validator.CompiledValueList;
+import dev.amp.validator.CompiledValueLists;
 import dev.amp.validator.ValidatorProtos;
 import dev.amp.validator.css.CssValidationException;
 import dev.amp.validator.css.ErrorToken;
@@ -28,13 +30,20 @@ import static dev.amp.validator.css.CssTokenUtil.copyPosTo;
 public class SelectorSpecVisitor extends SelectorVisitor {
 
     /**
-     * @param errorBuffer an array of ErrorTokens
      * @param spec the underlying selector spec
+     * @param compiledValueLists the compiled allow lists of the rules
+     * @param errorBuffer an array of ErrorTokens
      */
     public SelectorSpecVisitor(@Nonnull final ValidatorProtos.SelectorSpec spec,
+                               @Nonnull final CompiledValueLists compiledValueLists,
                                @Nonnull final List<ErrorToken> errorBuffer) {
         super(errorBuffer);
-        this.selectorSpec = spec;
+        this.attributeNames = compiledValueLists.getAttributeNames(spec);
+        this.pseudoClasses = compiledValueLists.getPseudoClasses(spec);
+        this.pseudoElements = compiledValueLists.getPseudoElements(spec);
+        this.anyAttributeName = this.attributeNames.contains("*");
+        this.anyPseudoClass = this.pseudoClasses.contains("*");
+        this.anyPseudoElement = this.pseudoElements.contains("*");
         this.errorBuffer = errorBuffer;
     }
 
@@ -53,10 +62,8 @@ public class SelectorSpecVisitor extends SelectorVisitor {
      */
     @Override
     public void visitAttrSelector(@Nonnull final AttrSelector attrSelector) throws CssValidationException {
-        for (final String allowedName : this.selectorSpec.getAttributeNameList()) {
-            if (allowedName.equals("*") || allowedName.equals(attrSelector.getAttrName())) {
-                return;
-            }
+        if (this.anyAttributeName || this.attributeNames.contains(attrSelector.getAttrName())) {
+            return;
         }
 
         final List<String> params = new ArrayList<>();
@@ -78,10 +85,8 @@ public class SelectorSpecVisitor extends SelectorVisitor {
     @Override
     public void visitPseudoSelector(@Nonnull final PseudoSelector pseudoSelector) throws CssValidationException {
         if (pseudoSelector.isClass()) {  // pseudo-class
-            for (final String allowedPseudoClass : this.selectorSpec.getPseudoClassList()) {
-                if (allowedPseudoClass.equals("*") || allowedPseudoClass.equals(pseudoSelector.getName())) {
-                    return;
-                }
+            if (this.anyPseudoClass || this.pseudoClasses.contains(pseudoSelector.getName())) {
+                return;
             }
             final List<String> params = new ArrayList<>();
             params.add("");
@@ -93,11 +98,8 @@ public class SelectorSpecVisitor extends SelectorVisitor {
             copyPosTo(pseudoSelector, errorToken);
             this.errorBuffer.add(errorToken);
         } else {  // pseudo-element
-            for (final String allowedPseudoElement : this.selectorSpec.getPseudoElementList()) {
-                if (allowedPseudoElement.equals("*")
-                        || allowedPseudoElement.equals(pseudoSelector.getName())) {
-                    return;
-                }
+            if (this.anyPseudoElement || this.pseudoElements.contains(pseudoSelector.getName())) {
+                return;
             }
             final List<String> params = new ArrayList<>();
             params.add("");
@@ -128,9 +130,34 @@ public class SelectorSpecVisitor extends SelectorVisitor {
     }
 
     /**
-     * underlying selector spec
+     * allowed attribute selector names of the selector spec
+     */
+    private final CompiledValueList attributeNames;
+
+    /**
+     * allowed pseudo classes of the selector spec
+     */
+    private final CompiledValueList pseudoClasses;
+
+    /**
+     * allowed pseudo elements of the selector spec
+     */
+    private final CompiledValueList pseudoElements;
+
+    /**
+     * true if the selector spec allows any attribute selector name
+     */
+    private final boolean anyAttributeName;
+
+    /**
+     * true if the selector spec allows any pseudo class
+     */
+    private final boolean anyPseudoClass;
+
+    /**
+     * true if the selector spec allows any pseudo element
      */
-    private final ValidatorProtos.SelectorSpec selectorSpec;
+    private final boolean anyPseudoElement;
 
     /**
      * error buffer
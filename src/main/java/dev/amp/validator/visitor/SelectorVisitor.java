@@ -78,11 +78,14 @@ public abstract class SelectorVisitor implements RuleVisitor {
         final TokenStream tokenStream = new TokenStream(qualifiedRule.getPrelude());
         tokenStream.consume();
 
-        Selector maybeSelector;
+        final Selector maybeSelector;
         try {
-            maybeSelector = parseASelectorsGroup(tokenStream);
+            maybeSelector = parseASelectorsGroup(tokenStream, errors);
         } catch (final SelectorException selectorException) {
-            errors.add(selectorException.getErrorToken());
+            // Only thrown on violated preconditions, parse errors are in |errors|.
+            throw new CssValidationException(selectorException.getMessage(), selectorException);
+        }
+        if (maybeSelector == null) {
             return;
         }
 
@@ -105,26 +108,33 @@ public abstract class SelectorVisitor implements RuleVisitor {
      * http://www.w3.org/TR/css3-selectors/#grammar.
      * In addition, this parsing routine checks that no input remains,
      * that is, after parsing the production we reached the end of |token_stream|.
+     * Parse errors are added to |errors| and null is returned; no exception
+     * is thrown for invalid selectors as stylesheets may have thousands.
      *
      * @param tokenStream to work with
-     * @return selectors group from top of stream
+     * @param errors      array of error tokens
+     * @return selectors group from top of stream or null
      * @throws CssValidationException CssValidationException
-     * @throws SelectorException SelectorException
+     * @throws SelectorException SelectorException if a precondition is violated
      */
-    public static Selector parseASelectorsGroup(@Nonnull final TokenStream tokenStream) throws CssValidationException, SelectorException {
+    public static Selector parseASelectorsGroup(@Nonnull final TokenStream tokenStream,
+                                                @Nonnull final List<ErrorToken> errors)
+            throws CssValidationException, SelectorException {
         if (!isSimpleSelectorSequenceStart(tokenStream.current())) {
             final List<String> params = new ArrayList<>();
             params.add("style");
             final ErrorToken errorToken = new ErrorToken(
                     ValidatorProtos.ValidationError.Code.CSS_SYNTAX_DISALLOWED_MEDIA_TYPE,
                     params);
-            throw new SelectorException((ErrorToken) CssTokenUtil.copyPosTo(tokenStream.current(), errorToken));
+            errors.add((ErrorToken) CssTokenUtil.copyPosTo(tokenStream.current(), errorToken));
+            return null;
         }
 
         final Token start = tokenStream.current();
-        Selector selector;
-
-        selector = parseASelector(tokenStream);
+        final Selector selector = parseASelector(tokenStream, errors);
+        if (selector == null) {
+            return null;
+        }
 
         ArrayDeque<Selector> elements = new ArrayDeque<>();
         elements.add(selector);
@@ -138,7 +148,11 @@ public abstract class SelectorVisitor implements RuleVisitor {
                 if (getTokenType(tokenStream.current()) == TokenType.WHITESPACE) {
                     tokenStream.consume();
                 }
-                elements.push(parseASelector(tokenStream));
+                final Selector next = parseASelector(tokenStream, errors);
+                if (next == null) {
+                    return null;
+                }
+                elements.push(next);
                 continue;
             }
             // We're about to claim success and return a selector,
@@ -149,7 +163,8 @@ public abstract class SelectorVisitor implements RuleVisitor {
                 final ErrorToken errorToken = new ErrorToken(
                         ValidatorProtos.ValidationError.Code.CSS_SYNTAX_UNPARSED_INPUT_REMAINS_IN_SELECTOR,
                         params);
-                throw new SelectorException(errorToken);
+                errors.add(errorToken);
+                return null;
             }
             if (elements.size() == 1) {
                 return elements.getFirst();
@@ -629,6 +629,7 @@ public class CdataMatcherTest {
 
         Mockito.when(mockParsedValidatorRules.getPartialMatchCaseiRegex(Mockito.anyString())).thenReturn(pattern);
         Mockito.when(mockContext.getRules()).thenReturn(mockParsedValidatorRules);
+        Mockito.when(mockParsedValidatorRules.getCompiledValueLists()).thenReturn(new CompiledValueLists());
         final ValidatorProtos.ValidationResult.Builder result = ValidatorProtos.ValidationResult.newBuilder();
 
         final CdataMatcher cDataMatcher = new CdataMatcher(mockParsedTagSpec, locator);
@@ -707,6 +708,7 @@ public class CdataMatcherTest {
 
         Mockito.when(mockParsedValidatorRules.getPartialMatchCaseiRegex(Mockito.anyString())).thenReturn(pattern);
         Mockito.when(mockContext.getRules()).thenReturn(mockParsedValidatorRules);
+        Mockito.when(mockParsedValidatorRules.getCompiledValueLists()).thenReturn(new CompiledValueLists());
         final ValidatorProtos.ValidationResult.Builder result = ValidatorProtos.ValidationResult.newBuilder();
 
         final CdataMatcher cDataMatcher = new CdataMatcher(mockParsedTagSpec, locator);
@@ -0,0 +1,90 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import com.google.common.collect.ImmutableList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test for {@link CompiledValueList}
+ */
+public class CompiledValueListTest {
+
+    @Test
+    public void testOf() {
+        final CompiledValueList set = CompiledValueList.of(
+                ImmutableList.of("nofollow", "noopener", "Mixed", "nofollow"));
+        Assert.assertTrue(set.contains("nofollow"));
+        Assert.assertTrue(set.contains("noopener"));
+        Assert.assertTrue(set.contains("Mixed"));
+        Assert.assertFalse(set.contains("NOFOLLOW"));
+        Assert.assertFalse(set.contains("mixed"));
+        Assert.assertFalse(set.contains(""));
+    }
+
+    @Test
+    public void testOfCasei() {
+        final CompiledValueList set = CompiledValueList.ofCasei(
+                ImmutableList.of("block", "inline-block", "none", ""));
+        Assert.assertTrue(set.contains("block"));
+        Assert.assertTrue(set.contains("Inline-BLOCK"));
+        Assert.assertTrue(set.contains("NONE"));
+        Assert.assertTrue(set.contains(""));
+        Assert.assertFalse(set.contains("blocks"));
+        Assert.assertFalse(set.contains("nonE "));
+        // Only ASCII letters are folded.
+        Assert.assertFalse(set.contains("bloc\u212A"));
+    }
+
+    @Test
+    public void testManyValues() {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add("value-" + i);
+        }
+        final CompiledValueList set = CompiledValueList.ofCasei(values);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(set.contains("VALUE-" + i));
+            Assert.assertFalse(set.contains("value-" + (i + 1000)));
+        }
+    }
+
+    @Test
+    public void testContainsFromOffset() {
+        final CompiledValueList set = CompiledValueList.of(ImmutableList.of("hover", "first-child"));
+        Assert.assertTrue(set.contains("::hover", "::".length()));
+        Assert.assertTrue(set.contains("first-child", 0));
+        Assert.assertFalse(set.contains("::Hover", "::".length()));
+        Assert.assertFalse(set.contains("::hover", 1));
+
+        final CompiledValueList setCasei = CompiledValueList.ofCasei(ImmutableList.of("screen", "print", "width"));
+        Assert.assertTrue(setCasei.contains("SCREEN", 0));
+        Assert.assertTrue(setCasei.contains("-webkit-Print", "-webkit-".length()));
+        Assert.assertTrue(setCasei.contains("min-WIDTH", "min-".length()));
+        Assert.assertFalse(setCasei.contains("min-width", 0));
+        Assert.assertFalse(setCasei.contains("min-scree", "min-".length()));
+    }
+}
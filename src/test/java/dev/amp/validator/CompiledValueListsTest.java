@@ -0,0 +1,96 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link CompiledValueLists}
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class CompiledValueListsTest {
+
+    @Test
+    public void testFromRules() {
+        final ValidatorProtos.CssDeclaration display = ValidatorProtos.CssDeclaration.newBuilder()
+                .setName("display").addValueCasei("block").build();
+        final ValidatorProtos.AttrSpec type = ValidatorProtos.AttrSpec.newBuilder()
+                .setName("type").addValueCasei("text/plain").build();
+        final ValidatorProtos.AttrSpec style = ValidatorProtos.AttrSpec.newBuilder()
+                .setName("style").addCssDeclaration(display).build();
+        final ValidatorProtos.ValidatorRules.Builder rules = ValidatorProtos.ValidatorRules.newBuilder();
+        rules.addTags(ValidatorProtos.TagSpec.newBuilder().setTagName("SCRIPT").addAttrs(type));
+        rules.addAttrLists(ValidatorProtos.AttrList.newBuilder().setName("$GLOBAL_ATTRS").addAttrs(style));
+
+        final CompiledValueLists compiledValueLists = CompiledValueLists.fromRules(rules);
+        // Lists of the rules are compiled once and shared by the ParsedAttrSpecs.
+        final ParsedAttrSpec first = new ParsedAttrSpec(rules.getTags(0).getAttrs(0), "type", compiledValueLists);
+        final ParsedAttrSpec second = new ParsedAttrSpec(rules.getTags(0).getAttrs(0), "type", compiledValueLists);
+        Assert.assertSame(first.getValueListOrNull(), second.getValueListOrNull());
+        Assert.assertTrue(first.getValueListOrNull().contains("Text/Plain"));
+        Assert.assertSame(compiledValueLists.getValueCaseiOrNull(display),
+                compiledValueLists.getValueCaseiOrNull(display));
+        Assert.assertTrue(new ParsedAttrSpec(style, "style", compiledValueLists).getCssDeclarationValueCasei(display)
+                .contains("BLOCK"));
+        Assert.assertNull(compiledValueLists.getValueListOrNull(style));
+
+        // Specs which aren't part of the rules are compiled on their first lookup.
+        final ValidatorProtos.AttrSpec other = ValidatorProtos.AttrSpec.newBuilder()
+                .setName("type").addValue("module").build();
+        Assert.assertTrue(compiledValueLists.getValueListOrNull(other).contains("module"));
+        Assert.assertSame(compiledValueLists.getValueListOrNull(other), compiledValueLists.getValueListOrNull(other));
+    }
+
+    @Test
+    public void testCssAllowLists() {
+        final ValidatorProtos.SelectorSpec selectorSpec = ValidatorProtos.SelectorSpec.newBuilder()
+                .addAttributeName("*").addPseudoClass("hover").build();
+        final ValidatorProtos.MediaQuerySpec mediaQuerySpec = ValidatorProtos.MediaQuerySpec.newBuilder()
+                .addType("screen").addFeature("width").build();
+        final ValidatorProtos.CssSpec cssSpec = ValidatorProtos.CssSpec.newBuilder()
+                .addAtRuleSpec(ValidatorProtos.AtRuleSpec.newBuilder().setName("media")
+                        .setMediaQuerySpec(mediaQuerySpec))
+                .setSelectorSpec(selectorSpec).build();
+        final ValidatorProtos.ValidatorRules.Builder rules = ValidatorProtos.ValidatorRules.newBuilder();
+        rules.addTags(ValidatorProtos.TagSpec.newBuilder().setTagName("STYLE")
+                .setCdata(ValidatorProtos.CdataSpec.newBuilder().setCssSpec(cssSpec)));
+
+        final CompiledValueLists compiledValueLists = CompiledValueLists.fromRules(rules);
+        final ValidatorProtos.CssSpec loaded = rules.getTags(0).getCdata().getCssSpec();
+        // Allow lists of the rules are compiled once.
+        Assert.assertSame(compiledValueLists.getPseudoClasses(loaded.getSelectorSpec()),
+                compiledValueLists.getPseudoClasses(loaded.getSelectorSpec()));
+        Assert.assertTrue(compiledValueLists.getAttributeNames(loaded.getSelectorSpec()).contains("*"));
+        Assert.assertTrue(compiledValueLists.getPseudoClasses(loaded.getSelectorSpec()).contains("hover"));
+        Assert.assertFalse(compiledValueLists.getPseudoElements(loaded.getSelectorSpec()).contains("before"));
+        final ValidatorProtos.MediaQuerySpec loadedMediaQuerySpec = loaded.getAtRuleSpec(0).getMediaQuerySpec();
+        Assert.assertSame(compiledValueLists.getMediaTypes(loadedMediaQuerySpec),
+                compiledValueLists.getMediaTypes(loadedMediaQuerySpec));
+        Assert.assertTrue(compiledValueLists.getMediaTypes(loadedMediaQuerySpec).contains("Screen"));
+        Assert.assertTrue(compiledValueLists.getMediaFeatures(loadedMediaQuerySpec)
+                .contains("max-width", "max-".length()));
+    }
+}
@@ -75,13 +75,72 @@ public class ContextTest {
         context.updateFromTagResults(htmlTag, mockReferencePointResult, mockTagResult);
 
         Assert.assertTrue(context.satisfiesCondition("amp-app-banner button[open-button]"));
-        Assert.assertEquals(context.getMandatoryAlternativesSatisfied().size(), 1);
-        Assert.assertEquals(context.getMandatoryAlternativesSatisfied().get(0), "alternative");
+        Assert.assertEquals(context.getMandatoryAlternativesSatisfied().cardinality(), 1);
+        Assert.assertTrue(context.getMandatoryAlternativesSatisfied()
+                .get(mockValidatorRules.getMandatoryAlternativeId("alternative")));
         Assert.assertNotNull(context.getTagspecsValidated());
         Assert.assertTrue(context.getTagspecsValidated().get(0));
         Assert.assertTrue(context.hasTagspecsValidated(0));
     }
 
+    @Test
+    public void testValueSets() throws TagValidationException {
+        mockValidatorRules = new ParsedValidatorRules(ValidatorProtos.HtmlFormat.Code.AMP, ampValidatorManager);
+        final Context context = new Context(mockValidatorRules, MAX_BODY_LENGTH);
+        final ParsedHtmlTag htmlTag = mock(ParsedHtmlTag.class);
+        when(htmlTag.upperName()).thenReturn(UPPER_NAME);
+
+        final ValidatorProtos.ValueSetProvision provision = ValidatorProtos.ValueSetProvision.newBuilder()
+                .setSet(ValidatorProtos.AttrSpec.ValueSet.TEMPLATE_IDS).setValue("tpl").build();
+        final ValidatorProtos.ValidationError error = ValidatorProtos.ValidationError.newBuilder()
+                .setCode(ValidatorProtos.ValidationError.Code.VALUE_SET_MISMATCH).build();
+        final ValidatorProtos.ValidationResult.Builder validationBuilder = ValidatorProtos.ValidationResult.newBuilder()
+                .setStatus(ValidatorProtos.ValidationResult.Status.PASS)
+                .addValueSetProvisions(provision)
+                .addValueSetRequirements(ValidatorProtos.ValueSetRequirement.newBuilder()
+                        .setProvision(provision.toBuilder().setValue("other")).setErrorIfUnsatisfied(error))
+                .addValueSetRequirements(ValidatorProtos.ValueSetRequirement.newBuilder()
+                        .setProvision(provision.toBuilder().setValue("other")).setErrorIfUnsatisfied(error));
+
+        final ValidateTagResult mockTagResult = mock(ValidateTagResult.class);
+        when(mockTagResult.getValidationResult()).thenReturn(validationBuilder);
+        final ParsedTagSpec tagSpec = mock(ParsedTagSpec.class);
+        when(tagSpec.getSpec()).thenReturn(ValidatorProtos.TagSpec.getDefaultInstance());
+        when(mockTagResult.getBestMatchTagSpec()).thenReturn(tagSpec);
+
+        context.updateFromTagResults(htmlTag, mock(ValidateTagResult.class), mockTagResult);
+
+        Assert.assertEquals(context.valueSetsProvided().size(), 1);
+        Assert.assertTrue(context.valueSetsProvided().get(ValidatorProtos.AttrSpec.ValueSet.TEMPLATE_IDS).contains("tpl"));
+        Assert.assertEquals(context.valueSetsRequired().size(), 1);
+        Assert.assertEquals(context.valueSetsRequired().get(ValidatorProtos.AttrSpec.ValueSet.TEMPLATE_IDS).get("other").size(), 2);
+        Assert.assertFalse(context.hasTagspecsValidated(1));
+    }
+
+    @Test
+    public void testComputeLayout() {
+        mockValidatorRules = new ParsedValidatorRules(ValidatorProtos.HtmlFormat.Code.AMP, ampValidatorManager);
+        final Context context = new Context(mockValidatorRules, MAX_BODY_LENGTH);
+        final ValidatorProtos.AmpLayout spec = ValidatorProtos.AmpLayout.newBuilder()
+                .addSupportedLayouts(ValidatorProtos.AmpLayout.Layout.RESPONSIVE).build();
+
+        final ComputedLayout responsive = context.computeLayout(spec, null, "100", "50", "(min-width: 1px) 10vw", null);
+        Assert.assertEquals(responsive.getInputLayout(), ValidatorProtos.AmpLayout.Layout.UNKNOWN);
+        Assert.assertEquals(responsive.getLayout(), ValidatorProtos.AmpLayout.Layout.RESPONSIVE);
+        Assert.assertEquals(responsive.getWidth().getUnit(), "px");
+        // The same attributes, with any sizes, share the computation.
+        Assert.assertSame(context.computeLayout(spec, null, "100", "50", "50vw", null), responsive);
+
+        final ComputedLayout fixed = context.computeLayout(spec, null, "100", "50", null, null);
+        Assert.assertEquals(fixed.getLayout(), ValidatorProtos.AmpLayout.Layout.FIXED);
+        Assert.assertNotSame(context.computeLayout(spec.toBuilder().build(), null, "100", "50", null, null), fixed);
+
+        final ComputedLayout fixedHeight = context.computeLayout(spec, "Fixed-Height", "auto", "1.5rem", null, null);
+        Assert.assertEquals(fixedHeight.getInputLayout(), ValidatorProtos.AmpLayout.Layout.FIXED_HEIGHT);
+        Assert.assertTrue(fixedHeight.getInputWidth().isAuto());
+        Assert.assertEquals(fixedHeight.getInputHeight().getUnit(), "rem");
+    }
+
     @Test
     public void testMarkUrlSeenFromMatchingTagSpec() {
     }
@@ -101,8 +160,9 @@ public class ContextTest {
 
         context.satisfyMandatoryAlternativesFromTagSpec(tagSpec);
 
-        Assert.assertEquals(context.getMandatoryAlternativesSatisfied().size(), 1);
-        Assert.assertEquals(context.getMandatoryAlternativesSatisfied().get(0), "alternative");
+        Assert.assertEquals(context.getMandatoryAlternativesSatisfied().cardinality(), 1);
+        Assert.assertTrue(context.getMandatoryAlternativesSatisfied()
+                .get(mockValidatorRules.getMandatoryAlternativeId("alternative")));
     }
 
     /**
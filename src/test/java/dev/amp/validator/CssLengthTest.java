@@ -24,6 +24,10 @@ package dev.amp.validator;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 public class CssLengthTest {
 
     @Test
@@ -78,4 +82,40 @@ public class CssLengthTest {
         Assert.assertTrue(cssLength.isSet());
 
     }
+
+    @Test
+    public void testInvalidInput() {
+        Assert.assertFalse(new CssLength("10.", true, true).isValid());
+        Assert.assertFalse(new CssLength(".5px", true, true).isValid());
+        Assert.assertFalse(new CssLength("10pt", true, true).isValid());
+        Assert.assertFalse(new CssLength("10 px", true, true).isValid());
+        Assert.assertFalse(new CssLength("auto", false, true).isValid());
+        Assert.assertTrue(Float.isNaN(new CssLength("10pt", true, true).getNumeral()));
+    }
+
+    /**
+     * Compares the parser with the regular expression it replaced.
+     */
+    @Test
+    public void testMatchesRegex() {
+        final Pattern cssLength = Pattern.compile("^(\\d+(?:\\.\\d+)?)(px|em|rem|vh|vw|vmin|vmax)?$");
+        final String[] pieces = {"0", "1", "25", ".", "px", "em", "rem", "vh", "vw", "vmin", "vmax", "v", "m", "x",
+            " ", "\n", "-", "\u0661", "auto", "fluid"};
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final StringBuilder sb = new StringBuilder();
+            final int count = random.nextInt(5);
+            for (int j = 0; j < count; j++) {
+                sb.append(pieces[random.nextInt(pieces.length)]);
+            }
+            final String input = sb.toString();
+            final CssLength length = new CssLength(input, false, false);
+            final Matcher matcher = cssLength.matcher(input);
+            Assert.assertEquals(length.isValid(), matcher.matches(), input);
+            if (length.isValid()) {
+                Assert.assertEquals(length.getNumeral(), Float.valueOf(matcher.group(1)), input);
+                Assert.assertEquals(length.getUnit(), matcher.group(2) != null ? matcher.group(2) : "px", input);
+            }
+        }
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ExtensionIds}
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class ExtensionIdsTest {
+
+    @Test
+    public void testFromRules() {
+        final ValidatorProtos.ValidatorRules.Builder rules = ValidatorProtos.ValidatorRules.newBuilder();
+        rules.addTags(ValidatorProtos.TagSpec.newBuilder()
+                .setExtensionSpec(ValidatorProtos.ExtensionSpec.newBuilder().setName("amp-form"))
+                .addRequiresExtension("amp-bind")
+                .addAttrs(ValidatorProtos.AttrSpec.newBuilder().setName("[text]").addRequiresExtension("amp-bind")));
+        rules.addAttrLists(ValidatorProtos.AttrList.newBuilder().setName("list")
+                .addAttrs(ValidatorProtos.AttrSpec.newBuilder().setName("on").addRequiresExtension("amp-action")));
+
+        final ExtensionIds ids = ExtensionIds.fromRules(rules);
+        Assert.assertEquals(ids.idOf("amp-action"), 0);
+        Assert.assertEquals(ids.idOf("amp-bind"), 1);
+        Assert.assertEquals(ids.idOf("amp-form"), 2);
+        Assert.assertEquals(ids.nameOf(1), "amp-bind");
+
+        // Names which aren't in the rules are numbered when first seen.
+        Assert.assertEquals(ids.idOf("amp-unknown"), 3);
+        Assert.assertEquals(ids.idOf("amp-unknown"), 3);
+        Assert.assertEquals(ids.nameOf(3), "amp-unknown");
+    }
+}
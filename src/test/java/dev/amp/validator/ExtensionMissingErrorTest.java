@@ -21,6 +21,7 @@
 
 package dev.amp.validator;
 
+import com.google.common.collect.ImmutableList;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -33,10 +34,17 @@ public class ExtensionMissingErrorTest {
 
     @Test
     public void testConstructor() {
-        final ExtensionMissingError error = new ExtensionMissingError("ext_missing",
-                ValidatorProtos.ValidationError.newBuilder().setCode(ValidatorProtos.ValidationError.Code.DISALLOWED_PROPERTY_IN_ATTR_VALUE).build());
+        final ValidatorProtos.TagSpec tagSpec = ValidatorProtos.TagSpec.newBuilder()
+                .setSpecName("amp-form extension .js script").setSpecUrl("https://amp.dev/form").build();
+        final ExtensionMissingError error = new ExtensionMissingError(3, "ext_missing", tagSpec, 7, 11);
 
+        Assert.assertEquals(error.getMissingExtensionId(), 3);
         Assert.assertEquals(error.getMissingExtension(), "ext_missing");
-        Assert.assertEquals(error.getMaybeError().getCode(), ValidatorProtos.ValidationError.Code.DISALLOWED_PROPERTY_IN_ATTR_VALUE);
+        Assert.assertEquals(error.getMaybeError().getCode(), ValidatorProtos.ValidationError.Code.MISSING_REQUIRED_EXTENSION);
+        Assert.assertEquals(error.getMaybeError().getSeverity(), ValidatorProtos.ValidationError.Severity.ERROR);
+        Assert.assertEquals(error.getMaybeError().getParamsList(), ImmutableList.of("amp-form extension .js script", "ext_missing"));
+        Assert.assertEquals(error.getMaybeError().getLine(), 7);
+        Assert.assertEquals(error.getMaybeError().getCol(), 11);
+        Assert.assertEquals(error.getMaybeError().getSpecUrl(), "https://amp.dev/form");
     }
 }
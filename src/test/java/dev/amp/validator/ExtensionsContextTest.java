@@ -21,6 +21,7 @@
 
 package dev.amp.validator;
 
+import com.google.common.collect.ImmutableList;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -135,4 +136,34 @@ public class ExtensionsContextTest {
         Assert.assertEquals(extContext.unusedExtensionsRequired().size(), 1);
         Assert.assertEquals(extContext.unusedExtensionsRequired().get(0), "amp-date-picker");
     }
+
+    @Test
+    public void testUnusedAndMissingExtensions() {
+        final ExtensionsContext extContext =
+                new ExtensionsContext(new ExtensionIds(ImmutableList.of("amp-ad", "amp-form", "amp-list")));
+
+        final ParsedTagSpec mockParsedTagSpec = Mockito.mock(ParsedTagSpec.class);
+        Mockito.when(mockParsedTagSpec.getSpec()).thenReturn(ValidatorProtos.TagSpec.newBuilder()
+                .addRequiresExtension("amp-list").addRequiresExtension("amp-mustache")
+                .setSpecName("amp-list").build());
+        final Locator mockLocator = Mockito.mock(Locator.class);
+        extContext.recordFutureErrorsIfMissing(mockParsedTagSpec, mockLocator);
+
+        for (final String extension : ImmutableList.of("amp-zz", "amp-list", "amp-form", "amp-bind", "amp-list")) {
+            final ValidateTagResult mockTagResult = Mockito.mock(ValidateTagResult.class);
+            final ParsedTagSpec mockExtensionTagSpec = Mockito.mock(ParsedTagSpec.class);
+            Mockito.when(mockExtensionTagSpec.getSpec()).thenReturn(ValidatorProtos.TagSpec.newBuilder()
+                    .setExtensionSpec(ValidatorProtos.ExtensionSpec.newBuilder().setName(extension)).build());
+            Mockito.when(mockTagResult.getBestMatchTagSpec()).thenReturn(mockExtensionTagSpec);
+            extContext.updateFromTagResult(mockTagResult);
+        }
+        extContext.recordUsedExtensions(ImmutableList.of("amp-form"));
+
+        // Loaded twice but reported once, in name order.
+        Assert.assertEquals(extContext.unusedExtensionsRequired(), ImmutableList.of("amp-bind", "amp-list", "amp-zz"));
+
+        final List<ValidatorProtos.ValidationError> errors = extContext.missingExtensionErrors();
+        Assert.assertEquals(errors.size(), 1);
+        Assert.assertEquals(errors.get(0).getParamsList(), ImmutableList.of("amp-list", "amp-mustache"));
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link GlobalTagSpecChecks}
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class GlobalTagSpecChecksTest {
+
+    @Test
+    public void testChecks() {
+        final ValidatorProtos.ValidatorRules.Builder rules = ValidatorProtos.ValidatorRules.newBuilder();
+        rules.addTags(ValidatorProtos.TagSpec.newBuilder()
+                .addHtmlFormat(ValidatorProtos.HtmlFormat.Code.AMP)
+                .setSpecName("amp-bind")
+                .addRequires("amp-bind extension .js script")
+                .addExcludes("amp-story")
+                .addAlsoRequiresTagWarning("amp-state")
+                .addAlsoRequiresTagWarning("amp-unknown")
+                .setMandatoryAlternatives("body")
+                .setSpecUrl("https://amp.dev/bind"));
+        rules.addTags(ValidatorProtos.TagSpec.newBuilder()
+                .addHtmlFormat(ValidatorProtos.HtmlFormat.Code.AMP4EMAIL)
+                .setSpecName("amp-email")
+                .addRequires("amp-email-only")
+                .setMandatoryAlternatives("email"));
+        rules.addTags(ValidatorProtos.TagSpec.newBuilder()
+                .addHtmlFormat(ValidatorProtos.HtmlFormat.Code.AMP)
+                .setSpecName("amp-state")
+                .addSatisfies("amp-bind extension .js script")
+                .setMandatoryAlternatives("body")
+                .setSpecUrl("https://amp.dev/state"));
+
+        final GlobalTagSpecChecks checks = new GlobalTagSpecChecks(rules, ValidatorProtos.HtmlFormat.Code.AMP);
+
+        final int requiresId = checks.getConditionId("amp-bind extension .js script");
+        final int excludesId = checks.getConditionId("amp-story");
+        Assert.assertEquals(checks.getConditionName(requiresId), "amp-bind extension .js script");
+        Assert.assertEquals(checks.getConditionName(excludesId), "amp-story");
+        Assert.assertEquals(checks.getConditionId("amp-email-only"), -1);
+        Assert.assertEquals(checks.getRequiresConditionIds(0), new int[]{requiresId});
+        Assert.assertEquals(checks.getExcludesConditionIds(0), new int[]{excludesId});
+        Assert.assertEquals(checks.getRequiresConditionIds(1).length, 0);
+        Assert.assertEquals(checks.getRequiresConditionIds(2).length, 0);
+
+        // Unknown tag spec names are dropped.
+        Assert.assertEquals(checks.getAlsoRequiresTagSpecIds(0), new int[]{2});
+        Assert.assertEquals(checks.getAlsoRequiresTagSpecIds(2).length, 0);
+
+        Assert.assertEquals(checks.getMandatoryAlternativeCount(), 1);
+        Assert.assertEquals(checks.getMandatoryAlternativeId("body"), 0);
+        Assert.assertEquals(checks.getMandatoryAlternativeId("email"), -1);
+        Assert.assertEquals(checks.getMandatoryAlternative(0), "body");
+        Assert.assertEquals(checks.getMandatoryAlternativeSpecUrl(0), "https://amp.dev/bind");
+    }
+}
@@ -48,7 +48,7 @@ public class ParsedAttrSpecTest {
         attrSpecBuilder.addEnabledBy("transformation");
 
         final ValidatorProtos.AttrSpec attrSpec = attrSpecBuilder.build();
-        final ParsedAttrSpec parsedAttrSpec = new ParsedAttrSpec(attrSpec, "content");
+        final ParsedAttrSpec parsedAttrSpec = new ParsedAttrSpec(attrSpec, "content", new CompiledValueLists());
 
         Assert.assertEquals(parsedAttrSpec.getAttrName(), "content");
         Assert.assertEquals(parsedAttrSpec.getSpec(), attrSpec);
@@ -58,6 +58,9 @@ public class ParsedAttrSpecTest {
         Assert.assertEquals(parsedAttrSpec.getValuePropertiesOrNull().getMandatoryValuePropertyNames().get(0), "height");
 
         Assert.assertEquals(parsedAttrSpec.getCssDeclarationByName().get("content").getValueCasei(0), "fill");
+        Assert.assertTrue(parsedAttrSpec.getCssDeclarationValueCasei(
+                parsedAttrSpec.getCssDeclarationByName().get("content")).contains("FILL"));
+        Assert.assertNull(parsedAttrSpec.getValueListOrNull());
         Assert.assertTrue(parsedAttrSpec.isUsedForTypeIdentifiers(ImmutableList.of("transformation")));
 
         Assert.assertTrue(parsedAttrSpec.getValueUrlSpec().isAllowedProtocol("https"));
@@ -67,4 +70,17 @@ public class ParsedAttrSpecTest {
         Assert.assertNull(parsedAttrSpec.getAttrName());
         Assert.assertNull(parsedAttrSpec.getSpec());
     }
+
+    @Test
+    public void testValueList() {
+        final ParsedAttrSpec values = new ParsedAttrSpec(ValidatorProtos.AttrSpec.newBuilder().setName("type")
+                .addValue("text/plain").build(), "type", new CompiledValueLists());
+        Assert.assertTrue(values.getValueListOrNull().contains("text/plain"));
+        Assert.assertFalse(values.getValueListOrNull().contains("TEXT/plain"));
+
+        final ParsedAttrSpec valuesCasei = new ParsedAttrSpec(ValidatorProtos.AttrSpec.newBuilder().setName("type")
+                .addValueCasei("text/plain").build(), "type",
+                new CompiledValueLists());
+        Assert.assertTrue(valuesCasei.getValueListOrNull().contains("TEXT/plain"));
+    }
 }
@@ -21,10 +21,12 @@
 
 package dev.amp.validator;
 
+import dev.amp.validator.utils.ExtensionsUtils;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
 
 /**
  * Tests for {@link ParsedHtmlTag}
@@ -69,4 +71,99 @@ public class ParsedHtmlTagTest {
         parsedHtmltag.cleanup();
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testNameCaseVariants() {
+        final AttributesImpl attrs = new AttributesImpl();
+
+        final ParsedHtmlTag mixedCase = new ParsedHtmlTag("Amp-Img", attrs);
+        Assert.assertEquals(mixedCase.upperName(), "AMP-IMG");
+        Assert.assertEquals(mixedCase.lowerName(), "amp-img");
+        Assert.assertSame(new ParsedHtmlTag("amp-img", attrs).upperName(), mixedCase.upperName());
+        Assert.assertSame(new ParsedHtmlTag("amp-img", attrs).lowerName(), mixedCase.lowerName());
+
+        final ParsedHtmlTag nonAscii = new ParsedHtmlTag("stra\u00dfe", attrs);
+        Assert.assertEquals(nonAscii.upperName(), "stra\u00dfe".toUpperCase());
+        Assert.assertEquals(nonAscii.lowerName(), "stra\u00dfe".toUpperCase().toLowerCase());
+
+        final ParsedHtmlTag empty = new ParsedHtmlTag("", attrs);
+        Assert.assertTrue(empty.isEmpty());
+        Assert.assertEquals(empty.lowerName(), "");
+    }
+
+    @Test
+    public void testGetAttrValueOrNull() {
+        final AttributesImpl fewAttrs = new AttributesImpl();
+        fewAttrs.addAttribute("", "src", "src", "CDATA", "a.js");
+        fewAttrs.addAttribute("", "async", "async", "CDATA", "");
+        fewAttrs.addAttribute("", "src", "src", "CDATA", "b.js");
+        final ParsedHtmlTag few = new ParsedHtmlTag("script", fewAttrs);
+        Assert.assertEquals(few.getAttrIndex("src"), 2);
+        Assert.assertEquals(few.getAttrValueOrNull("src"), "b.js");
+        Assert.assertEquals(few.getAttrValueOrNull("async"), "");
+        Assert.assertNull(few.getAttrValueOrNull("type"));
+        Assert.assertEquals(few.getAttrIndex("type"), -1);
+
+        final AttributesImpl manyAttrs = new AttributesImpl();
+        for (int i = 0; i < 20; i++) {
+            manyAttrs.addAttribute("", "data-" + i, "data-" + i, "CDATA", "v" + i);
+        }
+        manyAttrs.addAttribute("", "data-3", "data-3", "CDATA", "last");
+        final ParsedHtmlTag many = new ParsedHtmlTag("div", manyAttrs);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(many.getAttrValueOrNull("data-" + i),
+                    many.attrsByKey().get("data-" + i));
+        }
+        Assert.assertEquals(many.getAttrIndex("data-3"), 20);
+        Assert.assertEquals(many.getAttrValueOrNull("data-3"), "last");
+        Assert.assertNull(many.getAttrValueOrNull("data-20"));
+        Assert.assertNull(many.getAttrValueOrNull("class"));
+    }
+
+    @Test
+    public void testGetValue() {
+        final AttributesImpl attrs = new AttributesImpl();
+        attrs.addAttribute("", "hidden", "hidden", "CDATA", "hidden");
+        attrs.addAttribute("", "async", "async", "CDATA", "ASYNC");
+        attrs.addAttribute("", "title", "title", "CDATA", "titles");
+        final ParsedHtmlTag tag = new ParsedHtmlTag("div", attrs);
+        Assert.assertEquals(tag.getValue("hidden", 0), "");
+        Assert.assertEquals(tag.getValue("HIDDEN", 0), "");
+        Assert.assertEquals(tag.getValue("async", 1), "ASYNC");
+        Assert.assertEquals(tag.getValue("title", 2), "titles");
+    }
+
+    @Test
+    public void testReset() {
+        final AttributesImpl scriptAttrs = new AttributesImpl();
+        scriptAttrs.addAttribute("", "async", "async", "CDATA", "");
+        scriptAttrs.addAttribute("", "custom-element", "custom-element", "CDATA", "amp-ad");
+        scriptAttrs.addAttribute("", "src", "src", "CDATA", "https://cdn.ampproject.org/v0/amp-ad-0.1.js");
+        final ParsedHtmlTag tag = new ParsedHtmlTag("script", scriptAttrs);
+        Assert.assertTrue(tag.isExtensionScript());
+        Assert.assertTrue(tag.hasValidAmpScriptPath());
+        Assert.assertEquals(tag.getExtensionName(), "amp-ad");
+        Assert.assertEquals(tag.getExtensionVersion(), "0.1");
+        tag.cleanup();
+
+        final AttributesImpl divAttrs = new AttributesImpl();
+        divAttrs.addAttribute("", "src", "src", "CDATA", "https://cdn.ampproject.org/v0.js");
+        tag.reset("div", divAttrs);
+        Assert.assertEquals(tag.upperName(), "DIV");
+        Assert.assertFalse(tag.isExtensionScript());
+        Assert.assertFalse(tag.isAmpDomain());
+        Assert.assertEquals(tag.getExtensionName(), "");
+        Assert.assertEquals(tag.getAttrValueOrNull("custom-element"), null);
+        tag.cleanup();
+
+        final AttributesImpl runtimeAttrs = new AttributesImpl();
+        runtimeAttrs.addAttribute("", "async", "async", "CDATA", "");
+        runtimeAttrs.addAttribute("", "src", "src", "CDATA", "https://cdn.ampproject.org/lts/v0.js");
+        tag.reset("script", runtimeAttrs);
+        Assert.assertTrue(tag.isAmpRuntimeScript());
+        Assert.assertFalse(tag.hasValidAmpScriptPath());
+        Assert.assertEquals(tag.getExtensionName(), "");
+        Assert.assertEquals(tag.getAmpScriptPath(), "lts/v0.js");
+        Assert.assertEquals(tag.getScriptReleaseVersion(), ExtensionsUtils.ScriptReleaseVersion.LTS);
+    }
+}
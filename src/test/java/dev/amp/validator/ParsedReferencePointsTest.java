@@ -21,6 +21,8 @@
 
 package dev.amp.validator;
 
+import dev.amp.validator.exception.TagValidationException;
+import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -63,4 +65,28 @@ public class ParsedReferencePointsTest {
 
         parsedReferencePoints.cleanup();
     }
+
+    @Test
+    public void testTagSpecs() throws TagValidationException {
+        final ValidatorProtos.TagSpec.Builder tagSpecBuilder = ValidatorProtos.TagSpec.newBuilder();
+        tagSpecBuilder.addReferencePoints(ValidatorProtos.ReferencePoint.newBuilder().setTagSpecName("first"));
+        tagSpecBuilder.addReferencePoints(ValidatorProtos.ReferencePoint.newBuilder().setTagSpecName("second"));
+
+        final ParsedValidatorRules rules = Mockito.mock(ParsedValidatorRules.class);
+        final ParsedTagSpec first = Mockito.mock(ParsedTagSpec.class);
+        final ParsedTagSpec second = Mockito.mock(ParsedTagSpec.class);
+        Mockito.when(rules.getTagSpecIdByReferencePointTagSpecName("first")).thenReturn(3);
+        Mockito.when(rules.getTagSpecIdByReferencePointTagSpecName("second")).thenReturn(5);
+        Mockito.when(rules.getByTagSpecId(3)).thenReturn(first);
+        Mockito.when(rules.getByTagSpecId(5)).thenReturn(second);
+
+        final ParsedReferencePoints parsedReferencePoints = new ParsedReferencePoints(tagSpecBuilder.build());
+        final ParsedTagSpec[] tagSpecs = parsedReferencePoints.tagSpecs(rules);
+        Assert.assertEquals(tagSpecs, new ParsedTagSpec[]{first, second});
+
+        // Resolved once.
+        Assert.assertSame(parsedReferencePoints.tagSpecs(rules), tagSpecs);
+        Mockito.verify(rules, Mockito.times(1)).getTagSpecIdByReferencePointTagSpecName("first");
+        Mockito.verify(rules, Mockito.times(1)).getByTagSpecId(5);
+    }
 }
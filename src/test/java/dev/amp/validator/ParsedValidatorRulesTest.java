@@ -34,6 +34,7 @@ import org.testng.annotations.Test;
 import org.xml.sax.Attributes;
 import org.xml.sax.Locator;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -133,6 +134,8 @@ public class ParsedValidatorRulesTest {
         rulesBuilder.setTemplateSpecUrl(TEMPLATE_SPEC_URL);
 
         Mockito.when(mockValidationManager.getRules()).thenReturn(rulesBuilder);
+        Mockito.when(mockValidationManager.getGlobalTagSpecChecks(htmlFormatCode))
+                .thenAnswer(invocation -> new GlobalTagSpecChecks(rulesBuilder, htmlFormatCode));
     }
 
     @Test
@@ -299,6 +302,57 @@ public class ParsedValidatorRulesTest {
 
     }
 
+    @Test
+    public void testBetterValidationResultThanForAttempts() throws ValidatorException {
+        final ParsedValidatorRules rules = new ParsedValidatorRules(htmlFormatCode, mockValidationManager);
+
+        Assert.assertEquals(rules.specificity(ValidatorProtos.ValidationError.Code.MANDATORY_PROPERTY_MISSING_FROM_ATTR_VALUE), 33);
+        Assert.assertEquals(rules.specificity(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG), 0);
+
+        ValidateTagResult attemptA = attempt(rules, ValidatorProtos.ValidationResult.Status.PASS);
+        ValidateTagResult attemptB = attempt(rules, ValidatorProtos.ValidationResult.Status.FAIL,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_TAG);
+        Assert.assertTrue(rules.betterValidationResultThan(attemptA, attemptB));
+        Assert.assertFalse(rules.betterValidationResultThan(attemptB, attemptA));
+
+        // Subset of error codes wins.
+        attemptA = attempt(rules, ValidatorProtos.ValidationResult.Status.FAIL,
+                ValidatorProtos.ValidationError.Code.MANDATORY_TAG_MISSING);
+        attemptB = attempt(rules, ValidatorProtos.ValidationResult.Status.FAIL,
+                ValidatorProtos.ValidationError.Code.MANDATORY_TAG_MISSING,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_TAG);
+        Assert.assertTrue(rules.betterValidationResultThan(attemptA, attemptB));
+        Assert.assertFalse(rules.betterValidationResultThan(attemptB, attemptA));
+
+        // Higher specificity wins.
+        attemptA = attempt(rules, ValidatorProtos.ValidationResult.Status.FAIL,
+                ValidatorProtos.ValidationError.Code.MANDATORY_PROPERTY_MISSING_FROM_ATTR_VALUE);
+        Assert.assertTrue(rules.betterValidationResultThan(attemptA, attemptB));
+        Assert.assertFalse(rules.betterValidationResultThan(attemptB, attemptA));
+
+        // Fewer errors win, equal attempts are not better.
+        attemptA = attempt(rules, ValidatorProtos.ValidationResult.Status.FAIL,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_TAG);
+        attemptB = attempt(rules, ValidatorProtos.ValidationResult.Status.FAIL,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_TAG,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_TAG);
+        Assert.assertTrue(rules.betterValidationResultThan(attemptA, attemptB));
+        Assert.assertFalse(rules.betterValidationResultThan(attemptA, attempt(rules,
+                ValidatorProtos.ValidationResult.Status.FAIL, ValidatorProtos.ValidationError.Code.DISALLOWED_TAG)));
+    }
+
+    private static ValidateTagResult attempt(final ParsedValidatorRules rules,
+                                             final ValidatorProtos.ValidationResult.Status status,
+                                             final ValidatorProtos.ValidationError.Code... codes) {
+        final ValidateTagResult result =
+                new ValidateTagResult(ValidatorProtos.ValidationResult.newBuilder().setStatus(status), null);
+        for (final ValidatorProtos.ValidationError.Code code : codes) {
+            result.deferError(new ValidationErrorRecord(ValidatorProtos.ValidationError.Severity.ERROR, code,
+                    1, 0, Collections.emptyList(), ""), rules.specificity(code));
+        }
+        return result;
+    }
+
     @Test
     public void testTypeIdentifiersDevAndDisallowedAttr() {
         final Attributes mockAttrs = Mockito.mock(Attributes.class);
@@ -600,23 +654,29 @@ public class ParsedValidatorRulesTest {
         final ParsedValidatorRules rules = new ParsedValidatorRules(htmlFormatCode, mockValidationManager);
 
         final Context mockContext = Mockito.mock(Context.class);
-        Mockito.when(mockContext.valueSetsProvided()).thenReturn(ImmutableSet.of("a", "b"));
+        Mockito.when(mockContext.valueSetsProvided())
+                .thenReturn(ImmutableMap.of(ValidatorProtos.AttrSpec.ValueSet.AMP_SCRIPT_IDS, ImmutableSet.of("a", "b")));
         final ValidatorProtos.ValidationError mismatchError = ValidatorProtos.ValidationError.newBuilder()
                 .setCode(ValidatorProtos.ValidationError.Code.DISALLOWED_PROPERTY_IN_ATTR_VALUE)
                 .build();
         Mockito.when(mockContext.valueSetsRequired())
-                .thenReturn(ImmutableMap.of("a", ImmutableList.of(ValidatorProtos.ValidationError.newBuilder()
+                .thenReturn(ImmutableMap.of(ValidatorProtos.AttrSpec.ValueSet.AMP_SCRIPT_IDS, ImmutableMap.of(
+                        "a", ImmutableList.of(ValidatorProtos.ValidationError.newBuilder()
                                 .setCode(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG)
                                 .build()),
-                "b", ImmutableList.of(ValidatorProtos.ValidationError.newBuilder()
+                        "b", ImmutableList.of(ValidatorProtos.ValidationError.newBuilder()
                                 .setCode(ValidatorProtos.ValidationError.Code.EXTENSION_UNUSED)
                                 .build()),
-                        "c", ImmutableList.of(mismatchError)));
+                        "c", ImmutableList.of(mismatchError)),
+                        ValidatorProtos.AttrSpec.ValueSet.TEMPLATE_IDS, ImmutableMap.of(
+                        "a", ImmutableList.of(mismatchError))));
 
         final ValidatorProtos.ValidationResult.Builder result = ValidatorProtos.ValidationResult.newBuilder();
 
         rules.maybeEmitValueSetMismatchErrors(mockContext, result);
-        Mockito.verify(mockContext, Mockito.times(1)).addBuiltError(mismatchError, result);
+        Mockito.verify(mockContext, Mockito.times(2)).addBuiltError(mismatchError, result);
+        Mockito.verify(mockContext, Mockito.times(2))
+                .addBuiltError(Mockito.any(ValidatorProtos.ValidationError.class), Mockito.eq(result));
     }
 
     @Test
@@ -625,7 +685,9 @@ public class ParsedValidatorRulesTest {
 
         Context mockContext = Mockito.mock(Context.class);
 
-        Mockito.when(mockContext.getMandatoryAlternativesSatisfied()).thenReturn(ImmutableList.of("alternatives"));
+        final BitSet satisfied = new BitSet();
+        satisfied.set(rules.getMandatoryAlternativeId("alternatives"));
+        Mockito.when(mockContext.getMandatoryAlternativesSatisfied()).thenReturn(satisfied);
 
         final ValidatorProtos.ValidationResult.Builder result = ValidatorProtos.ValidationResult.newBuilder();
 
@@ -685,11 +747,15 @@ public class ParsedValidatorRulesTest {
         final ParsedValidatorRules rules = new ParsedValidatorRules(htmlFormatCode, mockValidationManager);
 
         Context mockContext = Mockito.mock(Context.class);
-        Mockito.when(mockContext.satisfiesCondition("requires")).thenReturn(false);
-        Mockito.when(mockContext.satisfiesCondition("excludes")).thenReturn(true);
-        Mockito.when(mockContext.getTagspecsValidated()).thenReturn(ImmutableMap.of(0, true,
-                2, true,
-                3, true));
+        Mockito.when(mockContext.satisfiesCondition(rules.getConditionId("requires"))).thenReturn(false);
+        Mockito.when(mockContext.satisfiesCondition(rules.getConditionId("excludes"))).thenReturn(true);
+        final BitSet tagspecsValidated = new BitSet();
+        tagspecsValidated.set(0);
+        tagspecsValidated.set(2);
+        tagspecsValidated.set(3);
+        Mockito.when(mockContext.getTagspecsValidated()).thenReturn(tagspecsValidated);
+        Mockito.when(mockContext.hasTagspecsValidated(Mockito.anyInt()))
+                .thenAnswer(invocation -> tagspecsValidated.get((Integer) invocation.getArguments()[0]));
         final ExtensionsContext mockExtContext = Mockito.mock(ExtensionsContext.class);
         Mockito.when(mockExtContext.unusedExtensionsRequired()).thenReturn(ImmutableList.of("unused_ext_1"));
 
@@ -751,6 +817,8 @@ public class ParsedValidatorRulesTest {
         final ExtensionsContext mockExtContext = Mockito.mock(ExtensionsContext.class);
         Mockito.when(mockExtContext.unusedExtensionsRequired()).thenReturn(ImmutableList.of("unused_ext_1"));
         Mockito.when(mockContext.getExtensions()).thenReturn(mockExtContext);
+        Mockito.when(mockContext.getMandatoryAlternativesSatisfied()).thenReturn(new BitSet());
+        Mockito.when(mockContext.getTagspecsValidated()).thenReturn(new BitSet());
 
         rules.maybeEmitGlobalTagValidationErrors(mockContext, result);
 
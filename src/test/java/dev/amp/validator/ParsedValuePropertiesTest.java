@@ -41,9 +41,39 @@ public class ParsedValuePropertiesTest {
         Assert.assertEquals(parsedValueProperties.getMandatoryValuePropertyNames().size(), 1);
         Assert.assertEquals(parsedValueProperties.getMandatoryValuePropertyNames().get(0), "prop1");
 
+        Assert.assertEquals(parsedValueProperties.getPropertyCount(), 2);
+        Assert.assertEquals(parsedValueProperties.getPropertyIndex(" PROP2 ", 1, 6), 1);
+        Assert.assertEquals(parsedValueProperties.getPropertyIndex("prop3", 0, 5), -1);
+        Assert.assertEquals(parsedValueProperties.getPropertyName(0), "prop1");
+        Assert.assertTrue(parsedValueProperties.getMandatoryProperties().get(0));
+        Assert.assertFalse(parsedValueProperties.getMandatoryProperties().get(1));
+
         parsedValueProperties.cleanup();
 
         Assert.assertNull(parsedValueProperties.getValuePropertyByName());
         Assert.assertNull(parsedValueProperties.getMandatoryValuePropertyNames());
     }
+
+    @Test
+    public void testGetPropertyIndex() {
+        final ValidatorProtos.PropertySpecList.Builder specListBuilder = ValidatorProtos.PropertySpecList.newBuilder();
+        final String[] names = {"width", "initial-scale", "minimum-scale", "height", "user-scalable", "a", "ab"};
+        for (final String name : names) {
+            specListBuilder.addProperties(ValidatorProtos.PropertySpec.newBuilder().setName(name).build());
+        }
+        final ParsedValueProperties parsedValueProperties = new ParsedValueProperties(specListBuilder.build());
+
+        for (final String name : names) {
+            final String value = "x=" + name.toUpperCase() + ",";
+            final int index = parsedValueProperties.getPropertyIndex(value, 2, 2 + name.length());
+            Assert.assertEquals(parsedValueProperties.getPropertyName(index), name);
+        }
+        Assert.assertEquals(parsedValueProperties.getPropertyIndex("abc", 0, 3), -1);
+        Assert.assertEquals(parsedValueProperties.getPropertyIndex("", 0, 0), -1);
+        Assert.assertEquals(parsedValueProperties.getPropertyIndex("zoom", 0, 4), -1);
+        // Non ASCII names are lower cased the way String.toLowerCase does.
+        Assert.assertEquals(parsedValueProperties.getPropertyName(
+                parsedValueProperties.getPropertyIndex("WIDT\u0048", 0, 5)), "width");
+        Assert.assertEquals(parsedValueProperties.getPropertyIndex("\u212a", 0, 1), -1);
+    }
 }
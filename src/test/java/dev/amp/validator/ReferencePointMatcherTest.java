@@ -128,6 +128,7 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint refPoint = refPointBuilder.build();
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint));
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{mockTagSpec});
 
 
         final ReferencePointMatcher refPointMatcher = new ReferencePointMatcher(mockRules, mockPoints, locator);
@@ -177,8 +178,8 @@ public class ReferencePointMatcherTest {
         final Context mockContext = Mockito.mock(Context.class);
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -189,6 +190,7 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint refPoint = refPointBuilder.build();
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint));
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{mockTagSpec});
 
 
         final ReferencePointMatcher refPointMatcher = new ReferencePointMatcher(mockRules, mockPoints, locator);
@@ -257,8 +259,8 @@ public class ReferencePointMatcherTest {
                                     Mockito.any(ValidatorProtos.ValidationResult.Builder.class));
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -271,6 +273,7 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint refPoint = refPointBuilder.build();
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint));
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{mockTagSpec});
         Mockito.when(mockPoints.size()).thenReturn(1);
 
         final ReferencePointMatcher refPointMatcher = new ReferencePointMatcher(mockRules, mockPoints, locator);
@@ -345,8 +348,8 @@ public class ReferencePointMatcherTest {
                 Mockito.any(ValidatorProtos.ValidationResult.Builder.class));
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -363,6 +366,7 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint refPoint2 = refPointBuilder2.build();
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint, refPoint2));
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{mockTagSpec, mockTagSpec});
         Mockito.when(mockPoints.size()).thenReturn(2);
 
         final ReferencePointMatcher refPointMatcher = new ReferencePointMatcher(mockRules, mockPoints, locator);
@@ -442,8 +446,8 @@ public class ReferencePointMatcherTest {
                 Mockito.any(ValidatorProtos.ValidationResult.Builder.class));
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -456,6 +460,7 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint refPoint = refPointBuilder.build();
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint));
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{mockTagSpec});
         Mockito.when(mockPoints.size()).thenReturn(1);
 
         final ReferencePointMatcher refPointMatcher = new ReferencePointMatcher(mockRules, mockPoints, locator);
@@ -504,9 +509,8 @@ public class ReferencePointMatcherTest {
         final Context mockContext = Mockito.mock(Context.class);
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
-        Mockito.when(mockRules.getReferencePointName(Mockito.any(ValidatorProtos.ReferencePoint.class))).thenReturn("refPoint1");
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -516,10 +520,11 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint.Builder refPointBuilder = ValidatorProtos.ReferencePoint.newBuilder();
 
         final ValidatorProtos.ReferencePoint refPoint = refPointBuilder.setMandatory(true).build();
-        Mockito.when(mockRules.getTagSpecIdByReferencePointTagSpecName(Mockito.anyString())).thenReturn(8);
 
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint));
+        final ParsedTagSpec refPointTagSpec = referencePointTagSpec(8, "refPoint1");
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{refPointTagSpec});
         Mockito.when(mockPoints.size()).thenReturn(2);
         Mockito.when(mockPoints.parentTagSpecName()).thenReturn("parent1");
         ValidatorProtos.ValidationResult.Builder builder = ValidatorProtos.ValidationResult.newBuilder();
@@ -594,9 +599,8 @@ public class ReferencePointMatcherTest {
         final Context mockContext = Mockito.mock(Context.class);
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
-        Mockito.when(mockRules.getReferencePointName(Mockito.any(ValidatorProtos.ReferencePoint.class))).thenReturn("refPoint1");
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -606,10 +610,11 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint.Builder refPointBuilder = ValidatorProtos.ReferencePoint.newBuilder();
 
         final ValidatorProtos.ReferencePoint refPoint = refPointBuilder.setUnique(true).build();
-        Mockito.when(mockRules.getTagSpecIdByReferencePointTagSpecName(Mockito.anyString())).thenReturn(10);
 
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint));
+        final ParsedTagSpec refPointTagSpec = referencePointTagSpec(10, "refPoint1");
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{refPointTagSpec});
         Mockito.when(mockPoints.size()).thenReturn(2);
         Mockito.when(mockPoints.parentTagSpecName()).thenReturn("parent1");
         ValidatorProtos.ValidationResult.Builder builder = ValidatorProtos.ValidationResult.newBuilder();
@@ -684,8 +689,8 @@ public class ReferencePointMatcherTest {
         final Context mockContext = Mockito.mock(Context.class);
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -700,10 +705,12 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint.Builder refPointBuilder2 = ValidatorProtos.ReferencePoint.newBuilder();
 
         final ValidatorProtos.ReferencePoint refPoint2 = refPointBuilder2.setUnique(true).build();
-        Mockito.when(mockRules.getTagSpecIdByReferencePointTagSpecName(Mockito.anyString())).thenReturn(8).thenReturn(10);
 
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint, refPoint2));
+        final ParsedTagSpec refPointTagSpec = referencePointTagSpec(8, "refPoint1");
+        final ParsedTagSpec refPointTagSpec2 = referencePointTagSpec(10, "refPoint1");
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{refPointTagSpec, refPointTagSpec2});
         Mockito.when(mockPoints.size()).thenReturn(2);
 
         ValidatorProtos.ValidationResult.Builder builder = ValidatorProtos.ValidationResult.newBuilder();
@@ -769,8 +776,8 @@ public class ReferencePointMatcherTest {
         final Context mockContext = Mockito.mock(Context.class);
 
         Mockito.when(mockRules.getByTagSpecId(Mockito.anyString())).thenReturn(mockTagSpec);
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final TagStack mockTagStack = Mockito.mock(TagStack.class);
@@ -785,10 +792,12 @@ public class ReferencePointMatcherTest {
         final ValidatorProtos.ReferencePoint.Builder refPointBuilder2 = ValidatorProtos.ReferencePoint.newBuilder();
 
         final ValidatorProtos.ReferencePoint refPoint2 = refPointBuilder2.build();
-        Mockito.when(mockRules.getTagSpecIdByReferencePointTagSpecName(Mockito.anyString())).thenReturn(8).thenReturn(10);
 
 
         Mockito.when(mockPoints.iterate()).thenReturn(ImmutableList.of(refPoint, refPoint2));
+        final ParsedTagSpec refPointTagSpec = referencePointTagSpec(8, "refPoint1");
+        final ParsedTagSpec refPointTagSpec2 = referencePointTagSpec(10, "refPoint1");
+        Mockito.when(mockPoints.tagSpecs(mockRules)).thenReturn(new ParsedTagSpec[]{refPointTagSpec, refPointTagSpec2});
         Mockito.when(mockPoints.size()).thenReturn(2);
 
         ValidatorProtos.ValidationResult.Builder builder = ValidatorProtos.ValidationResult.newBuilder();
@@ -811,4 +820,12 @@ public class ReferencePointMatcherTest {
 
         refPointMatcher.cleanup();
     }
+
+    private static ParsedTagSpec referencePointTagSpec(final int id, final String specName) {
+        final ParsedTagSpec tagSpec = Mockito.mock(ParsedTagSpec.class);
+        Mockito.when(tagSpec.id()).thenReturn(id);
+        Mockito.when(tagSpec.getSpec()).thenReturn(ValidatorProtos.TagSpec.newBuilder()
+                .setTagName("$REFERENCE_POINT").setSpecName(specName).build());
+        return tagSpec;
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tests for {@link ScriptPath}
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class ScriptPathTest {
+
+    @Test
+    public void testOf() {
+        final ScriptPath runtime = ScriptPath.of("https://cdn.ampproject.org/v0.js");
+        Assert.assertEquals(runtime.getPath(), "v0.js");
+        Assert.assertTrue(runtime.isRuntime());
+        Assert.assertFalse(runtime.isExtension());
+        Assert.assertTrue(runtime.isNomodule());
+        Assert.assertFalse(runtime.isLts());
+        Assert.assertSame(ScriptPath.of("https://cdn.ampproject.org/v0.js"), runtime);
+
+        final ScriptPath ltsRuntime = ScriptPath.of("https://cdn.ampproject.org/lts/v0.mjs?f=sxg");
+        Assert.assertTrue(ltsRuntime.isRuntime());
+        Assert.assertFalse(ltsRuntime.isModuleLts());
+
+        final ScriptPath extension = ScriptPath.of("https://cdn.ampproject.org/lts/v0/amp-access-laterpay-0.2.mjs");
+        Assert.assertFalse(extension.isRuntime());
+        Assert.assertTrue(extension.isExtension());
+        Assert.assertEquals(extension.getExtensionName(), "amp-access-laterpay");
+        Assert.assertEquals(extension.getExtensionVersion(), "0.2");
+        Assert.assertTrue(extension.isModuleLts());
+        Assert.assertFalse(extension.isModule());
+        Assert.assertFalse(extension.isNomodule());
+
+        final ScriptPath invalid = ScriptPath.of("https://cdn.ampproject.org/v0/amp_ad-0.1.js");
+        Assert.assertFalse(invalid.isRuntime());
+        Assert.assertFalse(invalid.isExtension());
+        Assert.assertNull(invalid.getExtensionName());
+        Assert.assertFalse(invalid.isNomodule());
+    }
+
+    @Test
+    public void testOfMatchesRegex() {
+        final String[] tokens = {"lts/", "LTS/", "v0", "V0", "/", "amp-", "AMP-", "ad", "Ad", "-", "0.1",
+            ".", ".js", ".mjs", ".JS", "?f=sxg", "?F=SXG", "x", "_", "\u0131", "\u017f", "foo/", "--", "1"};
+        final Random random = new Random(42);
+        for (int n = 0; n < 100000; n++) {
+            final StringBuilder path = new StringBuilder();
+            final int count = random.nextInt(9);
+            for (int i = 0; i < count; i++) {
+                path.append(tokens[random.nextInt(tokens.length)]);
+            }
+            final String p = path.toString();
+            final ScriptPath scriptPath = ScriptPath.of("https://cdn.ampproject.org/" + p);
+            Assert.assertEquals(scriptPath.isRuntime(), RUNTIME_SCRIPT_PATH_REGEX.matcher(p).find(), p);
+            final Matcher matcher = EXTENSION_SCRIPT_PATH_REGEX.matcher(p);
+            if (matcher.find()) {
+                Assert.assertEquals(scriptPath.getExtensionName(), matcher.group(1), p);
+                Assert.assertEquals(scriptPath.getExtensionVersion(), matcher.group(2), p);
+            } else {
+                Assert.assertFalse(scriptPath.isExtension(), p);
+            }
+            Assert.assertEquals(scriptPath.isModuleLts(), MODULE_LTS_SCRIPT_PATH_REGEX.matcher(p).find(), p);
+            Assert.assertEquals(scriptPath.isNomoduleLts(), NOMODULE_LTS_SCRIPT_PATH_REGEX.matcher(p).find(), p);
+            Assert.assertEquals(scriptPath.isModule(), MODULE_SCRIPT_PATH_REGEX.matcher(p).find(), p);
+            Assert.assertEquals(scriptPath.isNomodule(), NO_MODULE_SCRIPT_PATH_REGEX.matcher(p).find(), p);
+            Assert.assertEquals(scriptPath.isLts(), LTS_SCRIPT_PATH_REGEX.matcher(p).find(), p);
+        }
+    }
+
+    private static final Pattern RUNTIME_SCRIPT_PATH_REGEX =
+            Pattern.compile("^(lts\\/)?v0\\.m?js(\\?f=sxg)?$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern MODULE_LTS_SCRIPT_PATH_REGEX =
+            Pattern.compile("^lts\\/(v0|v0\\/amp-[a-z0-9-]*-[a-z0-9.]*)\\.mjs$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern NOMODULE_LTS_SCRIPT_PATH_REGEX =
+            Pattern.compile("lts\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern MODULE_SCRIPT_PATH_REGEX =
+            Pattern.compile("^(v0|v0\\/amp-[a-z0-9-]*-[a-z0-9.]*)\\.mjs$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern NO_MODULE_SCRIPT_PATH_REGEX =
+            Pattern.compile("(v0|v0\\/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern LTS_SCRIPT_PATH_REGEX =
+            Pattern.compile("^lts\\/(v0|v0/amp-[a-z0-9-]*-[a-z0-9.]*)\\.js$", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern EXTENSION_SCRIPT_PATH_REGEX =
+            Pattern.compile("^(?:lts\\/)?v0\\/(amp-[a-z0-9-]*)-([a-z0-9.]*)\\.(?:m)?js(?:\\?f=sxg)?$",
+                    Pattern.CASE_INSENSITIVE);
+}
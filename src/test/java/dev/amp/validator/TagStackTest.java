@@ -261,6 +261,15 @@ public class TagStackTest {
         Assert.assertFalse(tagStack.hasAncestor("test_satisfies"));
 
         Assert.assertTrue(tagStack.hasAncestorMarker(ValidatorProtos.AncestorMarker.Marker.AUTOSCROLL));
+
+        // Leaving the tag drops its name, spec name and markers again.
+        tagStack.exitTag(mock(Context.class), validationBuilder);
+        Assert.assertTrue(tagStack.hasAncestor("!DOCTYPE"));
+        Assert.assertFalse(tagStack.hasAncestor("test_satisfies_parent_head"));
+        Assert.assertFalse(tagStack.hasAncestorMarker(ValidatorProtos.AncestorMarker.Marker.AUTOSCROLL));
+
+        tagStack.exitTag(mock(Context.class), validationBuilder);
+        Assert.assertFalse(tagStack.hasAncestor("!DOCTYPE"));
     }
 
     @Test(expectedExceptions = TagValidationException.class, expectedExceptionsMessageRegExp = "Ancestor marker is unknown")
@@ -282,6 +291,47 @@ public class TagStackTest {
         tagStack.exitTag(context, validationBuilder);
     }
 
+    @Test
+    public void testDeepStackReusesEntries() throws TagValidationException {
+        final TagStack tagStack = new TagStack();
+        final Locator lineCol = mock(Locator.class);
+        mockValidatorRules = new ParsedValidatorRules(ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ampValidatorManager);
+        final ValidatorProtos.ValidationResult.Builder validationBuilder = ValidatorProtos.ValidationResult.newBuilder();
+        validationBuilder.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
+        final ValidateTagResult mockReferencePointResult = mock(ValidateTagResult.class);
+        when(mockReferencePointResult.getValidationResult()).thenReturn(validationBuilder);
+        final ValidateTagResult mockTagResult = mock(ValidateTagResult.class);
+        when(mockTagResult.getValidationResult()).thenReturn(validationBuilder);
+        final Context context = mock(Context.class);
+
+        final ParsedHtmlTag htmlTag = mock(ParsedHtmlTag.class);
+        for (int i = 0; i < 100; i++) {
+            when(htmlTag.upperName()).thenReturn("DIV" + i);
+            tagStack.updateFromTagResults(htmlTag, mockReferencePointResult, mockTagResult, mockValidatorRules, lineCol);
+        }
+        Assert.assertEquals(tagStack.back().getTagName(), "DIV99");
+        Assert.assertEquals(tagStack.parentChildCount(), 0);
+        Assert.assertTrue(tagStack.hasAncestor("DIV0"));
+
+        final TagStackEntry deepest = tagStack.back();
+        for (int i = 0; i < 100; i++) {
+            tagStack.exitTag(context, validationBuilder);
+        }
+        Assert.assertEquals(tagStack.parentTagName(), "!DOCTYPE");
+        Assert.assertEquals(tagStack.parentChildCount(), 1);
+        Assert.assertFalse(tagStack.hasAncestor("DIV0"));
+
+        when(htmlTag.upperName()).thenReturn("SPAN");
+        for (int i = 0; i < 100; i++) {
+            tagStack.updateFromTagResults(htmlTag, mockReferencePointResult, mockTagResult, mockValidatorRules, lineCol);
+        }
+        // The entries of the exited tags are reset and reused.
+        Assert.assertSame(tagStack.back(), deepest);
+        Assert.assertEquals(tagStack.back().getTagName(), "SPAN");
+        Assert.assertEquals(tagStack.back().getNumChildren(), 0);
+        Assert.assertFalse(tagStack.hasAncestor("DIV0"));
+    }
+
     @Test
     public void testExitTag() throws TagValidationException {
         final TagStack tagStack = new TagStack();
@@ -403,7 +453,8 @@ public class TagStackTest {
         tagStack.updateStackEntryFromTagResult(mockTagResult, mockValidatorRules, lineCol);
 
         Assert.assertNotNull(tagStack.parentStackEntry().getChildTagMatcher());
-        Assert.assertNotNull(tagStack.cdataMatcher());
+        // test_parent has no cdata spec, so no cdata matcher is created.
+        Assert.assertNull(tagStack.cdataMatcher());
     }
 
     @Test
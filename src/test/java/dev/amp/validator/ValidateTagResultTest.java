@@ -25,6 +25,8 @@ import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Collections;
+
 /**
  * Test for {@link ValidateTagResult}
  *
@@ -50,4 +52,32 @@ public class ValidateTagResultTest {
         Assert.assertEquals(validateTagResult.getBestMatchTagSpec(), mockParsedTagSpec2);
         Assert.assertEquals(validateTagResult.getValidationResult(), validationResult2);
     }
+
+    @Test
+    public void testMaterializeDeferredErrors() {
+        final ValidatorProtos.ValidationResult.Builder validationResult = ValidatorProtos.ValidationResult.newBuilder();
+        final ValidateTagResult validateTagResult = new ValidateTagResult(validationResult, null);
+        Assert.assertTrue(validateTagResult.getDeferredErrors().isEmpty());
+
+        validateTagResult.deferError(new ValidationErrorRecord(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_TAG, 1, 2, Collections.singletonList("foo"), null), 7);
+        validateTagResult.deferError(new ValidationErrorRecord(ValidatorProtos.ValidationError.Severity.WARNING,
+                ValidatorProtos.ValidationError.Code.DEPRECATED_TAG, 3, 4, Collections.emptyList(), "url"), 3);
+        Assert.assertEquals(validateTagResult.getDeferredErrors().size(), 2);
+        Assert.assertEquals(validateTagResult.getErrorCount(), 2);
+        Assert.assertEquals(validateTagResult.getMaxSpecificity(), 7);
+        Assert.assertTrue(validateTagResult.getErrorCodes().get(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG_VALUE));
+        Assert.assertTrue(validateTagResult.getErrorCodes().get(ValidatorProtos.ValidationError.Code.DEPRECATED_TAG_VALUE));
+        Assert.assertEquals(validationResult.getErrorsCount(), 0);
+
+        validateTagResult.materializeDeferredErrors();
+        Assert.assertTrue(validateTagResult.getDeferredErrors().isEmpty());
+        Assert.assertEquals(validationResult.getErrorsCount(), 2);
+        Assert.assertEquals(validationResult.getErrors(0).getCode(), ValidatorProtos.ValidationError.Code.DISALLOWED_TAG);
+        Assert.assertEquals(validationResult.getErrors(0).getParams(0), "foo");
+        Assert.assertEquals(validationResult.getErrors(0).getSpecUrl(), "");
+        Assert.assertEquals(validationResult.getErrors(1).getSeverity(), ValidatorProtos.ValidationError.Severity.WARNING);
+        Assert.assertEquals(validationResult.getErrors(1).getLine(), 3);
+        Assert.assertEquals(validationResult.getErrors(1).getCol(), 4);
+    }
 }
@@ -0,0 +1,220 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator;
+
+import dev.amp.validator.utils.ValidationErrorUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test for {@link ValidationResultAccumulator}
+ */
+public class ValidationResultAccumulatorTest {
+
+    @Test
+    public void testAppendAndFlush() {
+        final ValidatorProtos.ValidationResult.Builder documentResult = ValidatorProtos.ValidationResult.newBuilder();
+        documentResult.setStatus(ValidatorProtos.ValidationResult.Status.UNKNOWN);
+        final ValidationResultAccumulator accumulator = new ValidationResultAccumulator(documentResult);
+        Assert.assertTrue(accumulator.accumulatesFor(documentResult));
+        Assert.assertFalse(accumulator.accumulatesFor(ValidatorProtos.ValidationResult.newBuilder()));
+
+        final ValidatorProtos.ValidationResult.Builder tagResult = ValidatorProtos.ValidationResult.newBuilder();
+        tagResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
+        tagResult.addErrors(error(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG));
+        tagResult.addValueSetProvisions(ValidatorProtos.ValueSetProvision.newBuilder().setValue("a"));
+        tagResult.addValueSetRequirements(ValidatorProtos.ValueSetRequirement.newBuilder());
+        accumulator.append(tagResult);
+        accumulator.addError(error(ValidatorProtos.ValidationError.Code.DEPRECATED_TAG));
+
+        // Status is taken over right away, the repeated fields only on flush.
+        Assert.assertEquals(documentResult.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(documentResult.getErrorsCount(), 0);
+
+        final ValidatorProtos.ValidationResult.Builder passingResult = ValidatorProtos.ValidationResult.newBuilder();
+        passingResult.setStatus(ValidatorProtos.ValidationResult.Status.PASS);
+        accumulator.append(passingResult);
+        Assert.assertEquals(documentResult.getStatus(), ValidatorProtos.ValidationResult.Status.PASS);
+
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrorsCount(), 2);
+        Assert.assertEquals(documentResult.getErrors(0).getCode(), ValidatorProtos.ValidationError.Code.DISALLOWED_TAG);
+        Assert.assertEquals(documentResult.getErrors(1).getCode(), ValidatorProtos.ValidationError.Code.DEPRECATED_TAG);
+        Assert.assertEquals(documentResult.getValueSetProvisionsCount(), 1);
+        Assert.assertEquals(documentResult.getValueSetRequirementsCount(), 1);
+
+        // Flushing again does not add anything twice.
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrorsCount(), 2);
+    }
+
+    @Test
+    public void testAggregateErrors() {
+        final ValidatorProtos.ValidationResult.Builder documentResult = ValidatorProtos.ValidationResult.newBuilder();
+        final ValidationResultAccumulator accumulator = new ValidationResultAccumulator(documentResult);
+        Assert.assertTrue(accumulator.getAggregatedErrors().isEmpty());
+        accumulator.setAggregateErrors(true);
+
+        accumulator.addError(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR, 1, 2,
+                Arrays.asList(new String("onclick"), "td"), "https://amp.dev/td");
+        accumulator.addError(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR, 3, 4,
+                Arrays.asList(new String("onclick"), "td"), "https://amp.dev/td");
+        accumulator.addError(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR, 5, 6,
+                Arrays.asList("onload", "td"), "https://amp.dev/td");
+        final ValidatorProtos.ValidationResult.Builder tagResult = ValidatorProtos.ValidationResult.newBuilder();
+        tagResult.addErrors(ValidationErrorUtils.populateError(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR, 7, 8,
+                Arrays.asList("onclick", "td"), "https://amp.dev/td"));
+        accumulator.append(tagResult);
+        accumulator.flush();
+
+        // Only the first occurrence of each error is built, with its position.
+        Assert.assertEquals(documentResult.getErrorsCount(), 2);
+        Assert.assertEquals(documentResult.getErrors(0).getLine(), 1);
+        Assert.assertEquals(documentResult.getErrors(0).getCol(), 2);
+        Assert.assertEquals(documentResult.getErrors(0).getParamsList(), Arrays.asList("onclick", "td"));
+        Assert.assertEquals(documentResult.getErrors(0).getSpecUrl(), "https://amp.dev/td");
+        Assert.assertEquals(documentResult.getErrors(1).getParams(0), "onload");
+
+        final List<ValidationErrorRecord> records = accumulator.getAggregatedErrors();
+        Assert.assertEquals(records.size(), 2);
+        Assert.assertEquals(records.get(0).getOccurrences(), 3);
+        Assert.assertEquals(records.get(0).getLine(), 1);
+        Assert.assertEquals(records.get(1).getOccurrences(), 1);
+        // Params of the records are shared within the document.
+        accumulator.addError(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR, 11, 12,
+                Arrays.asList(new String("onclick"), "tr"), "https://amp.dev/tr");
+        Assert.assertSame(records.get(2).getParams().get(0), records.get(0).getParams().get(0));
+
+        // Errors seen before a flush are still aggregated after it.
+        accumulator.addError(ValidationErrorUtils.populateError(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR, 9, 10,
+                Arrays.asList("onload", "td"), "https://amp.dev/td"));
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrorsCount(), 3);
+        Assert.assertEquals(records.get(1).getOccurrences(), 2);
+    }
+
+    @Test
+    public void testErrorLimit() {
+        final ValidatorProtos.ValidationResult.Builder documentResult = ValidatorProtos.ValidationResult.newBuilder();
+        final ValidationResultAccumulator accumulator = new ValidationResultAccumulator(documentResult);
+        accumulator.setErrorLimit(ExitCondition.EXIT_ON_MAX_ERRORS, 2);
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DEPRECATED_TAG));
+        Assert.assertTrue(accumulator.acceptsError(ValidatorProtos.ValidationError.Severity.ERROR));
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DEPRECATED_ATTR));
+        Assert.assertFalse(accumulator.acceptsError(ValidatorProtos.ValidationError.Severity.ERROR));
+        // The limit is only reached once the document failed.
+        Assert.assertFalse(accumulator.isErrorLimitReached());
+        documentResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertTrue(accumulator.isErrorLimitReached());
+        accumulator.addError(error(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG));
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrorsCount(), 2);
+        Assert.assertEquals(documentResult.getErrors(1).getCode(), ValidatorProtos.ValidationError.Code.DEPRECATED_ATTR);
+    }
+
+    @Test
+    public void testErrorLimitKeepWarnings() {
+        final ValidatorProtos.ValidationResult.Builder documentResult = ValidatorProtos.ValidationResult.newBuilder();
+        final ValidationResultAccumulator accumulator = new ValidationResultAccumulator(documentResult);
+        accumulator.setErrorLimit(ExitCondition.EXIT_ON_FIRST_ERROR_KEEP_WARNINGS, 2);
+        documentResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
+        accumulator.addError(error(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG));
+        accumulator.addError(error(ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR));
+        Assert.assertFalse(accumulator.acceptsError(ValidatorProtos.ValidationError.Severity.ERROR));
+        Assert.assertTrue(accumulator.acceptsError(ValidatorProtos.ValidationError.Severity.WARNING));
+        Assert.assertFalse(accumulator.isErrorLimitReached());
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DEPRECATED_TAG));
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DEPRECATED_ATTR));
+        Assert.assertTrue(accumulator.isErrorLimitReached());
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DUPLICATE_ATTRIBUTE));
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrorsCount(), 3);
+        Assert.assertEquals(documentResult.getErrors(0).getCode(), ValidatorProtos.ValidationError.Code.DISALLOWED_TAG);
+        Assert.assertEquals(documentResult.getErrors(2).getCode(), ValidatorProtos.ValidationError.Code.DEPRECATED_ATTR);
+    }
+
+    @Test
+    public void testErrorLimitKeepWarningsWithoutBound() {
+        final ValidatorProtos.ValidationResult.Builder documentResult = ValidatorProtos.ValidationResult.newBuilder();
+        final ValidationResultAccumulator accumulator = new ValidationResultAccumulator(documentResult);
+        accumulator.setErrorLimit(ExitCondition.EXIT_ON_FIRST_ERROR_KEEP_WARNINGS, 0);
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DEPRECATED_TAG));
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DEPRECATED_ATTR));
+        Assert.assertTrue(accumulator.acceptsError(ValidatorProtos.ValidationError.Severity.WARNING));
+        documentResult.setStatus(ValidatorProtos.ValidationResult.Status.FAIL);
+        accumulator.addError(error(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG));
+        // Without a bound on warnings, the first error ends the document.
+        Assert.assertFalse(accumulator.acceptsError(ValidatorProtos.ValidationError.Severity.WARNING));
+        Assert.assertTrue(accumulator.isErrorLimitReached());
+        accumulator.addError(warning(ValidatorProtos.ValidationError.Code.DUPLICATE_ATTRIBUTE));
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrorsCount(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testErrorLimitRequiresMaxErrors() {
+        final ValidationResultAccumulator accumulator =
+                new ValidationResultAccumulator(ValidatorProtos.ValidationResult.newBuilder());
+        accumulator.setErrorLimit(ExitCondition.EXIT_ON_MAX_ERRORS, 0);
+    }
+
+    @Test
+    public void testStatusOnly() {
+        final ValidatorProtos.ValidationResult.Builder documentResult = ValidatorProtos.ValidationResult.newBuilder();
+        final ValidationResultAccumulator accumulator = new ValidationResultAccumulator(documentResult);
+        accumulator.setErrorLimit(ExitCondition.STATUS_ONLY, 10);
+        accumulator.addError(ValidationErrorUtils.populateError(ValidatorProtos.ValidationError.Severity.ERROR,
+                ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR, 7, 8,
+                Arrays.asList("onclick", "td"), "https://amp.dev/td"));
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrors(0), ValidationErrorUtils.populateCodeOnlyError(
+                ValidatorProtos.ValidationError.Severity.ERROR, ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR));
+        Assert.assertFalse(documentResult.getErrors(0).hasLine());
+        Assert.assertEquals(documentResult.getErrors(0).getParamsCount(), 0);
+
+        // Errors not built yet are kept with only their severity and code.
+        accumulator.addError(ValidatorProtos.ValidationError.Severity.WARNING,
+                ValidatorProtos.ValidationError.Code.DEPRECATED_ATTR, 9, 10,
+                Arrays.asList("onload", "td"), "https://amp.dev/td");
+        accumulator.flush();
+        Assert.assertEquals(documentResult.getErrors(1), ValidationErrorUtils.populateCodeOnlyError(
+                ValidatorProtos.ValidationError.Severity.WARNING, ValidatorProtos.ValidationError.Code.DEPRECATED_ATTR));
+    }
+
+    private static ValidatorProtos.ValidationError warning(final ValidatorProtos.ValidationError.Code code) {
+        return ValidatorProtos.ValidationError.newBuilder()
+                .setSeverity(ValidatorProtos.ValidationError.Severity.WARNING).setCode(code).build();
+    }
+
+    private static ValidatorProtos.ValidationError error(final ValidatorProtos.ValidationError.Code code) {
+        return ValidatorProtos.ValidationError.newBuilder().setCode(code).build();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.css;
+
+import com.steadystate.css.parser.SACParserCSS3Constants;
+import com.steadystate.css.parser.Token;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link CssTokenUtil}
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class CssTokenUtilTest {
+
+    @Test
+    public void testGetTokenType() {
+        Assert.assertEquals(CssTokenUtil.getTokenType(new Token(SACParserCSS3Constants.IDENT, "a")), TokenType.IDENT);
+        Assert.assertEquals(CssTokenUtil.getTokenType(new Token(SACParserCSS3Constants.MEDIA_SYM, "@media")),
+                TokenType.AT_KEYWORD);
+        Assert.assertEquals(CssTokenUtil.getTokenType(new Token(SACParserCSS3Constants.GREATER, ">")), TokenType.DELIM);
+        Assert.assertEquals(CssTokenUtil.getTokenType(new EOFToken()), TokenType.EOF_TOKEN);
+        Assert.assertNull(CssTokenUtil.getTokenType(new Token(-1, "")));
+    }
+
+    @Test
+    public void testEqualsIgnoreAsciiCase() {
+        Assert.assertTrue(CssTokenUtil.equalsIgnoreAsciiCase("MeDia", "media"));
+        Assert.assertTrue(CssTokenUtil.equalsIgnoreAsciiCase("", ""));
+        Assert.assertFalse(CssTokenUtil.equalsIgnoreAsciiCase("medias", "media"));
+        Assert.assertFalse(CssTokenUtil.equalsIgnoreAsciiCase("m\u00c9dia", "m\u00e9dia"));
+    }
+
+    @Test
+    public void testToAsciiLowerCase() {
+        final String lower = "font-size";
+        Assert.assertSame(CssTokenUtil.toAsciiLowerCase(lower), lower);
+        Assert.assertEquals(CssTokenUtil.toAsciiLowerCase("Font-SIZE"), "font-size");
+        Assert.assertEquals(CssTokenUtil.toAsciiLowerCase("\u00c9M"), "\u00c9m");
+    }
+
+    @Test
+    public void testInternIdentifier() {
+        final String name = new String(new char[]{'c', 'o', 'l', 'o', 'r'});
+        final String other = new String(new char[]{'c', 'o', 'l', 'o', 'r'});
+        Assert.assertSame(CssTokenUtil.internIdentifier(other), CssTokenUtil.internIdentifier(name));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.css;
+
+import dev.amp.validator.ValidatorProtos;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link StylesheetCache}
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class StylesheetCacheTest {
+
+    @Test
+    public void testGetOrParse() throws Exception {
+        final StylesheetCache cache = new StylesheetCache(1000);
+        final String css = "a { color: red }\nb { @ }\n";
+
+        final ParsedStylesheet parsed = cache.getOrParse(css);
+        Assert.assertSame(cache.getOrParse(css), parsed);
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertNotNull(parsed.getStylesheet());
+
+        cache.invalidateAll();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertNotSame(cache.getOrParse(css), parsed);
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final StylesheetCache cache = new StylesheetCache(20);
+        final String first = "a { color: red }";
+        final String second = "b { color: red }";
+
+        cache.getOrParse(first);
+        cache.getOrParse(second);
+        Assert.assertEquals(cache.size(), 1);
+        cache.getOrParse(second);
+        Assert.assertEquals(cache.getHitCount(), 1);
+
+        // Longer than the bound, parsed but not cached.
+        cache.getOrParse("a { color: red } b { color: blue }");
+        Assert.assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testErrorsAreCopied() throws Exception {
+        final ParsedStylesheet parsed = ParsedStylesheet.parse("a { color: red }\n\n b");
+        Assert.assertEquals(parsed.getErrorCount(), 1);
+
+        final List<ErrorToken> errors = new ArrayList<>();
+        parsed.addErrorsTo(errors);
+        Assert.assertEquals(errors.get(0).getCode(),
+                ValidatorProtos.ValidationError.Code.CSS_SYNTAX_EOF_IN_PRELUDE_OF_QUALIFIED_RULE);
+        final int line = errors.get(0).getLine();
+        errors.get(0).getParams().set(0, "style amp-custom");
+        errors.get(0).setLine(line + 10);
+
+        final List<ErrorToken> again = new ArrayList<>();
+        parsed.addErrorsTo(again);
+        Assert.assertEquals(again.get(0).getParams().get(0), "style");
+        Assert.assertEquals(again.get(0).getLine(), line);
+    }
+}
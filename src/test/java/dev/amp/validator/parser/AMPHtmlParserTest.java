@@ -23,6 +23,7 @@ package dev.amp.validator.parser;
 
 import dev.amp.validator.ValidatorProtos;
 import dev.amp.validator.ExitCondition;
+import dev.amp.validator.css.StylesheetCache;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -60,6 +61,361 @@ public class AMPHtmlParserTest {
         }
     }
 
+    @Test
+    public void testLatencyLargeDocument() {
+        // 5,000 elements, every 100th one carries a disallowed attribute.
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                .append("<style amp4email-boilerplate>body{visibility:hidden}</style></head><body>\n");
+        final int elements = 5000;
+        for (int i = 0; i < elements / 2; i++) {
+            if (i % 50 == 0) {
+                sb.append("<div onclick=\"go()\"><span>").append(i).append("</span></div>\n");
+            } else {
+                sb.append("<div><span>").append(i).append("</span></div>\n");
+            }
+        }
+        sb.append("</body></html>");
+        final String inputHtml = sb.toString();
+
+        final int maxNode = 10000;
+        ValidatorProtos.ValidationResult result = null;
+        final long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            result = ampHtmlParser.parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        }
+        final long elapsedTime = System.currentTimeMillis() - startTime;
+        System.out.println("Elapsed (5,000 elements x 20): " + elapsedTime + "ms");
+
+        Assert.assertEquals(result.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(result.getErrorsCount(), elements / 100);
+        for (final ValidatorProtos.ValidationError error : result.getErrorsList()) {
+            Assert.assertEquals(error.getCode(), ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR);
+        }
+    }
+
+    @Test
+    public void testLatencyImageHeavyDocument() {
+        // 1,500 images, every 10th one with a relative src which email does not allow.
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                .append("<style amp4email-boilerplate>body{visibility:hidden}</style></head><body>\n");
+        final int images = 1500;
+        for (int i = 0; i < images; i++) {
+            final String src = (i % 10 == 0) ? "/images/" + i + ".png" : "https://example.com/images/" + i + ".png";
+            sb.append("<amp-img src=\"").append(src)
+                    .append("\" width=\"100\" height=\"100\" layout=\"responsive\"></amp-img>\n");
+        }
+        sb.append("</body></html>");
+        final String inputHtml = sb.toString();
+
+        final int maxNode = 10000;
+        ValidatorProtos.ValidationResult result = null;
+        final long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            result = ampHtmlParser.parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        }
+        final long elapsedTime = System.currentTimeMillis() - startTime;
+        System.out.println("Elapsed (1,500 images x 20): " + elapsedTime + "ms");
+
+        Assert.assertEquals(result.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(result.getErrorsCount(), images / 10);
+        for (final ValidatorProtos.ValidationError error : result.getErrorsList()) {
+            Assert.assertEquals(error.getCode(), ValidatorProtos.ValidationError.Code.DISALLOWED_RELATIVE_URL);
+        }
+    }
+
+    @Test
+    public void testLatencyTemplateHeavyDocument() {
+        // 600 template rows full of mustache attribute values, every 20th one with
+        // an unescaped tag which is not allowed in attribute values.
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                .append("<script async custom-template=\"amp-mustache\" ")
+                .append("src=\"https://cdn.ampproject.org/v0/amp-mustache-0.2.js\"></script>")
+                .append("<style amp4email-boilerplate>body{visibility:hidden}</style></head><body>\n")
+                .append("<template type=\"amp-mustache\">{{#items}}\n");
+        final int rows = 600;
+        for (int i = 0; i < rows; i++) {
+            final String title = (i % 20 == 0) ? "{{{title}}}" : "{{title}}";
+            sb.append("<div class=\"{{cls}}\" title=\"").append(title).append("\">")
+                    .append("<amp-img src=\"{{url}}\" width=\"{{w}}\" height=\"{{h}}\" layout=\"{{layout}}\" ")
+                    .append("alt=\"{{alt}} ").append(i).append("\"></amp-img>")
+                    .append("<a href=\"{{link}}\">{{name}}</a></div>\n");
+        }
+        sb.append("{{/items}}</template></body></html>");
+        final String inputHtml = sb.toString();
+
+        final int maxNode = 10000;
+        ValidatorProtos.ValidationResult result = null;
+        final long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            result = ampHtmlParser.parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        }
+        final long elapsedTime = System.currentTimeMillis() - startTime;
+        System.out.println("Elapsed (600 template rows x 20): " + elapsedTime + "ms");
+
+        Assert.assertEquals(result.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(result.getErrorsCount(), rows / 20);
+        for (final ValidatorProtos.ValidationError error : result.getErrorsList()) {
+            Assert.assertEquals(error.getCode(), ValidatorProtos.ValidationError.Code.UNESCAPED_TEMPLATE_IN_ATTR_VALUE);
+        }
+    }
+
+    @Test
+    public void testLatencyInvalidSelectors() {
+        // A stylesheet of 2,000 rules, every other one with a nameless
+        // attribute selector.
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                .append("<style amp4email-boilerplate>body{visibility:hidden}</style>")
+                .append("<style amp-custom>\n");
+        final int rules = 2000;
+        for (int i = 0; i < rules; i++) {
+            if (i % 2 == 0) {
+                sb.append(".c").append(i).append("[=x]{color:red}\n");
+            } else {
+                sb.append(".c").append(i).append(" p{color:red}\n");
+            }
+        }
+        sb.append("</style></head><body><p>Hello</p></body></html>");
+        final String inputHtml = sb.toString();
+
+        final int maxNode = 10000;
+        ValidatorProtos.ValidationResult result = null;
+        final long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            result = ampHtmlParser.parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        }
+        final long elapsedTime = System.currentTimeMillis() - startTime;
+        System.out.println("Elapsed (2,000 css rules x 20): " + elapsedTime + "ms");
+
+        Assert.assertEquals(result.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(result.getErrorsCount(), rules / 2);
+        for (final ValidatorProtos.ValidationError error : result.getErrorsList()) {
+            Assert.assertEquals(error.getCode(), ValidatorProtos.ValidationError.Code.CSS_SYNTAX_INVALID_ATTR_SELECTOR);
+        }
+    }
+
+    @Test
+    public void testLatencyWithResultCache() throws ParserException {
+        // 40 distinct documents requested 200 times, 80% of the requests are duplicates.
+        final int documents = 40;
+        final int requests = 200;
+        final String[] inputHtmls = new String[documents];
+        for (int d = 0; d < documents; d++) {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                    .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                    .append("<style amp4email-boilerplate>body{visibility:hidden}</style></head><body>\n");
+            for (int i = 0; i < 250; i++) {
+                sb.append("<div><span>").append(d).append('-').append(i).append("</span></div>\n");
+            }
+            sb.append("</body></html>");
+            inputHtmls[d] = sb.toString();
+        }
+        final int[] order = new int[requests];
+        final java.util.Random random = new java.util.Random(42);
+        for (int r = 0; r < requests; r++) {
+            order[r] = (r < documents) ? r : random.nextInt(documents);
+        }
+
+        final int maxNode = 10000;
+        final ValidatorProtos.ValidationResult[] uncached = new ValidatorProtos.ValidationResult[requests];
+        long startTime = System.currentTimeMillis();
+        for (int r = 0; r < requests; r++) {
+            uncached[r] = ampHtmlParser.parse(inputHtmls[order[r]],
+                    ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        }
+        final long uncachedTime = System.currentTimeMillis() - startTime;
+
+        final ValidationResultCache cache = new ValidationResultCache(16 * 1024 * 1024, 0);
+        final AMPHtmlParser cachingParser = new AMPHtmlParser(cache);
+        startTime = System.currentTimeMillis();
+        for (int r = 0; r < requests; r++) {
+            final ValidatorProtos.ValidationResult result = cachingParser.parse(inputHtmls[order[r]],
+                    ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+            Assert.assertEquals(result, uncached[r]);
+        }
+        final long cachedTime = System.currentTimeMillis() - startTime;
+        System.out.println("Elapsed (200 requests, 80% duplicates): " + uncachedTime + "ms, with result cache: "
+                + cachedTime + "ms, hit ratio " + cache.getHitRatio());
+
+        Assert.assertEquals(cache.getHitCount(), requests - documents);
+        Assert.assertEquals(cache.getMissCount(), documents);
+        Assert.assertTrue(cachedTime < uncachedTime);
+    }
+
+    @Test
+    public void testLatencyWithStylesheetCache() throws ParserException {
+        // 20 documents sharing a stylesheet of 1,000 rules with some errors,
+        // the style tag is on a different column in each document.
+        final StringBuilder css = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 100 == 0) {
+                css.append(".c").append(i).append("[=x]{color:red}\n");
+            } else {
+                css.append(".c").append(i).append(" p{color:red}\n");
+            }
+        }
+        final int documents = 20;
+        final String[] inputHtmls = new String[documents];
+        for (int d = 0; d < documents; d++) {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                    .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                    .append("<style amp4email-boilerplate>body{visibility:hidden}</style>");
+            for (int i = 0; i < d; i++) {
+                sb.append(' ');
+            }
+            sb.append("<style amp-custom>\n").append(css).append("</style></head><body><p>")
+                    .append(d).append("</p></body></html>");
+            inputHtmls[d] = sb.toString();
+        }
+
+        final int maxNode = 10000;
+        final ValidatorProtos.ValidationResult[] uncached = new ValidatorProtos.ValidationResult[documents];
+        long startTime = System.currentTimeMillis();
+        for (int d = 0; d < documents; d++) {
+            uncached[d] = ampHtmlParser.parse(inputHtmls[d],
+                    ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        }
+        final long uncachedTime = System.currentTimeMillis() - startTime;
+
+        final StylesheetCache cache = new StylesheetCache(1024 * 1024);
+        final AMPHtmlParser cachingParser = new AMPHtmlParser(null, cache);
+        startTime = System.currentTimeMillis();
+        for (int d = 0; d < documents; d++) {
+            final ValidatorProtos.ValidationResult result = cachingParser.parse(inputHtmls[d],
+                    ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+            Assert.assertEquals(result, uncached[d]);
+        }
+        final long cachedTime = System.currentTimeMillis() - startTime;
+        System.out.println("Elapsed (20 documents sharing a stylesheet): " + uncachedTime
+                + "ms, with stylesheet cache: " + cachedTime + "ms");
+
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getHitCount(), documents - 1);
+        // Errors are rebased on the position of the style tag.
+        Assert.assertEquals(uncached[1].getErrorsCount(), 10);
+        Assert.assertEquals(uncached[1].getErrors(0).getCode(),
+                ValidatorProtos.ValidationError.Code.CSS_SYNTAX_INVALID_ATTR_SELECTOR);
+        Assert.assertEquals(uncached[1].getErrors(0).getCol(), uncached[0].getErrors(0).getCol() + 1);
+    }
+
+    @Test
+    public void testLatencyAggregateErrors() {
+        // The same disallowed attribute on each of 2,000 cells.
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                .append("<style amp4email-boilerplate>body{visibility:hidden}</style></head><body><table>");
+        final int cells = 2000;
+        for (int i = 0; i < cells; i++) {
+            sb.append("<tr><td onclick=\"x\">").append(i).append("</td></tr>\n");
+        }
+        sb.append("</table></body></html>");
+        final String inputHtml = sb.toString();
+
+        final int maxNode = 10000;
+        long startTime = System.currentTimeMillis();
+        final ValidatorProtos.ValidationResult result = ampHtmlParser.parse(inputHtml,
+                ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        final long time = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        final AggregatedValidationResult aggregated = ampHtmlParser.parseAggregated(inputHtml,
+                ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode, 0);
+        final long aggregatedTime = System.currentTimeMillis() - startTime;
+        System.out.println("Elapsed (2,000 identical errors): " + time
+                + "ms, aggregated: " + aggregatedTime + "ms");
+
+        Assert.assertEquals(result.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(result.getErrorsCount(), cells);
+        Assert.assertEquals(aggregated.getResult().getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(aggregated.getResult().getErrorsCount(), 1);
+        Assert.assertEquals(aggregated.getResult().getErrors(0), result.getErrors(0));
+        Assert.assertEquals(aggregated.getAggregatedErrors().size(), 1);
+        Assert.assertEquals(aggregated.getAggregatedErrors().get(0).getOccurrences(), cells);
+        Assert.assertEquals(aggregated.getAggregatedErrors().get(0).getLine(), result.getErrors(0).getLine());
+    }
+
+    @Test
+    public void testLatencyErrorLimits() {
+        // A disallowed attribute on each of 2,000 cells, each with a stylesheet.
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                .append("<style amp4email-boilerplate>body{visibility:hidden}</style></head><body><table>");
+        final int cells = 2000;
+        for (int i = 0; i < cells; i++) {
+            sb.append("<tr><td onclick=\"x\" style=\"color:red;width:").append(i).append("px\">")
+                    .append(i).append("</td></tr>\n");
+        }
+        sb.append("</table></body></html>");
+        final String inputHtml = sb.toString();
+
+        final int maxNode = 10000;
+        long startTime = System.currentTimeMillis();
+        final ValidatorProtos.ValidationResult result = ampHtmlParser.parse(inputHtml,
+                ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING, maxNode);
+        final long time = System.currentTimeMillis() - startTime;
+
+        final int maxErrors = 5;
+        startTime = System.currentTimeMillis();
+        final ValidatorProtos.ValidationResult bounded = ampHtmlParser.parse(inputHtml,
+                ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.EXIT_ON_MAX_ERRORS, maxNode, maxErrors);
+        final long boundedTime = System.currentTimeMillis() - startTime;
+        final ValidatorProtos.ValidationResult statusOnly = ampHtmlParser.parse(inputHtml,
+                ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.STATUS_ONLY, maxNode, maxErrors);
+        System.out.println("Elapsed (2,000 errors): " + time + "ms, first " + maxErrors + " errors: "
+                + boundedTime + "ms");
+
+        Assert.assertEquals(result.getErrorsCount(), cells);
+        Assert.assertEquals(bounded.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(bounded.getErrorsList(), result.getErrorsList().subList(0, maxErrors));
+        Assert.assertEquals(statusOnly.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(statusOnly.getErrorsCount(), maxErrors);
+        Assert.assertEquals(statusOnly.getErrors(0).getCode(), result.getErrors(0).getCode());
+        Assert.assertEquals(statusOnly.getErrors(0).getParamsCount(), 0);
+        Assert.assertFalse(statusOnly.getErrors(0).hasLine());
+        Assert.assertTrue(boundedTime < time);
+    }
+
+    @Test
+    public void testExitOnFirstErrorKeepWarningsWithoutBound() {
+        // A disallowed attribute on each of 100 cells.
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html><html \u26a14email data-css-strict><head><meta charset=\"utf-8\">")
+                .append("<script async src=\"https://cdn.ampproject.org/v0.js\"></script>")
+                .append("<style amp4email-boilerplate>body{visibility:hidden}</style></head><body><table>");
+        final int cells = 100;
+        for (int i = 0; i < cells; i++) {
+            sb.append("<tr><td onclick=\"x\">").append(i).append("</td></tr>\n");
+        }
+        sb.append("</table></body></html>");
+
+        final ValidatorProtos.ValidationResult result = ampHtmlParser.parse(sb.toString(),
+                ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.EXIT_ON_FIRST_ERROR_KEEP_WARNINGS);
+        Assert.assertEquals(result.getStatus(), ValidatorProtos.ValidationResult.Status.FAIL);
+        Assert.assertEquals(result.getErrorsCount(), 1);
+        Assert.assertEquals(result.getErrors(0).getCode(), ValidatorProtos.ValidationError.Code.DISALLOWED_ATTR);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testExitOnMaxErrorsRequiresMaxErrors() {
+        ampHtmlParser.parse("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP, ExitCondition.EXIT_ON_MAX_ERRORS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testStatusOnlyRequiresMaxErrors() {
+        ampHtmlParser.parse("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP, ExitCondition.STATUS_ONLY, 0, 0);
+    }
+
     @Test
     public void testCSSCarouselSelectors() {
         try {
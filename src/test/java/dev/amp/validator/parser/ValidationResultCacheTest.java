@@ -0,0 +1,154 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.parser;
+
+import dev.amp.validator.ExitCondition;
+import dev.amp.validator.ValidatorProtos;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests for {@link ValidationResultCache}
+ *
+ * @author nhant01
+ */
+
+public class ValidationResultCacheTest {
+
+    @Test
+    public void testKey() {
+        final ValidationResultKey key = key("<html></html>");
+        Assert.assertEquals(key("<html></html>"), key);
+        Assert.assertEquals(key("<html></html>").hashCode(), key.hashCode());
+        Assert.assertNotEquals(key("<html> </html>"), key);
+        Assert.assertNotEquals(new ValidationResultKey("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP,
+                ExitCondition.FULL_PARSING, 0, 1L), key);
+        Assert.assertNotEquals(new ValidationResultKey("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP4EMAIL,
+                ExitCondition.EXIT_ON_FIRST_ERROR, 0, 1L), key);
+        Assert.assertNotEquals(new ValidationResultKey("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP4EMAIL,
+                ExitCondition.FULL_PARSING, 100, 1L), key);
+        Assert.assertNotEquals(new ValidationResultKey("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP4EMAIL,
+                ExitCondition.FULL_PARSING, 0, 2L), key);
+        Assert.assertEquals(new ValidationResultKey("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP4EMAIL,
+                ExitCondition.FULL_PARSING, 0, 0, 1L), key);
+        Assert.assertNotEquals(new ValidationResultKey("<html></html>", ValidatorProtos.HtmlFormat.Code.AMP4EMAIL,
+                ExitCondition.STATUS_ONLY, 0, 5, 1L), new ValidationResultKey("<html></html>",
+                ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.STATUS_ONLY, 0, 10, 1L));
+    }
+
+    @Test
+    public void testGetPut() {
+        final ValidationResultCache cache = new ValidationResultCache(1024 * 1024, 0);
+        final ValidatorProtos.ValidationResult result = result(0);
+        Assert.assertNull(cache.get(key("a")));
+        cache.put(key("a"), result);
+        Assert.assertSame(cache.get(key("a")), result);
+        Assert.assertNull(cache.get(key("b")));
+
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 2);
+        Assert.assertEquals(cache.getHitRatio(), 1.0 / 3);
+
+        cache.put(key("a"), result(1));
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(cache.getWeightBytes(), result(1).getSerializedSize() + 128);
+
+        cache.invalidateAll();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getWeightBytes(), 0);
+        Assert.assertNull(cache.get(key("a")));
+    }
+
+    @Test
+    public void testEviction() {
+        final long weight = result(0).getSerializedSize() + 128;
+        final ValidationResultCache cache = new ValidationResultCache(3 * weight, 0);
+        cache.put(key("a"), result(0));
+        cache.put(key("b"), result(0));
+        cache.put(key("c"), result(0));
+        // a becomes the most recently used, b is evicted first.
+        Assert.assertNotNull(cache.get(key("a")));
+        cache.put(key("d"), result(0));
+        Assert.assertEquals(cache.size(), 3);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertNull(cache.get(key("b")));
+        Assert.assertNotNull(cache.get(key("a")));
+        Assert.assertNotNull(cache.get(key("c")));
+        Assert.assertNotNull(cache.get(key("d")));
+
+        // A result heavier than the whole cache is not cached.
+        final ValidationResultCache small = new ValidationResultCache(weight - 1, 0);
+        small.put(key("a"), result(0));
+        Assert.assertEquals(small.size(), 0);
+    }
+
+    @Test
+    public void testExpiration() {
+        final AtomicLong now = new AtomicLong(1000);
+        final ValidationResultCache cache = new ValidationResultCache(1024 * 1024, 100, now::get);
+        cache.put(key("a"), result(0));
+        now.set(1100);
+        Assert.assertNotNull(cache.get(key("a")));
+        now.set(1101);
+        Assert.assertNull(cache.get(key("a")));
+        Assert.assertEquals(cache.getExpirationCount(), 1);
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.getWeightBytes(), 0);
+    }
+
+    @Test
+    public void testParse() throws ParserException {
+        final ValidationResultCache cache = new ValidationResultCache(1024 * 1024, 0);
+        final AMPHtmlParser parser = new AMPHtmlParser(cache);
+        final String inputHtml = "<!doctype html><html \u26a14email><head></head><body></body></html>";
+        final ValidatorProtos.ValidationResult result =
+                parser.parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING);
+        Assert.assertSame(parser.parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL, ExitCondition.FULL_PARSING),
+                result);
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(new AMPHtmlParser().parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL,
+                ExitCondition.FULL_PARSING), result);
+
+        parser.parse(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP, ExitCondition.FULL_PARSING);
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+    private static ValidationResultKey key(final String inputHtml) {
+        return new ValidationResultKey(inputHtml, ValidatorProtos.HtmlFormat.Code.AMP4EMAIL,
+                ExitCondition.FULL_PARSING, 0, 1L);
+    }
+
+    private static ValidatorProtos.ValidationResult result(final int errors) {
+        final ValidatorProtos.ValidationResult.Builder result = ValidatorProtos.ValidationResult.newBuilder();
+        result.setStatus(errors == 0 ? ValidatorProtos.ValidationResult.Status.PASS
+                : ValidatorProtos.ValidationResult.Status.FAIL);
+        for (int i = 0; i < errors; i++) {
+            result.addErrors(ValidatorProtos.ValidationError.newBuilder()
+                    .setCode(ValidatorProtos.ValidationError.Code.DISALLOWED_TAG).setLine(i));
+        }
+        return result.build();
+    }
+}
@@ -26,6 +26,8 @@ import dev.amp.validator.css.CssValidationException;
 import dev.amp.validator.exception.TagValidationException;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import org.xml.sax.Attributes;
@@ -33,9 +35,12 @@ import org.xml.sax.Locator;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.regex.Pattern;
 
 /**
@@ -114,6 +119,7 @@ public class AttributeSpecUtilsTest {
     Mockito.when(parsedValidatorRules.getParsedAttrSpecs()).thenReturn(parsedAttrSpecs);
 
     Context context = Mockito.mock(Context.class);
+    stubComputeLayout(context);
     Mockito.when(context.getTagStack()).thenReturn(tagStack);
     Mockito.when(context.getRules()).thenReturn(parsedValidatorRules);
 
@@ -187,6 +193,7 @@ public class AttributeSpecUtilsTest {
     Mockito.when(parsedValidatorRules.getParsedAttrSpecs()).thenReturn(parsedAttrSpecs);
 
     context = Mockito.mock(Context.class);
+    stubComputeLayout(context);
     Mockito.when(context.getTagStack()).thenReturn(tagStack);
     Mockito.when(context.getRules()).thenReturn(parsedValidatorRules);
 
@@ -250,6 +257,7 @@ public class AttributeSpecUtilsTest {
     Mockito.when(parsedValidatorRules.getPartialMatchCaseiRegex(Mockito.anyString())).thenReturn(Pattern.compile(""));
 
     context = Mockito.mock(Context.class);
+    stubComputeLayout(context);
     Mockito.when(context.getTagStack()).thenReturn(tagStack);
     Mockito.when(context.getRules()).thenReturn(parsedValidatorRules);
 
@@ -316,6 +324,7 @@ public class AttributeSpecUtilsTest {
     Mockito.when(parsedValidatorRules.getPartialMatchCaseiRegex(Mockito.anyString())).thenReturn(Pattern.compile(""));
 
     context = Mockito.mock(Context.class);
+    stubComputeLayout(context);
     Mockito.when(context.getTagStack()).thenReturn(tagStack);
     Mockito.when(context.getRules()).thenReturn(parsedValidatorRules);
     Mockito.when(context.hasSeenUrl()).thenReturn(true);
@@ -359,6 +368,12 @@ public class AttributeSpecUtilsTest {
 
   @Test
   public void testAttrValueHasTemplateSyntax() {
+    Assert.assertTrue(AttributeSpecUtils.attrValueHasTemplateSyntax("{{foo}}"));
+    Assert.assertTrue(AttributeSpecUtils.attrValueHasTemplateSyntax("{{}}"));
+    Assert.assertFalse(AttributeSpecUtils.attrValueHasTemplateSyntax("a {{foo}}"));
+    Assert.assertFalse(AttributeSpecUtils.attrValueHasTemplateSyntax("{{foo\n}}"));
+    Assert.assertFalse(AttributeSpecUtils.attrValueHasTemplateSyntax("{{}"));
+    Assert.assertFalse(AttributeSpecUtils.attrValueHasTemplateSyntax(null));
   }
 
   @Test
@@ -367,6 +382,132 @@ public class AttributeSpecUtilsTest {
 
   @Test
   public void testValidateAttrValueProperties() {
+    final ParsedValueProperties properties = viewportProperties();
+    final ValidatorProtos.TagSpec tagSpec = ValidatorProtos.TagSpec.newBuilder().setTagName("META").build();
+    final List<String> errors = new ArrayList<>();
+    final Context context = errorCollectingContext(errors);
+
+    AttributeSpecUtils.validateAttrValueProperties(properties, context, "content",
+      " Width =device-width, minimum-scale=1.0; initial-scale=1,\u00c9=x", tagSpec,
+      ValidatorProtos.ValidationResult.newBuilder());
+    Assert.assertEquals(errors, new ArrayList<String>());
+
+    AttributeSpecUtils.validateAttrValueProperties(properties, context, "content",
+      "width=DEVICE-WIDTH,width=100,foo=bar,minimum-scale=2", tagSpec,
+      ValidatorProtos.ValidationResult.newBuilder());
+    Assert.assertEquals(errors.size(), 4);
+    Assert.assertTrue(errors.contains("INVALID_PROPERTY_VALUE_IN_ATTR_VALUE [width, content, meta, 100]"));
+    Assert.assertTrue(errors.contains("DISALLOWED_PROPERTY_IN_ATTR_VALUE [foo, content, meta]"));
+    Assert.assertTrue(errors.contains("INVALID_PROPERTY_VALUE_IN_ATTR_VALUE [minimum-scale, content, meta, 2]"));
+    Assert.assertTrue(errors.contains("MANDATORY_PROPERTY_MISSING_FROM_ATTR_VALUE [\u00e9, content, meta]"));
+
+    errors.clear();
+    AttributeSpecUtils.validateAttrValueProperties(properties, context, "content",
+      "width=,=,initial-scale,\u00e9==1", tagSpec, ValidatorProtos.ValidationResult.newBuilder());
+    Assert.assertEquals(errors, Collections.singletonList("MANDATORY_PROPERTY_MISSING_FROM_ATTR_VALUE [width, content, meta]"));
+  }
+
+  /**
+   * Compares validateAttrValueProperties with the split and map based
+   * implementation it replaced. Errors are reported in the order the names
+   * first appear in the value.
+   */
+  @Test
+  public void testValidateAttrValuePropertiesMatchesSplit() {
+    final ParsedValueProperties properties = viewportProperties();
+    final ValidatorProtos.TagSpec tagSpec = ValidatorProtos.TagSpec.newBuilder().setTagName("META").build();
+    final List<String> errors = new ArrayList<>();
+    final Context context = errorCollectingContext(errors);
+    final String[] pieces = {"width", "WIDTH", "height", "minimum-scale", "initial-scale", "foo", "Bar", "baz9",
+      "device-width", "Device-Width", "1", "1.0", "2", "=", "==", ",", ";", " ", "\t", "\u212A", "\u00C9"};
+    final Random random = new Random(42);
+    for (int i = 0; i < 20000; i++) {
+      final StringBuilder sb = new StringBuilder();
+      final int count = random.nextInt(16);
+      for (int j = 0; j < count; j++) {
+        sb.append(pieces[random.nextInt(pieces.length)]);
+      }
+      final String value = sb.toString();
+      errors.clear();
+      AttributeSpecUtils.validateAttrValueProperties(properties, context, "content", value, tagSpec,
+        ValidatorProtos.ValidationResult.newBuilder());
+      Assert.assertEquals(errors, splitValidateAttrValueProperties(properties, value), value);
+    }
+  }
+
+  private static void stubComputeLayout(final Context context) {
+    Mockito.when(context.computeLayout(Mockito.any(ValidatorProtos.AmpLayout.class), Mockito.<String>any(),
+      Mockito.<String>any(), Mockito.<String>any(), Mockito.<String>any(), Mockito.<String>any()))
+      .thenAnswer(new Answer<ComputedLayout>() {
+        @Override
+        public ComputedLayout answer(final InvocationOnMock invocation) {
+          final Object[] args = invocation.getArguments();
+          return new ComputedLayout((ValidatorProtos.AmpLayout) args[0], (String) args[1], (String) args[2],
+            (String) args[3], (String) args[4], (String) args[5]);
+        }
+      });
+  }
+
+  private static ParsedValueProperties viewportProperties() {
+    return new ParsedValueProperties(ValidatorProtos.PropertySpecList.newBuilder()
+      .addProperties(ValidatorProtos.PropertySpec.newBuilder().setName("width").setMandatory(true)
+        .setValue("device-width"))
+      .addProperties(ValidatorProtos.PropertySpec.newBuilder().setName("height"))
+      .addProperties(ValidatorProtos.PropertySpec.newBuilder().setName("minimum-scale").setValueDouble(1.0))
+      .addProperties(ValidatorProtos.PropertySpec.newBuilder().setName("initial-scale").setValueDouble(1.0))
+      .addProperties(ValidatorProtos.PropertySpec.newBuilder().setName("\u00e9").setMandatory(true))
+      .build());
+  }
+
+  private static Context errorCollectingContext(final List<String> errors) {
+    final ParsedValidatorRules rules = Mockito.mock(ParsedValidatorRules.class);
+    Mockito.when(rules.getExtensionIds()).thenReturn(new ExtensionIds());
+    return new Context(rules, 0) {
+      @Override
+      public void addError(final ValidatorProtos.ValidationError.Code validationErrorCode,
+                           final Locator lineCol, final List<String> params, final String specUrl,
+                           final ValidatorProtos.ValidationResult.Builder validationResult) {
+        errors.add(validationErrorCode + " " + params);
+      }
+    };
+  }
+
+  private static List<String> splitValidateAttrValueProperties(final ParsedValueProperties parsedValueProperties,
+                                                               final String attrValue) {
+    final List<String> errors = new ArrayList<>();
+    final Map<String, String> properties = new LinkedHashMap<>();
+    for (final String segment : attrValue.split("[,;]")) {
+      final String[] keyValue = segment.split("=");
+      if (keyValue.length < 2) {
+        continue;
+      }
+      properties.put(keyValue[0].trim().toLowerCase(), keyValue[1]);
+    }
+    for (final String name : properties.keySet()) {
+      final String value = properties.get(name);
+      final ValidatorProtos.PropertySpec propertySpec = parsedValueProperties.getValuePropertyByName().get(name);
+      if (propertySpec == null) {
+        errors.add("DISALLOWED_PROPERTY_IN_ATTR_VALUE [" + name + ", content, meta]");
+      } else if (propertySpec.hasValue() && !propertySpec.getValue().equals(value.toLowerCase())) {
+        errors.add("INVALID_PROPERTY_VALUE_IN_ATTR_VALUE [" + name + ", content, meta, " + value + "]");
+      } else if (propertySpec.hasValueDouble()) {
+        Double doubleValue = null;
+        try {
+          doubleValue = Double.valueOf(value);
+        } catch (final NumberFormatException e) {
+          // no op
+        }
+        if (doubleValue == null || doubleValue != propertySpec.getValueDouble()) {
+          errors.add("INVALID_PROPERTY_VALUE_IN_ATTR_VALUE [" + name + ", content, meta, " + value + "]");
+        }
+      }
+    }
+    final List<String> notSeen = new ArrayList<>(parsedValueProperties.getMandatoryValuePropertyNames());
+    notSeen.removeAll(properties.keySet());
+    for (final String name : notSeen) {
+      errors.add("MANDATORY_PROPERTY_MISSING_FROM_ATTR_VALUE [" + name + ", content, meta]");
+    }
+    return errors;
   }
 
   @Test
@@ -399,9 +540,15 @@ public class AttributeSpecUtilsTest {
 
   @Test
   public void testAttrValueHasPartialsTemplateSyntax() {
+    Assert.assertTrue(AttributeSpecUtils.attrValueHasPartialsTemplateSyntax("{{ > partial}}"));
+    Assert.assertTrue(AttributeSpecUtils.attrValueHasPartialsTemplateSyntax("a {{b}} {{>c}}"));
+    Assert.assertFalse(AttributeSpecUtils.attrValueHasPartialsTemplateSyntax("{ {>c}}"));
   }
 
   @Test
   public void testAttrValueHasUnescapedTemplateSyntax() {
+    Assert.assertTrue(AttributeSpecUtils.attrValueHasUnescapedTemplateSyntax("{{{foo}}}"));
+    Assert.assertTrue(AttributeSpecUtils.attrValueHasUnescapedTemplateSyntax("a {{\t& foo}}"));
+    Assert.assertFalse(AttributeSpecUtils.attrValueHasUnescapedTemplateSyntax("{{foo}}"));
   }
 }
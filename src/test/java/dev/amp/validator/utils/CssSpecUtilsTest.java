@@ -146,6 +146,24 @@ public class CssSpecUtilsTest {
     Assert.assertEquals(CssSpecUtils.stripMinMax("max-width"), "width");
   }
 
+  @Test
+  public void testVendorPrefixLength() {
+    Assert.assertEquals(CssSpecUtils.vendorPrefixLength("-moz-keyframes"), 5);
+    Assert.assertEquals(CssSpecUtils.vendorPrefixLength("-O-keyframes"), 3);
+    Assert.assertEquals(CssSpecUtils.vendorPrefixLength("-WebKit-keyframes"), 8);
+    Assert.assertEquals(CssSpecUtils.vendorPrefixLength("-ms-keyframes"), 4);
+    Assert.assertEquals(CssSpecUtils.vendorPrefixLength("-foo-keyframes"), 0);
+    Assert.assertEquals(CssSpecUtils.vendorPrefixLength(""), 0);
+  }
+
+  @Test
+  public void testMinMaxPrefixLength() {
+    Assert.assertEquals(CssSpecUtils.minMaxPrefixLength("min-width", 0), 4);
+    Assert.assertEquals(CssSpecUtils.minMaxPrefixLength("-webkit-MAX-width", 8), 4);
+    Assert.assertEquals(CssSpecUtils.minMaxPrefixLength("width", 0), 0);
+    Assert.assertEquals(CssSpecUtils.minMaxPrefixLength("min", 0), 0);
+  }
+
   @Test
   public void testAsciiMatch() {
     final Token token = new Token(22, "@media");
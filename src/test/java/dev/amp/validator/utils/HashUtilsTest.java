@@ -0,0 +1,51 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test for {@link HashUtils}
+ *
+ * @author nhant01
+ */
+
+public class HashUtilsTest {
+
+  @Test
+  public void testMurmur3Hash128() {
+    // Reference values are MurmurHash3_x64_128 of the UTF-16LE bytes.
+    assertHash("", 0, 0L, 0L);
+    assertHash("", 42, 0xf02aa77dfa1b8523L, 0xd1016610da11cbb9L);
+    assertHash("hello", 0, 0xee2ee18fe1bfd387L, 0x7b927262d8c336c4L);
+    assertHash("hello", 42, 0x791f9c55347b8214L, 0x49a4ebe7165c251fL);
+    assertHash("The quick brown fox jumps over the lazy dog", 0, 0xc0026631b551ae4cL, 0xe75f3e8442567c1cL);
+    assertHash("The quick brown fox jumps over the lazy dog", 42, 0x764b8387524bc31dL, 0x02efc5ee75428309L);
+  }
+
+  private static void assertHash(final String value, final long seed, final long h1, final long h2) {
+    final long[] hash = HashUtils.murmur3Hash128(value, seed);
+    Assert.assertEquals(hash[0], h1, value);
+    Assert.assertEquals(hash[1], h2, value);
+  }
+}
@@ -22,11 +22,22 @@
 package dev.amp.validator.utils;
 
 import dev.amp.validator.SrcsetParsingResult;
+import dev.amp.validator.SrcsetSourceDef;
+import dev.amp.validator.ValidatorProtos;
 
 import static dev.amp.validator.utils.ParseSrcSetUtils.parseSrcset;
 
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Test for {@link ParseSrcSetUtils}
  *
@@ -39,4 +50,93 @@ public class ParseSrcSetUtilsTest {
     public void testParseSrcset() {
         SrcsetParsingResult a = parseSrcset("google.com/favicon.ico");
     }
+
+    @Test
+    public void testParseSrcsetCandidates() {
+        final SrcsetParsingResult result = parseSrcset(" a.png 1x,  b.png 1.5x ,c.png 100w,");
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(describe(result), "[a.png 1x, b.png 1.5x, c.png 100w]");
+
+        final SrcsetParsingResult noDescriptor = parseSrcset("a.png, b.png 2x,");
+        Assert.assertTrue(noDescriptor.isSuccess());
+        Assert.assertEquals(describe(noDescriptor), "[a.png 1x, b.png 2x]");
+
+        Assert.assertEquals(parseSrcset("a.png 2x, b.png 2x").getErrorCode(),
+                ValidatorProtos.ValidationError.Code.DUPLICATE_DIMENSION);
+        Assert.assertEquals(parseSrcset("a.png, b.png").getErrorCode(),
+                ValidatorProtos.ValidationError.Code.DUPLICATE_DIMENSION);
+        // Descriptors are compared as written.
+        Assert.assertTrue(parseSrcset("a.png 1x, b.png 1.0x,").isSuccess());
+        Assert.assertEquals(parseSrcset("a.png 1x b.png 2x").getErrorCode(),
+                ValidatorProtos.ValidationError.Code.INVALID_ATTR_VALUE);
+        Assert.assertEquals(parseSrcset(" , ").getErrorCode(),
+                ValidatorProtos.ValidationError.Code.INVALID_ATTR_VALUE);
+    }
+
+    /**
+     * Compares the parser with the regular expression it replaced, over srcsets
+     * made up of pieces which exercise the corners of that expression.
+     */
+    @Test
+    public void testParseSrcsetMatchesRegex() {
+        final String[] pieces = {
+            "a.png", "b", "img/c.jpg", ",", ", ", " ,", " ", "  ", "\t", "\n", "\u2028", "1x", "2x", "1.5x", "100w",
+            "1", "2 x", "10|", "x", "w", ".", "00", "&amp;", "\u00e9"};
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final StringBuilder sb = new StringBuilder();
+            final int count = 1 + random.nextInt(10);
+            for (int j = 0; j < count; j++) {
+                sb.append(pieces[random.nextInt(pieces.length)]);
+            }
+            final String srcset = sb.toString();
+            Assert.assertEquals(describe(parseSrcset(srcset)), describe(regexParseSrcset(srcset)), srcset);
+        }
+    }
+
+    private static String describe(final SrcsetParsingResult result) {
+        final List<String> sources = new ArrayList<>();
+        for (final SrcsetSourceDef source : result.getSrcsetImages()) {
+            sources.add(source.getUrl() + " " + source.getWidthOrPixelDensity());
+        }
+        return result.isSuccess() ? sources.toString() : result.getErrorCode() + " " + sources;
+    }
+
+    private static SrcsetParsingResult regexParseSrcset(final String srcset) {
+        final Set<String> seenWidthOrPixelDensity = new HashSet<>();
+        final SrcsetParsingResult result = new SrcsetParsingResult();
+        final Matcher matcher = IMAGE_CANDIDATE_REGEX.matcher(srcset);
+        while (matcher.find()) {
+            final String url = matcher.group(1);
+            String widthOrPixelDensity = matcher.group(2);
+            final String comma = matcher.group(3);
+            if (widthOrPixelDensity == null) {
+                widthOrPixelDensity = "1x";
+            }
+            if (seenWidthOrPixelDensity.contains(widthOrPixelDensity)) {
+                result.setErrorCode(ValidatorProtos.ValidationError.Code.DUPLICATE_DIMENSION);
+                return result;
+            }
+            seenWidthOrPixelDensity.add(widthOrPixelDensity);
+            result.add(new SrcsetSourceDef(url, widthOrPixelDensity));
+            if (comma == null) {
+                result.setErrorCode(ValidatorProtos.ValidationError.Code.INVALID_ATTR_VALUE);
+                return result;
+            }
+        }
+        if (result.getSrcsetImagesSize() == 0) {
+            result.setErrorCode(ValidatorProtos.ValidationError.Code.INVALID_ATTR_VALUE);
+            return result;
+        }
+        result.setSuccess(true);
+        return result;
+    }
+
+    private static final Pattern IMAGE_CANDIDATE_REGEX = Pattern.compile("\\s*"
+            + "(?:,\\s*)?"
+            + "([^,\\s]\\S*[^,\\s])"
+            + "\\s*"
+            + "([\\d]+.?[\\d]*[w|x])?"
+            + "\\s*"
+            + "(?:(,)\\s*)?");
 }
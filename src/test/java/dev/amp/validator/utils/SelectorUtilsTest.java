@@ -0,0 +1,96 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.utils;
+
+import dev.amp.validator.ValidatorProtos;
+import dev.amp.validator.css.CssParser;
+import dev.amp.validator.css.ErrorToken;
+import dev.amp.validator.css.TokenStream;
+import dev.amp.validator.selector.Combinator;
+import dev.amp.validator.selector.Selector;
+import dev.amp.validator.selector.SelectorsGroup;
+import dev.amp.validator.visitor.SelectorVisitor;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link SelectorUtils}
+ *
+ * @author nhant01
+ * @author GeorgeLuo
+ */
+
+public class SelectorUtilsTest {
+
+    @Test
+    public void testParseASelector() throws Exception {
+        final List<ErrorToken> errors = new ArrayList<>();
+        final Selector selector = SelectorUtils.parseASelector(tokenStream("div > .a[href]:hover"), errors);
+
+        Assert.assertTrue(selector instanceof Combinator);
+        Assert.assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testParseASelectorsGroup() throws Exception {
+        final List<ErrorToken> errors = new ArrayList<>();
+        final Selector selector = SelectorVisitor.parseASelectorsGroup(tokenStream("a, b c"), errors);
+
+        Assert.assertTrue(selector instanceof SelectorsGroup);
+        Assert.assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testParseErrorsAreCollected() throws Exception {
+        final List<ErrorToken> errors = new ArrayList<>();
+
+        Assert.assertNull(SelectorVisitor.parseASelectorsGroup(tokenStream("a[href"), errors));
+        Assert.assertNull(SelectorVisitor.parseASelectorsGroup(tokenStream("a:1"), errors));
+        Assert.assertNull(SelectorVisitor.parseASelectorsGroup(tokenStream("a, ,b"), errors));
+        Assert.assertNull(SelectorVisitor.parseASelectorsGroup(tokenStream("a )"), errors));
+
+        Assert.assertEquals(errors.size(), 4);
+        Assert.assertEquals(errors.get(0).getCode(),
+                ValidatorProtos.ValidationError.Code.CSS_SYNTAX_INVALID_ATTR_SELECTOR);
+        Assert.assertEquals(errors.get(1).getCode(),
+                ValidatorProtos.ValidationError.Code.CSS_SYNTAX_ERROR_IN_PSEUDO_SELECTOR);
+        Assert.assertEquals(errors.get(2).getCode(),
+                ValidatorProtos.ValidationError.Code.CSS_SYNTAX_NOT_A_SELECTOR_START);
+        Assert.assertEquals(errors.get(3).getCode(),
+                ValidatorProtos.ValidationError.Code.CSS_SYNTAX_UNPARSED_INPUT_REMAINS_IN_SELECTOR);
+        for (final ErrorToken error : errors) {
+            Assert.assertEquals(error.getParams().get(0), "style");
+        }
+    }
+
+    /**
+     * Returns a token stream positioned on the first token of |css|.
+     */
+    private static TokenStream tokenStream(final String css) throws Exception {
+        final TokenStream tokenStream = new TokenStream(new CssParser(css, 1, 0, new ArrayList<>()).tokenize());
+        tokenStream.consume();
+        return tokenStream;
+    }
+}
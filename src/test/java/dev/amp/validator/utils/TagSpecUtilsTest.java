@@ -86,6 +86,16 @@ public class TagSpecUtilsTest {
         Assert.assertEquals(TagSpecUtils.getTagSpecName(tagSpecBuilder2.build()), "tag1");
     }
 
+    @Test
+    public void testParseLayout() {
+        Assert.assertEquals(TagSpecUtils.parseLayout("fixed-height"), ValidatorProtos.AmpLayout.Layout.FIXED_HEIGHT);
+        Assert.assertEquals(TagSpecUtils.parseLayout("FIXED_height"), ValidatorProtos.AmpLayout.Layout.FIXED_HEIGHT);
+        Assert.assertEquals(TagSpecUtils.parseLayout("Responsive"), ValidatorProtos.AmpLayout.Layout.RESPONSIVE);
+        Assert.assertEquals(TagSpecUtils.parseLayout("nodisplay"), ValidatorProtos.AmpLayout.Layout.NODISPLAY);
+        Assert.assertEquals(TagSpecUtils.parseLayout("flex-items"), ValidatorProtos.AmpLayout.Layout.UNKNOWN);
+        Assert.assertEquals(TagSpecUtils.parseLayout(null), ValidatorProtos.AmpLayout.Layout.UNKNOWN);
+    }
+
     @Test
     public void testShouldRecordTagspecValidated() {
         final ValidatorProtos.TagSpec.Builder tagSpecBuilder1 = ValidatorProtos.TagSpec.newBuilder().setMandatory(true);
@@ -148,8 +158,8 @@ public class TagSpecUtilsTest {
 
         Mockito.when(mockRules.dispatchForTagName(Mockito.anyString())).thenReturn(mockDispatch);
 
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final ParsedHtmlTag encounteredTag = Mockito.mock(ParsedHtmlTag.class);
@@ -243,8 +253,8 @@ public class TagSpecUtilsTest {
 
         Mockito.when(mockRules.dispatchForTagName(Mockito.anyString())).thenReturn(mockDispatch);
 
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final ParsedHtmlTag encounteredTag = Mockito.mock(ParsedHtmlTag.class);
@@ -313,8 +323,8 @@ public class TagSpecUtilsTest {
 
         Mockito.when(mockRules.dispatchForTagName(Mockito.anyString())).thenReturn(mockDispatch);
 
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final ParsedHtmlTag encounteredTag = Mockito.mock(ParsedHtmlTag.class);
@@ -385,8 +395,8 @@ public class TagSpecUtilsTest {
 
         Mockito.when(mockRules.dispatchForTagName(Mockito.anyString())).thenReturn(mockDispatch);
 
-        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidatorProtos.ValidationResult.Builder.class),
-                Mockito.any(ValidatorProtos.ValidationResult.Builder.class))).thenReturn(true);
+        Mockito.when(mockRules.betterValidationResultThan(Mockito.any(ValidateTagResult.class),
+                Mockito.any(ValidateTagResult.class))).thenReturn(true);
         Mockito.when(mockContext.getRules()).thenReturn(mockRules);
 
         final ParsedHtmlTag encounteredTag = Mockito.mock(ParsedHtmlTag.class);
@@ -0,0 +1,73 @@
+/*
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *  ====================================================================
+ */
+
+/*
+ * Changes to the original project are Copyright 2019, Verizon Media Inc..
+ */
+
+package dev.amp.validator.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Test for {@link TemplateSyntaxUtils}
+ *
+ * @author GeorgeLuo
+ */
+
+public class TemplateSyntaxUtilsTest {
+
+  @Test
+  public void testScan() {
+    Assert.assertEquals(TemplateSyntaxUtils.scan(""), 0);
+    Assert.assertEquals(TemplateSyntaxUtils.scan("plain"), 0);
+    Assert.assertEquals(TemplateSyntaxUtils.scan("{{foo}}"), TemplateSyntaxUtils.MUSTACHE_TAG);
+    Assert.assertEquals(TemplateSyntaxUtils.scan("{{{foo}}}"),
+        TemplateSyntaxUtils.MUSTACHE_TAG | TemplateSyntaxUtils.UNESCAPED_TAG);
+    Assert.assertEquals(TemplateSyntaxUtils.scan("a {{& foo}} {{> bar}}"),
+        TemplateSyntaxUtils.UNESCAPED_TAG | TemplateSyntaxUtils.PARTIALS_TAG);
+    Assert.assertEquals(TemplateSyntaxUtils.scan("{{a\u2028b}}"), 0);
+  }
+
+  /**
+   * Compares the scanner with the regular expressions it replaced.
+   */
+  @Test
+  public void testScanMatchesRegex() {
+    final Pattern mustacheTag = Pattern.compile("\\{\\{.*\\}\\}");
+    final Pattern unescapedOpenTag = Pattern.compile("\\{\\{\\s*[&{]");
+    final Pattern partials = Pattern.compile("\\{\\{\\s*>");
+    final String[] pieces = {"{", "}", "{{", "}}", " ", "\t", "\n", "\r", "\u0085", "\u2028", "&", ">", "a", "{{{"};
+    final Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      final StringBuilder sb = new StringBuilder();
+      final int count = random.nextInt(8);
+      for (int j = 0; j < count; j++) {
+        sb.append(pieces[random.nextInt(pieces.length)]);
+      }
+      final String value = sb.toString();
+      final int flags = TemplateSyntaxUtils.scan(value);
+      Assert.assertEquals((flags & TemplateSyntaxUtils.MUSTACHE_TAG) != 0, mustacheTag.matcher(value).matches(), value);
+      Assert.assertEquals((flags & TemplateSyntaxUtils.UNESCAPED_TAG) != 0, unescapedOpenTag.matcher(value).find(), value);
+      Assert.assertEquals((flags & TemplateSyntaxUtils.PARTIALS_TAG) != 0, partials.matcher(value).find(), value);
+    }
+  }
+}
@@ -24,6 +24,12 @@ package dev.amp.validator.utils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Test for {@link UrlUtils}
  *
@@ -38,4 +44,68 @@ public class UrlUtilsTest {
     Assert.assertFalse(UrlUtils.isDataUrl("https://somenotdata.com"));
     Assert.assertFalse(UrlUtils.isDataUrl("www.somenotdata.com"));
   }
+
+  @Test
+  public void testProtocol() {
+    Assert.assertEquals(UrlUtils.protocol(" JavaScript:alert(1)"), "javascript");
+    Assert.assertEquals(UrlUtils.protocol("data:image/png;base64,AA=="), "data");
+    Assert.assertEquals(UrlUtils.protocol("images/a.png"), "");
+    Assert.assertEquals(UrlUtils.protocol("./a:b"), "");
+    Assert.assertEquals(UrlUtils.protocol(":a"), "");
+    Assert.assertEquals(UrlUtils.protocol("tel:1\n2"), "");
+  }
+
+  @Test
+  public void testAbsoluteUrlProtocol() {
+    Assert.assertEquals(UrlUtils.absoluteUrlProtocol("HTTPS://example.com/a.png"), "https");
+    Assert.assertEquals(UrlUtils.absoluteUrlProtocol(" url:http://[::1]:8080/"), "http");
+    Assert.assertEquals(UrlUtils.absoluteUrlProtocol("mailto:a@example.com"), "mailto");
+    Assert.assertEquals(UrlUtils.absoluteUrlProtocol("jar:file:/a.jar!/b"), "jar");
+    Assert.assertNull(UrlUtils.absoluteUrlProtocol("/images/a.png"));
+    Assert.assertNull(UrlUtils.absoluteUrlProtocol("data:image/png;base64,AA=="));
+    Assert.assertNull(UrlUtils.absoluteUrlProtocol("https://example.com:port/"));
+    Assert.assertNull(UrlUtils.absoluteUrlProtocol("https://[::1/"));
+    Assert.assertNull(UrlUtils.absoluteUrlProtocol("mailto: "));
+    Assert.assertNull(UrlUtils.absoluteUrlProtocol("jar:file:/a.jar"));
+  }
+
+  /**
+   * Compares the scanner with java.net.URL and the regular expression the
+   * validator used before, over urls made up of pieces which trip up one or
+   * the other.
+   */
+  @Test
+  public void testMatchesJavaNetUrl() {
+    final String[] pieces = {
+        "http", "HTTPS", "ftp", "File", "jar", "mailto", "jrt", "jmod", "data", "javascript", "url:", "jar:",
+        ":", "/", "//", "////", "?", "#", ".", "@", "[", "]", "::1", "ffff:1.2.3.4", "1.2.3.4", "%", "!/",
+        " ", "\t", "\n", "\u0085", "\u2028", "+", "-", "-1", "80", "99999999999", "a", "\u00e9",
+        "\u0131", "\u017f", "\u2047", "\u0660", "example.com"};
+    final Random random = new Random(42);
+    for (int i = 0; i < 100000; i++) {
+      final StringBuilder sb = new StringBuilder();
+      final int count = 1 + random.nextInt(8);
+      for (int j = 0; j < count; j++) {
+        sb.append(pieces[random.nextInt(pieces.length)]);
+      }
+      final String url = sb.toString();
+      Assert.assertEquals(UrlUtils.absoluteUrlProtocol(url), javaNetUrlProtocol(url), url);
+      Assert.assertEquals(UrlUtils.protocol(url), regexProtocol(url), url);
+    }
+  }
+
+  private static String javaNetUrlProtocol(final String url) {
+    try {
+      return new URL(url).getProtocol();
+    } catch (final MalformedURLException e) {
+      return null;
+    }
+  }
+
+  private static String regexProtocol(final String url) {
+    final Matcher matcher = PROTOCOL_PATTERN.matcher(url.toLowerCase().trim());
+    return matcher.matches() ? matcher.group(1) : "";
+  }
+
+  private static final Pattern PROTOCOL_PATTERN = Pattern.compile("^([^:\\/?#.]+):.*$");
 }